@@ -474,6 +474,7 @@ CREATE TABLE sj_job
 CREATE INDEX idx_sj_job_01 ON sj_job (namespace_id, group_name);
 CREATE INDEX idx_sj_job_02 ON sj_job (job_status, bucket_index);
 CREATE INDEX idx_sj_job_03 ON sj_job (create_dt);
+CREATE INDEX idx_sj_job_04 ON sj_job (update_dt, bucket_index);
 
 COMMENT ON COLUMN sj_job.id IS '主键';
 COMMENT ON COLUMN sj_job.namespace_id IS '命名空间id';
@@ -613,6 +614,7 @@ CREATE INDEX idx_sj_job_task_batch_01 ON sj_job_task_batch (job_id, task_batch_s
 CREATE INDEX idx_sj_job_task_batch_02 ON sj_job_task_batch (create_dt);
 CREATE INDEX idx_sj_job_task_batch_03 ON sj_job_task_batch (namespace_id, group_name);
 CREATE INDEX idx_sj_job_task_batch_04 ON sj_job_task_batch (workflow_task_batch_id, workflow_node_id);
+CREATE INDEX idx_sj_job_task_batch_05 ON sj_job_task_batch (task_batch_status, update_dt);
 
 COMMENT ON COLUMN sj_job_task_batch.id IS '主键';
 COMMENT ON COLUMN sj_job_task_batch.namespace_id IS '命名空间id';
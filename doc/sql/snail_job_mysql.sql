@@ -322,7 +322,8 @@ CREATE TABLE `sj_job`
     PRIMARY KEY (`id`),
     KEY `idx_namespace_id_group_name` (`namespace_id`, `group_name`),
     KEY `idx_job_status_bucket_index` (`job_status`, `bucket_index`),
-    KEY `idx_create_dt` (`create_dt`)
+    KEY `idx_create_dt` (`create_dt`),
+    KEY `idx_update_dt_bucket_index` (`update_dt`, `bucket_index`)
 ) ENGINE = InnoDB
   AUTO_INCREMENT = 0
   DEFAULT CHARSET = utf8mb4 COMMENT ='任务信息';
@@ -399,7 +400,8 @@ CREATE TABLE `sj_job_task_batch`
     KEY `idx_job_id_task_batch_status` (`job_id`, `task_batch_status`),
     KEY `idx_create_dt` (`create_dt`),
     KEY `idx_namespace_id_group_name` (`namespace_id`, `group_name`),
-    KEY `idx_workflow_task_batch_id_workflow_node_id` (`workflow_task_batch_id`, `workflow_node_id`)
+    KEY `idx_workflow_task_batch_id_workflow_node_id` (`workflow_task_batch_id`, `workflow_node_id`),
+    KEY `idx_task_batch_status_update_dt` (`task_batch_status`, `update_dt`)
 ) ENGINE = InnoDB
   AUTO_INCREMENT = 0
   DEFAULT CHARSET = utf8mb4 COMMENT ='任务批次';
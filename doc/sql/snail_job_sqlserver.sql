@@ -1458,6 +1458,8 @@ CREATE INDEX idx_sj_job_02 ON sj_job (job_status, bucket_index)
 GO
 CREATE INDEX idx_sj_job_03 ON sj_job (create_dt)
 GO
+CREATE INDEX idx_sj_job_04 ON sj_job (update_dt, bucket_index)
+GO
 
 EXEC sp_addextendedproperty
      'MS_Description', N'主键',
@@ -1976,6 +1978,8 @@ CREATE INDEX idx_sj_job_task_batch_03 ON sj_job_task_batch (namespace_id, group_
 GO
 CREATE INDEX idx_sj_job_task_batch_04 ON sj_job_task_batch (workflow_task_batch_id, workflow_node_id)
 GO
+CREATE INDEX idx_sj_job_task_batch_05 ON sj_job_task_batch (task_batch_status, update_dt)
+GO
 
 EXEC sp_addextendedproperty
      'MS_Description', N'主键',
@@ -0,0 +1,49 @@
+package com.aizuda.snailjob.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ * <p>
+ * 支持JMH的全部命令行参数, 未指定 -rf/-rff 时结果默认以JSON格式输出到 target/jmh-result.json,
+ * 便于在不同版本间对比(如 jmh.morethan.io)
+ * </p>
+ * <pre>
+ * java -jar target/benchmarks.jar                       # 运行全部
+ * java -jar target/benchmarks.jar LoadBalance -t 4      # 按名称过滤并指定线程数
+ * java -jar target/benchmarks.jar -rff result.json      # 指定结果文件
+ * </pre>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class BenchmarkRunner {
+
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp() || commandLineOptions.shouldList()
+                || commandLineOptions.shouldListWithParams() || commandLineOptions.shouldListProfilers()
+                || commandLineOptions.shouldListResultFormats()) {
+            // 帮助、列表类参数交由JMH原生入口处理
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(builder.build()).run();
+    }
+}
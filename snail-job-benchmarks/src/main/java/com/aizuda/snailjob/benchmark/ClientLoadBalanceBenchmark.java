@@ -0,0 +1,56 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.server.common.ClientLoadBalance;
+import com.aizuda.snailjob.server.common.allocate.client.ClientLoadBalanceManager;
+import com.aizuda.snailjob.server.common.allocate.client.ClientLoadBalanceManager.AllocationAlgorithmEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端路由策略的耗时
+ * <p>
+ * 覆盖所有路由策略, 可通过 -t 指定线程数观察 LRU、轮询等有共享状态的策略在竞争下的表现
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientLoadBalanceBenchmark {
+
+    @Param({"CONSISTENT_HASH", "RANDOM", "LRU", "ROUND", "FIRST", "LAST"})
+    private AllocationAlgorithmEnum algorithm;
+
+    @Param({"8", "128", "1024"})
+    private int instanceCount;
+
+    private ClientLoadBalance clientLoadBalance;
+    private TreeSet<String> hostIds;
+
+    @Setup
+    public void setup() {
+        clientLoadBalance = ClientLoadBalanceManager.getClientLoadBalance(algorithm.getType());
+        hostIds = new TreeSet<>();
+        for (int i = 0; i < instanceCount; i++) {
+            hostIds.add("host-" + i);
+        }
+    }
+
+    @Benchmark
+    public String route() {
+        return clientLoadBalance.route(allocKey(), hostIds);
+    }
+
+    private static String allocKey() {
+        return String.valueOf(ThreadLocalRandom.current().nextInt(100_000));
+    }
+}
@@ -0,0 +1,65 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.server.common.allocate.common.ConsistentHashRouter;
+import com.aizuda.snailjob.server.common.allocate.common.Node;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一致性Hash构建环与查找节点的耗时
+ * <p>
+ * 当前客户端路由每次调用都会重新构建环, build 与 route 的差值即为可通过缓存环节省的开销
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConsistentHashRouterBenchmark {
+
+    @Param({"8", "128", "1024"})
+    private int instanceCount;
+
+    @Param({"100"})
+    private int virtualNodeCount;
+
+    private List<ClientNode> nodes;
+    private ConsistentHashRouter<ClientNode> router;
+
+    @Setup
+    public void setup() {
+        nodes = new ArrayList<>(instanceCount);
+        for (int i = 0; i < instanceCount; i++) {
+            nodes.add(new ClientNode("host-" + i));
+        }
+        router = new ConsistentHashRouter<>(nodes, virtualNodeCount);
+    }
+
+    @Benchmark
+    public ConsistentHashRouter<ClientNode> build() {
+        return new ConsistentHashRouter<>(nodes, virtualNodeCount);
+    }
+
+    @Benchmark
+    public ClientNode route() {
+        return router.routeNode(String.valueOf(ThreadLocalRandom.current().nextInt(100_000)));
+    }
+
+    public record ClientNode(String hostId) implements Node {
+
+        @Override
+        public String getKey() {
+            return hostId;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.common.core.util.CronExpression;
+import com.aizuda.snailjob.server.common.cache.CacheCronExpression;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.ParseException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cron表达式计算下次触发时间的耗时
+ * <p>
+ * parseEachCall 为优化前每次调用都重新解析表达式的方式,
+ * cachedExpression 每次计算的起始时间都不同(不命中上次结果),
+ * cachedSameTriggerTime 模拟多个任务共享同一表达式与触发时间
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CronExpressionBenchmark {
+
+    @Param({"0 0/5 * * * ?", "0 15 10 ? * MON-FRI", "0 0 12 L * ?"})
+    private String cron;
+
+    private long startAt;
+    private long triggerAt;
+
+    @Setup
+    public void setup() {
+        startAt = System.currentTimeMillis();
+        triggerAt = startAt;
+    }
+
+    @Benchmark
+    public Date parseEachCall() throws ParseException {
+        return new CronExpression(cron).getNextValidTimeAfter(new Date(triggerAt));
+    }
+
+    @Benchmark
+    public long cachedExpression() throws ParseException {
+        long nextValidTime = CacheCronExpression.get(cron).getNextValidTimeAfter(triggerAt);
+        triggerAt = nextValidTime < 0 ? startAt : nextValidTime;
+        return nextValidTime;
+    }
+
+    @Benchmark
+    public long cachedSameTriggerTime() throws ParseException {
+        return CacheCronExpression.get(cron).getNextValidTimeAfter(triggerAt);
+    }
+}
@@ -0,0 +1,93 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.common.core.expression.CompiledExpression;
+import com.aizuda.snailjob.common.core.expression.strategy.AbstractExpressionEngine;
+import com.aizuda.snailjob.server.common.enums.ExpressionTypeEnum;
+import com.googlecode.aviator.AviatorEvaluator;
+import com.googlecode.aviator.AviatorEvaluatorInstance;
+import com.ql.util.express.DefaultContext;
+import com.ql.util.express.ExpressRunner;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 决策节点等场景下表达式的执行耗时
+ * <p>
+ * parseEachCall 与引入编译缓存前各引擎的 doEval 一致: SpEL、Aviator 每次调用都重新解析表达式, QLExpress 使用其内部的指令集缓存,
+ * cachedEval 通过 {@link AbstractExpressionEngine#eval(String, Object...)} 按表达式文本命中编译缓存,
+ * compiledEval 调用方持有 {@link AbstractExpressionEngine#compile(String)} 的结果直接执行
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionEngineBenchmark {
+
+    private static final ExpressionParser SPEL_PARSER = new SpelExpressionParser();
+    private static final AviatorEvaluatorInstance AVIATOR = AviatorEvaluator.getInstance();
+    private static final ExpressRunner QL_RUNNER = new ExpressRunner();
+
+    @Param({"SPEL", "AVIATOR", "QL"})
+    private ExpressionTypeEnum type;
+
+    private String expression;
+    private Map<String, Object> context;
+    private AbstractExpressionEngine engine;
+    private CompiledExpression compiled;
+
+    @Setup
+    public void setup() {
+        expression = switch (type) {
+            case SPEL -> "#amount > 100 && #level == 'VIP'";
+            case AVIATOR, QL -> "amount > 100 && level == 'VIP'";
+        };
+
+        context = new HashMap<>();
+        context.put("amount", 256);
+        context.put("level", "VIP");
+
+        engine = (AbstractExpressionEngine) type.getExpressionEngine();
+        compiled = engine.compile(expression);
+    }
+
+    @Benchmark
+    public Object parseEachCall() throws Exception {
+        return switch (type) {
+            case SPEL -> {
+                EvaluationContext evaluationContext = SimpleEvaluationContext.forReadOnlyDataBinding().build();
+                context.forEach(evaluationContext::setVariable);
+                yield SPEL_PARSER.parseExpression(expression).getValue(evaluationContext, Object.class);
+            }
+            case AVIATOR -> AVIATOR.compile(expression).execute(context);
+            case QL -> {
+                DefaultContext<String, Object> defaultContext = new DefaultContext<>();
+                defaultContext.putAll(context);
+                yield QL_RUNNER.execute(expression, defaultContext, null, true, false);
+            }
+        };
+    }
+
+    @Benchmark
+    public Object cachedEval() {
+        return engine.eval(expression, context);
+    }
+
+    @Benchmark
+    public Object compiledEval() {
+        return compiled.eval(context);
+    }
+}
@@ -0,0 +1,70 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.server.common.util.GraphUtils;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工作流DAG反序列化的耗时
+ * <p>
+ * 工作流每个节点完成时都会反序列化一次完整的流程图, 按节点数量观察其开销
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphUtilsBenchmark {
+
+    /**
+     * 每层的节点数
+     */
+    private static final int LAYER_WIDTH = 4;
+
+    @Param({"10", "100", "500"})
+    private int nodeCount;
+
+    private String flowInfo;
+    private MutableGraph<Long> graph;
+
+    @Setup
+    public void setup() {
+        graph = GraphBuilder.directed().build();
+        // 根节点连接第一层, 之后每层节点全连接到下一层
+        long root = -1L;
+        graph.addNode(root);
+        for (long node = 1; node <= nodeCount; node++) {
+            if (node <= LAYER_WIDTH) {
+                graph.putEdge(root, node);
+                continue;
+            }
+
+            long layerStart = ((node - 1) / LAYER_WIDTH - 1) * LAYER_WIDTH + 1;
+            for (long parent = layerStart; parent < layerStart + LAYER_WIDTH; parent++) {
+                graph.putEdge(parent, node);
+            }
+        }
+
+        flowInfo = JsonUtil.toJsonString(GraphUtils.serializeGraphToJson(graph));
+    }
+
+    @Benchmark
+    public MutableGraph<Long> deserializeJsonToGraph() {
+        return GraphUtils.deserializeJsonToGraph(flowInfo);
+    }
+
+    @Benchmark
+    public String serializeGraphToJson() {
+        return JsonUtil.toJsonString(GraphUtils.serializeGraphToJson(graph));
+    }
+}
@@ -0,0 +1,82 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.model.request.DispatchJobRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务下发请求 {@link DispatchJobRequest} 的序列化耗时
+ * <p>
+ * 分别覆盖字符串(旧版协议)与字节数组(payload)两种形式
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JsonUtilBenchmark {
+
+    private DispatchJobRequest request;
+    private String jsonString;
+    private byte[] jsonBytes;
+
+    @Setup
+    public void setup() {
+        request = new DispatchJobRequest();
+        request.setNamespaceId("764d604ec6fc45f68cd92514c40e9e1a");
+        request.setJobId(1L);
+        request.setTaskBatchId(1024L);
+        request.setTaskId(4096L);
+        request.setTaskType(3);
+        request.setGroupName("snail_job_demo_group");
+        request.setParallelNum(1);
+        request.setExecutorType(1);
+        request.setExecutorInfo("com.example.snail.job.executor.TestMapReduceJobExecutor");
+        request.setExecutorTimeout(60);
+        request.setTaskName("MAP_ROOT");
+        request.setMrStage(1);
+        request.setArgsStr("{\"jobParams\":\"1,2,3\",\"mapResult\":[1,2,3,4,5,6,7,8,9,10]}");
+        request.setShardingTotal(8);
+        request.setShardingIndex(2);
+        request.setWorkflowTaskBatchId(2048L);
+        request.setWorkflowNodeId(16L);
+        request.setRetryCount(0);
+        request.setWfContext("{\"name\":\"snail-job\",\"count\":10}");
+
+        jsonString = JsonUtil.toJsonString(request);
+        jsonBytes = JsonUtil.toJsonBytes(request);
+    }
+
+    @Benchmark
+    public String toJsonString() {
+        return JsonUtil.toJsonString(request);
+    }
+
+    @Benchmark
+    public DispatchJobRequest parseString() {
+        return JsonUtil.parseObject(jsonString, DispatchJobRequest.class);
+    }
+
+    @Benchmark
+    public DispatchJobRequest roundTripString() {
+        return JsonUtil.parseObject(JsonUtil.toJsonString(request), DispatchJobRequest.class);
+    }
+
+    @Benchmark
+    public DispatchJobRequest roundTripBytes() {
+        return JsonUtil.parseObject(JsonUtil.toJsonBytes(request), DispatchJobRequest.class);
+    }
+
+    @Benchmark
+    public DispatchJobRequest parseBytes() {
+        return JsonUtil.parseObject(jsonBytes, DispatchJobRequest.class);
+    }
+}
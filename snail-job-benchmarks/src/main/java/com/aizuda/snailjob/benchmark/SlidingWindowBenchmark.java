@@ -0,0 +1,67 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.client.common.window.RetryLeapArray;
+import com.aizuda.snailjob.client.common.window.SlidingRingWindow;
+import com.aizuda.snailjob.common.core.window.Listener;
+import com.aizuda.snailjob.model.request.RetryTaskRequest;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 客户端上报使用的滑动窗口在多线程写入下的吞吐量
+ * <p>
+ * 默认4个线程并发写入, 可通过 -t 调整竞争程度, 监听器为空实现, 不包含真正的上报开销
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlidingWindowBenchmark {
+
+    @Param({"1024", "4096"})
+    private int totalThreshold;
+
+    private SlidingRingWindow<RetryTaskRequest> slidingRingWindow;
+    private RetryLeapArray leapArray;
+    private RetryTaskRequest request;
+
+    @Setup
+    public void setup() {
+        List<Listener<RetryTaskRequest>> listeners = Collections.singletonList(list -> {});
+        slidingRingWindow = new SlidingRingWindow<>(Duration.ofSeconds(10), totalThreshold, listeners);
+        // 10ms一个窗口, 避免单个窗口堆积过多数据
+        leapArray = new RetryLeapArray(100, 1000, listeners);
+
+        request = new RetryTaskRequest();
+        request.setGroupName("snail_job_demo_group");
+        request.setSceneName("benchmark");
+        request.setBizNo("benchmark");
+    }
+
+    @TearDown
+    public void tearDown() {
+        slidingRingWindow.shutdown();
+    }
+
+    @Benchmark
+    public void slidingRingWindowAdd() {
+        slidingRingWindow.add(request);
+    }
+
+    @Benchmark
+    public boolean leapArrayAdd() {
+        return leapArray.currentWindow().value().add(request);
+    }
+}
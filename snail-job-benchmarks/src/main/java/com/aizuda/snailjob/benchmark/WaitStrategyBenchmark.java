@@ -0,0 +1,65 @@
+package com.aizuda.snailjob.benchmark;
+
+import com.aizuda.snailjob.server.common.WaitStrategy;
+import com.aizuda.snailjob.server.common.strategy.WaitStrategies;
+import com.aizuda.snailjob.server.common.strategy.WaitStrategies.WaitStrategyContext;
+import com.aizuda.snailjob.server.common.strategy.WaitStrategies.WaitStrategyEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 等待策略计算下次触发时间的耗时
+ * <p>
+ * 每次调用都会推进 nextTriggerAt, 模拟调度器对同一任务的连续计算
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WaitStrategyBenchmark {
+
+    @Param({"CRON", "FIXED", "DELAY_LEVEL"})
+    private WaitStrategyEnum strategy;
+
+    private WaitStrategy waitStrategy;
+    private WaitStrategyContext context;
+    private long startAt;
+
+    @Setup
+    public void setup() {
+        waitStrategy = strategy.getWaitStrategy();
+        startAt = System.currentTimeMillis();
+
+        context = new WaitStrategyContext();
+        context.setNextTriggerAt(startAt);
+        switch (strategy) {
+            case CRON -> context.setTriggerInterval("0 0/5 * * * ?");
+            case FIXED -> context.setTriggerInterval("60");
+            default -> context.setDelayLevel(3);
+        }
+    }
+
+    @Benchmark
+    public Long computeTriggerTime() {
+        Long triggerTime = waitStrategy.computeTriggerTime(context);
+        // 避免长时间运行后超出cron的年份上限
+        context.setNextTriggerAt(triggerTime - startAt > TimeUnit.DAYS.toMillis(3650) ? startAt : triggerTime);
+        return triggerTime;
+    }
+
+    @Benchmark
+    public Long cronWaitSameTriggerTime() {
+        WaitStrategyContext cronContext = new WaitStrategyContext();
+        cronContext.setTriggerInterval("0 0/5 * * * ?");
+        cronContext.setNextTriggerAt(startAt);
+        return WaitStrategies.cronWait().computeTriggerTime(cronContext);
+    }
+}
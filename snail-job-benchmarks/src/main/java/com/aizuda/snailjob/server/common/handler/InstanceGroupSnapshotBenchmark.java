@@ -0,0 +1,103 @@
+package com.aizuda.snailjob.server.common.handler;
+
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
+import com.aizuda.snailjob.server.common.allocate.client.ClientLoadBalanceManager;
+import com.aizuda.snailjob.server.common.allocate.client.ClientLoadBalanceManager.AllocationAlgorithmEnum;
+import com.aizuda.snailjob.server.common.dto.InstanceLiveInfo;
+import com.aizuda.snailjob.server.common.dto.RegisterNodeInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InstanceManager} 实例查询的耗时
+ * <p>
+ * InstanceManager 依赖Spring及gRPC连接, 因此直接对其内部的 {@link InstanceGroupSnapshot} 进行测试,
+ * 与 InstanceManager 同包以便使用包级别的快照构建方法
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstanceGroupSnapshotBenchmark {
+
+    private static final String TARGET_LABELS = "{\"env\":\"prod\"}";
+
+    @Param({"100", "1000", "5000"})
+    private int instanceCount;
+
+    private InstanceGroupSnapshot snapshot;
+    private List<InstanceLiveInfo> instances;
+
+    @Setup
+    public void setup() {
+        instances = new ArrayList<>(instanceCount);
+        for (int i = 0; i < instanceCount; i++) {
+            instances.add(newInstance(i));
+        }
+        snapshot = InstanceGroupSnapshot.of(instances);
+        // 预热标签缓存
+        snapshot.getLabelBucket(TARGET_LABELS);
+    }
+
+    @Benchmark
+    public InstanceLiveInfo getAliveInstance() {
+        return snapshot.getAliveInstance("host-" + ThreadLocalRandom.current().nextInt(instanceCount));
+    }
+
+    @Benchmark
+    public InstanceGroupSnapshot.LabelBucket getLabelBucketCached() {
+        return snapshot.getLabelBucket(TARGET_LABELS);
+    }
+
+    @Benchmark
+    public InstanceGroupSnapshot.LabelBucket getLabelBucketUncached() {
+        // 新快照不包含该标签组合的缓存, 需要遍历存活实例重新匹配
+        return InstanceGroupSnapshot.of(instances).getLabelBucket(TARGET_LABELS);
+    }
+
+    @Benchmark
+    public String routeByLabels() {
+        InstanceGroupSnapshot.LabelBucket bucket = snapshot.getLabelBucket(TARGET_LABELS);
+        return ClientLoadBalanceManager.getClientLoadBalance(AllocationAlgorithmEnum.ROUND.getType())
+                .route(String.valueOf(ThreadLocalRandom.current().nextInt()), bucket);
+    }
+
+    @Benchmark
+    public InstanceGroupSnapshot replaceInstance() {
+        int index = ThreadLocalRandom.current().nextInt(instanceCount);
+        return snapshot.replace("host-" + index, instances.get(index));
+    }
+
+    private static InstanceLiveInfo newInstance(int index) {
+        Map<String, String> labelMap = new HashMap<>();
+        labelMap.put(SystemConstants.DEFAULT_LABEL.getKey(), SystemConstants.DEFAULT_LABEL.getValue());
+        labelMap.put("env", index % 2 == 0 ? "prod" : "gray");
+
+        RegisterNodeInfo nodeInfo = new RegisterNodeInfo();
+        nodeInfo.setNamespaceId("764d604ec6fc45f68cd92514c40e9e1a");
+        nodeInfo.setGroupName("snail_job_demo_group");
+        nodeInfo.setHostId("host-" + index);
+        nodeInfo.setHostIp("127.0.0." + (index % 255));
+        nodeInfo.setHostPort(17889 + index);
+        nodeInfo.setLabelMap(labelMap);
+
+        InstanceLiveInfo instanceLiveInfo = new InstanceLiveInfo();
+        instanceLiveInfo.setNodeInfo(nodeInfo);
+        instanceLiveInfo.setAlive(true);
+        instanceLiveInfo.setLastUpdateAt(System.currentTimeMillis());
+        return instanceLiveInfo;
+    }
+}
@@ -1,5 +1,6 @@
 package com.aizuda.snailjob.client.common.config;
 
+import com.aizuda.snailjob.client.common.spool.SpoolOverflowPolicyEnum;
 import com.aizuda.snailjob.common.core.alarm.email.SnailJobMailProperties;
 import com.aizuda.snailjob.common.core.config.ForyProperties;
 import com.aizuda.snailjob.common.core.enums.RpcTypeEnum;
@@ -12,6 +13,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.http.HttpClient;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
@@ -88,6 +90,11 @@ public class SnailJobProperties {
      */
     private Retry retry = new Retry();
 
+    /**
+     * 定时任务模块配置
+     */
+    private Job job = new Job();
+
     /**
      * 邮件配置
      */
@@ -110,6 +117,11 @@ public class SnailJobProperties {
      */
     private String workspace;
 
+    /**
+     * 上报数据本地缓冲配置
+     */
+    private SpoolConfig spool = new SpoolConfig();
+
     /**
      * 客户端Rpc配置
      */
@@ -201,6 +213,45 @@ public class SnailJobProperties {
 
     }
 
+    @Data
+    public static class SpoolConfig {
+
+        /**
+         * 是否开启, 开启后重试数据和日志先写入本地文件, 服务端确认成功后再删除
+         */
+        private boolean enabled = false;
+
+        /**
+         * 存储目录, 为空时使用 ${user.home}/snail-job/spool/{namespace}/{group}
+         */
+        private String path;
+
+        /**
+         * 每种上报数据允许占用的最大磁盘空间(字节)
+         */
+        private long maxBytes = 256 * 1024 * 1024;
+
+        /**
+         * 单个分段文件的大小(字节)
+         */
+        private long segmentSize = 16 * 1024 * 1024;
+
+        /**
+         * 磁盘空间用尽时的处理方式
+         */
+        private SpoolOverflowPolicyEnum overflowPolicy = SpoolOverflowPolicyEnum.BLOCK;
+
+        /**
+         * BLOCK 模式下等待空间释放的最长时间, 超时后丢弃
+         */
+        private Duration blockTimeout = Duration.of(5, ChronoUnit.SECONDS);
+
+        /**
+         * 发送失败后重新发送的最大间隔
+         */
+        private Duration maxBackoff = Duration.of(30, ChronoUnit.SECONDS);
+    }
+
     @Data
     public static class Retry {
         /**
@@ -214,6 +265,78 @@ public class SnailJobProperties {
         private ThreadPoolConfig dispatcherThreadPool = new ThreadPoolConfig(32, 32, 1, TimeUnit.SECONDS , 10000);
     }
 
+    @Data
+    public static class Job {
+        /**
+         * 所有任务批次共享的执行线程池, 批次内的并行度仍由任务配置控制
+         * queueCapacity 为0时不排队, 线程不足时直接创建新线程直到 maximumPoolSize
+         */
+        private ThreadPoolConfig executorThreadPool = new ThreadPoolConfig(16, 512, 60, TimeUnit.SECONDS , 0);
+
+        /**
+         * 是否使用虚拟线程执行任务, 仅在JDK21及以上生效, 开启后忽略 executorThreadPool 配置
+         */
+        private boolean virtualThread = false;
+
+        /**
+         * 内置脚本执行器配置
+         */
+        private Script script = new Script();
+
+        /**
+         * 内置http执行器配置
+         */
+        private HttpExecutor httpExecutor = new HttpExecutor();
+    }
+
+    @Data
+    public static class HttpExecutor {
+        /**
+         * 建立连接的超时时间
+         */
+        private Duration connectTimeout = Duration.of(10, ChronoUnit.SECONDS);
+
+        /**
+         * 每个host同时进行中的请求数上限, 超出的请求排队等待, 不占用执行线程
+         */
+        private int maxRequestsPerHost = 64;
+
+        /**
+         * http协议版本, 默认HTTP/1.1;
+         * HTTP/2 下同一host的请求复用一个连接, 并发受服务端的流数量上限约束
+         */
+        private HttpClient.Version version = HttpClient.Version.HTTP_1_1;
+    }
+
+    @Data
+    public static class Script {
+        /**
+         * 转发脚本标准输出和错误输出的共享线程数上限, 每次执行占用两个线程;
+         * 同时执行的脚本数不超过该值的一半, 超出时执行线程等待其他脚本结束
+         */
+        private int outputPumpThreads = 32;
+
+        /**
+         * 单条上报日志的最大字符数, 输出暂停时不足该长度也会立即上报
+         */
+        private int outputChunkSize = 8 * 1024;
+
+        /**
+         * 单次执行最多上报的输出字符数, 超出部分丢弃
+         */
+        private long maxOutputSize = 10 * 1024 * 1024;
+
+        /**
+         * 下载脚本时等待数据的超时时间
+         */
+        private Duration downloadReadTimeout = Duration.ofSeconds(5);
+
+        /**
+         * 缓存的脚本超过该时间未使用时删除
+         */
+        private Duration cacheExpire = Duration.ofDays(7);
+    }
+
     @Data
     public static class RpcServerProperties {
 
@@ -3,6 +3,7 @@ package com.aizuda.snailjob.client.common.log.report;
 import com.aizuda.snailjob.client.common.Lifecycle;
 import com.aizuda.snailjob.client.common.LogReport;
 import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+import com.aizuda.snailjob.client.common.spool.ReportSpool;
 import com.aizuda.snailjob.client.common.window.SlidingRingWindow;
 import com.aizuda.snailjob.model.request.LogTaskRequest;
 import com.aizuda.snailjob.common.core.window.Listener;
@@ -11,10 +12,13 @@ import com.aizuda.snailjob.common.log.dto.LogContentDTO;
 import com.google.common.collect.Lists;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.util.ClassUtils;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * @author xiaowoniu
@@ -26,6 +30,7 @@ public abstract class AbstractLogReport<T extends LogTaskRequest> implements Lif
     @Autowired
     private SnailJobProperties snailJobProperties;
     private SlidingRingWindow<LogTaskRequest> slidingWindow;
+    private ReportSpool<LogTaskRequest> spool;
 
     @Override
     public void report(LogContentDTO logContentDTO) {
@@ -43,6 +48,20 @@ public abstract class AbstractLogReport<T extends LogTaskRequest> implements Lif
         SnailJobProperties.LogSlidingWindowConfig logSlidingWindow = snailJobProperties.getLogSlidingWindow();
 
         Listener<LogTaskRequest> reportLogListener = new ReportLogListener();
+        if (snailJobProperties.getSpool().isEnabled()) {
+            Class<?> logTaskClass = Optional.<Class<?>>ofNullable(
+                    GenericTypeResolver.resolveTypeArgument(getClass(), AbstractLogReport.class)).orElse(LogTaskRequest.class);
+            spool = new ReportSpool<>("log-" + ClassUtils.getUserClass(getClass()).getSimpleName(), (Class<? extends LogTaskRequest>) logTaskClass,
+                    snailJobProperties, ReportLogListener::syncReport,
+                    // 日志丢弃较频繁时不告警, 只记录累计丢弃的条数
+                    list -> SnailJobLog.LOCAL.warn("Log report spool discarded [{}] records, total discarded:[{}]",
+                            list.size(), spool.getShedCount()),
+                    (list, result) -> SnailJobLog.LOCAL.error("Log report rejected by server, [{}] records moved to dead letter. total rejected:[{}]",
+                            list.size(), spool.getRejectedCount()));
+            spool.start();
+            reportLogListener = spool;
+        }
+
         ChronoUnit chronoUnit = logSlidingWindow.getChronoUnit();
         Duration duration = Duration.of(logSlidingWindow.getDuration(), chronoUnit);
         slidingWindow= new SlidingRingWindow<>(duration, logSlidingWindow.getTotalThreshold(), Lists.newArrayList(reportLogListener));
@@ -56,6 +75,9 @@ public abstract class AbstractLogReport<T extends LogTaskRequest> implements Lif
 
         SnailJobLog.LOCAL.info("AsyncReport Log about to shutdown");
         slidingWindow.shutdown();
+        if (Objects.nonNull(spool)) {
+            spool.close();
+        }
         SnailJobLog.LOCAL.info("AsyncReport Log has been shutdown");
     }
 
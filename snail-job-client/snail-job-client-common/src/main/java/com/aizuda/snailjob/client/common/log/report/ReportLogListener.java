@@ -9,6 +9,7 @@ import com.aizuda.snailjob.common.log.SnailJobLog;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 批量异步上报
@@ -25,9 +26,29 @@ public class ReportLogListener implements Listener<LogTaskRequest> {
             .callback(rpcResult -> SnailJobLog.LOCAL.info("Data report log successfully requestId:[{}]",
                     rpcResult.getReqId())).build();
 
+    /**
+     * 开启本地缓冲时由缓冲的发送线程同步上报, 根据结果确认或重新发送
+     */
+    private static final RpcClient SYNC_CLIENT = RequestBuilder.<RpcClient, SnailJobRpcResult>newBuilder()
+            .client(RpcClient.class)
+            .async(false)
+            .timeout(10)
+            .unit(TimeUnit.SECONDS)
+            .build();
+
     @Override
     public void handler(List<LogTaskRequest> list) {
 
         CLIENT.reportLogTask(list);
     }
+
+    /**
+     * 同步上报
+     *
+     * @param list 日志
+     * @return 服务端的处理结果
+     */
+    public static SnailJobRpcResult syncReport(List<LogTaskRequest> list) {
+        return SYNC_CLIENT.reportLogTask(list);
+    }
 }
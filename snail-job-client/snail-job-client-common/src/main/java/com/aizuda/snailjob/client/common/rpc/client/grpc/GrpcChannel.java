@@ -13,9 +13,13 @@ import com.aizuda.snailjob.common.core.enums.HeadersEnum;
 import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
 import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
 import com.aizuda.snailjob.common.core.grpc.auto.Metadata;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodecs;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.SnailJobVersion;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.protobuf.ByteString;
 import io.grpc.ManagedChannel;
 import io.grpc.MethodDescriptor;
 import io.grpc.protobuf.ProtoUtils;
@@ -32,12 +36,31 @@ import java.util.Optional;
 public final class GrpcChannel {
 
     private static ManagedChannel channel;
+
+    /**
+     * 与服务端协商出的payload编解码器, 为null时使用旧版(字符串)协议
+     */
+    private static volatile RpcCodec negotiatedCodec;
+
     public static void setChannel(ManagedChannel channel) {
         GrpcChannel.channel = channel;
     }
 
+    public static RpcCodec getCodec() {
+        return negotiatedCodec;
+    }
+
+    /**
+     * 根据服务端响应中声明的编解码器进行协商, 旧版本服务端不会声明, 始终使用字符串协议
+     *
+     * @param result 服务端响应
+     */
+    public static void negotiate(GrpcResult result) {
+        negotiatedCodec = RpcCodecs.negotiate(result.getHeadersMap().get(HeadersEnum.RPC_CODECS.getKey()));
+    }
 
-    public static ListenableFuture<GrpcResult> sendOfUnary(String path, String body, long reqId, Map<String, String> map) {
+    public static ListenableFuture<GrpcResult> sendOfUnary(String path, Object[] args, RpcCodec codec, long reqId,
+        Map<String, String> map) {
         if (channel == null) {
             return null;
         }
@@ -69,6 +92,10 @@ public final class GrpcChannel {
         headersMap.put(HeadersEnum.SYSTEM_VERSION.getKey(), Optional.ofNullable(SnailJobVersion.getVersion()).orElse(
                 SystemConstants.DEFAULT_CLIENT_VERSION));
         headersMap.put(HeadersEnum.EXECUTOR_TYPE.getKey(), String.valueOf(ExecutorTypeEnum.JAVA.getType()));
+        headersMap.put(HeadersEnum.RPC_CODECS.getKey(), RpcCodecs.supported());
+        if (Objects.nonNull(codec)) {
+            headersMap.put(HeadersEnum.RPC_CODEC.getKey(), codec.name());
+        }
         if (CollUtil.isNotEmpty(map)) {
             headersMap.putAll(map);
         }
@@ -78,12 +105,16 @@ public final class GrpcChannel {
             .setUri(path)
             .putAllHeaders(headersMap)
             .build();
-        SnailJobGrpcRequest snailJobRequest = SnailJobGrpcRequest
+        SnailJobGrpcRequest.Builder builder = SnailJobGrpcRequest
             .newBuilder()
             .setMetadata(metadata)
-            .setReqId(reqId)
-            .setBody(body)
-            .build();
+            .setReqId(reqId);
+        if (Objects.nonNull(codec)) {
+            builder.setPayload(ByteString.copyFrom(codec.encode(args)));
+        } else {
+            builder.setBody(JsonUtil.toJsonString(args));
+        }
+        SnailJobGrpcRequest snailJobRequest = builder.build();
 
         MethodDescriptor<SnailJobGrpcRequest, GrpcResult> methodDescriptor =
             MethodDescriptor.<SnailJobGrpcRequest, GrpcResult>newBuilder()
@@ -13,6 +13,7 @@ import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
 import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
 import com.aizuda.snailjob.common.core.util.ClassUtils;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.log.SnailJobLog;
@@ -70,7 +71,8 @@ public class GrpcClientInvokeHandler<R> implements InvocationHandler {
         Mapping annotation = method.getAnnotation(Mapping.class);
 
         long reqId = newId();
-        ListenableFuture<GrpcResult> future = GrpcChannel.sendOfUnary(annotation.path(), JsonUtil.toJsonString(args),
+        RpcCodec codec = GrpcChannel.getCodec();
+        ListenableFuture<GrpcResult> future = GrpcChannel.sendOfUnary(annotation.path(), args, codec,
             reqId, getHeaderInfo(method, args));
         SnailJobLog.LOCAL.debug("Request complete requestId:[{}] took [{}ms]", sw.getTotalTimeMillis(), reqId);
         if (future == null) {
@@ -83,11 +85,7 @@ public class GrpcClientInvokeHandler<R> implements InvocationHandler {
 
                 @Override
                 public void onSuccess(final GrpcResult result) {
-                    Object obj = null;
-                    if (StrUtil.isNotBlank(result.getData())) {
-                        obj = JsonUtil.parseObject(result.getData(), returnType);
-                    }
-
+                    Object obj = decodeResult(result, codec, returnType);
                     consumer.accept(
                             (R) new SnailJobRpcResult(result.getStatus(), result.getMessage(), obj, result.getReqId()));
                 }
@@ -104,10 +102,7 @@ public class GrpcClientInvokeHandler<R> implements InvocationHandler {
 
             try {
                 GrpcResult result = future.get(timeout, unit);
-                Object obj = null;
-                if (StrUtil.isNotBlank(result.getData())) {
-                    obj = JsonUtil.parseObject(result.getData(), returnType);
-                }
+                Object obj = decodeResult(result, codec, returnType);
                 return (R) new SnailJobRpcResult(result.getStatus(), result.getMessage(), obj, result.getReqId());
             } catch (ExecutionException e) {
                 throw e.getCause();
@@ -119,6 +114,23 @@ public class GrpcClientInvokeHandler<R> implements InvocationHandler {
 
     }
 
+    /**
+     * 请求使用了编解码器时服务端以相同编解码器返回payload, 否则为旧版的data字符串
+     */
+    private static Object decodeResult(GrpcResult result, RpcCodec codec, Type returnType) {
+        GrpcChannel.negotiate(result);
+
+        if (Objects.nonNull(codec) && !result.getPayload().isEmpty()) {
+            return codec.decode(result.getPayload().toByteArray(), returnType);
+        }
+
+        if (StrUtil.isNotBlank(result.getData())) {
+            return JsonUtil.parseObject(result.getData(), returnType);
+        }
+
+        return null;
+    }
+
     private static long newId() {
         return REQUEST_ID.getAndIncrement();
     }
@@ -13,11 +13,14 @@ import com.aizuda.snailjob.client.common.rpc.supports.http.HttpRequest;
 import com.aizuda.snailjob.client.common.rpc.supports.http.HttpResponse;
 import com.aizuda.snailjob.client.common.rpc.supports.scan.EndPointInfo;
 import com.aizuda.snailjob.common.core.constant.SystemConstants;
+import com.aizuda.snailjob.common.core.enums.HeadersEnum;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
 import com.aizuda.snailjob.common.core.grpc.auto.Metadata;
 import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
 import com.aizuda.snailjob.common.core.model.Result;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodecs;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -41,6 +44,7 @@ import java.util.stream.Collectors;
 @Component
 @RequiredArgsConstructor
 public class SnailDispatcherRequestHandler {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
     private final SnailJobProperties snailJobProperties;
     public SnailJobRpcResult dispatch(GrpcRequest request) {
         SnailJobRpcResult snailJobRpcResult = new SnailJobRpcResult();
@@ -71,11 +75,13 @@ public class SnailDispatcherRequestHandler {
             }
 
             Class<?>[] paramTypes = endPointInfo.getMethod().getParameterTypes();
-            SnailJobGrpcRequest snailJobGrpcRequest = request.getSnailJobRequest();
-            Object[] args = JsonUtil.parseObject(snailJobGrpcRequest.getBody(), Object[].class);
+            // 未声明编解码器的为旧版本协议, 参数在body字符串中
+            RpcCodec codec = RpcCodecs.get(headersMap.get(HeadersEnum.RPC_CODEC.getKey()));
+            String args = Objects.nonNull(codec)
+                ? codec.toJsonText(snailJobRequest.getPayload().toByteArray())
+                : snailJobRequest.getBody();
 
-            Object[] deSerialize = (Object[]) deSerialize(JsonUtil.toJsonString(args), endPointInfo.getMethod(),
-                httpRequest, httpResponse);
+            Object[] deSerialize = (Object[]) deSerialize(args, endPointInfo.getMethod(), httpRequest, httpResponse);
 
             for (final HandlerInterceptor handlerInterceptor : handlerInterceptors) {
                 if (!handlerInterceptor.preHandle(httpRequest, httpResponse, endPointInfo)) {
@@ -131,7 +137,6 @@ public class SnailDispatcherRequestHandler {
         Parameter[] parameters = method.getParameters();
         Object[] params = new Object[paramTypes.length];
 
-        ObjectMapper mapper = new ObjectMapper();
         JsonNode jsonNode = JsonUtil.toJson(infoStr);
         if (Objects.isNull(jsonNode)) {
             SnailJobLog.LOCAL.warn("jsonNode is null. infoStr:[{}]", infoStr);
@@ -141,7 +146,7 @@ public class SnailDispatcherRequestHandler {
         for (int i = 0; i < paramTypes.length; i++) {
             JsonNode node = jsonNode.get(i);
             if (Objects.nonNull(node)) {
-                params[i] = mapper.readValue(node.toString(), mapper.constructType(paramTypes[i]));
+                params[i] = MAPPER.treeToValue(node, MAPPER.constructType(paramTypes[i]));
                 continue;
             }
 
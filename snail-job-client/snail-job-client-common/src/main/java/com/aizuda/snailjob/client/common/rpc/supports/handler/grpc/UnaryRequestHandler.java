@@ -1,20 +1,28 @@
 package com.aizuda.snailjob.client.common.rpc.supports.handler.grpc;
 
 import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.client.common.cache.EndPointInfoCache;
 import com.aizuda.snailjob.client.common.config.SnailJobProperties.ThreadPoolConfig;
+import com.aizuda.snailjob.client.common.rpc.client.RequestMethod;
 import com.aizuda.snailjob.client.common.rpc.supports.handler.SnailDispatcherRequestHandler;
 import com.aizuda.snailjob.client.common.rpc.supports.http.HttpRequest;
 import com.aizuda.snailjob.client.common.rpc.supports.http.HttpResponse;
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
+import com.aizuda.snailjob.common.core.enums.HeadersEnum;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
 import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
 import com.aizuda.snailjob.common.core.grpc.auto.Metadata;
 import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodecs;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.google.protobuf.ByteString;
 import io.grpc.stub.ServerCalls;
 import io.grpc.stub.StreamObserver;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -43,6 +51,8 @@ public class UnaryRequestHandler implements ServerCalls.UnaryMethod<SnailJobGrpc
     public void invoke(final SnailJobGrpcRequest snailJobRequest, final StreamObserver<GrpcResult> streamObserver) {
 
         Metadata metadata = snailJobRequest.getMetadata();
+        // 未声明编解码器的为旧版本协议, 返回值使用data字符串
+        RpcCodec codec = RpcCodecs.get(metadata.getHeadersMap().get(HeadersEnum.RPC_CODEC.getKey()));
 
         GrpcRequest grpcRequest = GrpcRequest.builder()
             .httpRequest(new HttpRequest(metadata.getHeadersMap(), metadata.getUri()))
@@ -58,11 +68,18 @@ public class UnaryRequestHandler implements ServerCalls.UnaryMethod<SnailJobGrpc
             } catch (Throwable e) {
                 snailJobRpcResult = new SnailJobRpcResult(StatusEnum.NO.getStatus(), e.getMessage(), null, 0);
             } finally {
-                GrpcResult grpcResult = GrpcResult.newBuilder()
+                GrpcResult.Builder builder = GrpcResult.newBuilder()
                     .setStatus(Optional.ofNullable(snailJobRpcResult.getStatus()).orElse(StatusEnum.NO.getStatus()))
                     .setMessage(Optional.ofNullable(snailJobRpcResult.getMessage()).orElse(StrUtil.EMPTY))
-                    .setData(JsonUtil.toJsonString(snailJobRpcResult.getData()))
-                    .build();
+                    .putHeaders(HeadersEnum.RPC_CODECS.getKey(), RpcCodecs.supported())
+                    .putHeaders(HeadersEnum.CLIENT_FEATURES.getKey(), clientFeatures());
+                if (Objects.nonNull(codec)) {
+                    builder.setPayload(ByteString.copyFrom(codec.encode(snailJobRpcResult.getData())));
+                } else {
+                    builder.setData(JsonUtil.toJsonString(snailJobRpcResult.getData()));
+                }
+
+                GrpcResult grpcResult = builder.build();
 
                 streamObserver.onNext(grpcResult);
                 streamObserver.onCompleted();
@@ -70,4 +87,12 @@ public class UnaryRequestHandler implements ServerCalls.UnaryMethod<SnailJobGrpc
         });
 
     }
+
+    /**
+     * 服务端据此判断是否可以使用批量调度, 不再依赖未知路径的错误信息
+     */
+    private static String clientFeatures() {
+        return EndPointInfoCache.isExisted(SystemConstants.HTTP_PATH.JOB_BATCH_DISPATCH, RequestMethod.POST)
+            ? SystemConstants.FEATURE_BATCH_DISPATCH : StrUtil.EMPTY;
+    }
 }
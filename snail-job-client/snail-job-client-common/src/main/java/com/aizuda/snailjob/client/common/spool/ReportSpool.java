@@ -0,0 +1,562 @@
+package com.aizuda.snailjob.client.common.spool;
+
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+import com.aizuda.snailjob.client.common.config.SnailJobProperties.SpoolConfig;
+import com.aizuda.snailjob.client.common.exception.SnailJobClientException;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.core.window.Listener;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * <p>
+ * 上报数据的本地预写缓冲
+ * 滑动窗口提交的每批数据先追加到本地分段文件, 由独立的发送线程按顺序上报, 服务端确认成功后记录确认位置,
+ * 分段内的数据全部确认后删除整个分段; 重启后重新发送未确认的数据
+ * 帧格式: [长度 4][CRC32 4][序号 8][JSON]
+ * </p>
+ * <ul>
+ *     <li>网络异常等没有拿到服务端结果时退避后重新发送</li>
+ *     <li>服务端明确返回处理失败时重发也不会成功, 数据写入死信文件后确认, 并通知调用方告警</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class ReportSpool<T> implements Listener<T> {
+
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String ACK_SUFFIX = ".ack";
+    private static final String LOCK_FILE = ".lock";
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+    private static final int HEADER_SIZE = 4 + 4 + 8;
+    private static final int MAX_INSTANCE = 64;
+    private static final long INITIAL_BACKOFF = 1000;
+
+    private final String name;
+    private final Class<? extends T> type;
+    private final SpoolConfig config;
+    private final Path baseDir;
+    private final Function<List<T>, SnailJobRpcResult> sender;
+    private final Consumer<List<T>> shedHandler;
+    private final BiConsumer<List<T>, SnailJobRpcResult> rejectHandler;
+    private final AtomicLong shedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final TreeMap<Long/*序号*/, Pending> pending = new TreeMap<>();
+    private final TreeMap<Long/*分段*/, Segment> segments = new TreeMap<>();
+    private Path dir;
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+    private Segment active;
+    private long nextId;
+    private long nextSeq;
+    private long totalBytes;
+    private volatile boolean running;
+    private Thread senderThread;
+
+    /**
+     * @param name        缓冲名称, 不同类型的上报数据使用不同的目录
+     * @param type        上报数据类型, 用于重启后反序列化
+     * @param properties  客户端配置
+     * @param sender        同步上报, 返回服务端的处理结果, 异常或没有结果时视为发送失败
+     * @param shedHandler   空间不足丢弃数据时的处理
+     * @param rejectHandler 服务端返回处理失败的数据写入死信文件后的处理
+     */
+    public ReportSpool(String name, Class<? extends T> type, SnailJobProperties properties,
+                       Function<List<T>, SnailJobRpcResult> sender, Consumer<List<T>> shedHandler,
+                       BiConsumer<List<T>, SnailJobRpcResult> rejectHandler) {
+        this.name = name;
+        this.type = type;
+        this.config = properties.getSpool();
+        this.sender = sender;
+        this.shedHandler = shedHandler;
+        this.rejectHandler = rejectHandler;
+        this.baseDir = StrUtil.isNotBlank(config.getPath())
+                ? Paths.get(config.getPath())
+                : Paths.get(System.getProperty("user.home"), "snail-job", "spool",
+                String.valueOf(properties.getNamespace()), String.valueOf(properties.getGroup()));
+    }
+
+    /**
+     * 加载未确认的数据并启动发送线程
+     */
+    public void start() {
+        lock.lock();
+        try {
+            dir = lockDirectory();
+            recover();
+        } catch (IOException e) {
+            throw new SnailJobClientException("Failed to open report spool. path:[{}]", baseDir, e);
+        } finally {
+            lock.unlock();
+        }
+
+        running = true;
+        senderThread = new Thread(this::sendLoop, "snail-job-spool-" + name);
+        senderThread.setDaemon(true);
+        senderThread.start();
+        SnailJobLog.LOCAL.info("Report spool started. path:[{}] pending:[{}]", dir, pending.size());
+    }
+
+    @Override
+    public void handler(List<T> list) {
+        offer(list);
+    }
+
+    /**
+     * 写入本地缓冲
+     *
+     * @param list 上报数据
+     * @return 是否写入成功, 空间不足丢弃时返回false
+     */
+    public boolean offer(List<T> list) {
+        if (list.isEmpty()) {
+            return true;
+        }
+
+        // 已关闭(如JVM退出时窗口提交的剩余数据)则直接上报
+        if (!running) {
+            SnailJobRpcResult result = trySend(list);
+            if (Objects.isNull(result)) {
+                shed(list);
+                return false;
+            }
+
+            if (StatusEnum.YES.getStatus() != result.getStatus()) {
+                reject(list, result);
+            }
+            return true;
+        }
+
+        byte[] payload = JsonUtil.toJsonString(list).getBytes(StandardCharsets.UTF_8);
+        int frameSize = HEADER_SIZE + payload.length;
+        boolean accepted = false;
+
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(config.getBlockTimeout().toMillis());
+            while (running && frameSize <= config.getMaxBytes() && totalBytes + frameSize > config.getMaxBytes()
+                    && config.getOverflowPolicy() == SpoolOverflowPolicyEnum.BLOCK && nanos > 0) {
+                nanos = notFull.awaitNanos(nanos);
+            }
+
+            if (running && totalBytes + frameSize <= config.getMaxBytes()) {
+                append(payload);
+                accepted = true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            SnailJobLog.LOCAL.error("Failed to write report spool. path:[{}]", dir, e);
+        } finally {
+            lock.unlock();
+        }
+
+        if (!accepted) {
+            SnailJobLog.LOCAL.warn("Report spool is full, discard [{}] records. path:[{}] usedBytes:[{}]",
+                    list.size(), dir, totalBytes);
+            shed(list);
+        }
+
+        return accepted;
+    }
+
+    /**
+     * @return 空间不足或关闭后发送失败而丢弃的数据条数
+     */
+    public long getShedCount() {
+        return shedCount.get();
+    }
+
+    /**
+     * @return 服务端返回处理失败而写入死信文件的数据条数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 停止发送, 未确认的数据保留在磁盘上, 下次启动时重新发送
+     */
+    public void close() {
+        running = false;
+        if (Objects.nonNull(senderThread)) {
+            senderThread.interrupt();
+            try {
+                senderThread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        lock.lock();
+        try {
+            notFull.signalAll();
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+            pending.clear();
+            active = null;
+
+            if (Objects.nonNull(fileLock)) {
+                fileLock.release();
+                lockChannel.close();
+            }
+        } catch (IOException e) {
+            SnailJobLog.LOCAL.warn("Failed to close report spool. path:[{}]", dir, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sendLoop() {
+        long backoff = INITIAL_BACKOFF;
+        while (running) {
+            Pending next;
+            lock.lock();
+            try {
+                while (running && pending.isEmpty()) {
+                    notEmpty.await(1, TimeUnit.SECONDS);
+                }
+
+                if (!running) {
+                    return;
+                }
+                next = pending.firstEntry().getValue();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            List<T> list;
+            try {
+                list = read(next);
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.error("Failed to read report spool, discard it. segment:[{}] id:[{}]",
+                        next.segment.path, next.id, e);
+                ack(next);
+                continue;
+            }
+
+            SnailJobRpcResult result = trySend(list);
+            if (Objects.nonNull(result)) {
+                if (StatusEnum.YES.getStatus() != result.getStatus()) {
+                    reject(list, result);
+                }
+
+                ack(next);
+                backoff = INITIAL_BACKOFF;
+                continue;
+            }
+
+            try {
+                TimeUnit.MILLISECONDS.sleep(backoff);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoff = Math.min(backoff * 2, Math.max(INITIAL_BACKOFF, config.getMaxBackoff().toMillis()));
+        }
+    }
+
+    /**
+     * @return 服务端的处理结果, 发送失败时返回null
+     */
+    private SnailJobRpcResult trySend(List<T> list) {
+        try {
+            return sender.apply(list);
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.warn("Report spool send failed. name:[{}]", name, e);
+            return null;
+        }
+    }
+
+    private void shed(List<T> list) {
+        shedCount.addAndGet(list.size());
+        shedHandler.accept(list);
+    }
+
+    /**
+     * 服务端拒绝的数据写入死信文件, 超过分段大小时滚动保留上一个文件
+     */
+    private void reject(List<T> list, SnailJobRpcResult result) {
+        rejectedCount.addAndGet(list.size());
+        SnailJobLog.LOCAL.error("Report rejected by server, move [{}] records to dead letter. name:[{}] status:[{}] message:[{}]",
+                list.size(), name, result.getStatus(), result.getMessage());
+
+        if (Objects.nonNull(dir)) {
+            Path deadLetter = dir.resolve(DEAD_LETTER_FILE);
+            try {
+                if (Files.exists(deadLetter) && Files.size(deadLetter) > config.getSegmentSize()) {
+                    Files.move(deadLetter, dir.resolve(DEAD_LETTER_FILE + ".1"), StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                Files.writeString(deadLetter, JsonUtil.toJsonString(list) + System.lineSeparator(),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                SnailJobLog.LOCAL.error("Failed to write report spool dead letter. path:[{}]", deadLetter, e);
+            }
+        }
+
+        try {
+            rejectHandler.accept(list, result);
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.warn("Report spool reject handler failed. name:[{}]", name, e);
+        }
+    }
+
+    private void append(byte[] payload) throws IOException {
+        int frameSize = HEADER_SIZE + payload.length;
+        if (Objects.isNull(active) || (active.size > 0 && active.size + frameSize > config.getSegmentSize())) {
+            roll();
+        }
+
+        long id = nextId++;
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        ByteBuffer buffer = ByteBuffer.allocate(frameSize);
+        buffer.putInt(payload.length).putInt((int) crc32.getValue()).putLong(id).put(payload).flip();
+
+        long position = active.size;
+        while (buffer.hasRemaining()) {
+            active.channel.write(buffer, position + buffer.position());
+        }
+
+        active.size += frameSize;
+        active.pendingCount++;
+        totalBytes += frameSize;
+        pending.put(id, new Pending(id, active, position, payload.length));
+        notEmpty.signal();
+    }
+
+    private void roll() throws IOException {
+        Segment previous = active;
+        long seq = nextSeq++;
+        active = new Segment(seq, dir.resolve(seq + SEGMENT_SUFFIX), dir.resolve(seq + ACK_SUFFIX));
+        segments.put(seq, active);
+
+        if (Objects.nonNull(previous)) {
+            previous.channel.force(false);
+            if (previous.pendingCount == 0) {
+                delete(previous);
+            }
+        }
+    }
+
+    private void ack(Pending entry) {
+        lock.lock();
+        try {
+            if (Objects.isNull(pending.remove(entry.id))) {
+                return;
+            }
+
+            Segment segment = entry.segment;
+            segment.pendingCount--;
+            if (segment.pendingCount == 0 && segment != active) {
+                delete(segment);
+                return;
+            }
+
+            segment.ack(entry.id);
+        } catch (IOException e) {
+            SnailJobLog.LOCAL.warn("Failed to write report spool ack. segment:[{}]", entry.segment.path, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void delete(Segment segment) throws IOException {
+        segment.close();
+        Files.deleteIfExists(segment.path);
+        Files.deleteIfExists(segment.ackPath);
+        segments.remove(segment.seq);
+        totalBytes -= segment.size;
+        notFull.signalAll();
+    }
+
+    private List<T> read(Pending entry) throws IOException {
+        ByteBuffer buffer = readFully(entry.segment.channel, entry.position + HEADER_SIZE, entry.length);
+        return new ArrayList<>(JsonUtil.parseList(new String(buffer.array(), StandardCharsets.UTF_8), type));
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of spool segment");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * 同一台机器上同一个组的多个实例各自锁定一个目录, 重启后按顺序重新锁定, 从而接管之前未发送的数据
+     */
+    private Path lockDirectory() throws IOException {
+        for (int i = 0; i < MAX_INSTANCE; i++) {
+            Path candidate = baseDir.resolve(name + "-" + i);
+            Files.createDirectories(candidate);
+            FileChannel channel = FileChannel.open(candidate.resolve(LOCK_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                FileLock acquired = channel.tryLock();
+                if (Objects.nonNull(acquired)) {
+                    lockChannel = channel;
+                    fileLock = acquired;
+                    return candidate;
+                }
+            } catch (OverlappingFileLockException ignored) {
+                // 同一进程内已锁定
+            }
+            channel.close();
+        }
+
+        throw new IOException("No available spool directory under " + baseDir);
+    }
+
+    /**
+     * 加载上次未确认的数据, 截断未写完的帧
+     */
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList();
+        }
+
+        for (Path path : files) {
+            String fileName = path.getFileName().toString();
+            long seq;
+            try {
+                seq = Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+
+            nextSeq = Math.max(nextSeq, seq + 1);
+            Segment segment = new Segment(seq, path, dir.resolve(seq + ACK_SUFFIX));
+            Set<Long> acked = segment.readAcks();
+            long fileSize = segment.channel.size();
+            long position = 0;
+            while (position + HEADER_SIZE <= fileSize) {
+                ByteBuffer header = readFully(segment.channel, position, HEADER_SIZE);
+                int length = header.getInt();
+                int crc = header.getInt();
+                long id = header.getLong();
+                if (length < 0 || position + HEADER_SIZE + length > fileSize) {
+                    break;
+                }
+
+                ByteBuffer payload = readFully(segment.channel, position + HEADER_SIZE, length);
+                CRC32 crc32 = new CRC32();
+                crc32.update(payload.array());
+                if ((int) crc32.getValue() != crc) {
+                    break;
+                }
+
+                nextId = Math.max(nextId, id + 1);
+                if (!acked.contains(id)) {
+                    pending.put(id, new Pending(id, segment, position, length));
+                    segment.pendingCount++;
+                }
+                position += HEADER_SIZE + length;
+            }
+
+            if (position < fileSize) {
+                SnailJobLog.LOCAL.warn("Truncate incomplete report spool segment. path:[{}] from:[{}] to:[{}]",
+                        path, fileSize, position);
+                segment.channel.truncate(position);
+            }
+
+            segment.size = position;
+            segments.put(seq, segment);
+            totalBytes += position;
+            if (segment.pendingCount == 0) {
+                delete(segment);
+            }
+        }
+    }
+
+    private record Pending(long id, Segment segment, long position, int length) {
+    }
+
+    private static final class Segment {
+        private final long seq;
+        private final Path path;
+        private final Path ackPath;
+        private final FileChannel channel;
+        private FileChannel ackChannel;
+        private long size;
+        private int pendingCount;
+
+        private Segment(long seq, Path path, Path ackPath) throws IOException {
+            this.seq = seq;
+            this.path = path;
+            this.ackPath = ackPath;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        private void ack(long id) throws IOException {
+            if (Objects.isNull(ackChannel)) {
+                ackChannel = FileChannel.open(ackPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(8).putLong(id).flip();
+            while (buffer.hasRemaining()) {
+                ackChannel.write(buffer);
+            }
+        }
+
+        private Set<Long> readAcks() throws IOException {
+            if (Files.notExists(ackPath)) {
+                return Collections.emptySet();
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(ackPath));
+            Set<Long> acked = new HashSet<>();
+            while (buffer.remaining() >= 8) {
+                acked.add(buffer.getLong());
+            }
+            return acked;
+        }
+
+        private void close() throws IOException {
+            channel.close();
+            if (Objects.nonNull(ackChannel)) {
+                ackChannel.close();
+            }
+        }
+    }
+}
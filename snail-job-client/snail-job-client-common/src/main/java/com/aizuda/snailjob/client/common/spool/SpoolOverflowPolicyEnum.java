@@ -0,0 +1,21 @@
+package com.aizuda.snailjob.client.common.spool;
+
+/**
+ * 本地缓冲磁盘空间用尽时的处理方式
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public enum SpoolOverflowPolicyEnum {
+
+    /**
+     * 阻塞上报线程等待空间释放, 超时后丢弃
+     */
+    BLOCK,
+
+    /**
+     * 直接丢弃新的数据
+     */
+    SHED
+}
@@ -13,7 +13,7 @@ public interface MapHandler<T> {
 
     /**
      * 执行 MAP 操作时需注意：
-     * 1. 建议待分片的集合不超过 200 个，严禁超过 500 个；
+     * 1. 集合超过 500 个时会按 500 个一批依次上报，服务端每收到一批就立即入库并分发；
      * 2. taskList 参数仅传递必要信息：
      *    - 数据过多可能导致数据库字段超长；
      *    - 服务端与客户端频繁交互，过大数据会影响 RPC 性能。
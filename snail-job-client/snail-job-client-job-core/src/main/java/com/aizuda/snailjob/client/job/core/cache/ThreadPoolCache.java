@@ -1,18 +1,24 @@
 package com.aizuda.snailjob.client.job.core.cache;
 
+import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+import com.aizuda.snailjob.client.common.config.SnailJobProperties.ThreadPoolConfig;
+import com.aizuda.snailjob.client.job.core.executor.TaskBatchExecutor;
+import com.aizuda.snailjob.common.core.context.SnailSpringContext;
+import com.aizuda.snailjob.common.log.SnailJobLog;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
-import java.text.MessageFormat;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.concurrent.*;
 
 /**
+ * 任务批次执行器缓存
+ * <p>
+ * 所有批次共享同一个线程池(或虚拟线程执行器), 每个批次只维护自己的并行度许可,
+ * 避免每个批次都创建、销毁一个线程池
+ * </p>
+ *
  * @author: opensnail
  * @date : 2023-09-27 17:12
  * @since : 2.4.0
@@ -20,52 +26,103 @@ import java.util.function.Supplier;
 @Component
 @Slf4j
 public class ThreadPoolCache {
-    private static final ConcurrentHashMap<Long, ThreadPoolExecutor> CACHE_THREAD_POOL = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Long, TaskBatchExecutor> CACHE_THREAD_POOL = new ConcurrentHashMap<>();
+    private static volatile ExecutorService sharedExecutor;
 
-    public static ThreadPoolExecutor createThreadPool(Long taskBatchId, int parallelNum) {
-        if (CACHE_THREAD_POOL.containsKey(taskBatchId)) {
-            ThreadPoolExecutor cacheThreadPool = CACHE_THREAD_POOL.get(taskBatchId);
-            // 大于1说明已经更新了线程池的线程数，为了防止后面任务执行过程任务并行度改变影响已经产生的批次，这里不再做更新操作
-            if (cacheThreadPool.getCorePoolSize() > 1) {
-                return cacheThreadPool;
-            }
+    public static TaskBatchExecutor createThreadPool(Long taskBatchId, int parallelNum) {
+        // 并行度以批次第一次创建时为准, 防止后面任务执行过程任务并行度改变影响已经产生的批次
+        return CACHE_THREAD_POOL.computeIfAbsent(taskBatchId,
+                key -> new TaskBatchExecutor(key, parallelNum, getSharedExecutor()));
+    }
 
-            // 若能执行到这里只有分片任务(静态分片、MAP、MapReduce)才会需要多线程支持
-            cacheThreadPool.setCorePoolSize(Math.min(parallelNum, cacheThreadPool.getMaximumPoolSize()));
-            return cacheThreadPool;
+    public static TaskBatchExecutor getThreadPool(Long taskBatchId) {
+        return CACHE_THREAD_POOL.get(taskBatchId);
+    }
+
+    public static void stopThreadPool(Long taskBatchId) {
+        FutureCache.remove(taskBatchId);
+        TaskBatchExecutor taskBatchExecutor = CACHE_THREAD_POOL.remove(taskBatchId);
+        if (Objects.isNull(taskBatchExecutor)) {
+            return;
         }
 
-        Supplier<ThreadPoolExecutor> supplier = () -> {
-            ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(
-                    // 默认情况先只设置一个线程, 只有分片任务(静态分片、MAP、MapReduce)才会需要多线程支持
-                    1, parallelNum, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10000),
-                    new CustomizableThreadFactory(MessageFormat.format("snail-job-job-{0}-", taskBatchId)));
-            threadPoolExecutor.allowCoreThreadTimeOut(true);
-            return threadPoolExecutor;
+        taskBatchExecutor.shutdownNow();
+    }
+
+    /**
+     * 执行任务回调(上报结果)的执行器
+     * 回调不占用批次的并行度, 共享线程池已满时由调用线程执行, 保证结果一定会上报
+     *
+     * @return Executor
+     */
+    public static Executor getCallbackExecutor() {
+        return command -> {
+            try {
+                getSharedExecutor().execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        TaskBatchExecutor.retryStalled();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                command.run();
+            }
         };
+    }
 
-        ThreadPoolExecutor threadPoolExecutor = supplier.get();
-        ThreadPoolExecutor cacheThreadPoolExecutor = CACHE_THREAD_POOL.putIfAbsent(taskBatchId, threadPoolExecutor);
-        if (Objects.nonNull(cacheThreadPoolExecutor) && cacheThreadPoolExecutor != threadPoolExecutor) {
-            cacheThreadPoolExecutor.setCorePoolSize(Math.min(parallelNum, cacheThreadPoolExecutor.getMaximumPoolSize()));
-            return cacheThreadPoolExecutor;
+    /**
+     * 获取所有批次共享的执行器
+     *
+     * @return ExecutorService
+     */
+    public static ExecutorService getSharedExecutor() {
+        if (Objects.isNull(sharedExecutor)) {
+            synchronized (ThreadPoolCache.class) {
+                if (Objects.isNull(sharedExecutor)) {
+                    sharedExecutor = createSharedExecutor();
+                }
+            }
         }
-        return threadPoolExecutor;
-    }
 
-    public static ThreadPoolExecutor getThreadPool(Long taskBatchId) {
-        return CACHE_THREAD_POOL.get(taskBatchId);
+        return sharedExecutor;
     }
 
-    public static void stopThreadPool(Long taskBatchId) {
-        FutureCache.remove(taskBatchId);
-        ThreadPoolExecutor threadPoolExecutor = CACHE_THREAD_POOL.get(taskBatchId);
-        if (Objects.isNull(threadPoolExecutor)) {
-            return;
+    private static ExecutorService createSharedExecutor() {
+        SnailJobProperties.Job job = SnailSpringContext.getBean(SnailJobProperties.class).getJob();
+        if (job.isVirtualThread()) {
+            ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+            if (Objects.nonNull(virtualThreadExecutor)) {
+                return virtualThreadExecutor;
+            }
         }
 
-        threadPoolExecutor.shutdownNow();
-        CACHE_THREAD_POOL.remove(taskBatchId);
+        ThreadPoolConfig threadPoolConfig = job.getExecutorThreadPool();
+        BlockingQueue<Runnable> queue = threadPoolConfig.getQueueCapacity() > 0
+                ? new LinkedBlockingQueue<>(threadPoolConfig.getQueueCapacity())
+                : new SynchronousQueue<>();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(threadPoolConfig.getCorePoolSize(),
+                threadPoolConfig.getMaximumPoolSize(), threadPoolConfig.getKeepAliveTime(),
+                threadPoolConfig.getTimeUnit(), queue, new CustomizableThreadFactory("snail-job-job-"));
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
+    }
+
+    /**
+     * 虚拟线程需要JDK21及以上, 项目以JDK17编译因此通过反射创建
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        if (Runtime.version().feature() < 21) {
+            SnailJobLog.LOCAL.warn("Virtual thread requires JDK 21+, current version:[{}]. Fall back to thread pool.",
+                    Runtime.version());
+            return null;
+        }
 
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.warn("Failed to create virtual thread executor. Fall back to thread pool.", e);
+            return null;
+        }
     }
 }
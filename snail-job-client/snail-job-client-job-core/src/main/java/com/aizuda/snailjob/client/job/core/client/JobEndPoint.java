@@ -11,6 +11,8 @@ import com.aizuda.snailjob.client.job.core.cache.ThreadPoolCache;
 import com.aizuda.snailjob.client.job.core.dto.JobExecutorInfo;
 import com.aizuda.snailjob.client.job.core.executor.*;
 import com.aizuda.snailjob.client.job.core.log.JobLogMeta;
+import com.aizuda.snailjob.model.dto.DispatchJobAckDTO;
+import com.aizuda.snailjob.model.request.DispatchJobBatchRequest;
 import com.aizuda.snailjob.model.request.StopJobRequest;
 import com.aizuda.snailjob.model.request.DispatchJobRequest;
 import com.aizuda.snailjob.common.core.context.SnailSpringContext;
@@ -26,9 +28,11 @@ import com.google.common.collect.Maps;
 import jakarta.validation.Valid;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.ThreadPoolExecutor;
 
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_BATCH_DISPATCH;
 import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_DISPATCH;
 import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_STOP;
 
@@ -104,6 +108,26 @@ public class JobEndPoint {
         return new Result<>(Boolean.TRUE);
     }
 
+    /**
+     * 批量调度: 逐个提交到本地执行器, 每个任务项单独应答
+     */
+    @Mapping(path = JOB_BATCH_DISPATCH, method = RequestMethod.POST)
+    public Result<List<DispatchJobAckDTO>> batchDispatchJob(@Valid DispatchJobBatchRequest batchRequest) {
+        List<DispatchJobRequest> dispatchJobs = batchRequest.getDispatchJobs();
+        List<DispatchJobAckDTO> acks = new ArrayList<>(dispatchJobs.size());
+        for (DispatchJobRequest dispatchJob : dispatchJobs) {
+            try {
+                Result<Boolean> result = dispatchJob(dispatchJob);
+                acks.add(new DispatchJobAckDTO(dispatchJob.getTaskId(), Boolean.TRUE.equals(result.getData()),
+                        result.getMessage()));
+            } catch (Exception e) {
+                acks.add(new DispatchJobAckDTO(dispatchJob.getTaskId(), Boolean.FALSE, e.getMessage()));
+            }
+        }
+
+        return new Result<>(acks);
+    }
+
     private void initLogContext(JobContext jobContext) {
         JobLogMeta logMeta = new JobLogMeta();
         logMeta.setNamespaceId(jobContext.getNamespaceId());
@@ -166,12 +190,12 @@ public class JobEndPoint {
     @Mapping(path = JOB_STOP, method = RequestMethod.POST)
     public Result<Boolean> stopJob(@Valid StopJobRequest interruptJob) {
 
-        ThreadPoolExecutor threadPool = ThreadPoolCache.getThreadPool(interruptJob.getTaskBatchId());
-        if (Objects.isNull(threadPool) || threadPool.isShutdown() || threadPool.isTerminated()) {
+        TaskBatchExecutor threadPool = ThreadPoolCache.getThreadPool(interruptJob.getTaskBatchId());
+        if (Objects.isNull(threadPool) || threadPool.isShutdown()) {
             return new Result<>(Boolean.TRUE);
         }
 
         ThreadPoolCache.stopThreadPool(interruptJob.getTaskBatchId());
-        return new Result<>(threadPool.isShutdown() || threadPool.isTerminated());
+        return new Result<>(threadPool.isShutdown());
     }
 }
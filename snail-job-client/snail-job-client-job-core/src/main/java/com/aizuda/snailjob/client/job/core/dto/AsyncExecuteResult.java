@@ -0,0 +1,24 @@
+package com.aizuda.snailjob.client.job.core.dto;
+
+import com.aizuda.snailjob.model.dto.ExecuteResult;
+import lombok.Getter;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 异步执行结果
+ * 执行器返回后立即释放执行线程, 由 {@link #getFuture()} 完成时上报真正的执行结果, 停止任务时会取消该future
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Getter
+public class AsyncExecuteResult extends ExecuteResult {
+
+    private final CompletableFuture<ExecuteResult> future;
+
+    public AsyncExecuteResult(CompletableFuture<ExecuteResult> future) {
+        this.future = future;
+    }
+}
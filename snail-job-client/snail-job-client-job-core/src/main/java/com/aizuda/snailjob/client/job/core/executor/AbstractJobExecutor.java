@@ -19,14 +19,15 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,15 +45,14 @@ public abstract class AbstractJobExecutor implements IJobExecutor {
 
         // 创建可执行的任务
         Integer parallelNum = Optional.ofNullable(jobContext.getParallelNum()).orElse(1);
-        ThreadPoolExecutor threadPool = ThreadPoolCache.createThreadPool(jobContext.getTaskBatchId(), Math.max(1, parallelNum));
-        ListeningExecutorService decorator = MoreExecutors.listeningDecorator(threadPool);
+        TaskBatchExecutor threadPool = ThreadPoolCache.createThreadPool(jobContext.getTaskBatchId(), Math.max(1, parallelNum));
 
         // 将任务添加到时间轮中，到期停止任务
         TimerManager.add(new StopTaskTimerTask(jobContext.getTaskBatchId()), jobContext.getExecutorTimeout(), TimeUnit.SECONDS);
 
         jobContext.setChangeWfContext(Maps.newConcurrentMap());
         // 执行任务
-        ListenableFuture<ExecuteResult> submit = decorator.submit(() -> {
+        ListenableFutureTask<ExecuteResult> submit = ListenableFutureTask.create(() -> {
             JobArgs jobArgs;
             if (jobContext.getTaskType() == JobTaskTypeEnum.SHARDING.getType()) {
                 jobArgs = buildShardingJobArgs(jobContext);
@@ -85,8 +85,35 @@ public abstract class AbstractJobExecutor implements IJobExecutor {
 
         });
 
-        FutureCache.addFuture(jobContext.getTaskBatchId(), submit);
-        Futures.addCallback(submit, new JobExecutorFutureCallback(jobContext), decorator);
+        threadPool.execute(submit);
+
+        // 异步执行的结果在完成时才上报, 取消时同时取消执行线程及异步执行
+        ListenableFuture<ExecuteResult> future = Futures.transformAsync(submit, AbstractJobExecutor::awaitAsyncResult,
+                MoreExecutors.directExecutor());
+        FutureCache.addFuture(jobContext.getTaskBatchId(), future);
+        Futures.addCallback(future, new JobExecutorFutureCallback(jobContext), ThreadPoolCache.getCallbackExecutor());
+    }
+
+    private static ListenableFuture<ExecuteResult> awaitAsyncResult(ExecuteResult result) {
+        if (!(result instanceof AsyncExecuteResult asyncResult)) {
+            return Futures.immediateFuture(result);
+        }
+
+        SettableFuture<ExecuteResult> settableFuture = SettableFuture.create();
+        asyncResult.getFuture().whenComplete((executeResult, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                settableFuture.set(executeResult);
+            } else {
+                settableFuture.setException(throwable instanceof CompletionException && Objects.nonNull(throwable.getCause())
+                        ? throwable.getCause() : throwable);
+            }
+        });
+        settableFuture.addListener(() -> {
+            if (settableFuture.isCancelled()) {
+                asyncResult.getFuture().cancel(true);
+            }
+        }, MoreExecutors.directExecutor());
+        return settableFuture;
     }
 
     private void initLogContext(JobContext jobContext) {
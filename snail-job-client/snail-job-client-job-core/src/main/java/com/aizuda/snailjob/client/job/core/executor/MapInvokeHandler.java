@@ -1,6 +1,7 @@
 package com.aizuda.snailjob.client.job.core.executor;
 
 import cn.hutool.core.lang.Assert;
+import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.client.common.rpc.client.RequestBuilder;
 import com.aizuda.snailjob.client.job.core.MapHandler;
@@ -30,6 +31,12 @@ import java.util.Objects;
  */
 public final class MapInvokeHandler implements InvocationHandler {
 
+    /**
+     * 每批上报的最大子任务数量
+     */
+    private static final int CHUNK_SIZE = 500;
+    private static final int CHUNK_RETRY_TIMES = 3;
+
     private static final JobNettyClient CLIENT = RequestBuilder.<JobNettyClient, SnailJobRpcResult>newBuilder()
             .client(JobNettyClient.class)
             .async(Boolean.FALSE)
@@ -53,16 +60,6 @@ public final class MapInvokeHandler implements InvocationHandler {
             throw new SnailJobMapReduceException("The task list can not empty {}", nextTaskName);
         }
 
-        // 超过200提醒用户注意分片数量过多
-        if (taskList.size() > 200) {
-            SnailJobLog.LOCAL.warn("[{}] map task size is too large, network maybe overload... please try to split the tasks.", nextTaskName);
-        }
-
-        // 超过500强制禁止分片
-        if (taskList.size() > 500) {
-            throw new SnailJobMapReduceException("[{}] map task size is too large, network maybe overload... please try to split the tasks.", nextTaskName);
-        }
-
         // taskName 任务命名和根任务名或者最终任务名称一致导致的问题（无限生成子任务或者直接失败）
         if (SystemConstants.ROOT_MAP.equals(nextTaskName)) {
             throw new SnailJobMapReduceException("The Next taskName can not be {}", SystemConstants.ROOT_MAP);
@@ -77,25 +74,53 @@ public final class MapInvokeHandler implements InvocationHandler {
         mapTaskRequest.setJobId(jobContext.getJobId());
         mapTaskRequest.setTaskBatchId(jobContext.getTaskBatchId());
         mapTaskRequest.setTaskName(nextTaskName);
-        mapTaskRequest.setSubTask(taskList);
         mapTaskRequest.setParentId(jobContext.getTaskId());
         mapTaskRequest.setWorkflowTaskBatchId(jobContext.getWorkflowTaskBatchId());
         mapTaskRequest.setWorkflowNodeId(jobContext.getWorkflowNodeId());
+        mapTaskRequest.setMapId(IdUtil.fastSimpleUUID());
         Map<String, Object> changeWfContext = jobContext.getChangeWfContext();
         if (Objects.nonNull(changeWfContext)) {
             mapTaskRequest.setWfContext(JsonUtil.toJsonString(changeWfContext));
         }
 
-        // 2. 同步发送请求
-        Result<Boolean> result = CLIENT.batchReportMapTask(mapTaskRequest);
-        if (StatusEnum.YES.getStatus() == result.getStatus() || (Objects.nonNull(result.getData()) && result.getData())) {
-            SnailJobLog.LOCAL.info("Map task create successfully!. taskName:[{}] TaskId:[{}] ", nextTaskName, jobContext.getTaskId());
-        } else {
-            throw new SnailJobMapReduceException("map failed for task: {} errorMsg:{}", nextTaskName, result.getMessage());
+        // 2. 按批同步发送请求, 上一批入库并分发后再发送下一批
+        int chunks = (taskList.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        for (int chunkSeq = 0; chunkSeq < chunks; chunkSeq++) {
+            int from = chunkSeq * CHUNK_SIZE;
+            mapTaskRequest.setSubTask(taskList.subList(from, Math.min(from + CHUNK_SIZE, taskList.size())));
+            mapTaskRequest.setChunkSeq(chunkSeq);
+            sendChunk(mapTaskRequest);
         }
 
+        SnailJobLog.LOCAL.info("Map task create successfully!. taskName:[{}] TaskId:[{}] size:[{}] chunks:[{}]",
+                nextTaskName, jobContext.getTaskId(), taskList.size(), chunks);
         return ExecuteResult.success();
     }
 
+    /**
+     * 发送一批子任务, 网络异常时使用相同的批次序号重试, 服务端按序号去重
+     */
+    private static void sendChunk(MapTaskRequest mapTaskRequest) {
+        Result<Boolean> result = null;
+        for (int i = 1; Objects.isNull(result); i++) {
+            try {
+                result = CLIENT.batchReportMapTask(mapTaskRequest);
+            } catch (Exception e) {
+                if (i >= CHUNK_RETRY_TIMES) {
+                    throw new SnailJobMapReduceException("map failed for task: {} chunkSeq:{} errorMsg:{}",
+                            mapTaskRequest.getTaskName(), mapTaskRequest.getChunkSeq(), e.getMessage());
+                }
+
+                SnailJobLog.LOCAL.warn("Map chunk report failed, retrying attempt [{}]. taskName:[{}] chunkSeq:[{}]",
+                        i, mapTaskRequest.getTaskName(), mapTaskRequest.getChunkSeq(), e);
+            }
+        }
+
+        if (StatusEnum.YES.getStatus() != result.getStatus() && !Boolean.TRUE.equals(result.getData())) {
+            throw new SnailJobMapReduceException("map failed for task: {} chunkSeq:{} errorMsg:{}",
+                    mapTaskRequest.getTaskName(), mapTaskRequest.getChunkSeq(), result.getMessage());
+        }
+    }
+
 
 }
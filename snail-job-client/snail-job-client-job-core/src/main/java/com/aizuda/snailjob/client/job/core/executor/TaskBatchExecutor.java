@@ -0,0 +1,151 @@
+package com.aizuda.snailjob.client.job.core.executor;
+
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import lombok.Getter;
+
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * 单个任务批次的执行器
+ * 任务实际运行在共享的线程池中, 这里只通过并行度许可控制同一批次同时运行的任务数,
+ * 超过并行度的任务在批次内排队, 有任务完成后再提交到共享线程池
+ * 共享线程池已满时任务放回队首, 等共享线程池中有任务完成后重试
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class TaskBatchExecutor implements Executor {
+
+    /**
+     * 批次内排队的最大任务数
+     */
+    private static final int MAX_PENDING_SIZE = 10000;
+
+    /**
+     * 因共享线程池已满而暂停提交的批次
+     */
+    private static final Set<TaskBatchExecutor> STALLED = ConcurrentHashMap.newKeySet();
+
+    @Getter
+    private final Long taskBatchId;
+    @Getter
+    private final int parallelNum;
+    private final Executor sharedExecutor;
+    private final Deque<Runnable> pendingTasks = new ConcurrentLinkedDeque<>();
+    private final Set<Future<?>> runningTasks = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    @Getter
+    private volatile boolean shutdown;
+
+    public TaskBatchExecutor(Long taskBatchId, int parallelNum, Executor sharedExecutor) {
+        this.taskBatchId = taskBatchId;
+        this.parallelNum = parallelNum;
+        this.sharedExecutor = sharedExecutor;
+        this.permits = new Semaphore(parallelNum);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Task batch executor has been shutdown. taskBatchId:" + taskBatchId);
+        }
+
+        if (pendingTasks.size() >= MAX_PENDING_SIZE) {
+            throw new RejectedExecutionException("Too many pending tasks. taskBatchId:" + taskBatchId);
+        }
+
+        pendingTasks.offerLast(command);
+        drain();
+    }
+
+    /**
+     * 停止批次: 丢弃排队中的任务并中断运行中的任务
+     */
+    public void shutdownNow() {
+        shutdown = true;
+        STALLED.remove(this);
+        Runnable task;
+        while ((task = pendingTasks.pollFirst()) != null) {
+            cancel(task);
+        }
+        for (Future<?> future : runningTasks) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * 共享线程池中有任务完成后, 重新提交暂停的批次
+     */
+    public static void retryStalled() {
+        if (STALLED.isEmpty()) {
+            return;
+        }
+
+        for (TaskBatchExecutor executor : STALLED) {
+            if (STALLED.remove(executor)) {
+                executor.drain();
+            }
+        }
+    }
+
+    private void drain() {
+        while (!shutdown && !pendingTasks.isEmpty() && permits.tryAcquire()) {
+            Runnable task = pendingTasks.pollFirst();
+            if (task == null) {
+                permits.release();
+                continue;
+            }
+
+            try {
+                sharedExecutor.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                // 共享线程池已满, 任务放回队首, 等共享线程池中有任务完成后再提交
+                SnailJobLog.LOCAL.warn("Shared job executor is full, task will be retried. taskBatchId:[{}]", taskBatchId);
+                pendingTasks.offerFirst(task);
+                permits.release();
+                if (shutdown) {
+                    // 放回期间批次已停止, 取消放回的任务
+                    shutdownNow();
+                } else {
+                    STALLED.add(this);
+                }
+                return;
+            }
+        }
+    }
+
+    private static void cancel(Runnable task) {
+        // 未执行的任务需要取消, 保证回调能够收到结果
+        if (task instanceof Future<?> future) {
+            future.cancel(true);
+        }
+    }
+
+    private void run(Runnable task) {
+        Future<?> future = task instanceof Future<?> f ? f : null;
+        if (future != null) {
+            runningTasks.add(future);
+        }
+
+        try {
+            if (shutdown) {
+                cancel(task);
+            } else {
+                task.run();
+            }
+        } finally {
+            if (future != null) {
+                runningTasks.remove(future);
+            }
+            permits.release();
+            // 继续执行批次内排队的任务
+            drain();
+            retryStalled();
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package com.aizuda.snailjob.client.job.core.executor.builtin;
 
-import cn.hutool.http.HttpRequest;
-import cn.hutool.http.HttpResponse;
+import cn.hutool.core.net.url.UrlBuilder;
 import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+import com.aizuda.snailjob.client.job.core.dto.AsyncExecuteResult;
 import com.aizuda.snailjob.model.dto.ExecuteResult;
 import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.exception.SnailJobInnerExecutorException;
@@ -12,10 +12,13 @@ import lombok.Data;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.util.StringUtils;
 
-import java.util.Base64;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.regex.Pattern;
 
 
@@ -35,6 +38,15 @@ public abstract class AbstractHttpExecutor implements InitializingBean {
     private static final String RESPONSE_CODE_FIELD = "code";
     private static final String JSON_RESPONSE_TYPE = "json";
     private static final String TEXT_RESPONSE_TYPE = "text";
+    private static final String CONTENT_TYPE = "Content-Type";
+    private static final String JSON_CONTENT_TYPE = "application/json;charset=UTF-8";
+    private static final String FORM_CONTENT_TYPE = "application/x-www-form-urlencoded;charset=UTF-8";
+    // JDK HttpClient 自行维护的请求头, 不允许手动设置
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    /**
+     * 请求通过共享连接池异步发送, 返回 {@link AsyncExecuteResult} 后立即释放执行线程, 收到响应后再上报执行结果
+     */
     public ExecuteResult process(HttpParams httpParams) {
         if (httpParams == null) {
             String message = "HttpParams is null. Verify jobParam configuration.";
@@ -53,17 +65,28 @@ public abstract class AbstractHttpExecutor implements InitializingBean {
                 httpParams.getMethod(),
                 httpParams.getTimeout());
 
-        HttpRequest httpRequest = buildhutoolRequest(httpParams);
+        HttpRequest httpRequest = buildRequest(httpParams);
 
         return executeRequestAndHandleResponse(httpRequest);
     }
 
     private ExecuteResult executeRequestAndHandleResponse(HttpRequest httpRequest) {
-        try (HttpResponse response = httpRequest.execute()) {
-            return validateResponse(response, httpRequest, snailJobProperties.getHttpResponse());
-        } catch (Exception e) {
-            throw new SnailJobInnerExecutorException("[snail-job] HTTP internal executor failed", e);
-        }
+        CompletableFuture<HttpResponse<String>> response = HttpExecutorClient.getInstance(snailJobProperties)
+                .sendAsync(httpRequest);
+        CompletableFuture<ExecuteResult> result = response
+                .thenApply(r -> validateResponse(r, httpRequest, snailJobProperties.getHttpResponse()))
+                .exceptionally(e -> {
+                    throw new SnailJobInnerExecutorException("[snail-job] HTTP internal executor failed",
+                            e instanceof CompletionException && Objects.nonNull(e.getCause()) ? e.getCause() : e);
+                });
+
+        // 任务停止时取消请求
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) {
+                response.cancel(true);
+            }
+        });
+        return new AsyncExecuteResult(result);
     }
 
     private void validateAndSetUrl(HttpParams httpParams) {
@@ -81,13 +104,13 @@ public abstract class AbstractHttpExecutor implements InitializingBean {
      * @param httpResponse
      * @return
      */
-    private ExecuteResult validateResponse(HttpResponse response, HttpRequest httpRequest, SnailJobProperties.HttpResponse httpResponse) {
-        int errCode = response.getStatus();
+    private ExecuteResult validateResponse(HttpResponse<String> response, HttpRequest httpRequest, SnailJobProperties.HttpResponse httpResponse) {
+        int errCode = response.statusCode();
         String body = response.body();
         // 检查http响应状态码是否为成功状态码
         if (errCode != HTTP_SUCCESS_CODE) {
             SnailJobLog.LOCAL.error("{} request to URL: {} failed with code: {}, response body: {}",
-                    httpRequest.getMethod(), httpRequest.getUrl(), errCode, body);
+                    httpRequest.method(), httpRequest.uri(), errCode, body);
             return ExecuteResult.failure("HTTP request failed");
         }
         // 如果配置了httpResponse，则根据响应类型进行进一步验证
@@ -136,7 +159,7 @@ public abstract class AbstractHttpExecutor implements InitializingBean {
         // 检查响应体中状态码是否与指定的状态码是否一致
         if (!Objects.equals(code, objectObjectMap.get(field))) {
             SnailJobLog.LOCAL.error("{} request to URL: {} failed with code: {}, response body: {}",
-                    httpRequest.getMethod(), httpRequest.getUrl(), code, body);
+                    httpRequest.method(), httpRequest.uri(), code, body);
             return ExecuteResult.failure("the response status code is not equal to the specified status code");
         }
         return ExecuteResult.success(body);
@@ -159,7 +182,7 @@ public abstract class AbstractHttpExecutor implements InitializingBean {
         // 检查响应体是否与指定的状态码是否一致
         if (!Objects.equals(code + "", body)) {
             SnailJobLog.LOCAL.error("{} request to URL: {} failed with code: {}, response body: {}",
-                    httpRequest.getMethod(), httpRequest.getUrl(), code, body);
+                    httpRequest.method(), httpRequest.uri(), code, body);
             return ExecuteResult.failure("the response status code is not equal to the specified status code");
         }
         return ExecuteResult.success(body);
@@ -191,25 +214,11 @@ public abstract class AbstractHttpExecutor implements InitializingBean {
     }
 
 
-    private HttpRequest buildhutoolRequest(HttpParams httpParams) {
-        HttpRequest request;
-        switch (httpParams.getMethod()) {
-            case PUT_REQUEST_METHOD:
-                request = HttpRequest.put(httpParams.url);
-                break;
-            case DELETE_REQUEST_METHOD:
-                request = HttpRequest.delete(httpParams.url);
-                break;
-            case POST_REQUEST_METHOD:
-                request = HttpRequest.post(httpParams.url);
-                break;
-            default:
-                request = HttpRequest.get(httpParams.url);
-                break;
-        }
+    private HttpRequest buildRequest(HttpParams httpParams) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(UrlBuilder.of(httpParams.getUrl(), StandardCharsets.UTF_8).toURI());
 
         if (Objects.nonNull(httpParams.getHeaders())) {
-            httpParams.getHeaders().forEach(request::header);
+            httpParams.getHeaders().forEach((key, value) -> header(request, key, value));
         }
         // 有上下文时，在请求中透传上下文;即工作流中支持上下文的传递
         if (Objects.nonNull(httpParams.getWfContext())) {
@@ -220,19 +229,44 @@ public abstract class AbstractHttpExecutor implements InitializingBean {
                     // 如果包含中文字符，则进行Base64编码
                     headerValue = Base64.getEncoder().encodeToString(headerValue.getBytes());
                 }
-                request.header(key, headerValue);
+                header(request, key, headerValue);
             });
         }
 
         if (Objects.nonNull(httpParams.getBody()) && (httpParams.getMethod().equals(POST_REQUEST_METHOD)
                 || httpParams.getMethod().equals(PUT_REQUEST_METHOD)
                 || httpParams.getMethod().equals(DELETE_REQUEST_METHOD))) {
-            request.body(httpParams.getBody(), httpParams.getMediaType());
+            setContentType(request, httpParams);
+            request.method(httpParams.getMethod(), HttpRequest.BodyPublishers.ofString(httpParams.getBody(), StandardCharsets.UTF_8));
+        } else {
+            request.method(httpParams.getMethod(), HttpRequest.BodyPublishers.noBody());
         }
 
-        request.timeout(httpParams.getTimeout());
+        request.timeout(Duration.ofMillis(httpParams.getTimeout()));
 
-        return request;
+        return request.build();
+    }
+
+    private void header(HttpRequest.Builder request, String key, String value) {
+        if (RESTRICTED_HEADERS.contains(key.toLowerCase())) {
+            logWarn("Header [{}] is managed by the HTTP client and ignored", key);
+            return;
+        }
+        request.header(key, value);
+    }
+
+    private void setContentType(HttpRequest.Builder request, HttpParams httpParams) {
+        if (StringUtils.hasLength(httpParams.getMediaType())) {
+            request.setHeader(CONTENT_TYPE, httpParams.getMediaType());
+            return;
+        }
+
+        boolean present = Objects.nonNull(httpParams.getHeaders())
+                && httpParams.getHeaders().keySet().stream().anyMatch(CONTENT_TYPE::equalsIgnoreCase);
+        if (!present) {
+            // 与之前的行为一致, 未指定时按请求体识别
+            request.setHeader(CONTENT_TYPE, JsonUtil.isValidJson(httpParams.getBody()) ? JSON_CONTENT_TYPE : FORM_CONTENT_TYPE);
+        }
     }
 
     @Data
@@ -1,7 +1,7 @@
 package com.aizuda.snailjob.client.job.core.executor.builtin;
 
+import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.StrUtil;
-import com.aizuda.snailjob.client.common.Lifecycle;
 import com.aizuda.snailjob.client.common.config.SnailJobProperties;
 import com.aizuda.snailjob.model.dto.ExecuteResult;
 import com.aizuda.snailjob.common.core.context.SnailSpringContext;
@@ -11,7 +11,6 @@ import com.aizuda.snailjob.common.core.util.SnailJobSystemUtil;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.InitializingBean;
 
 import java.io.*;
 import java.nio.charset.Charset;
@@ -19,7 +18,8 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 @Slf4j
@@ -29,11 +29,18 @@ public abstract class AbstractScriptExecutor {
 
     private static String WORKER_DIR;
 
+    private static final String RUN_DIR = "run";
+
+    private final ScriptOutputPump outputPump;
+    private final ScriptFileCache scriptFileCache;
+
     public AbstractScriptExecutor(SnailJobProperties snailJobProperties) {
         if (Objects.isNull(snailJobProperties)) {
             log.warn("snailJobProperties is null");
         }
         WORKER_DIR = SnailFileUtils.workspace(snailJobProperties);
+        outputPump = ScriptOutputPump.getInstance(snailJobProperties);
+        scriptFileCache = ScriptFileCache.getInstance(snailJobProperties);
     }
 
     // 下载脚本模式
@@ -51,96 +58,81 @@ public abstract class AbstractScriptExecutor {
             logWarn("ScriptParams is null, please check jobParam configuration.");
             return ExecuteResult.failure("ScriptParams is null.");
         }
-        String scriptPath = prepareScriptFile(jobId, scriptParams);
-        logInfo("Generate executable file successfully, path: {}", scriptPath);
 
         if (SnailJobSystemUtil.isOsWindows() && SH_SHELL.equals(getRunCommand())) {
             logWarn("Current OS is {} where shell scripts cannot run.", SnailJobSystemUtil.getOsName());
             return ExecuteResult.failure("Shell scripts cannot run on Windows.");
         }
 
-        if (!SnailJobSystemUtil.isOsWindows()) {
-            setScriptPermissions(scriptPath);
-        }
+        String scriptPath = prepareScriptFile(jobId, scriptParams);
+        logInfo("Generate executable file successfully, path: {}", scriptPath);
 
-        return executeScript(scriptPath, scriptParams);
+        // 每次执行使用独立的工作目录, 执行结束后删除
+        File runDir = createRunDirectory(jobId);
+        try {
+            return executeScript(scriptPath, runDir, scriptParams);
+        } finally {
+            FileUtil.del(runDir);
+        }
     }
 
+    /**
+     * 脚本按内容哈希缓存在工作目录下, 相同内容的脚本只写入一次
+     */
     private String prepareScriptFile(Long jobId, ScriptParams scriptParams) {
-        String scriptPath = WORKER_DIR + getScriptName(jobId);
-        File script = new File(scriptPath);
-        scriptPath = script.getAbsolutePath();
-
-        // 创建脚本目录
-        ensureScriptDirectory(script);
+        String suffix = StrUtil.DOT + FileUtil.extName(getScriptName(jobId));
 
         switch (scriptParams.getMethod()) {
             case SCRIPT_LOCAL_SCRIPT_METHOD:
                 // 是否是本地目录
-                return handleLocalScript(script, scriptPath, scriptParams.getScriptParams());
+                return handleLocalScript(scriptParams.getScriptParams(), suffix);
             case SCRIPT_DOWNLOAD_METHOD:
                 // 是否为下载
                 try {
-                    SnailJobFileUtil.downloadFile(scriptParams.getScriptParams(), script, 5000, 300000);
+                    return scriptFileCache.fromUrl(WORKER_DIR, scriptParams.getScriptParams(), suffix).toString();
                 } catch (IOException e) {
                     throw new SnailJobInnerExecutorException("[snail-job] Script download failed", e);
                 }
-                return scriptPath;
             case SCRIPT_SCRIPT_CODE_METHOD:
                 // 是否直接写入代码
                 try {
-                    writeScriptContent(script, scriptParams);
+                    byte[] content = scriptParams.getScriptParams().getBytes(getScriptChartset(scriptParams));
+                    return scriptFileCache.fromContent(WORKER_DIR, content, suffix).toString();
                 } catch (IOException e) {
                     throw new SnailJobInnerExecutorException("[snail-job] Failed to write script", e);
                 }
-                return scriptPath;
             default:
                 throw new SnailJobInnerExecutorException("[snail-job] Please correctly choose the script execution method.");
         }
     }
 
-    private String handleLocalScript(File script, String scriptPath, String processorInfo) {
+    private String handleLocalScript(String processorInfo, String suffix) {
         File routhFile = new File(processorInfo);
 
         // 判断文件是否存在
         if (routhFile.exists()) {
-            // 读取文件内容并写入到 script 中
-            try (BufferedReader br = new BufferedReader(new FileReader(routhFile));
-                 BufferedWriter bw = new BufferedWriter(new FileWriter(script))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    bw.write(line);
-                    bw.newLine();
-                }
-                bw.flush();
+            try {
+                return scriptFileCache.fromContent(WORKER_DIR, Files.readAllBytes(routhFile.toPath()), suffix).toString();
             } catch (IOException e) {
                 throw new SnailJobInnerExecutorException("[snail-job] Local script write exception", e);
             }
-            return scriptPath;
         } else {
             throw new SnailJobInnerExecutorException("File not found: {" + processorInfo + "}");
         }
     }
 
-    private void ensureScriptDirectory(File script) {
+    private File createRunDirectory(Long jobId) {
         try {
-            File parentDir = script.getParentFile();
-            if (!parentDir.exists()) {
-                logInfo("Script directory does not exist, creating: {}", parentDir.getAbsolutePath());
-                SnailJobFileUtil.mkdirs(parentDir);
+            File runRoot = new File(WORKER_DIR, RUN_DIR);
+            if (!runRoot.isDirectory()) {
+                SnailJobFileUtil.mkdirs(runRoot);
             }
-        } catch (SnailJobInnerExecutorException e) {
+            return Files.createTempDirectory(runRoot.toPath(), "job_" + jobId + "_").toFile();
+        } catch (IOException | SnailJobInnerExecutorException e) {
             throw new SnailJobInnerExecutorException("[snail-job] ensure script directory error", e);
         }
     }
 
-    private void writeScriptContent(File script, ScriptParams scriptParams) throws IOException {
-        try (BufferedWriter writer = Files.newBufferedWriter(script.toPath(), getScriptChartset(scriptParams))) {
-            writer.write(scriptParams.getScriptParams());
-            logInfo("Script content written successfully to: {}", script.getAbsolutePath());
-        }
-    }
-
     private Charset getScriptChartset(ScriptParams scriptParams) {
         String charsetName = scriptParams.getCharset();
         if (StrUtil.isNotBlank(charsetName)) {
@@ -153,28 +145,41 @@ public abstract class AbstractScriptExecutor {
         return getCharset();
     }
 
-    private void setScriptPermissions(String scriptPath) {
-        ProcessBuilder chmodPb = new ProcessBuilder("/bin/chmod", "755", scriptPath);
-        try {
-            chmodPb.start().waitFor();
-        } catch (InterruptedException | IOException e) {
-            throw new SnailJobInnerExecutorException("[snail-job] Failed to set script permissions", e);
-        }
-        logInfo("chmod 755 authorization complete, ready to start execution~");
-    }
-
-    private ExecuteResult executeScript(String scriptPath, ScriptParams scriptParams) {
+    private ExecuteResult executeScript(String scriptPath, File runDir, ScriptParams scriptParams) {
         ProcessBuilder pb = getScriptProcessBuilder(scriptPath);
+        if (Objects.isNull(pb.directory())) {
+            pb.directory(runDir);
+        }
 
+        Charset scriptChartset = getScriptChartset(scriptParams);
+        ScriptOutputPump.Output output = null;
         Process process = null;
-        ExecuteResult executeResult;
         try {
-            process = pb.start();
-            executeResult = captureOutput(process, scriptParams);
-        } catch (IOException | InterruptedException e) {
+            // 同时执行的脚本已达上限时等待, 保证启动后两个输出都有线程读取
+            output = outputPump.newOutput();
+            try {
+                process = pb.start();
+            } catch (IOException e) {
+                output.release();
+                throw e;
+            }
+
+            Future<?> inputFuture = outputPump.submit(output, "INPUT", process.getInputStream(), scriptChartset);
+            Future<?> errorFuture = outputPump.submit(output, "ERROR", process.getErrorStream(), scriptChartset);
+
+            // 等待子进程完成
+            boolean success = process.waitFor() == 0;
+
+            // 等待输出读取完成
+            inputFuture.get();
+            errorFuture.get();
+            output.complete();
+
+            return success ? ExecuteResult.success("Script executed successfully.") : ExecuteResult.failure("Script execution failed.");
+        } catch (IOException | InterruptedException | ExecutionException e) {
             throw new SnailJobInnerExecutorException("[snail-job] Script execution failed", e);
         } finally {
-            if (process.isAlive()) {
+            if (Objects.nonNull(process) && process.isAlive()) {
                 // 脚本执行失败 终止;
                 process.destroy();
                 try {
@@ -190,67 +195,6 @@ public abstract class AbstractScriptExecutor {
                 }
             }
         }
-
-        return executeResult;
-
-    }
-
-    private ExecuteResult captureOutput(Process process, ScriptParams scriptParams) throws InterruptedException {
-        StringBuilder inputBuilder = new StringBuilder();
-        StringBuilder errorBuilder = new StringBuilder();
-        // 使用CountDownLatch来确保输入流和错误流被捕获后再进行判断
-        CountDownLatch latch = new CountDownLatch(2);
-
-        Charset scriptChartset = getScriptChartset(scriptParams);
-        // 启动线程捕获标准输出
-        new Thread(() -> {
-            captureStream(process.getInputStream(), inputBuilder, scriptChartset);
-            latch.countDown();
-        }).start();
-
-        // 启动线程捕获错误输出
-        new Thread(() -> {
-            captureStream(process.getErrorStream(), errorBuilder, scriptChartset);
-            latch.countDown();
-        }).start();
-
-        // 等待子进程完成
-        boolean success = process.waitFor() == 0;
-
-        // 等待输入输出线程完成
-        latch.await();
-
-        String result = formatResult(inputBuilder, errorBuilder);
-        logInfo(result);
-
-        return success ? ExecuteResult.success("Script executed successfully.") : ExecuteResult.failure("Script execution failed.");
-    }
-
-    private void captureStream(InputStream is, StringBuilder sb, Charset charset) {
-        try (BufferedReader br = new BufferedReader(new InputStreamReader(is, charset))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                sb.append(line).append(System.lineSeparator());
-            }
-        } catch (Exception e) {
-            logWarn("Failed to capture stream.", e);
-        } finally {
-            closeQuietly(is);
-        }
-    }
-
-    private String formatResult(StringBuilder inputBuilder, StringBuilder errorBuilder) {
-        return String.format("[INPUT]: %s;[ERROR]: %s", inputBuilder, errorBuilder);
-    }
-
-    private void closeQuietly(Closeable closeable) {
-        try {
-            if (closeable != null) {
-                closeable.close();
-            }
-        } catch (IOException e) {
-            logWarn("Failed to close stream.", e);
-        }
     }
 
     protected abstract String getScriptName(Long instanceId);
@@ -0,0 +1,180 @@
+package com.aizuda.snailjob.client.job.core.executor.builtin;
+
+import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 内置http执行器共享的异步http客户端
+ * <ul>
+ *     <li>所有任务共用一个 {@link HttpClient}, 连接由客户端保持长连接并复用, 避免每次执行都重新建立TCP/TLS连接</li>
+ *     <li>每个host同时进行中的请求数不超过 maxRequestsPerHost, 超出的请求排队, 前序请求完成后发送</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+final class HttpExecutorClient {
+
+    private static volatile HttpExecutorClient INSTANCE;
+
+    private final HttpClient httpClient;
+    private final int maxRequestsPerHost;
+    private final Map<String/*host*/, HostPermits> hostPermits = new ConcurrentHashMap<>();
+
+    private HttpExecutorClient(SnailJobProperties.HttpExecutor config) {
+        this.httpClient = HttpClient.newBuilder()
+                // HTTP/2 下同一host的请求复用一个连接, 受服务端并发流上限约束, maxRequestsPerHost 不再生效
+                .version(Optional.ofNullable(config.getVersion()).orElse(HttpClient.Version.HTTP_1_1))
+                .connectTimeout(config.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.maxRequestsPerHost = Math.max(1, config.getMaxRequestsPerHost());
+    }
+
+    static HttpExecutorClient getInstance(SnailJobProperties snailJobProperties) {
+        if (Objects.isNull(INSTANCE)) {
+            synchronized (HttpExecutorClient.class) {
+                if (Objects.isNull(INSTANCE)) {
+                    SnailJobProperties.HttpExecutor config = Objects.isNull(snailJobProperties)
+                            ? new SnailJobProperties.HttpExecutor() : snailJobProperties.getJob().getHttpExecutor();
+                    INSTANCE = new HttpExecutorClient(config);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 异步发送请求, 取消返回的future时同时取消排队或者进行中的请求
+     */
+    CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        HostPermits permits = hostPermits.computeIfAbsent(hostKey(request.uri()), key -> new HostPermits(maxRequestsPerHost));
+        return permits.submit(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static String hostKey(URI uri) {
+        return uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort();
+    }
+
+    /**
+     * 单个host同时进行中的请求数限制
+     */
+    static final class HostPermits {
+
+        private final int maxRequests;
+        private final Queue<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int active;
+
+        HostPermits(int maxRequests) {
+            this.maxRequests = maxRequests;
+        }
+
+        /**
+         * 取得名额后发送请求, 取消返回的future时同时取消排队或者进行中的请求
+         * 取得的名额只在两处归还且互斥: 请求结束时, 或者名额转交时返回的future已结束(请求不再发送)
+         *
+         * @param request 发送请求
+         * @return 请求的结果
+         */
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+            CompletableFuture<Void> acquired = acquire();
+            AtomicReference<CompletableFuture<T>> sending = new AtomicReference<>();
+            CompletableFuture<T> response = new CompletableFuture<>();
+
+            acquired.whenComplete((ignored, e) -> {
+                if (Objects.nonNull(e)) {
+                    // 排队时被取消, 未取得名额
+                    response.completeExceptionally(e);
+                    return;
+                }
+
+                if (response.isDone()) {
+                    // 名额转交时请求已被取消
+                    release();
+                    return;
+                }
+
+                CompletableFuture<T> future;
+                try {
+                    future = request.get();
+                } catch (Throwable ex) {
+                    release();
+                    response.completeExceptionally(ex);
+                    return;
+                }
+                sending.set(future);
+                future.whenComplete((r, ex) -> {
+                    release();
+                    if (Objects.nonNull(ex)) {
+                        response.completeExceptionally(ex);
+                    } else {
+                        response.complete(r);
+                    }
+                });
+
+                // 检查之后、登记之前被取消时, 取消回调拿不到已发送的请求
+                if (response.isCancelled()) {
+                    future.cancel(true);
+                }
+            });
+
+            response.whenComplete((r, e) -> {
+                if (!response.isCancelled()) {
+                    return;
+                }
+
+                // 仍在排队时取消, 不再占用名额; 已发送的请求中断连接
+                acquired.cancel(true);
+                CompletableFuture<T> future = sending.get();
+                if (Objects.nonNull(future)) {
+                    future.cancel(true);
+                }
+            });
+            return response;
+        }
+
+        private synchronized CompletableFuture<Void> acquire() {
+            if (active < maxRequests) {
+                active++;
+                return CompletableFuture.completedFuture(null);
+            }
+
+            CompletableFuture<Void> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            return waiter;
+        }
+
+        private void release() {
+            CompletableFuture<Void> next;
+            synchronized (this) {
+                do {
+                    next = waiters.poll();
+                } while (Objects.nonNull(next) && next.isCancelled());
+
+                if (Objects.isNull(next)) {
+                    active--;
+                    return;
+                }
+            }
+
+            // 名额直接转交给下一个请求
+            if (!next.complete(null)) {
+                release();
+            }
+        }
+    }
+}
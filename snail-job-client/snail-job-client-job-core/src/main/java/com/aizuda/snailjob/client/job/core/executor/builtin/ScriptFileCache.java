@@ -0,0 +1,253 @@
+package com.aizuda.snailjob.client.job.core.executor.builtin;
+
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+import com.aizuda.snailjob.common.core.exception.SnailJobInnerExecutorException;
+import com.aizuda.snailjob.common.core.util.SnailJobFileUtil;
+import com.aizuda.snailjob.common.core.util.SnailJobSystemUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按内容哈希存储的脚本文件
+ * <ul>
+ *     <li>脚本文件名为内容的SHA-256, 写入后不再修改, 相同内容的脚本只写入一次, 多次执行共享同一个文件</li>
+ *     <li>下载的脚本按URL记录ETag/Last-Modified, 再次执行时发送条件请求, 未修改时直接使用本地文件</li>
+ *     <li>每次使用时刷新文件的修改时间, 超过 cacheExpire 未使用的脚本定期删除</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+final class ScriptFileCache {
+
+    private static final int CONNECT_TIMEOUT = 5000;
+    private static final String CACHE_DIR = "scripts";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    /**
+     * 清理过期脚本的最小间隔
+     */
+    private static final long EVICT_INTERVAL_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static volatile ScriptFileCache INSTANCE;
+
+    private final Map<String/*URL*/, Download> downloads = new ConcurrentHashMap<>();
+    private final AtomicLong lastEvictAt = new AtomicLong();
+    private final int readTimeout;
+    private final long expireMillis;
+
+    private ScriptFileCache(SnailJobProperties.Script script) {
+        this.readTimeout = (int) Math.max(1000, script.getDownloadReadTimeout().toMillis());
+        this.expireMillis = script.getCacheExpire().toMillis();
+    }
+
+    static ScriptFileCache getInstance(SnailJobProperties snailJobProperties) {
+        if (Objects.isNull(INSTANCE)) {
+            synchronized (ScriptFileCache.class) {
+                if (Objects.isNull(INSTANCE)) {
+                    SnailJobProperties.Script script = Objects.isNull(snailJobProperties)
+                            ? new SnailJobProperties.Script() : snailJobProperties.getJob().getScript();
+                    INSTANCE = new ScriptFileCache(script);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 写入脚本内容
+     *
+     * @param workerDir 工作目录
+     * @param content   脚本内容
+     * @param suffix    脚本后缀
+     * @return 脚本文件
+     */
+    Path fromContent(String workerDir, byte[] content, String suffix) throws IOException {
+        evictExpired(workerDir);
+        Path script = cacheDir(workerDir).resolve(sha256(content) + suffix);
+        if (touch(script)) {
+            return script;
+        }
+
+        Path tmp = Files.createTempFile(cacheDir(workerDir), "script_", TMP_SUFFIX);
+        try {
+            Files.write(tmp, content);
+            return publish(tmp, script);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * 下载脚本, 服务器返回未修改时使用上次下载的文件
+     *
+     * @param workerDir 工作目录
+     * @param url       脚本地址
+     * @param suffix    脚本后缀
+     * @return 脚本文件
+     */
+    Path fromUrl(String workerDir, String url, String suffix) throws IOException {
+        evictExpired(workerDir);
+        Download cached = downloads.get(url);
+        if (Objects.nonNull(cached) && !Files.exists(cached.path())) {
+            downloads.remove(url, cached);
+            cached = null;
+        }
+
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(readTimeout);
+        if (Objects.nonNull(cached)) {
+            if (StrUtil.isNotBlank(cached.etag())) {
+                connection.setRequestProperty("If-None-Match", cached.etag());
+            }
+            if (cached.lastModified() > 0) {
+                connection.setIfModifiedSince(cached.lastModified());
+            }
+        }
+
+        try {
+            int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED && Objects.nonNull(cached)) {
+                if (touch(cached.path())) {
+                    return cached.path();
+                }
+
+                // 本地文件已被清理, 不带条件重新下载
+                downloads.remove(url, cached);
+                return fromUrl(workerDir, url, suffix);
+            }
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException(StrUtil.format("Unexpected response code:[{}] url:[{}]", code, url));
+            }
+
+            Path tmp = Files.createTempFile(cacheDir(workerDir), "script_", TMP_SUFFIX);
+            try {
+                MessageDigest digest = newDigest();
+                try (InputStream in = new DigestInputStream(new BufferedInputStream(connection.getInputStream()), digest)) {
+                    Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                Path script = publish(tmp, cacheDir(workerDir).resolve(HexFormat.of().formatHex(digest.digest()) + suffix));
+                // 服务器不支持条件请求时每次都需要重新下载
+                String etag = connection.getHeaderField("ETag");
+                long lastModified = connection.getLastModified();
+                if (StrUtil.isNotBlank(etag) || lastModified > 0) {
+                    downloads.put(url, new Download(script, etag, lastModified));
+                }
+                return script;
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * 删除超过 cacheExpire 未使用的脚本, 间隔不足 EVICT_INTERVAL_MILLIS 时跳过
+     */
+    private void evictExpired(String workerDir) {
+        long now = System.currentTimeMillis();
+        long last = lastEvictAt.get();
+        if (now - last < EVICT_INTERVAL_MILLIS || !lastEvictAt.compareAndSet(last, now)) {
+            return;
+        }
+
+        long expireBefore = now - expireMillis;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir(workerDir))) {
+            for (Path file : files) {
+                try {
+                    if (Files.isRegularFile(file) && Files.getLastModifiedTime(file).toMillis() < expireBefore) {
+                        Files.deleteIfExists(file);
+                        SnailJobLog.LOCAL.info("[snail-job] Expired script deleted. path:[{}]", file);
+                    }
+                } catch (IOException e) {
+                    SnailJobLog.LOCAL.warn("[snail-job] Failed to delete expired script. path:[{}]", file, e);
+                }
+            }
+        } catch (IOException e) {
+            SnailJobLog.LOCAL.warn("[snail-job] Failed to list cached scripts. dir:[{}]", workerDir, e);
+        }
+    }
+
+    /**
+     * 刷新脚本的修改时间, 记录最近一次使用
+     *
+     * @return 脚本是否存在
+     */
+    private static boolean touch(Path script) {
+        try {
+            Files.setLastModifiedTime(script, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            return Files.exists(script);
+        }
+    }
+
+    private static Path publish(Path tmp, Path script) throws IOException {
+        if (touch(script)) {
+            return script;
+        }
+
+        if (!SnailJobSystemUtil.isOsWindows()) {
+            try {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rwxr-xr-x"));
+            } catch (UnsupportedOperationException e) {
+                tmp.toFile().setExecutable(true, false);
+            }
+        }
+
+        try {
+            Files.move(tmp, script, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+            // 并发写入相同内容时以先写入的为准
+            if (!Files.exists(script)) {
+                Files.move(tmp, script, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        SnailJobLog.LOCAL.info("[snail-job] Script cached. path:[{}]", script);
+        return script;
+    }
+
+    private static Path cacheDir(String workerDir) {
+        File dir = new File(workerDir, CACHE_DIR);
+        if (!dir.isDirectory()) {
+            SnailJobFileUtil.mkdirs(dir);
+        }
+        return dir.toPath().toAbsolutePath();
+    }
+
+    private static String sha256(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new SnailJobInnerExecutorException("[snail-job] SHA-256 is not supported", e);
+        }
+    }
+
+    private record Download(Path path, String etag, long lastModified) {
+    }
+}
@@ -0,0 +1,177 @@
+package com.aizuda.snailjob.client.job.core.executor.builtin;
+
+import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+import com.aizuda.snailjob.client.common.log.report.LogMeta;
+import com.aizuda.snailjob.client.common.log.support.SnailJobLogManager;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.common.log.enums.LogTypeEnum;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 脚本输出转发
+ * <ul>
+ *     <li>标准输出和错误输出由共享的有界线程池读取, 执行任务的线程只等待进程结束, 任务停止时可被中断</li>
+ *     <li>每次执行在启动进程前获取许可, 许可数为线程数的一半, 保证两个输出都能立即得到线程读取;
+ *     否则一个输出排队时脚本写满该管道后阻塞, 正在读取另一个输出的线程也无法释放, 线程全部被占用后互相等待</li>
+ *     <li>输出按 outputChunkSize 分段实时上报, 单次执行超过 maxOutputSize 的部分丢弃</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+final class ScriptOutputPump {
+
+    /**
+     * 每次执行需要同时读取标准输出和错误输出
+     */
+    private static final int STREAMS = 2;
+    private static volatile ScriptOutputPump INSTANCE;
+
+    private final ThreadPoolExecutor pool;
+    private final Semaphore permits;
+    private final int chunkSize;
+    private final long maxOutputSize;
+
+    private ScriptOutputPump(SnailJobProperties.Script script) {
+        int concurrency = Math.max(1, script.getOutputPumpThreads() / STREAMS);
+        int threads = concurrency * STREAMS;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("snail-job-script-output-");
+        threadFactory.setDaemon(true);
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                threadFactory);
+        this.pool.allowCoreThreadTimeOut(true);
+        this.permits = new Semaphore(concurrency);
+        this.chunkSize = Math.max(256, script.getOutputChunkSize());
+        this.maxOutputSize = script.getMaxOutputSize();
+    }
+
+    static ScriptOutputPump getInstance(SnailJobProperties snailJobProperties) {
+        if (Objects.isNull(INSTANCE)) {
+            synchronized (ScriptOutputPump.class) {
+                if (Objects.isNull(INSTANCE)) {
+                    SnailJobProperties.Script script = Objects.isNull(snailJobProperties)
+                            ? new SnailJobProperties.Script() : snailJobProperties.getJob().getScript();
+                    INSTANCE = new ScriptOutputPump(script);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * 单次执行的输出, 同时执行的脚本已达上限时等待
+     * 两个输出都读取结束后释放许可, 进程未启动时需要调用 {@link Output#release()}
+     */
+    Output newOutput() throws InterruptedException {
+        permits.acquire();
+        return new Output();
+    }
+
+    /**
+     * 在共享线程中读取输出
+     *
+     * @return 读取完成
+     */
+    Future<?> submit(Output output, String label, InputStream is, Charset charset) {
+        LogMeta logMeta = SnailJobLogManager.getLogMeta();
+        LogTypeEnum logType = SnailJobLogManager.getLogType();
+        return pool.submit(() -> {
+            SnailJobLogManager.initLogInfo(logMeta, logType);
+            try {
+                output.pump(label, is, charset);
+            } finally {
+                SnailJobLogManager.removeAll();
+                output.streamClosed();
+            }
+        });
+    }
+
+    class Output {
+
+        private final AtomicLong remaining = new AtomicLong(maxOutputSize);
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicInteger openStreams = new AtomicInteger(STREAMS);
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * 读取输出直到结束, 每读满一段或者输出暂停时上报一次
+         */
+        void pump(String label, InputStream is, Charset charset) {
+            char[] buffer = new char[chunkSize];
+            StringBuilder pending = new StringBuilder();
+            try (Reader reader = new InputStreamReader(is, charset)) {
+                int read;
+                while ((read = reader.read(buffer)) != -1) {
+                    pending.append(buffer, 0, read);
+                    if (pending.length() >= chunkSize || !reader.ready()) {
+                        flush(label, pending);
+                    }
+                }
+                flush(label, pending);
+            } catch (IOException e) {
+                SnailJobLog.REMOTE.warn("[snail-job] Failed to capture stream.", e);
+            }
+        }
+
+        /**
+         * 归还许可
+         */
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        private void streamClosed() {
+            if (openStreams.decrementAndGet() == 0) {
+                release();
+            }
+        }
+
+        /**
+         * 上报被丢弃的输出数量
+         */
+        void complete() {
+            long droppedSize = dropped.get();
+            if (droppedSize > 0) {
+                SnailJobLog.REMOTE.warn("[snail-job] Script output exceeds maxOutputSize:[{}], [{}] chars discarded",
+                        maxOutputSize, droppedSize);
+            }
+        }
+
+        private void flush(String label, StringBuilder pending) {
+            for (int start = 0; start < pending.length(); start += chunkSize) {
+                forward(label, pending.substring(start, Math.min(pending.length(), start + chunkSize)));
+            }
+            pending.setLength(0);
+        }
+
+        private void forward(String label, String chunk) {
+            int length = chunk.length();
+            long before = remaining.getAndAdd(-length);
+            if (before <= 0) {
+                dropped.addAndGet(length);
+                return;
+            }
+
+            if (before < length) {
+                dropped.addAndGet(length - before);
+                chunk = chunk.substring(0, (int) before);
+            }
+
+            SnailJobLog.REMOTE.info("[snail-job] [{}]: {}", label, chunk.stripTrailing());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.aizuda.snailjob.client.job.core.executor.builtin;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 单个host的请求名额在取消时的归还
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class HostPermitsTest {
+
+    @Test
+    public void cancelWhileQueued() {
+        HttpExecutorClient.HostPermits permits = new HttpExecutorClient.HostPermits(1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        AtomicInteger queuedSent = new AtomicInteger();
+
+        CompletableFuture<String> running = permits.submit(() -> first);
+        CompletableFuture<String> queued = permits.submit(() -> {
+            queuedSent.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+        assertFalse(queued.isDone());
+
+        queued.cancel(true);
+        first.complete("first");
+        assertEquals("first", running.join());
+        assertEquals(0, queuedSent.get());
+
+        // 排队时取消的请求不再占用名额
+        assertTrue(permits.submit(() -> CompletableFuture.completedFuture("next")).isDone());
+    }
+
+    @Test
+    public void cancelDuringHandOver() {
+        HttpExecutorClient.HostPermits permits = new HttpExecutorClient.HostPermits(1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        AtomicInteger queuedSent = new AtomicInteger();
+
+        permits.submit(() -> first);
+        CompletableFuture<String> queued = permits.submit(() -> {
+            queuedSent.incrementAndGet();
+            return new CompletableFuture<>();
+        });
+
+        // 调用方已放弃请求但排队的名额仍在, 名额转交给它时应直接归还
+        queued.completeExceptionally(new IllegalStateException("abandoned"));
+        first.complete("first");
+        assertEquals(0, queuedSent.get());
+
+        assertTrue(permits.submit(() -> CompletableFuture.completedFuture("next")).isDone());
+    }
+
+    @Test
+    public void cancelAfterSent() {
+        HttpExecutorClient.HostPermits permits = new HttpExecutorClient.HostPermits(1);
+        CompletableFuture<String> sent = new CompletableFuture<>();
+
+        CompletableFuture<String> response = permits.submit(() -> sent);
+        response.cancel(true);
+
+        // 已发送的请求被中断, 结束后归还名额
+        assertTrue(sent.isCancelled());
+        assertTrue(permits.submit(() -> CompletableFuture.completedFuture("next")).isDone());
+    }
+
+    @Test
+    public void queuedRequestSentAfterRelease() {
+        HttpExecutorClient.HostPermits permits = new HttpExecutorClient.HostPermits(1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+
+        permits.submit(() -> first);
+        CompletableFuture<String> queued = permits.submit(() -> CompletableFuture.completedFuture("second"));
+        assertFalse(queued.isDone());
+
+        first.complete("first");
+        assertEquals("second", queued.join());
+    }
+}
@@ -2,9 +2,12 @@ package com.aizuda.snailjob.client.core.report;
 
 import com.aizuda.snailjob.client.common.Lifecycle;
 import com.aizuda.snailjob.client.common.config.SnailJobProperties;
+import com.aizuda.snailjob.client.common.exception.SnailJobClientException;
+import com.aizuda.snailjob.client.common.spool.ReportSpool;
 import com.aizuda.snailjob.client.common.window.SlidingRingWindow;
 import com.aizuda.snailjob.client.core.retryer.RetryerInfo;
 import com.aizuda.snailjob.model.request.RetryTaskRequest;
+import com.aizuda.snailjob.common.core.window.Listener;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.google.common.collect.Lists;
 import org.springframework.stereotype.Component;
@@ -24,6 +27,7 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class AsyncReport extends AbstractReport implements Lifecycle {
     private SlidingRingWindow<RetryTaskRequest> slidingWindow;
+    private ReportSpool<RetryTaskRequest> spool;
 
     @Override
     public boolean supports(boolean async) {
@@ -54,7 +58,21 @@ public class AsyncReport extends AbstractReport implements Lifecycle {
 
         ChronoUnit chronoUnit = slidingWindowConfig.getChronoUnit();
         Duration duration = Duration.of(slidingWindowConfig.getDuration(), chronoUnit);
-        slidingWindow= new SlidingRingWindow<>(duration, slidingWindowConfig.getTotalThreshold(), Lists.newArrayList(new ReportListener()));
+        Listener<RetryTaskRequest> listener = new ReportListener();
+        if (snailJobProperties.getSpool().isEnabled()) {
+            // 先写入本地缓冲再由缓冲的发送线程上报, 服务端不可用时不会阻塞窗口线程也不会丢失数据
+            spool = new ReportSpool<>("retry-report", RetryTaskRequest.class, snailJobProperties,
+                    ReportListener::syncReport,
+                    list -> ReportListener.sendMessage(new SnailJobClientException(
+                            "Report spool is full, discard [{}] records", list.size())),
+                    (list, result) -> ReportListener.sendMessage(new SnailJobClientException(
+                            "Report rejected by server, [{}] records moved to dead letter. message:[{}]",
+                            list.size(), result.getMessage())));
+            spool.start();
+            listener = spool;
+        }
+
+        slidingWindow= new SlidingRingWindow<>(duration, slidingWindowConfig.getTotalThreshold(), Lists.newArrayList(listener));
 
     }
 
@@ -64,6 +82,9 @@ public class AsyncReport extends AbstractReport implements Lifecycle {
         if (Objects.nonNull(slidingWindow)) {
             slidingWindow.shutdown();
         }
+        if (Objects.nonNull(spool)) {
+            spool.close();
+        }
         SnailJobLog.LOCAL.info("AsyncReport has been shutdown");
     }
 }
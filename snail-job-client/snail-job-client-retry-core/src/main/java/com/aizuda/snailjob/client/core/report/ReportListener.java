@@ -56,6 +56,16 @@ public class ReportListener implements Listener<RetryTaskRequest> {
             .client(RpcClient.class)
             .callback(nettyResult -> SnailJobLog.LOCAL.info("Data report successfully requestId:[{}]", nettyResult.getReqId())).build();
 
+    /**
+     * 开启本地缓冲时由缓冲的发送线程同步上报, 根据结果确认或重新发送
+     */
+    private static final RpcClient SYNC_CLIENT = RequestBuilder.<RpcClient, SnailJobRpcResult>newBuilder()
+            .client(RpcClient.class)
+            .async(false)
+            .timeout(10)
+            .unit(TimeUnit.SECONDS)
+            .build();
+
     @Override
     public void handler(List<RetryTaskRequest> list) {
         RetryExecutor<WaitStrategy, StopStrategy> retryExecutor =
@@ -77,6 +87,16 @@ public class ReportListener implements Listener<RetryTaskRequest> {
         }
     }
 
+    /**
+     * 同步上报
+     *
+     * @param list 重试数据
+     * @return 服务端的处理结果
+     */
+    static SnailJobRpcResult syncReport(List<RetryTaskRequest> list) {
+        return SYNC_CLIENT.reportRetryInfo(list);
+    }
+
     public RetryExecutorParameter<WaitStrategy, StopStrategy> getRetryExecutorParameter() {
         return new RetryExecutorParameter<WaitStrategy, StopStrategy>() {
 
@@ -107,7 +127,7 @@ public class ReportListener implements Listener<RetryTaskRequest> {
         };
     }
 
-    private void sendMessage(Throwable e) {
+    static void sendMessage(Throwable e) {
 
         try {
             ConfigRequest.Notify notify = GroupVersionCache.getRetryNotifyAttribute(RetryNotifySceneEnum.CLIENT_REPORT_ERROR.getNotifyScene());
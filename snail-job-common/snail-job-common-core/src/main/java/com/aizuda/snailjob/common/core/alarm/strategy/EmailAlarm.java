@@ -3,6 +3,7 @@ package com.aizuda.snailjob.common.core.alarm.strategy;
 import cn.hutool.core.util.ObjUtil;
 import com.aizuda.snailjob.common.core.alarm.AlarmContext;
 import com.aizuda.snailjob.common.core.alarm.attribute.EmailAttribute;
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
 import com.aizuda.snailjob.common.core.alarm.email.MailAccount;
 import com.aizuda.snailjob.common.core.alarm.email.SnailJobMailProperties;
 import com.aizuda.snailjob.common.core.enums.AlarmTypeEnum;
@@ -84,8 +85,8 @@ public class EmailAlarm extends AbstractAlarm<AlarmContext> {
         account.setSocketFactoryPort(Optional.ofNullable(snailJobMailProperties.getPort()).orElse(465));
         account.setStarttlsEnable(Optional.ofNullable(snailJobMailProperties.getStarttlsEnable()).orElse(Boolean.FALSE));
         account.setSslEnable(Optional.ofNullable(snailJobMailProperties.getSslEnable()).orElse(Boolean.FALSE));
-        account.setTimeout(Optional.ofNullable(snailJobMailProperties.getTimeout()).orElse(0L));
-        account.setConnectionTimeout(Optional.ofNullable(snailJobMailProperties.getConnectionTimeout()).orElse(0L));
+        account.setTimeout(Optional.ofNullable(snailJobMailProperties.getTimeout()).orElse((long) SystemConstants.ALARM_SEND_TIMEOUT));
+        account.setConnectionTimeout(Optional.ofNullable(snailJobMailProperties.getConnectionTimeout()).orElse((long) SystemConstants.ALARM_SEND_TIMEOUT));
 
         if (ObjUtil.isNotEmpty(snailJobMailProperties.getProperties())) {
             snailJobMailProperties.getProperties().forEach(account::setCustomProperty);
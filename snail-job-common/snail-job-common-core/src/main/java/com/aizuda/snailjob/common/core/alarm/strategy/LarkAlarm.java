@@ -56,7 +56,7 @@ public class LarkAlarm extends AbstractAlarm<AlarmContext> {
                     .msgType("interactive")
                     .card(map).build();
 
-            HttpRequest post = HttpUtil.createPost(larkAttribute.getWebhookUrl());
+            HttpRequest post = HttpUtil.createPost(larkAttribute.getWebhookUrl()).timeout(SystemConstants.ALARM_SEND_TIMEOUT);
             HttpRequest request = post.body(JsonUtil.toJsonString(builder), ContentType.JSON.toString());
             HttpResponse execute = request.execute();
             if (execute.isOk()) {
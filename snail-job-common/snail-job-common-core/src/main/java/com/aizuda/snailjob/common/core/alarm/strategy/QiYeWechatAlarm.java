@@ -8,6 +8,7 @@ import cn.hutool.http.HttpResponse;
 import cn.hutool.http.HttpUtil;
 import com.aizuda.snailjob.common.core.alarm.AlarmContext;
 import com.aizuda.snailjob.common.core.alarm.attribute.QiYeWechatAttribute;
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
 import com.aizuda.snailjob.common.core.enums.AlarmTypeEnum;
 import com.aizuda.snailjob.common.core.util.DingDingUtils;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
@@ -50,7 +51,7 @@ public class QiYeWechatAlarm extends AbstractAlarm<AlarmContext> {
             messageContent.setContent(StrUtil.sub(DingDingUtils.getAtText(qiYeWechatAttribute.getAts(), context.getText(), AT_LABEL), 0, 4096));
             map.put("msgtype", "markdown");
             map.put("markdown", messageContent);
-            HttpRequest post = HttpUtil.createPost(webhookUrl);
+            HttpRequest post = HttpUtil.createPost(webhookUrl).timeout(SystemConstants.ALARM_SEND_TIMEOUT);
             HttpRequest request = post.body(JsonUtil.toJsonString(map), ContentType.JSON.toString());
             HttpResponse execute = request.execute();
             SnailJobLog.LOCAL.debug(JsonUtil.toJsonString(execute));
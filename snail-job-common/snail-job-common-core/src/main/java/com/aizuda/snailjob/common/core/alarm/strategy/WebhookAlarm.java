@@ -37,7 +37,7 @@ public class WebhookAlarm extends AbstractAlarm<AlarmContext> {
         try {
             WebhookMessage webhookMessage = WebhookMessage.builder().text(alarmContext.getTitle()).build();
 
-            HttpRequest post = HttpUtil.createPost(webhookAttribute.getWebhookUrl());
+            HttpRequest post = HttpUtil.createPost(webhookAttribute.getWebhookUrl()).timeout(SystemConstants.ALARM_SEND_TIMEOUT);
             HttpRequest request = post.body(JsonUtil.toJsonString(webhookMessage), ContentTypeEnum.valueOf(webhookAttribute.getContentType()).getMediaType().toString())
                     .header(SystemConstants.SECRET, webhookAttribute.getSecret());
             HttpResponse execute = request.execute();
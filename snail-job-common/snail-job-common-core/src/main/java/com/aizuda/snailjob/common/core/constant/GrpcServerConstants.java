@@ -9,4 +9,11 @@ public interface GrpcServerConstants {
     String UNARY_SERVICE_NAME = "UnaryRequest";
 
     String UNARY_METHOD_NAME = "unaryRequest";
+
+    /**
+     * 服务端之间的心跳双向流
+     */
+    String HEARTBEAT_SERVICE_NAME = "ServerHeartbeat";
+
+    String HEARTBEAT_METHOD_NAME = "heartbeat";
 }
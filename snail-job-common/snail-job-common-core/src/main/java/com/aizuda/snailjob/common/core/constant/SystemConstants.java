@@ -30,6 +30,16 @@ public interface SystemConstants {
      */
     long DEFAULT_DDL = 60000L;
 
+    /**
+     * 发送告警的超时时间 单位毫秒(ms), 未配置超时时间的通知渠道使用此值, 避免发送线程被长时间占用
+     */
+    int ALARM_SEND_TIMEOUT = 10000;
+
+    /**
+     * 客户端扩展能力: 支持批量调度 {@link HTTP_PATH#JOB_BATCH_DISPATCH}
+     */
+    String FEATURE_BATCH_DISPATCH = "batch-dispatch";
+
     /**
      * 心跳
      */
@@ -90,6 +100,11 @@ public interface SystemConstants {
          */
         String JOB_DISPATCH = "/job/dispatch/v1";
 
+        /**
+         * 批量执行任务
+         */
+        String JOB_BATCH_DISPATCH = "/job/batch/dispatch/v1";
+
         /**
          * 停止任务
          */
@@ -140,6 +155,21 @@ public interface SystemConstants {
          */
         String RETRY_DESERIALIZE_ARGS = "/retry/deserialize/args/v1";
 
+        /**
+         * 同步本节点控制台订阅的任务日志
+         */
+        String JOB_LOG_TOPIC_SYNC = "/job/log/topic/sync/v1";
+
+        /**
+         * 转发其他节点保存的任务日志
+         */
+        String JOB_LOG_PUSH = "/job/log/push/v1";
+
+        /**
+         * 将本节点生成或重试的未完成批次登记到持有bucket的节点
+         */
+        String RUNNING_JOB_BATCH_REGISTER = "/job/batch/running/register/v1";
+
         // open api 相关接口
         // ==================================job ========================//
         String OPENAPI_ADD_JOB = "/api/job/add";
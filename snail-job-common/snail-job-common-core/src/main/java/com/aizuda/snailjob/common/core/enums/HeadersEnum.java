@@ -23,7 +23,19 @@ public enum HeadersEnum {
     TOKEN("token"),
     LABEL("label"),
     EXECUTOR_TYPE("executor-type"),
-    SYSTEM_VERSION("system-version")
+    SYSTEM_VERSION("system-version"),
+    /**
+     * 请求payload使用的编解码器, 不存在时表示使用旧版(body字符串)协议
+     */
+    RPC_CODEC("rpc-codec"),
+    /**
+     * 发送方支持的编解码器列表(逗号分隔), 用于协商
+     */
+    RPC_CODECS("rpc-codecs"),
+    /**
+     * 客户端在响应中声明的扩展能力(逗号分隔), 旧版本客户端不返回
+     */
+    CLIENT_FEATURES("client-features")
     ;
 
     private final String key;
@@ -0,0 +1,23 @@
+package com.aizuda.snailjob.common.core.expression;
+
+import java.util.Map;
+
+/**
+ * 预编译的表达式, 编译一次后可使用不同的上下文多次执行
+ * 实现需保证线程安全
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@FunctionalInterface
+public interface CompiledExpression {
+
+    /**
+     * 执行表达式
+     *
+     * @param context 上下文
+     * @return 执行结果
+     */
+    Object eval(Map<String, Object> context);
+}
@@ -1,20 +1,80 @@
 package com.aizuda.snailjob.common.core.expression.strategy;
 
+import com.aizuda.snailjob.common.core.exception.SnailJobCommonException;
+import com.aizuda.snailjob.common.core.expression.CompiledExpression;
 import com.aizuda.snailjob.common.core.expression.ExpressionEngine;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
+ * 按表达式文本缓存编译结果, 编译失败的表达式同样缓存, 再次执行时直接抛出编译异常
+ *
  * @author opensnail
  * @date 2023-09-10 12:31:17
  * @since 2.3.0
  */
 public abstract class AbstractExpressionEngine implements ExpressionEngine {
+
+    /**
+     * 缓存的表达式数量上限
+     */
+    private static final int MAX_CACHE_SIZE = 1024;
+
+    private final Cache<String/*表达式*/, CompiledExpression> compiledCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHE_SIZE)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
     @Override
     public Object eval(String expression, Object... t) {
 
         return doEval(expression, (Map<String, Object>) t[0]);
     }
 
-    protected abstract Object doEval(String expression, Map<String, Object> context);
+    protected Object doEval(String expression, Map<String, Object> context) {
+        return compile(expression).eval(context);
+    }
+
+    /**
+     * 编译表达式
+     *
+     * @param expression 表达式
+     * @return 预编译的表达式
+     */
+    public CompiledExpression compile(String expression) {
+        try {
+            return compiledCache.get(expression, () -> {
+                try {
+                    return doCompile(expression);
+                } catch (Exception e) {
+                    return context -> {
+                        throw new SnailJobCommonException("{} expression compile exception. expression:[{}]",
+                                engineName(), expression, e);
+                    };
+                }
+            });
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw new SnailJobCommonException("{} expression compile exception. expression:[{}]",
+                    engineName(), expression, e.getCause());
+        }
+    }
+
+    /**
+     * 编译表达式, 返回的表达式会被缓存且被多个线程同时执行
+     *
+     * @param expression 表达式
+     * @return 预编译的表达式
+     * @throws Exception 表达式不合法
+     */
+    protected abstract CompiledExpression doCompile(String expression) throws Exception;
+
+    /**
+     * 引擎名称, 用于异常信息
+     */
+    protected abstract String engineName();
 }
@@ -1,11 +1,11 @@
 package com.aizuda.snailjob.common.core.expression.strategy;
 
 import com.aizuda.snailjob.common.core.exception.SnailJobCommonException;
+import com.aizuda.snailjob.common.core.expression.CompiledExpression;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.googlecode.aviator.AviatorEvaluator;
 import com.googlecode.aviator.AviatorEvaluatorInstance;
-
-import java.util.Map;
+import com.googlecode.aviator.Expression;
 
 /**
  * Aviator 表达式
@@ -19,13 +19,22 @@ public class AviatorExpressionEngine extends AbstractExpressionEngine {
     private static final AviatorEvaluatorInstance ENGINE = AviatorEvaluator.getInstance();
 
     @Override
-    protected Object doEval(String expression, Map<String, Object> context) {
+    protected CompiledExpression doCompile(String expression) {
+
+        // 编译结果由 AbstractExpressionEngine 缓存, 无需使用 Aviator 内部的缓存
+        final Expression compiledExpression = ENGINE.compile(expression);
+        return context -> {
+            try {
+                return compiledExpression.execute(context);
+            } catch (Exception e) {
+                throw new SnailJobCommonException("Aviator expression parsing exception. expression:[{}] context:[{}]",
+                        expression, JsonUtil.toJsonString(context), e);
+            }
+        };
+    }
 
-        try {
-            return ENGINE.execute(expression, context);
-        } catch (Exception e) {
-            throw new SnailJobCommonException("Aviator expression parsing exception. expression:[{}] context:[{}]",
-                    expression, JsonUtil.toJsonString(context), e);
-        }
+    @Override
+    protected String engineName() {
+        return "Aviator";
     }
 }
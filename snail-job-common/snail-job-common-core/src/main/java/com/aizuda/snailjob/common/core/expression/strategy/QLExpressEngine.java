@@ -1,16 +1,17 @@
 package com.aizuda.snailjob.common.core.expression.strategy;
 
-import cn.hutool.core.lang.Assert;
 import com.aizuda.snailjob.common.core.exception.SnailJobCommonException;
+import com.aizuda.snailjob.common.core.expression.CompiledExpression;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
-import com.google.common.collect.Sets;
-import com.ql.util.express.DefaultContext;
 import com.ql.util.express.ExpressRunner;
+import com.ql.util.express.IExpressContext;
+import com.ql.util.express.InstructionSet;
 import com.ql.util.express.config.QLExpressRunStrategy;
 
 import javax.naming.InitialContext;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
+import java.util.Objects;
 
 /**
  * QL表达式解析器
@@ -29,18 +30,50 @@ public class QLExpressEngine extends AbstractExpressionEngine {
     }
 
     @Override
-    public Object doEval(String expression, Map<String, Object> context) {
-
-        final DefaultContext<String, Object> defaultContext = new DefaultContext<>();
-        defaultContext.putAll(context);
-        try {
-            return ENGINE.execute(expression, defaultContext, null, true, false);
-        } catch (Exception e) {
-            throw new SnailJobCommonException("QL expression parsing exception. expression:[{}] context:[{}]",
-                    expression, JsonUtil.toJsonString(context), e);
-        }
+    protected CompiledExpression doCompile(String expression) throws Exception {
+
+        final InstructionSet instructionSet = ENGINE.parseInstructionSet(expression);
+        return context -> {
+            try {
+                return ENGINE.execute(instructionSet, new ReadThroughContext(context), null, false, false);
+            } catch (Exception e) {
+                throw new SnailJobCommonException("QL expression parsing exception. expression:[{}] context:[{}]",
+                        expression, JsonUtil.toJsonString(context), e);
+            }
+        };
+    }
 
+    @Override
+    protected String engineName() {
+        return "QL";
     }
 
+    /**
+     * 直接读取调用方的上下文, 表达式中赋值的变量写入本地副本, 不会修改调用方的上下文
+     */
+    private static class ReadThroughContext implements IExpressContext<String, Object> {
+
+        private final Map<String, Object> source;
+        private Map<String, Object> local;
 
+        ReadThroughContext(Map<String, Object> source) {
+            this.source = source;
+        }
+
+        @Override
+        public Object get(Object key) {
+            if (Objects.nonNull(local) && local.containsKey(key)) {
+                return local.get(key);
+            }
+            return source.get(key);
+        }
+
+        @Override
+        public Object put(String name, Object object) {
+            if (Objects.isNull(local)) {
+                local = new HashMap<>();
+            }
+            return local.put(name, object);
+        }
+    }
 }
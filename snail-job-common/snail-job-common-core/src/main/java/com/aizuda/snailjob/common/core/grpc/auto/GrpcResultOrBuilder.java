@@ -42,4 +42,68 @@ public interface GrpcResultOrBuilder extends
    */
   com.google.protobuf.ByteString
       getDataBytes();
+
+  /**
+   * <pre>
+   * v2: 与请求相同编解码器编码的返回值
+   * </pre>
+   *
+   * <code>bytes payload = 5;</code>
+   * @return The payload.
+   */
+  com.google.protobuf.ByteString getPayload();
+
+  /**
+   * <pre>
+   * 响应方声明的能力(如支持的编解码器)，用于版本协商
+   * </pre>
+   *
+   * <code>map&lt;string, string&gt; headers = 6;</code>
+   */
+  int getHeadersCount();
+  /**
+   * <pre>
+   * 响应方声明的能力(如支持的编解码器)，用于版本协商
+   * </pre>
+   *
+   * <code>map&lt;string, string&gt; headers = 6;</code>
+   */
+  boolean containsHeaders(
+      java.lang.String key);
+  /**
+   * Use {@link #getHeadersMap()} instead.
+   */
+  @java.lang.Deprecated
+  java.util.Map<java.lang.String, java.lang.String>
+  getHeaders();
+  /**
+   * <pre>
+   * 响应方声明的能力(如支持的编解码器)，用于版本协商
+   * </pre>
+   *
+   * <code>map&lt;string, string&gt; headers = 6;</code>
+   */
+  java.util.Map<java.lang.String, java.lang.String>
+  getHeadersMap();
+  /**
+   * <pre>
+   * 响应方声明的能力(如支持的编解码器)，用于版本协商
+   * </pre>
+   *
+   * <code>map&lt;string, string&gt; headers = 6;</code>
+   */
+  /* nullable */
+java.lang.String getHeadersOrDefault(
+      java.lang.String key,
+      /* nullable */
+java.lang.String defaultValue);
+  /**
+   * <pre>
+   * 响应方声明的能力(如支持的编解码器)，用于版本协商
+   * </pre>
+   *
+   * <code>map&lt;string, string&gt; headers = 6;</code>
+   */
+  java.lang.String getHeadersOrThrow(
+      java.lang.String key);
 }
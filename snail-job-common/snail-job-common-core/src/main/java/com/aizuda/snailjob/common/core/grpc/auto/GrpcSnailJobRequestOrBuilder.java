@@ -39,4 +39,14 @@ public interface GrpcSnailJobRequestOrBuilder extends
    */
   com.google.protobuf.ByteString
       getBodyBytes();
+
+  /**
+   * <pre>
+   * v2: 由 metadata.headers 中的 rpc-codec 指定的编解码器编码的参数
+   * </pre>
+   *
+   * <code>bytes payload = 4;</code>
+   * @return The payload.
+   */
+  com.google.protobuf.ByteString getPayload();
 }
@@ -17,6 +17,7 @@ private static final long serialVersionUID = 0L;
   }
   private SnailJobGrpcRequest() {
     body_ = "";
+    payload_ = com.google.protobuf.ByteString.EMPTY;
   }
 
   @java.lang.Override
@@ -116,6 +117,21 @@ private static final long serialVersionUID = 0L;
     }
   }
 
+  public static final int PAYLOAD_FIELD_NUMBER = 4;
+  private com.google.protobuf.ByteString payload_ = com.google.protobuf.ByteString.EMPTY;
+  /**
+   * <pre>
+   * v2: 由 metadata.headers 中的 rpc-codec 指定的编解码器编码的参数
+   * </pre>
+   *
+   * <code>bytes payload = 4;</code>
+   * @return The payload.
+   */
+  @java.lang.Override
+  public com.google.protobuf.ByteString getPayload() {
+    return payload_;
+  }
+
   private byte memoizedIsInitialized = -1;
   @java.lang.Override
   public final boolean isInitialized() {
@@ -139,6 +155,9 @@ private static final long serialVersionUID = 0L;
     if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(body_)) {
       com.google.protobuf.GeneratedMessageV3.writeString(output, 3, body_);
     }
+    if (!payload_.isEmpty()) {
+      output.writeBytes(4, payload_);
+    }
     getUnknownFields().writeTo(output);
   }
 
@@ -159,6 +178,10 @@ private static final long serialVersionUID = 0L;
     if (!com.google.protobuf.GeneratedMessageV3.isStringEmpty(body_)) {
       size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, body_);
     }
+    if (!payload_.isEmpty()) {
+      size += com.google.protobuf.CodedOutputStream
+        .computeBytesSize(4, payload_);
+    }
     size += getUnknownFields().getSerializedSize();
     memoizedSize = size;
     return size;
@@ -183,6 +206,8 @@ private static final long serialVersionUID = 0L;
     }
     if (!getBody()
         .equals(other.getBody())) return false;
+    if (!getPayload()
+        .equals(other.getPayload())) return false;
     if (!getUnknownFields().equals(other.getUnknownFields())) return false;
     return true;
   }
@@ -203,6 +228,8 @@ private static final long serialVersionUID = 0L;
     }
     hash = (37 * hash) + BODY_FIELD_NUMBER;
     hash = (53 * hash) + getBody().hashCode();
+    hash = (37 * hash) + PAYLOAD_FIELD_NUMBER;
+    hash = (53 * hash) + getPayload().hashCode();
     hash = (29 * hash) + getUnknownFields().hashCode();
     memoizedHashCode = hash;
     return hash;
@@ -347,6 +374,7 @@ private static final long serialVersionUID = 0L;
         metadataBuilder_ = null;
       }
       body_ = "";
+      payload_ = com.google.protobuf.ByteString.EMPTY;
       return this;
     }
 
@@ -393,6 +421,9 @@ private static final long serialVersionUID = 0L;
       if (((from_bitField0_ & 0x00000004) != 0)) {
         result.body_ = body_;
       }
+      if (((from_bitField0_ & 0x00000008) != 0)) {
+        result.payload_ = payload_;
+      }
       result.bitField0_ |= to_bitField0_;
     }
 
@@ -451,6 +482,9 @@ private static final long serialVersionUID = 0L;
         bitField0_ |= 0x00000004;
         onChanged();
       }
+      if (other.getPayload() != com.google.protobuf.ByteString.EMPTY) {
+        setPayload(other.getPayload());
+      }
       this.mergeUnknownFields(other.getUnknownFields());
       onChanged();
       return this;
@@ -494,6 +528,11 @@ private static final long serialVersionUID = 0L;
               bitField0_ |= 0x00000004;
               break;
             } // case 26
+            case 34: {
+              payload_ = input.readBytes();
+              bitField0_ |= 0x00000008;
+              break;
+            } // case 34
             default: {
               if (!super.parseUnknownField(input, extensionRegistry, tag)) {
                 done = true; // was an endgroup tag
@@ -735,6 +774,50 @@ private static final long serialVersionUID = 0L;
       onChanged();
       return this;
     }
+
+    private com.google.protobuf.ByteString payload_ = com.google.protobuf.ByteString.EMPTY;
+    /**
+     * <pre>
+     * v2: 由 metadata.headers 中的 rpc-codec 指定的编解码器编码的参数
+     * </pre>
+     *
+     * <code>bytes payload = 4;</code>
+     * @return The payload.
+     */
+    @java.lang.Override
+    public com.google.protobuf.ByteString getPayload() {
+      return payload_;
+    }
+    /**
+     * <pre>
+     * v2: 由 metadata.headers 中的 rpc-codec 指定的编解码器编码的参数
+     * </pre>
+     *
+     * <code>bytes payload = 4;</code>
+     * @param value The payload to set.
+     * @return This builder for chaining.
+     */
+    public Builder setPayload(com.google.protobuf.ByteString value) {
+      if (value == null) { throw new NullPointerException(); }
+      payload_ = value;
+      bitField0_ |= 0x00000008;
+      onChanged();
+      return this;
+    }
+    /**
+     * <pre>
+     * v2: 由 metadata.headers 中的 rpc-codec 指定的编解码器编码的参数
+     * </pre>
+     *
+     * <code>bytes payload = 4;</code>
+     * @return This builder for chaining.
+     */
+    public Builder clearPayload() {
+      bitField0_ = (bitField0_ & ~0x00000008);
+      payload_ = getDefaultInstance().getPayload();
+      onChanged();
+      return this;
+    }
     @java.lang.Override
     public final Builder setUnknownFields(
         final com.google.protobuf.UnknownFieldSet unknownFields) {
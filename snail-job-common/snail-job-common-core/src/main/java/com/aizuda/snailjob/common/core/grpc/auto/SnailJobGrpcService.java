@@ -34,6 +34,11 @@ public final class SnailJobGrpcService {
   static final 
     com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
       internal_static_GrpcResult_fieldAccessorTable;
+  static final com.google.protobuf.Descriptors.Descriptor
+    internal_static_GrpcResult_HeadersEntry_descriptor;
+  static final 
+    com.google.protobuf.GeneratedMessageV3.FieldAccessorTable
+      internal_static_GrpcResult_HeadersEntry_fieldAccessorTable;
 
   public static com.google.protobuf.Descriptors.FileDescriptor
       getDescriptor() {
@@ -46,12 +51,16 @@ public final class SnailJobGrpcService {
       "\n\034snail_job_grpc_service.proto\"p\n\010Metada" +
       "ta\022\013\n\003uri\030\003 \001(\t\022\'\n\007headers\030\007 \003(\0132\026.Metad" +
       "ata.HeadersEntry\032.\n\014HeadersEntry\022\013\n\003key\030" +
-      "\001 \001(\t\022\r\n\005value\030\002 \001(\t:\0028\001\"O\n\023GrpcSnailJob" +
+      "\001 \001(\t\022\r\n\005value\030\002 \001(\t:\0028\001\"`\n\023GrpcSnailJob" +
       "Request\022\r\n\005reqId\030\001 \001(\003\022\033\n\010metadata\030\002 \001(\013" +
-      "2\t.Metadata\022\014\n\004body\030\003 \001(\t\"J\n\nGrpcResult\022" +
-      "\r\n\005reqId\030\001 \001(\003\022\016\n\006status\030\002 \001(\005\022\017\n\007messag" +
-      "e\030\003 \001(\t\022\014\n\004data\030\004 \001(\tB-\n)com.aizuda.snai" +
-      "ljob.common.core.grpc.autoP\001b\006proto3"
+      "2\t.Metadata\022\014\n\004body\030\003 \001(\t\022\017\n\007payload\030\004 \001" +
+      "(\014\"\266\001\n\nGrpcResult\022\r\n\005reqId\030\001 \001(\003\022\016\n\006stat" +
+      "us\030\002 \001(\005\022\017\n\007message\030\003 \001(\t\022\014\n\004data\030\004 \001(\t\022" +
+      "\017\n\007payload\030\005 \001(\014\022)\n\007headers\030\006 \003(\0132\030.Grpc" +
+      "Result.HeadersEntry\032.\n\014HeadersEntry\022\013\n\003k" +
+      "ey\030\001 \001(\t\022\r\n\005value\030\002 \001(\t:\0028\001B-\n)com.aizud" +
+      "a.snailjob.common.core.grpc.autoP\001b\006prot" +
+      "o3"
     };
     descriptor = com.google.protobuf.Descriptors.FileDescriptor
       .internalBuildGeneratedFileFrom(descriptorData,
@@ -74,13 +83,19 @@ public final class SnailJobGrpcService {
     internal_static_GrpcSnailJobRequest_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_GrpcSnailJobRequest_descriptor,
-        new java.lang.String[] { "ReqId", "Metadata", "Body", });
+        new java.lang.String[] { "ReqId", "Metadata", "Body", "Payload", });
     internal_static_GrpcResult_descriptor =
       getDescriptor().getMessageTypes().get(2);
     internal_static_GrpcResult_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_GrpcResult_descriptor,
-        new java.lang.String[] { "ReqId", "Status", "Message", "Data", });
+        new java.lang.String[] { "ReqId", "Status", "Message", "Data", "Payload", "Headers", });
+    internal_static_GrpcResult_HeadersEntry_descriptor =
+      internal_static_GrpcResult_descriptor.getNestedTypes().get(0);
+    internal_static_GrpcResult_HeadersEntry_fieldAccessorTable = new
+      com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
+        internal_static_GrpcResult_HeadersEntry_descriptor,
+        new java.lang.String[] { "Key", "Value", });
   }
 
   // @@protoc_insertion_point(outer_class_scope)
@@ -0,0 +1,100 @@
+package com.aizuda.snailjob.common.core.rpc.codec;
+
+import com.aizuda.snailjob.common.core.exception.SnailJobCommonException;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 以Deflate压缩的UTF-8 JSON字节作为payload
+ * <p>
+ * 首字节为格式标记, 小于 {@value #COMPRESS_THRESHOLD} 字节或压缩后未变小的内容不压缩;
+ * MAP分片、工作流上下文等大参数的JSON重复度高, 压缩后通常只有原大小的几分之一
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class DeflateJsonRpcCodec implements RpcCodec {
+
+    public static final String NAME = "json-deflate";
+
+    private static final int COMPRESS_THRESHOLD = 1024;
+    private static final byte RAW = 0;
+    private static final byte DEFLATE = 1;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(Object object) {
+        byte[] json = JsonUtil.toJsonBytes(object);
+        if (json.length >= COMPRESS_THRESHOLD) {
+            byte[] compressed = deflate(json);
+            if (compressed.length < json.length) {
+                return compressed;
+            }
+        }
+
+        byte[] payload = new byte[json.length + 1];
+        payload[0] = RAW;
+        System.arraycopy(json, 0, payload, 1, json.length);
+        return payload;
+    }
+
+    @Override
+    public <T> T decode(byte[] payload, Type type) {
+        return JsonUtil.parseObject(toJsonBytes(payload), type);
+    }
+
+    @Override
+    public String toJsonText(byte[] payload) {
+        return new String(toJsonBytes(payload), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] deflate(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 16);
+        out.write(DEFLATE);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream dos = new DeflaterOutputStream(out, deflater)) {
+            dos.write(json);
+        } catch (IOException e) {
+            throw new SnailJobCommonException("Payload compression failed", new Object[0], e);
+        } finally {
+            deflater.end();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] toJsonBytes(byte[] payload) {
+        if (payload.length == 0) {
+            return payload;
+        }
+
+        return switch (payload[0]) {
+            case RAW -> Arrays.copyOfRange(payload, 1, payload.length);
+            case DEFLATE -> inflate(payload);
+            default -> throw new SnailJobCommonException("Unknown payload format:[{}]", payload[0]);
+        };
+    }
+
+    private static byte[] inflate(byte[] payload) {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new SnailJobCommonException("Payload decompression failed", new Object[0], e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.aizuda.snailjob.common.core.rpc.codec;
+
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+
+import java.lang.reflect.Type;
+
+/**
+ * gRPC v2 协议 payload 的编解码器
+ * <p>
+ * 客户端与服务端的DTO并非同一个类, 编码结果必须与具体的Java类型无关
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public interface RpcCodec {
+
+    /**
+     * 编解码器名称, 用于 {@link com.aizuda.snailjob.common.core.enums.HeadersEnum#RPC_CODEC} 协商
+     */
+    String name();
+
+    byte[] encode(Object object);
+
+    <T> T decode(byte[] payload, Type type);
+
+    /**
+     * 将参数payload转为JSON文本, 服务端据此直接拼接请求体而无需反序列化
+     *
+     * @param payload 参数数组编码后的payload
+     * @return JSON数组文本
+     */
+    default String toJsonText(byte[] payload) {
+        return JsonUtil.toJsonString(decode(payload, Object[].class));
+    }
+}
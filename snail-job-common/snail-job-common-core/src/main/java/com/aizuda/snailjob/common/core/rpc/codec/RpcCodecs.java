@@ -0,0 +1,76 @@
+package com.aizuda.snailjob.common.core.rpc.codec;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 编解码器注册表及协商
+ * <p>
+ * 协商流程:
+ * 1. 请求与响应均通过 rpc-codecs 声明本端支持的编解码器
+ * 2. 调用方在收到对端声明后选择双方都支持的编解码器, 此后请求写入 payload 并设置 rpc-codec
+ * 3. 未声明的对端(旧版本)始终使用 body/data 字符串字段
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public final class RpcCodecs {
+
+    private static final Map<String, RpcCodec> CODECS = new ConcurrentHashMap<>();
+    private static volatile String supported;
+
+    static {
+        register(new DeflateJsonRpcCodec());
+    }
+
+    private RpcCodecs() {
+    }
+
+    /**
+     * 注册自定义编解码器, 后注册的优先参与协商
+     */
+    public static synchronized void register(RpcCodec codec) {
+        CODECS.put(codec.name(), codec);
+        supported = StrUtil.isBlank(supported) ? codec.name() : codec.name() + StrUtil.COMMA + supported;
+    }
+
+    public static RpcCodec get(String name) {
+        if (StrUtil.isBlank(name)) {
+            return null;
+        }
+        return CODECS.get(name);
+    }
+
+    /**
+     * @return 本端支持的编解码器(逗号分隔, 按优先级排序)
+     */
+    public static String supported() {
+        return supported;
+    }
+
+    /**
+     * 根据对端声明的编解码器选择双方都支持的一个
+     *
+     * @param peerCodecs 对端声明的 rpc-codecs
+     * @return 不存在共同支持的编解码器时返回null
+     */
+    public static RpcCodec negotiate(String peerCodecs) {
+        if (StrUtil.isBlank(peerCodecs)) {
+            return null;
+        }
+
+        List<String> peers = StrUtil.split(peerCodecs, StrUtil.C_COMMA, true, true);
+        for (String name : StrUtil.split(supported, StrUtil.C_COMMA)) {
+            if (peers.contains(name)) {
+                return CODECS.get(name);
+            }
+        }
+
+        return null;
+    }
+}
@@ -248,6 +248,13 @@ public final class CronExpression implements Serializable, Cloneable {
     protected transient int lastdayOffset = 0;
     protected transient boolean expressionParsed = false;
 
+    /**
+     * The last computed fire time. Instances are usually shared between many
+     * jobs with the same expression and trigger time, so the result is reused
+     * for every start time that falls in the same gap between two fire times.
+     */
+    private transient volatile FireTimeWindow lastFireTimeWindow;
+
     public static final int MAX_YEAR = Calendar.getInstance().get(Calendar.YEAR) + 100;
 
     /**
@@ -323,7 +330,35 @@ public final class CronExpression implements Serializable, Cloneable {
      * @return the next valid date/time
      */
     public Date getNextValidTimeAfter(Date date) {
-        return getTimeAfter(date);
+        long nextValidTime = getNextValidTimeAfter(date.getTime());
+        return nextValidTime < 0 ? null : new Date(nextValidTime);
+    }
+
+    /**
+     * Returns the next time in epoch milliseconds <I>after</I> the given time
+     * which satisfies the cron expression.
+     * <p>
+     * The result only depends on the second of the given time, so when that
+     * second lies in the same gap between two fire times as the previous call
+     * the cached result is returned without any {@link Calendar} computation.
+     *
+     * @param afterTime the time in epoch milliseconds at which to begin the search
+     * @return the next valid time in epoch milliseconds, or -1 if there is none
+     */
+    public long getNextValidTimeAfter(long afterTime) {
+        long afterSecond = Math.floorDiv(afterTime, 1000L);
+        FireTimeWindow window = lastFireTimeWindow;
+        if (window != null && window.contains(afterSecond)) {
+            return window.nextSecond * 1000L;
+        }
+
+        Date nextValidTime = getTimeAfter(new Date(afterTime));
+        if (nextValidTime == null) {
+            return -1L;
+        }
+
+        lastFireTimeWindow = new FireTimeWindow(afterSecond, nextValidTime.getTime() / 1000L);
+        return nextValidTime.getTime();
     }
 
     /**
@@ -384,6 +419,7 @@ public final class CronExpression implements Serializable, Cloneable {
      */
     public void setTimeZone(TimeZone timeZone) {
         this.timeZone = timeZone;
+        this.lastFireTimeWindow = null;
     }
 
     /**
@@ -1666,6 +1702,24 @@ public final class CronExpression implements Serializable, Cloneable {
     }
 }
 
+/**
+ * Fire time computed for the seconds in [afterSecond, nextSecond).
+ */
+final class FireTimeWindow {
+    final long afterSecond;
+
+    final long nextSecond;
+
+    FireTimeWindow(long afterSecond, long nextSecond) {
+        this.afterSecond = afterSecond;
+        this.nextSecond = nextSecond;
+    }
+
+    boolean contains(long second) {
+        return second >= afterSecond && second < nextSecond;
+    }
+}
+
 class ValueSet {
     public int value;
 
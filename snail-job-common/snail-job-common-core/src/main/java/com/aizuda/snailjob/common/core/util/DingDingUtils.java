@@ -74,6 +74,7 @@ public class DingDingUtils {
             HttpResponse response = HttpRequest.post(url)
                     .headerMap(getHeaders(), true)
                     .body(request)
+                    .timeout(SystemConstants.ALARM_SEND_TIMEOUT)
                     .execute();
 
             String body = response.body();
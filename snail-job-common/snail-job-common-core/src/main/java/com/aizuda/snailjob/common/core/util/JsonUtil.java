@@ -65,6 +65,29 @@ public class JsonUtil {
         return JsonMapper.toJavaObject(inputStream, clazz);
     }
 
+    /**
+     * 将Java对象转JSON(UTF-8)字节数组
+     *
+     * @param object
+     * @return
+     */
+    public static byte[] toJsonBytes(Object object) {
+        return JsonMapper.toJsonBytes(object);
+    }
+
+    /**
+     * 将JSON(UTF-8)字节数组转Java 对象
+     *
+     * @param jsonBytes
+     * @param type
+     * @param <T>
+     * @return
+     */
+    public static <T> T parseObject(byte[] jsonBytes, Type type) {
+        JavaType javaType = JsonMapper.getByType(type);
+        return (T) JsonMapper.toJavaObject(jsonBytes, javaType);
+    }
+
 
 
     /**
@@ -287,6 +310,35 @@ public class JsonUtil {
             }
         }
 
+        /**
+         * JAVA 对象转Json 字节数组
+         *
+         * @param object
+         * @return
+         */
+        private static byte[] toJsonBytes(Object object) {
+            try {
+                return objectMapper.writeValueAsBytes(object);
+            } catch (Exception e) {
+                throw new SnailJobCommonException("Object to Json conversion failed!", new Object[0], e);
+            }
+        }
+
+        /**
+         * Json 字节数组转JAVA 对象
+         *
+         * @param jsonBytes
+         * @param javaType
+         * @return
+         */
+        private static Object toJavaObject(byte[] jsonBytes, JavaType javaType) {
+            try {
+                return objectMapper.readValue(jsonBytes, javaType);
+            } catch (Exception e) {
+                throw new SnailJobCommonException("Json to object conversion failed!", new Object[0], e);
+            }
+        }
+
         /**
          * Json 字符串转JAVA 对象
          *
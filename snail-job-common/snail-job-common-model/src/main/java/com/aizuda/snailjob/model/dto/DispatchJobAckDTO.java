@@ -0,0 +1,28 @@
+package com.aizuda.snailjob.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量调度时客户端对每个任务项的应答
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchJobAckDTO {
+
+    private Long taskId;
+
+    /**
+     * 客户端是否已接收任务项
+     */
+    private Boolean accepted;
+
+    private String message;
+
+}
@@ -0,0 +1,23 @@
+package com.aizuda.snailjob.model.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 同一客户端的多个任务项合并为一次调度请求
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+public class DispatchJobBatchRequest {
+
+    @Valid
+    @NotEmpty(message = "dispatchJobs cannot be null")
+    private List<DispatchJobRequest> dispatchJobs;
+
+}
@@ -39,4 +39,14 @@ public class MapTaskRequest {
     @NotEmpty(message = "subTask cannot be null")
     private List<Object> subTask;
 
+    /**
+     * 一次MAP操作的唯一标识, 同一次MAP分批上报时保持一致
+     */
+    private String mapId;
+
+    /**
+     * 分批上报的批次序号, 从0开始
+     */
+    private Integer chunkSeq;
+
 }
@@ -40,27 +40,42 @@ public class JobLogMessageAccess implements JobLogAccess<JobLogMessageDO> {
     @Override
     public int insert(JobLogMessageDO jobLogMessageDO) {
         JobLogMessage jobLogMessage = LogConverter.INSTANCE.toJobLogMessage(jobLogMessageDO);
-        return jobLogMessageMapper.insert(jobLogMessage);
+        int count = jobLogMessageMapper.insert(jobLogMessage);
+        // 回填主键, 订阅按id去重
+        jobLogMessageDO.setId(jobLogMessage.getId());
+        return count;
     }
 
     @Override
     public int insertBatch(List<JobLogMessageDO> list) {
         List<JobLogMessage> jobLogMessages = LogConverter.INSTANCE.toJobLogMessages(list);
-        return jobLogMessageMapper.insertBatch(jobLogMessages);
+        int count = jobLogMessageMapper.insertBatch(jobLogMessages);
+        // 回填主键(部分数据库批量插入不返回主键), 订阅按id去重
+        for (int i = 0; i < jobLogMessages.size(); i++) {
+            list.get(i).setId(jobLogMessages.get(i).getId());
+        }
+        return count;
     }
 
     @Override
     public PageResponseDO<JobLogMessageDO> listPage(PageQueryDO queryDO) {
         LogPageQueryDO logPageQueryDO = (LogPageQueryDO) queryDO;
+        Long startRealTime = logPageQueryDO.getStartRealTime();
+        Long startId = logPageQueryDO.getStartId();
 
         PageDTO<JobLogMessage> selectPage = jobLogMessageMapper.selectPage(
                 new PageDTO<>(queryDO.getPage(), logPageQueryDO.getSize(), logPageQueryDO.isSearchCount()),
                 new LambdaQueryWrapper<JobLogMessage>()
-                        .gt(JobLogMessage::getRealTime, logPageQueryDO.getStartRealTime())
                         .eq(JobLogMessage::getTaskBatchId, logPageQueryDO.getTaskBatchId())
                         .eq(JobLogMessage::getTaskId, logPageQueryDO.getTaskId())
-                        .orderByAsc(JobLogMessage::getId)
-                        .orderByAsc(JobLogMessage::getRealTime));
+                        .gt(Objects.isNull(startId), JobLogMessage::getRealTime, startRealTime)
+                        // (上报时间, id)游标: 同一毫秒的日志跨页时从上一页最后一条之后继续
+                        .and(Objects.nonNull(startId), wrapper -> wrapper
+                                .gt(JobLogMessage::getRealTime, startRealTime)
+                                .or(w -> w.eq(JobLogMessage::getRealTime, startRealTime)
+                                        .gt(JobLogMessage::getId, startId)))
+                        .orderByAsc(JobLogMessage::getRealTime)
+                        .orderByAsc(JobLogMessage::getId));
         List<JobLogMessage> records = selectPage.getRecords();
 
         PageResponseDO<JobLogMessageDO> responseDO = new PageResponseDO<>();
@@ -4,27 +4,49 @@ import com.aizuda.snailjob.template.datasource.access.JobLogAccess;
 import com.aizuda.snailjob.template.datasource.access.RetryLogAccess;
 import com.aizuda.snailjob.template.datasource.access.log.JobLogMessageAccess;
 import com.aizuda.snailjob.template.datasource.access.log.RetryTaskLogMessageAccess;
+import com.aizuda.snailjob.template.datasource.access.log.file.FileJobLogAccess;
+import com.aizuda.snailjob.template.datasource.access.log.file.FileRetryTaskLogAccess;
+import com.aizuda.snailjob.template.datasource.access.log.file.LogStoreProperties;
 import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
 import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.RetryTaskLogMessageDO;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobLogMessageMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskBatchMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetryTaskLogMessageMapper;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(LogStoreProperties.class)
 public class LogConfig {
 
     @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "snail-job.log-store", name = "type", havingValue = "db", matchIfMissing = true)
     @Bean
     public JobLogAccess<JobLogMessageDO> defaultJobLogAccess(JobLogMessageMapper jobLogMessageMapper) {
         return new JobLogMessageAccess(jobLogMessageMapper);
     }
 
     @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "snail-job.log-store", name = "type", havingValue = "db", matchIfMissing = true)
     @Bean
     public RetryLogAccess<RetryTaskLogMessageDO> defaultRetryLogAccess(RetryTaskLogMessageMapper retryTaskLogMessageMapper) {
         return new RetryTaskLogMessageAccess(retryTaskLogMessageMapper);
     }
+
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "snail-job.log-store", name = "type", havingValue = "file")
+    @Bean
+    public JobLogAccess<JobLogMessageDO> fileJobLogAccess(LogStoreProperties logStoreProperties) {
+        return new FileJobLogAccess(logStoreProperties);
+    }
+
+    @ConditionalOnMissingBean
+    @ConditionalOnProperty(prefix = "snail-job.log-store", name = "type", havingValue = "file")
+    @Bean
+    public RetryLogAccess<RetryTaskLogMessageDO> fileRetryLogAccess(LogStoreProperties logStoreProperties) {
+        return new FileRetryTaskLogAccess(logStoreProperties);
+    }
 }
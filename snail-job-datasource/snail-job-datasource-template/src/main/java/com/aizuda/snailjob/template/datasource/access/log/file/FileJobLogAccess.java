@@ -0,0 +1,119 @@
+package com.aizuda.snailjob.template.datasource.access.log.file;
+
+import cn.hutool.core.util.IdUtil;
+import com.aizuda.snailjob.template.datasource.access.JobLogAccess;
+import com.aizuda.snailjob.template.datasource.enums.OperationTypeEnum;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.common.*;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.LogPageQueryDO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * 基于本地分段文件的任务日志存储
+ * 按任务批次建立稀疏索引, 日志只追加不修改
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class FileJobLogAccess implements JobLogAccess<JobLogMessageDO>, DisposableBean {
+
+    private final SegmentedLogStore<JobLogMessageDO> logStore;
+
+    public FileJobLogAccess(LogStoreProperties properties) {
+        this.logStore = new SegmentedLogStore<>("job", properties,
+                new LogSegment.Codec<>(JobLogMessageDO.class, JobLogMessageDO::getTaskBatchId,
+                        JobLogMessageDO::getTaskId, JobLogMessageDO::getRealTime));
+    }
+
+    @Override
+    public boolean supports(String operationType) {
+        return OperationTypeEnum.JOB_LOG.name().equals(operationType);
+    }
+
+    @Override
+    public int insert(JobLogMessageDO jobLogMessageDO) {
+        return insertBatch(List.of(jobLogMessageDO));
+    }
+
+    @Override
+    public int insertBatch(List<JobLogMessageDO> list) {
+        // 与数据库自增主键一样为每条日志分配id, 查询时用于(上报时间, id)游标
+        list.stream().filter(jobLogMessageDO -> Objects.isNull(jobLogMessageDO.getId()))
+                .forEach(jobLogMessageDO -> jobLogMessageDO.setId(IdUtil.getSnowflakeNextId()));
+        logStore.append(list);
+        return list.size();
+    }
+
+    @Override
+    public PageResponseDO<JobLogMessageDO> listPage(PageQueryDO queryDO) {
+        LogPageQueryDO logPageQueryDO = (LogPageQueryDO) queryDO;
+
+        long startRealTime = Objects.isNull(logPageQueryDO.getStartRealTime()) ? 0 : logPageQueryDO.getStartRealTime();
+        Long startId = logPageQueryDO.getStartId();
+        List<JobLogMessageDO> records = logStore.query(logPageQueryDO.getTaskBatchId(),
+                logPageQueryDO.getTaskId(), Objects.isNull(startId) ? startRealTime : startRealTime - 1);
+        if (Objects.nonNull(startId)) {
+            records.removeIf(jobLogMessageDO -> jobLogMessageDO.getRealTime() == startRealTime
+                    && idOf(jobLogMessageDO) <= startId);
+        }
+        records.sort(Comparator.comparingLong(JobLogMessageDO::getRealTime).thenComparingLong(FileJobLogAccess::idOf));
+
+        return FileLogPages.page(records, logPageQueryDO.getPage(), logPageQueryDO.getSize(), logPageQueryDO.isSearchCount());
+    }
+
+    @Override
+    public List<JobLogMessageDO> list(ListQueryDO queryDO) {
+        return List.of();
+    }
+
+    @Override
+    public JobLogMessageDO one(OneQueryDO query) {
+        return null;
+    }
+
+    @Override
+    public int update(JobLogMessageDO jobLogMessageDO, UpdateQueryDO query) {
+        return 0;
+    }
+
+    @Override
+    public int updateById(JobLogMessageDO jobLogMessageDO) {
+        return 0;
+    }
+
+    @Override
+    public int deleteById(Serializable id) {
+        return 0;
+    }
+
+    @Override
+    public int delete(DeleteQueryDO query) {
+        return 0;
+    }
+
+    @Override
+    public long count(LambdaQueryWrapper<JobLogMessageDO> query) {
+        return 0;
+    }
+
+    @Override
+    public void destroy() {
+        logStore.close();
+    }
+
+    /**
+     * 升级前写入的日志没有id
+     */
+    private static long idOf(JobLogMessageDO jobLogMessageDO) {
+        return Objects.isNull(jobLogMessageDO.getId()) ? 0L : jobLogMessageDO.getId();
+    }
+}
@@ -0,0 +1,31 @@
+package com.aizuda.snailjob.template.datasource.access.log.file;
+
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.common.PageResponseDO;
+
+import java.util.List;
+
+/**
+ * 文件日志的内存分页, 与数据库分页保持一致的返回结构
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+final class FileLogPages {
+
+    private FileLogPages() {
+    }
+
+    static <T> PageResponseDO<T> page(List<T> records, int page, int size, boolean searchCount) {
+        int current = Math.max(page, 1);
+        int from = (int) Math.min((long) (current - 1) * size, records.size());
+        int to = (int) Math.min((long) from + size, records.size());
+
+        PageResponseDO<T> responseDO = new PageResponseDO<>();
+        responseDO.setPage(current);
+        responseDO.setSize(size);
+        responseDO.setTotal(searchCount ? records.size() : 0);
+        responseDO.setRows(records.subList(from, to));
+        return responseDO;
+    }
+}
@@ -0,0 +1,101 @@
+package com.aizuda.snailjob.template.datasource.access.log.file;
+
+import com.aizuda.snailjob.template.datasource.access.RetryLogAccess;
+import com.aizuda.snailjob.template.datasource.enums.OperationTypeEnum;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.common.*;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.RetryTaskLogMessageDO;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.RetryTaskLogMessageQueryDO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * 基于本地分段文件的重试日志存储
+ * 按重试任务建立稀疏索引, 日志只追加不修改
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class FileRetryTaskLogAccess implements RetryLogAccess<RetryTaskLogMessageDO>, DisposableBean {
+
+    private final SegmentedLogStore<RetryTaskLogMessageDO> logStore;
+
+    public FileRetryTaskLogAccess(LogStoreProperties properties) {
+        this.logStore = new SegmentedLogStore<>("retry", properties,
+                new LogSegment.Codec<>(RetryTaskLogMessageDO.class, RetryTaskLogMessageDO::getRetryTaskId,
+                        null, RetryTaskLogMessageDO::getRealTime));
+    }
+
+    @Override
+    public boolean supports(String operationType) {
+        return OperationTypeEnum.RETRY_LOG.name().equals(operationType);
+    }
+
+    @Override
+    public int insert(RetryTaskLogMessageDO retryTaskLogMessageDO) {
+        return insertBatch(List.of(retryTaskLogMessageDO));
+    }
+
+    @Override
+    public int insertBatch(List<RetryTaskLogMessageDO> list) {
+        logStore.append(list);
+        return list.size();
+    }
+
+    @Override
+    public PageResponseDO<RetryTaskLogMessageDO> listPage(PageQueryDO queryDO) {
+        RetryTaskLogMessageQueryDO logPageQueryDO = (RetryTaskLogMessageQueryDO) queryDO;
+
+        long startRealTime = Objects.isNull(logPageQueryDO.getStartRealTime()) ? 0 : logPageQueryDO.getStartRealTime();
+        List<RetryTaskLogMessageDO> records = logStore.query(logPageQueryDO.getRetryTaskId(), null,
+                startRealTime);
+
+        return FileLogPages.page(records, logPageQueryDO.getPage(), logPageQueryDO.getSize(), logPageQueryDO.isSearchCount());
+    }
+
+    @Override
+    public List<RetryTaskLogMessageDO> list(ListQueryDO queryDO) {
+        return List.of();
+    }
+
+    @Override
+    public RetryTaskLogMessageDO one(OneQueryDO query) {
+        return null;
+    }
+
+    @Override
+    public int update(RetryTaskLogMessageDO retryTaskLogMessageDO, UpdateQueryDO query) {
+        return 0;
+    }
+
+    @Override
+    public int updateById(RetryTaskLogMessageDO retryTaskLogMessageDO) {
+        return 0;
+    }
+
+    @Override
+    public int deleteById(Serializable id) {
+        return 0;
+    }
+
+    @Override
+    public int delete(DeleteQueryDO query) {
+        return 0;
+    }
+
+    @Override
+    public long count(LambdaQueryWrapper<RetryTaskLogMessageDO> query) {
+        return 0;
+    }
+
+    @Override
+    public void destroy() {
+        logStore.close();
+    }
+}
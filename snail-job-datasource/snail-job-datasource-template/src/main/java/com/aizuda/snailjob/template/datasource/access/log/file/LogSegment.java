@@ -0,0 +1,536 @@
+package com.aizuda.snailjob.template.datasource.access.log.file;
+
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <p>
+ * 日志分段文件(只追加)
+ * 每次写入的一批日志压缩成一个帧: [长度 4][CRC32 4][最小上报时间 8][最大上报时间 8][Deflate压缩的JSON数组]
+ * 稀疏索引每帧按 (key, subKey) 记录一条: [key 8][subKey 8][最小上报时间 8][最大上报时间 8][帧位置 8]
+ * </p>
+ * <ul>
+ *     <li>可写分段的索引在内存中, 滚动(封存)时按 (key, subKey, 帧位置) 排序写入同名的 .idx 文件后释放</li>
+ *     <li>已封存的分段查询时在 .idx 文件中二分查找, 只缓存文件头中的 key 与上报时间范围, 不再解压扫描数据</li>
+ *     <li>未封存的分段(其他节点正在写入或节点异常退出)增量扫描建立内存索引, 跨天且长时间未修改的由读取方补写 .idx</li>
+ *     <li>文件通道按次打开, 读完即关闭, 不长期占用文件句柄</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Slf4j
+final class LogSegment<T> {
+
+    static final String SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+    /**
+     * 单帧最大长度, 用于识别损坏的帧
+     */
+    private static final int MAX_FRAME_SIZE = 64 * 1024 * 1024;
+
+    private static final int INDEX_MAGIC = 0x534A4958;
+    private static final int INDEX_VERSION = 1;
+    /**
+     * [magic 4][version 4][条数 4][保留 4][最小key 8][最大key 8][最小上报时间 8][最大上报时间 8]
+     */
+    private static final int INDEX_HEADER_SIZE = 4 + 4 + 4 + 4 + 8 + 8 + 8 + 8;
+    private static final int INDEX_ENTRY_SIZE = 8 * 5;
+    private static final int INDEX_SCAN_BATCH = 256;
+    /**
+     * 其他节点遗留的未封存分段, 超过该时间未修改且不是当天创建的视为已停止写入
+     */
+    private static final long ABANDONED_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    @Getter
+    private final Path path;
+    private final Path indexPath;
+    /**
+     * 分段创建时间(文件名)
+     */
+    @Getter
+    private final long createAt;
+    private final Codec<T> codec;
+    private final Map<Long, Queue<IndexEntry>> index = new ConcurrentHashMap<>();
+    private volatile IndexSummary summary;
+    private volatile long indexedPosition;
+    private volatile FileChannel writeChannel;
+
+    private LogSegment(Path path, long createAt, Codec<T> codec) {
+        this.path = path;
+        this.indexPath = path.resolveSibling(createAt + INDEX_SUFFIX);
+        this.createAt = createAt;
+        this.codec = codec;
+    }
+
+    /**
+     * 创建本节点可写的分段
+     */
+    static <T> LogSegment<T> create(Path dir, long createAt, Codec<T> codec) throws IOException {
+        LogSegment<T> segment = new LogSegment<>(dir.resolve(createAt + SUFFIX), createAt, codec);
+        segment.writeChannel = FileChannel.open(segment.path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return segment;
+    }
+
+    /**
+     * 打开已存在的分段(本节点历史分段或其他节点的分段), 有 .idx 文件时直接使用, 否则查询时增量建立索引
+     */
+    static <T> LogSegment<T> open(Path path, Codec<T> codec) {
+        String fileName = path.getFileName().toString();
+        long createAt = Long.parseLong(fileName.substring(0, fileName.length() - SUFFIX.length()));
+        return new LogSegment<>(path, createAt, codec);
+    }
+
+    static boolean isSegment(Path path) {
+        String fileName = path.getFileName().toString();
+        if (!fileName.endsWith(SUFFIX)) {
+            return false;
+        }
+
+        String name = fileName.substring(0, fileName.length() - SUFFIX.length());
+        return !name.isEmpty() && name.chars().allMatch(Character::isDigit);
+    }
+
+    synchronized void append(List<T> records) throws IOException {
+        long minRealTime = Long.MAX_VALUE;
+        long maxRealTime = Long.MIN_VALUE;
+        Map<IndexKey, long[]> ranges = new HashMap<>();
+        for (T record : records) {
+            long realTime = codec.realTime().applyAsLong(record);
+            minRealTime = Math.min(minRealTime, realTime);
+            maxRealTime = Math.max(maxRealTime, realTime);
+            long[] range = ranges.computeIfAbsent(new IndexKey(codec.key().apply(record), codec.subKey(record)),
+                    k -> new long[]{Long.MAX_VALUE, Long.MIN_VALUE});
+            range[0] = Math.min(range[0], realTime);
+            range[1] = Math.max(range[1], realTime);
+        }
+
+        byte[] payload = deflate(JsonUtil.toJsonString(records).getBytes(StandardCharsets.UTF_8));
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.length);
+        buffer.putInt(payload.length).putInt((int) crc32.getValue())
+                .putLong(minRealTime).putLong(maxRealTime)
+                .put(payload)
+                .flip();
+
+        long position = writeChannel.size();
+        while (buffer.hasRemaining()) {
+            writeChannel.write(buffer);
+        }
+
+        // 写完整个帧后才加入索引, 保证查询不会读到半个帧
+        ranges.forEach((indexKey, range) -> addIndex(
+                new IndexEntry(indexKey.key(), indexKey.subKey(), range[0], range[1], position)));
+        indexedPosition = writeChannel.size();
+    }
+
+    long size() {
+        return indexedPosition;
+    }
+
+    boolean isWritable() {
+        return Objects.nonNull(writeChannel);
+    }
+
+    /**
+     * 查询指定key且上报时间大于afterRealTime的日志
+     *
+     * @param key           任务批次id/重试任务id
+     * @param subKey        任务项id, 为null时不限制
+     * @param afterRealTime 起始上报时间(不包含)
+     */
+    List<T> read(Long key, Long subKey, long afterRealTime) throws IOException {
+        List<Long> positions = locate(key, subKey, afterRealTime);
+        if (positions.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<T> result = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (Long position : positions) {
+                int length = readFully(channel, position, HEADER_SIZE).getInt();
+                for (T record : decode(readFully(channel, position + HEADER_SIZE, length).array())) {
+                    if (key.equals(codec.key().apply(record))
+                            && (Objects.isNull(subKey) || subKey == codec.subKey(record))
+                            && codec.realTime().applyAsLong(record) > afterRealTime) {
+                        result.add(record);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 通过索引定位可能包含目标日志的帧
+     */
+    private List<Long> locate(Long key, Long subKey, long afterRealTime) throws IOException {
+        IndexSummary indexSummary = indexSummary();
+        if (Objects.isNull(indexSummary)) {
+            // 与封存使用同一把锁, 封存过程中的查询等 .idx 发布后再决定读取内存索引还是索引文件
+            synchronized (this) {
+                indexSummary = indexSummary();
+                if (Objects.isNull(indexSummary)) {
+                    return locateInMemory(key, subKey, afterRealTime);
+                }
+            }
+        }
+
+        if (key < indexSummary.minKey() || key > indexSummary.maxKey()
+                || indexSummary.maxRealTime() <= afterRealTime) {
+            return Collections.emptyList();
+        }
+        return searchIndexFile(indexSummary, key, subKey, afterRealTime);
+    }
+
+    private List<Long> locateInMemory(Long key, Long subKey, long afterRealTime) throws IOException {
+        if (!isWritable()) {
+            refresh();
+        }
+
+        Queue<IndexEntry> entries = index.get(key);
+        if (Objects.isNull(entries)) {
+            return Collections.emptyList();
+        }
+
+        SortedSet<Long> positions = new TreeSet<>();
+        for (IndexEntry entry : entries) {
+            if ((Objects.isNull(subKey) || entry.subKey() == subKey) && entry.maxRealTime() > afterRealTime) {
+                positions.add(entry.position());
+            }
+        }
+        return new ArrayList<>(positions);
+    }
+
+    /**
+     * 已封存的分段返回 .idx 文件头, 未封存时返回null
+     */
+    private IndexSummary indexSummary() throws IOException {
+        IndexSummary indexSummary = summary;
+        if (Objects.nonNull(indexSummary) || isWritable() || Files.notExists(indexPath)) {
+            return indexSummary;
+        }
+
+        synchronized (this) {
+            if (Objects.isNull(summary)) {
+                try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+                    ByteBuffer header = readFully(channel, 0, INDEX_HEADER_SIZE);
+                    if (header.getInt() != INDEX_MAGIC || header.getInt() != INDEX_VERSION) {
+                        throw new IOException("Unsupported log segment index. path:" + indexPath);
+                    }
+                    int count = header.getInt();
+                    header.getInt();
+                    summary = new IndexSummary(count, header.getLong(), header.getLong(), header.getLong(),
+                            header.getLong());
+                }
+                // 索引文件可用后释放增量扫描建立的内存索引
+                index.clear();
+            }
+            return summary;
+        }
+    }
+
+    /**
+     * 在按 (key, subKey, 帧位置) 排序的 .idx 文件中二分查找
+     */
+    private List<Long> searchIndexFile(IndexSummary indexSummary, Long key, Long subKey, long afterRealTime)
+            throws IOException {
+        long subKeyFrom = Objects.isNull(subKey) ? Long.MIN_VALUE : subKey;
+        SortedSet<Long> positions = new TreeSet<>();
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            int low = 0;
+            int high = indexSummary.count();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                ByteBuffer entry = readFully(channel, entryOffset(mid), 16);
+                long midKey = entry.getLong();
+                long midSubKey = entry.getLong();
+                if (midKey < key || (midKey == key && midSubKey < subKeyFrom)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            for (int i = low; i < indexSummary.count(); i += INDEX_SCAN_BATCH) {
+                int batch = Math.min(INDEX_SCAN_BATCH, indexSummary.count() - i);
+                ByteBuffer entries = readFully(channel, entryOffset(i), batch * INDEX_ENTRY_SIZE);
+                for (int j = 0; j < batch; j++) {
+                    long entryKey = entries.getLong();
+                    long entrySubKey = entries.getLong();
+                    entries.getLong();
+                    long maxRealTime = entries.getLong();
+                    long position = entries.getLong();
+                    if (entryKey != key || (Objects.nonNull(subKey) && entrySubKey != subKey)) {
+                        return new ArrayList<>(positions);
+                    }
+                    if (maxRealTime > afterRealTime) {
+                        positions.add(position);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(positions);
+    }
+
+    /**
+     * 扫描未封存分段新追加的帧并加入内存索引, 遇到未写完或损坏的帧则停止, 下次查询再继续
+     */
+    private synchronized void refresh() throws IOException {
+        long fileSize = Files.size(path);
+        long position = indexedPosition;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (position + HEADER_SIZE <= fileSize) {
+                ByteBuffer header = readFully(channel, position, HEADER_SIZE);
+                int length = header.getInt();
+                int crc = header.getInt();
+                if (length <= 0 || length > MAX_FRAME_SIZE || position + HEADER_SIZE + length > fileSize) {
+                    break;
+                }
+
+                byte[] payload = readFully(channel, position + HEADER_SIZE, length).array();
+                CRC32 crc32 = new CRC32();
+                crc32.update(payload);
+                if ((int) crc32.getValue() != crc) {
+                    log.warn("Log segment frame checksum mismatch. path:[{}] position:[{}]", path, position);
+                    break;
+                }
+
+                Map<IndexKey, long[]> ranges = new HashMap<>();
+                for (T record : decode(payload)) {
+                    long realTime = codec.realTime().applyAsLong(record);
+                    long[] range = ranges.computeIfAbsent(new IndexKey(codec.key().apply(record), codec.subKey(record)),
+                            k -> new long[]{Long.MAX_VALUE, Long.MIN_VALUE});
+                    range[0] = Math.min(range[0], realTime);
+                    range[1] = Math.max(range[1], realTime);
+                }
+                long framePosition = position;
+                ranges.forEach((indexKey, range) -> addIndex(
+                        new IndexEntry(indexKey.key(), indexKey.subKey(), range[0], range[1], framePosition)));
+
+                position += HEADER_SIZE + length;
+            }
+        }
+
+        indexedPosition = position;
+        if (position == fileSize && isAbandoned()) {
+            // 写入方已停止(例如节点异常退出), 补写索引文件, 之后的查询及其他节点不再需要扫描
+            writeIndexFile();
+        }
+    }
+
+    private boolean isAbandoned() throws IOException {
+        LocalDate createDate = Instant.ofEpochMilli(createAt).atZone(ZoneId.systemDefault()).toLocalDate();
+        return createDate.isBefore(LocalDate.now())
+                && Files.getLastModifiedTime(path).toMillis() < System.currentTimeMillis() - ABANDONED_MILLIS;
+    }
+
+    synchronized void seal() {
+        if (Objects.isNull(writeChannel)) {
+            return;
+        }
+
+        try {
+            writeChannel.force(true);
+        } catch (IOException e) {
+            log.warn("Failed to flush log segment. path:[{}]", path, e);
+        }
+
+        // 先写入并发布 .idx 再关闭写通道, 封存期间的查询始终能看到内存索引或索引文件之一
+        try {
+            writeIndexFile();
+        } catch (IOException e) {
+            // 索引写入失败时保留内存索引, 查询退回到扫描分段
+            log.warn("Failed to write log segment index. path:[{}]", indexPath, e);
+        }
+
+        try {
+            writeChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to seal log segment. path:[{}]", path, e);
+        }
+        writeChannel = null;
+    }
+
+    /**
+     * 将内存索引排序后写入 .idx 文件, 先写临时文件再原子替换, 读取方不会看到写了一半的索引
+     */
+    private synchronized void writeIndexFile() throws IOException {
+        List<IndexEntry> entries = new ArrayList<>();
+        index.values().forEach(entries::addAll);
+        entries.sort(Comparator.comparingLong(IndexEntry::key)
+                .thenComparingLong(IndexEntry::subKey)
+                .thenComparingLong(IndexEntry::position));
+
+        long minKey = Long.MAX_VALUE;
+        long maxKey = Long.MIN_VALUE;
+        long minRealTime = Long.MAX_VALUE;
+        long maxRealTime = Long.MIN_VALUE;
+        for (IndexEntry entry : entries) {
+            minKey = Math.min(minKey, entry.key());
+            maxKey = Math.max(maxKey, entry.key());
+            minRealTime = Math.min(minRealTime, entry.minRealTime());
+            maxRealTime = Math.max(maxRealTime, entry.maxRealTime());
+        }
+
+        Path tmp = Files.createTempFile(path.getParent(), createAt + "_", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(INDEX_HEADER_SIZE + INDEX_SCAN_BATCH * INDEX_ENTRY_SIZE);
+                buffer.putInt(INDEX_MAGIC).putInt(INDEX_VERSION).putInt(entries.size()).putInt(0)
+                        .putLong(minKey).putLong(maxKey).putLong(minRealTime).putLong(maxRealTime);
+                for (IndexEntry entry : entries) {
+                    if (buffer.remaining() < INDEX_ENTRY_SIZE) {
+                        writeFully(channel, buffer);
+                    }
+                    buffer.putLong(entry.key()).putLong(entry.subKey())
+                            .putLong(entry.minRealTime()).putLong(entry.maxRealTime())
+                            .putLong(entry.position());
+                }
+                writeFully(channel, buffer);
+                channel.force(true);
+            }
+
+            try {
+                Files.move(tmp, indexPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+
+        summary = new IndexSummary(entries.size(), minKey, maxKey, minRealTime, maxRealTime);
+        index.clear();
+    }
+
+    synchronized void delete() throws IOException {
+        seal();
+        Files.deleteIfExists(indexPath);
+        Files.deleteIfExists(path);
+    }
+
+    private void addIndex(IndexEntry entry) {
+        index.computeIfAbsent(entry.key(), k -> new ConcurrentLinkedQueue<>()).add(entry);
+    }
+
+    private static long entryOffset(int i) {
+        return INDEX_HEADER_SIZE + (long) i * INDEX_ENTRY_SIZE;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of log segment. path:" + path);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private List<T> decode(byte[] payload) throws IOException {
+        return JsonUtil.parseList(new String(inflate(payload), StandardCharsets.UTF_8), codec.type());
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated log frame");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted log frame", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 日志的序列化方式与索引字段
+     *
+     * @param type     日志类型
+     * @param key      索引key
+     * @param subKey   索引二级key, 没有时为null
+     * @param realTime 上报时间
+     */
+    record Codec<T>(Class<T> type, Function<T, Long> key, Function<T, Long> subKey, ToLongFunction<T> realTime) {
+
+        long subKey(T record) {
+            if (Objects.isNull(subKey)) {
+                return 0L;
+            }
+            Long value = subKey.apply(record);
+            return Objects.isNull(value) ? 0L : value;
+        }
+    }
+
+    private record IndexKey(long key, long subKey) {
+    }
+
+    private record IndexEntry(long key, long subKey, long minRealTime, long maxRealTime, long position) {
+    }
+
+    private record IndexSummary(int count, long minKey, long maxKey, long minRealTime, long maxRealTime) {
+    }
+}
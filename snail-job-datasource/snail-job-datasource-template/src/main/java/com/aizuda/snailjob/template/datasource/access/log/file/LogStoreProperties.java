@@ -0,0 +1,36 @@
+package com.aizuda.snailjob.template.datasource.access.log.file;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 日志存储配置
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+@ConfigurationProperties(prefix = "snail-job.log-store")
+public class LogStoreProperties {
+
+    /**
+     * 存储类型 db: 数据库(默认) file: 本地分段文件
+     */
+    private String type = "db";
+
+    /**
+     * 文件存储的根目录, 多个服务端共享同一目录时每个节点写自己的子目录, 查询时读取所有节点的目录
+     */
+    private String path = "snail-job-logs";
+
+    /**
+     * 单个分段文件的最大字节数, 超过后滚动新的分段
+     */
+    private long segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * 日志保留天数, 过期的分段整体删除
+     */
+    private int retentionDays = 7;
+}
@@ -0,0 +1,212 @@
+package com.aizuda.snailjob.template.datasource.access.log.file;
+
+import com.aizuda.snailjob.common.core.util.NetUtil;
+import com.aizuda.snailjob.template.datasource.exception.SnailJobDatasourceException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * 本地分段日志存储
+ * 目录结构: {path}/{category}/{节点}/{创建时间}.seg
+ * 每个节点只往自己的目录追加, 分段超过大小或跨天后滚动; 查询时读取所有节点目录下的分段
+ * 节点目录的文件列表按 {@link #DISCOVER_INTERVAL_MILLIS} 缓存, 查询不会每次都遍历目录
+ * 过期的分段按文件整体删除, 不需要再合并或按行清理日志
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Slf4j
+public class SegmentedLogStore<T> implements AutoCloseable {
+
+    /**
+     * 重新扫描节点目录的间隔, 其他节点新滚动出的分段最多延迟该时间可见(当前分段的追加不受影响)
+     */
+    private static final long DISCOVER_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final Path categoryDir;
+    private final Path nodeDir;
+    private final LogSegment.Codec<T> codec;
+    private final long segmentSize;
+    private final int retentionDays;
+    private final Map<Path, LogSegment<T>> segments = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner;
+    private LogSegment<T> active;
+    private volatile long discoveredAt;
+
+    SegmentedLogStore(String category, LogStoreProperties properties, LogSegment.Codec<T> codec) {
+        this.categoryDir = Paths.get(properties.getPath(), category).toAbsolutePath();
+        this.nodeDir = categoryDir.resolve(nodeName());
+        this.codec = codec;
+        this.segmentSize = properties.getSegmentSize();
+        this.retentionDays = properties.getRetentionDays();
+
+        try {
+            Files.createDirectories(nodeDir);
+        } catch (IOException e) {
+            throw new SnailJobDatasourceException("Failed to create log directory. path:[{}]", nodeDir, e);
+        }
+
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sj-log-store-cleaner-" + category);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner.scheduleWithFixedDelay(this::cleanExpired, 1, 60, TimeUnit.MINUTES);
+    }
+
+    public synchronized void append(List<T> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        try {
+            LogSegment<T> segment = activeSegment();
+            segment.append(records);
+        } catch (IOException e) {
+            throw new SnailJobDatasourceException("Failed to write logs. path:[{}]", nodeDir, e);
+        }
+    }
+
+    /**
+     * 查询指定key且上报时间大于afterRealTime的日志, 按上报时间排序
+     *
+     * @param key           任务批次id/重试任务id
+     * @param subKey        任务项id, 为null时不限制
+     * @param afterRealTime 起始上报时间(不包含)
+     * @return 日志
+     */
+    public List<T> query(Long key, Long subKey, long afterRealTime) {
+        List<T> result = new ArrayList<>();
+        for (LogSegment<T> segment : discover(false)) {
+            try {
+                result.addAll(segment.read(key, subKey, afterRealTime));
+            } catch (IOException e) {
+                // 分段可能刚好被其他节点按保留期删除
+                log.warn("Failed to read log segment. path:[{}]", segment.getPath(), e);
+            }
+        }
+
+        result.sort(Comparator.comparingLong(codec.realTime()));
+        return result;
+    }
+
+    private LogSegment<T> activeSegment() throws IOException {
+        if (Objects.nonNull(active) && active.size() < segmentSize
+                && LocalDate.now().equals(toDate(active.getCreateAt()))) {
+            return active;
+        }
+
+        if (Objects.nonNull(active)) {
+            active.seal();
+        }
+
+        // 同一毫秒内滚动时文件名顺延, 保证分段文件名唯一且有序
+        long createAt = Math.max(System.currentTimeMillis(), Objects.isNull(active) ? 0 : active.getCreateAt() + 1);
+        active = LogSegment.create(nodeDir, createAt, codec);
+        segments.put(active.getPath(), active);
+        return active;
+    }
+
+    /**
+     * 加载所有节点目录下新出现的分段
+     *
+     * @param force 是否忽略缓存立即扫描目录
+     */
+    private List<LogSegment<T>> discover(boolean force) {
+        long now = System.currentTimeMillis();
+        if (force || now - discoveredAt >= DISCOVER_INTERVAL_MILLIS) {
+            discoveredAt = now;
+            scan();
+        }
+
+        List<LogSegment<T>> sorted = new ArrayList<>(segments.values());
+        sorted.sort(Comparator.comparingLong(LogSegment::getCreateAt));
+        return sorted;
+    }
+
+    private void scan() {
+        try (Stream<Path> nodes = Files.list(categoryDir)) {
+            for (Path dir : nodes.filter(Files::isDirectory).toList()) {
+                try (Stream<Path> files = Files.list(dir)) {
+                    files.filter(LogSegment::isSegment)
+                            .forEach(path -> segments.computeIfAbsent(path, p -> LogSegment.open(p, codec)));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list log segments. path:[{}]", categoryDir, e);
+        }
+
+        segments.values().removeIf(segment -> !segment.isWritable() && Files.notExists(segment.getPath()));
+    }
+
+    /**
+     * 删除超过保留天数的分段, 共享目录时任一节点都可以清理其他节点的过期分段
+     */
+    void cleanExpired() {
+        Instant expireAt = LocalDate.now().minusDays(retentionDays)
+                .atStartOfDay(ZoneId.systemDefault()).toInstant();
+        for (LogSegment<T> segment : discover(true)) {
+            if (segment.isWritable()) {
+                continue;
+            }
+
+            try {
+                Instant modified = Files.getLastModifiedTime(segment.getPath()).toInstant();
+                if (modified.isBefore(expireAt)) {
+                    segment.delete();
+                    segments.remove(segment.getPath());
+                }
+            } catch (IOException e) {
+                log.warn("Failed to delete expired log segment. path:[{}]", segment.getPath(), e);
+            }
+        }
+
+        // 节点重启后会使用新的目录, 清理已经没有分段的旧目录
+        try (Stream<Path> nodes = Files.list(categoryDir)) {
+            for (Path dir : nodes.filter(Files::isDirectory).filter(dir -> !dir.equals(nodeDir)).toList()) {
+                try (Stream<Path> files = Files.list(dir)) {
+                    if (files.findAny().isEmpty()) {
+                        Files.deleteIfExists(dir);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to clean empty log directories. path:[{}]", categoryDir, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        cleaner.shutdownNow();
+        if (Objects.nonNull(active)) {
+            active.seal();
+            active = null;
+        }
+    }
+
+    private static LocalDate toDate(long epochMilli) {
+        return Instant.ofEpochMilli(epochMilli).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static String nodeName() {
+        String host = NetUtil.getLocalIpStr();
+        return (Objects.isNull(host) ? "localhost" : host.replaceAll("[^A-Za-z0-9.-]", "_"))
+                + "-" + ProcessHandle.current().pid();
+    }
+}
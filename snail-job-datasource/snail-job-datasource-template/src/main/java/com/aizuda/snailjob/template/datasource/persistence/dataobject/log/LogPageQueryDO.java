@@ -16,6 +16,10 @@ import lombok.EqualsAndHashCode;
 @Data
 public class LogPageQueryDO extends PageQueryDO {
     private Long startRealTime;
+    /**
+     * 与startRealTime组成(上报时间, id)游标, 为空时只按上报时间过滤
+     */
+    private Long startId;
     private Long jobId;
     private Long taskBatchId;
     private Long taskId;
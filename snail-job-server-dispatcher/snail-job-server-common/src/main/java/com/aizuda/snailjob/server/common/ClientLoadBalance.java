@@ -1,5 +1,7 @@
 package com.aizuda.snailjob.server.common;
 
+import com.aizuda.snailjob.server.common.handler.InstanceGroupSnapshot.LabelBucket;
+
 import java.util.TreeSet;
 
 /**
@@ -10,6 +12,17 @@ public interface ClientLoadBalance {
 
     String route(String key, TreeSet<String> clientAllAddressSet);
 
+    /**
+     * 基于实例快照路由, 有状态的路由策略可按快照版本号缓存计算结果
+     *
+     * @param key    路由key
+     * @param bucket 标签匹配的存活实例
+     * @return hostId
+     */
+    default String route(String key, LabelBucket bucket) {
+        return route(key, bucket.getHostIds());
+    }
+
     int routeType();
 
 }
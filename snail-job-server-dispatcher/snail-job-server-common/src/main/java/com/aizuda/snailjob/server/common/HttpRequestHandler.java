@@ -14,7 +14,14 @@ import io.netty.handler.codec.http.HttpMethod;
  */
 public interface HttpRequestHandler {
 
-    boolean supports(String path);
+    /**
+     * 处理的请求路径, 启动时据此构建路由表
+     */
+    String path();
+
+    default boolean supports(String path) {
+        return path().equals(path);
+    }
 
     HttpMethod method();
 
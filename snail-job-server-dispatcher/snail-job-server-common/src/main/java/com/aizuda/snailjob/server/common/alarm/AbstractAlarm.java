@@ -1,25 +1,20 @@
 package com.aizuda.snailjob.server.common.alarm;
 
 import cn.hutool.core.collection.CollUtil;
-import com.aizuda.snailjob.common.core.alarm.Alarm;
+import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.common.core.alarm.AlarmContext;
-import com.aizuda.snailjob.common.core.alarm.SnailJobAlarmFactory;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
-import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.cache.CacheNotifyConfig;
 import com.aizuda.snailjob.server.common.cache.CacheNotifyRateLimiter;
-import com.aizuda.snailjob.server.common.convert.AlarmInfoConverter;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
 import com.aizuda.snailjob.server.common.dto.AlarmInfo;
 import com.aizuda.snailjob.server.common.dto.NotifyConfigInfo;
 import com.aizuda.snailjob.server.common.dto.NotifyConfigInfo.RecipientInfo;
 import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
-import com.aizuda.snailjob.template.datasource.persistence.mapper.NotifyRecipientMapper;
-import com.aizuda.snailjob.template.datasource.persistence.po.NotifyConfig;
-import com.aizuda.snailjob.template.datasource.persistence.po.NotifyRecipient;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.RateLimiter;
 import lombok.extern.slf4j.Slf4j;
@@ -31,7 +26,7 @@ import org.springframework.scheduling.TaskScheduler;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.function.UnaryOperator;
 
 /**
  * @author xiaowoniu
@@ -43,13 +38,24 @@ public abstract class AbstractAlarm<E extends ApplicationEvent, A extends AlarmI
         Runnable,
         Lifecycle {
 
+    private static final String AGGREGATE_FORMATTER = "{}\n> 聚合: 最近{}秒内相同告警又发生了{}次";
+
     @Autowired
     @Qualifier("alarmExecutorService")
     protected TaskScheduler taskScheduler;
     @Autowired
     protected AccessTemplate accessTemplate;
     @Autowired
-    protected NotifyRecipientMapper recipientMapper;
+    protected CacheNotifyConfig cacheNotifyConfig;
+    @Autowired
+    protected AlarmSender alarmSender;
+    @Autowired
+    protected SystemProperties systemProperties;
+
+    /**
+     * 聚合窗口, key: 通知配置id:聚合key
+     */
+    private final Map<String, AggregateWindow<A>> windows = new HashMap<>();
 
     @Override
     public void run() {
@@ -72,10 +78,11 @@ public abstract class AbstractAlarm<E extends ApplicationEvent, A extends AlarmI
             Map<Long, NotifyConfigInfo> notifyConfigMap = obtainNotifyConfig(notifyScene, notifyIds);
 
             // 循环发送消息
+            long now = System.currentTimeMillis();
             waitSendAlarmInfos.forEach((key, list) -> {
                 Optional.ofNullable(notifyConfigMap.get(key)).ifPresent(notifyConfig -> {
                     for (A alarmDTO : list) {
-                        sendAlarm(notifyConfig, alarmDTO);
+                        aggregate(notifyConfig, alarmDTO, now);
                     }
                 });
             });
@@ -84,55 +91,100 @@ public abstract class AbstractAlarm<E extends ApplicationEvent, A extends AlarmI
             Thread.currentThread().interrupt();
         } catch (Exception e) {
             SnailJobLog.LOCAL.error("RetryTaskFailDeadLetterAlarmListener queue poll Exception", e);
+        } finally {
+            flushWindows(System.currentTimeMillis());
         }
     }
 
-    protected Map<Long, NotifyConfigInfo> obtainNotifyConfig(Set<Integer> notifyScene,
-                                                             Set<Long> notifyIds) {
-        if (CollUtil.isEmpty(notifyIds) || CollUtil.isEmpty(notifyScene)) {
-            return Maps.newHashMap();
+    /**
+     * 聚合窗口内第一条告警立即发送, 相同的告警只计数, 窗口结束时发送一条汇总告警
+     */
+    private void aggregate(NotifyConfigInfo notifyConfig, A alarmDTO, long now) {
+        // 重试通知阈值
+        if (Objects.nonNull(alarmDTO.getCount())
+                && Objects.nonNull(notifyConfig.getNotifyThreshold())
+                && alarmDTO.getCount() < notifyConfig.getNotifyThreshold()) {
+            return;
         }
 
-        // 批量获取所需的通知配置
-        List<NotifyConfig> notifyConfigs = accessTemplate.getNotifyConfigAccess().list(
-                new LambdaQueryWrapper<NotifyConfig>()
-                        .eq(NotifyConfig::getNotifyStatus, StatusEnum.YES.getStatus())
-                        .in(NotifyConfig::getNotifyScene, notifyScene)
-                        .in(NotifyConfig::getSystemTaskType, StreamUtils.toList(getSystemTaskType(), SyetemTaskTypeEnum::getType))
-                        .in(NotifyConfig::getId, notifyIds)
-        );
-        if (CollUtil.isEmpty(notifyConfigs)) {
-            return Maps.newHashMap();
+        long window = TimeUnit.SECONDS.toMillis(systemProperties.getAlarm().getAggregateWindow());
+        if (window <= 0) {
+            sendAlarm(notifyConfig, alarmDTO);
+            return;
         }
 
-        Set<Long> recipientIds = notifyConfigs.stream()
-                .flatMap(config -> JsonUtil.parseList(config.getRecipientIds(), Long.class).stream())
-                .collect(Collectors.toSet());
+        String key = notifyConfig.getId() + StrUtil.COLON + aggregateKey(alarmDTO);
+        AggregateWindow<A> aggregateWindow = windows.get(key);
+        if (Objects.nonNull(aggregateWindow) && now < aggregateWindow.end) {
+            aggregateWindow.suppressed++;
+            aggregateWindow.latest = alarmDTO;
+            aggregateWindow.notifyConfig = notifyConfig;
+            alarmSender.suppress();
+            return;
+        }
 
-        List<NotifyRecipient> notifyRecipients = recipientMapper.selectByIds(recipientIds);
-        Map<Long, NotifyRecipient> recipientMap = StreamUtils.toIdentityMap(notifyRecipients, NotifyRecipient::getId);
+        if (Objects.nonNull(aggregateWindow)) {
+            flushWindow(aggregateWindow);
+        }
+        windows.put(key, new AggregateWindow<>(notifyConfig, alarmDTO, now + window));
+        sendAlarm(notifyConfig, alarmDTO);
+    }
 
-        if (CollUtil.isEmpty(recipientIds)) {
-            return Maps.newHashMap();
+    private void flushWindows(long now) {
+        Iterator<AggregateWindow<A>> iterator = windows.values().iterator();
+        while (iterator.hasNext()) {
+            AggregateWindow<A> aggregateWindow = iterator.next();
+            if (now >= aggregateWindow.end) {
+                iterator.remove();
+                flushWindow(aggregateWindow);
+            }
         }
+    }
 
-        List<NotifyConfigInfo> notifyConfigInfos = AlarmInfoConverter.INSTANCE.retryToNotifyConfigInfos(notifyConfigs);
-        for (NotifyConfigInfo notifyConfigInfo : notifyConfigInfos) {
-            List<RecipientInfo> recipients = StreamUtils.toList(notifyConfigInfo.getRecipientIds(), recipientId -> {
-                NotifyRecipient notifyRecipient = recipientMap.get(recipientId);
-                if (Objects.isNull(notifyRecipient)) {
-                    return null;
-                }
-
-                RecipientInfo recipientInfo = new RecipientInfo();
-                recipientInfo.setNotifyAttribute(notifyRecipient.getNotifyAttribute());
-                recipientInfo.setNotifyType(notifyRecipient.getNotifyType());
-                return recipientInfo;
-            });
-            notifyConfigInfo.setRecipientInfos(recipients);
+    private void flushWindow(AggregateWindow<A> aggregateWindow) {
+        if (aggregateWindow.suppressed <= 0) {
+            return;
         }
 
-        return StreamUtils.toIdentityMap(notifyConfigInfos, NotifyConfigInfo::getId);
+        try {
+            doSendAlarm(aggregateWindow.notifyConfig, aggregateWindow.latest, context ->
+                    context.text(AGGREGATE_FORMATTER, context.getText(),
+                            systemProperties.getAlarm().getAggregateWindow(), aggregateWindow.suppressed));
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.error("Sending aggregated alarm exception", e);
+        }
+    }
+
+    /**
+     * 聚合告警的维度, 默认按空间、组、通知场景和失败原因聚合
+     *
+     * @param alarmDTO 告警信息
+     * @return 聚合key
+     */
+    protected String aggregateKey(A alarmDTO) {
+        return String.join(StrUtil.COLON, alarmDTO.getNamespaceId(), alarmDTO.getGroupName(),
+                String.valueOf(alarmDTO.getNotifyScene()), StrUtil.nullToEmpty(alarmDTO.getReason()));
+    }
+
+    protected Map<Long, NotifyConfigInfo> obtainNotifyConfig(Set<Integer> notifyScene,
+                                                             Set<Long> notifyIds) {
+        if (CollUtil.isEmpty(notifyIds) || CollUtil.isEmpty(notifyScene)) {
+            return Maps.newHashMap();
+        }
+
+        // 从本地缓存批量获取所需的通知配置
+        Set<Integer> systemTaskTypes = StreamUtils.toSet(getSystemTaskType(), SyetemTaskTypeEnum::getType);
+        Map<Long, NotifyConfigInfo> notifyConfigMap = new HashMap<>();
+        cacheNotifyConfig.getNotifyConfigs(notifyIds).forEach((notifyId, notifyConfigInfo) -> {
+            if (Objects.equals(notifyConfigInfo.getNotifyStatus(), StatusEnum.YES.getStatus())
+                    && notifyScene.contains(notifyConfigInfo.getNotifyScene())
+                    && systemTaskTypes.contains(notifyConfigInfo.getSystemTaskType())
+                    && CollUtil.isNotEmpty(notifyConfigInfo.getRecipientInfos())) {
+                notifyConfigMap.put(notifyId, notifyConfigInfo);
+            }
+        });
+
+        return notifyConfigMap;
     }
 
     protected abstract List<SyetemTaskTypeEnum> getSystemTaskType();
@@ -156,30 +208,26 @@ public abstract class AbstractAlarm<E extends ApplicationEvent, A extends AlarmI
     }
 
     protected void sendAlarm(NotifyConfigInfo notifyConfig, A alarmDTO) {
+        doSendAlarm(notifyConfig, alarmDTO, context -> context);
+    }
+
+    private void doSendAlarm(NotifyConfigInfo notifyConfig, A alarmDTO, UnaryOperator<AlarmContext> decorator) {
         if (Objects.equals(notifyConfig.getRateLimiterStatus(), StatusEnum.YES.getStatus())) {
-            // 限流
+            // 限流, 每秒发送rateLimiterThreshold个告警, 超过的直接丢弃不阻塞告警线程
             RateLimiter rateLimiter = getRateLimiter(String.valueOf(notifyConfig.getId()), notifyConfig.getRateLimiterThreshold());
-            // 每秒发送rateLimiterThreshold个告警
-            if (Objects.nonNull(rateLimiter) && !rateLimiter.tryAcquire(1, TimeUnit.SECONDS)) {
+            if (Objects.nonNull(rateLimiter) && !rateLimiter.tryAcquire()) {
+                alarmSender.suppress();
                 return;
             }
         }
 
-        // 重试通知阈值
-        if (Objects.nonNull(alarmDTO.getCount())
-                && Objects.nonNull(notifyConfig.getNotifyThreshold())
-                && alarmDTO.getCount() < notifyConfig.getNotifyThreshold()) {
-            return;
-        }
-
         for (final RecipientInfo recipientInfo : notifyConfig.getRecipientInfos()) {
             if (Objects.isNull(recipientInfo)) {
                 continue;
             }
-            AlarmContext context = buildAlarmContext(alarmDTO, notifyConfig);
+            AlarmContext context = decorator.apply(buildAlarmContext(alarmDTO, notifyConfig));
             context.setNotifyAttribute(recipientInfo.getNotifyAttribute());
-            Alarm<AlarmContext> alarm = SnailJobAlarmFactory.getAlarmType(recipientInfo.getNotifyType());
-            alarm.asyncSendMessage(context);
+            alarmSender.send(recipientInfo.getNotifyType(), context);
         }
 
     }
@@ -187,7 +235,8 @@ public abstract class AbstractAlarm<E extends ApplicationEvent, A extends AlarmI
     protected RateLimiter getRateLimiter(String key, double rateLimiterThreshold) {
         RateLimiter rateLimiter = CacheNotifyRateLimiter.getRateLimiterByKey(key);
         if (Objects.isNull(rateLimiter) || rateLimiter.getRate() != rateLimiterThreshold) {
-            CacheNotifyRateLimiter.put(key, RateLimiter.create(rateLimiterThreshold));
+            rateLimiter = RateLimiter.create(rateLimiterThreshold);
+            CacheNotifyRateLimiter.put(key, rateLimiter);
         }
 
         return rateLimiter;
@@ -196,4 +245,21 @@ public abstract class AbstractAlarm<E extends ApplicationEvent, A extends AlarmI
     protected abstract int getNotifyScene();
 
     protected abstract void doOnApplicationEvent(E event);
+
+    /**
+     * 相同告警的聚合窗口, 只在告警线程中访问
+     */
+    private static final class AggregateWindow<A> {
+
+        private final long end;
+        private NotifyConfigInfo notifyConfig;
+        private A latest;
+        private int suppressed;
+
+        private AggregateWindow(NotifyConfigInfo notifyConfig, A latest, long end) {
+            this.notifyConfig = notifyConfig;
+            this.latest = latest;
+            this.end = end;
+        }
+    }
 }
@@ -55,4 +55,10 @@ public abstract class AbstractJobAlarm<E extends ApplicationEvent> extends Abstr
 
         return jobAlarmInfoMap;
     }
+
+    @Override
+    protected String aggregateKey(JobAlarmInfo alarmDTO) {
+        // 同一任务的相同告警才聚合
+        return alarmDTO.getJobId() + StrUtil.COLON + super.aggregateKey(alarmDTO);
+    }
 }
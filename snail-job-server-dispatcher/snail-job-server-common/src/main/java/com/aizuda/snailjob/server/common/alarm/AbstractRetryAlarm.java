@@ -63,4 +63,10 @@ public abstract class AbstractRetryAlarm<E extends ApplicationEvent> extends Abs
 
         return retryAlarmInfoMap;
     }
+
+    @Override
+    protected String aggregateKey(RetryAlarmInfo alarmDTO) {
+        // 同一场景的相同告警才聚合
+        return alarmDTO.getSceneName() + StrUtil.COLON + super.aggregateKey(alarmDTO);
+    }
 }
@@ -57,4 +57,10 @@ public abstract class AbstractWorkflowAlarm<E extends ApplicationEvent> extends
 
         return workflowAlarmInfoMap;
     }
+
+    @Override
+    protected String aggregateKey(WorkflowAlarmInfo alarmDTO) {
+        // 同一工作流的相同告警才聚合
+        return alarmDTO.getWorkflowId() + StrUtil.COLON + super.aggregateKey(alarmDTO);
+    }
 }
@@ -0,0 +1,110 @@
+package com.aizuda.snailjob.server.common.alarm;
+
+import com.aizuda.snailjob.common.core.alarm.Alarm;
+import com.aizuda.snailjob.common.core.alarm.AlarmContext;
+import com.aizuda.snailjob.common.core.alarm.SnailJobAlarmFactory;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.config.SystemProperties.ThreadPoolConfig;
+import com.aizuda.snailjob.server.common.dto.AlarmMetricsDTO;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 告警发送
+ * 每种通知渠道使用独立的有界线程池, 某个渠道响应慢或不可用时不影响其他渠道;
+ * 队列满时直接丢弃告警, 发送超时由各渠道的 {@link com.aizuda.snailjob.common.core.constant.SystemConstants#ALARM_SEND_TIMEOUT} 控制
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class AlarmSender implements Lifecycle {
+
+    private final SystemProperties systemProperties;
+    private final ConcurrentHashMap<Integer/*notifyType*/, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * 异步发送告警
+     *
+     * @param notifyType 通知类型
+     * @param context    告警内容
+     */
+    public void send(Integer notifyType, AlarmContext context) {
+        Alarm<AlarmContext> alarm = SnailJobAlarmFactory.getAlarmType(notifyType);
+        if (Objects.isNull(alarm)) {
+            SnailJobLog.LOCAL.warn("Alarm type does not exist. notifyType:[{}]", notifyType);
+            return;
+        }
+
+        try {
+            executors.computeIfAbsent(notifyType, this::createExecutor).execute(() -> {
+                try {
+                    if (alarm.syncSendMessage(context)) {
+                        sent.increment();
+                    } else {
+                        failed.increment();
+                    }
+                } catch (Exception e) {
+                    failed.increment();
+                    SnailJobLog.LOCAL.error("Sending alarm exception. notifyType:[{}]", notifyType, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            SnailJobLog.LOCAL.warn("Alarm rejected, sending queue is full. notifyType:[{}] droppedCount:[{}]",
+                    notifyType, dropped.sum());
+        }
+    }
+
+    /**
+     * 记录被聚合或限流抑制的告警
+     */
+    public void suppress() {
+        suppressed.increment();
+    }
+
+    public AlarmMetricsDTO getMetrics() {
+        AlarmMetricsDTO metrics = new AlarmMetricsDTO();
+        metrics.setQueued(executors.values().stream()
+                .mapToLong(executor -> executor.getQueue().size() + executor.getActiveCount()).sum());
+        metrics.setSent(sent.sum());
+        metrics.setFailed(failed.sum());
+        metrics.setSuppressed(suppressed.sum());
+        metrics.setDropped(dropped.sum());
+        return metrics;
+    }
+
+    private ThreadPoolExecutor createExecutor(Integer notifyType) {
+        ThreadPoolConfig threadPool = systemProperties.getAlarm().getSenderTp();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadPool.getCorePoolSize(),
+                threadPool.getMaximumPoolSize(), threadPool.getKeepAliveTime(), threadPool.getTimeUnit(),
+                new LinkedBlockingQueue<>(threadPool.getQueueCapacity()),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("snail-job-alarm-" + notifyType + "-%d").build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void close() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+    }
+}
@@ -0,0 +1,33 @@
+package com.aizuda.snailjob.server.common.alarm;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 通知配置或通知接收人新增、修改、启停、删除事件
+ * 由 {@link com.aizuda.snailjob.server.common.cache.CacheNotifyConfig} 监听并失效本节点的缓存
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Getter
+public class NotifyConfigChangeEvent extends ApplicationEvent {
+
+    /**
+     * 变更的通知配置, 为空时表示失效全部缓存(例如接收人变更)
+     */
+    private final Set<Long> notifyIds;
+
+    public NotifyConfigChangeEvent(Set<Long> notifyIds) {
+        super(notifyIds);
+        this.notifyIds = notifyIds;
+    }
+
+    public static NotifyConfigChangeEvent all() {
+        return new NotifyConfigChangeEvent(Collections.emptySet());
+    }
+}
@@ -2,12 +2,14 @@ package com.aizuda.snailjob.server.common.allocate.client;
 
 import com.aizuda.snailjob.server.common.ClientLoadBalance;
 import com.aizuda.snailjob.server.common.allocate.client.ClientLoadBalanceManager.AllocationAlgorithmEnum;
-import com.aizuda.snailjob.server.common.allocate.common.ConsistentHashRouter;
-import com.aizuda.snailjob.server.common.allocate.common.Node;
+import com.aizuda.snailjob.server.common.allocate.common.ConsistentHashRing;
+import com.aizuda.snailjob.server.common.handler.InstanceGroupSnapshot.LabelBucket;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Objects;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author: opensnail
@@ -17,39 +19,44 @@ public class ClientLoadBalanceConsistentHash implements ClientLoadBalance {
 
     private final int virtualNodeCnt;
 
+    /**
+     * 按 namespace/group/标签 缓存的hash环, 实例快照版本变化时增量更新
+     */
+    private final Cache<String/*routeKey*/, ConsistentHashRing> rings = CacheBuilder.newBuilder()
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
     public ClientLoadBalanceConsistentHash(int virtualNodeCnt) {
         this.virtualNodeCnt = virtualNodeCnt;
     }
 
     @Override
     public String route(String allocKey, TreeSet<String> clientAllAddressSet) {
+        return ConsistentHashRing.of(null, 0, clientAllAddressSet, virtualNodeCnt).route(allocKey);
+    }
 
-        Collection<ClientNode> cidNodes = new ArrayList<ClientNode>();
-        for (String clientAddress : clientAllAddressSet) {
-            cidNodes.add(new ClientNode(clientAddress));
+    @Override
+    public String route(String allocKey, LabelBucket bucket) {
+        ConsistentHashRing ring = rings.getIfPresent(bucket.getRouteKey());
+        if (Objects.isNull(ring) || ring.getVersion() != bucket.getVersion()) {
+            ring = rings.asMap().compute(bucket.getRouteKey(), (key, old) -> {
+                if (Objects.nonNull(old) && old.getVersion() >= bucket.getVersion()) {
+                    return old;
+                }
+                return ConsistentHashRing.of(old, bucket.getVersion(), bucket.getHostIds(), virtualNodeCnt);
+            });
+
+            // 调用方持有的是旧快照, 基于缓存的环临时计算, 不覆盖缓存
+            if (ring.getVersion() != bucket.getVersion()) {
+                ring = ConsistentHashRing.of(ring, bucket.getVersion(), bucket.getHostIds(), virtualNodeCnt);
+            }
         }
-        final ConsistentHashRouter<ClientNode> consistentHashRouter = new ConsistentHashRouter<>(cidNodes, virtualNodeCnt);
 
-        ClientNode clientNode = consistentHashRouter.routeNode(allocKey);
-
-        return clientNode.clientAddress;
+        return ring.route(allocKey);
     }
 
     @Override
     public int routeType() {
         return AllocationAlgorithmEnum.CONSISTENT_HASH.getType();
     }
-
-    private static class ClientNode implements Node {
-        private final String clientAddress;
-
-        public ClientNode(String clientAddress) {
-            this.clientAddress = clientAddress;
-        }
-
-        @Override
-        public String getKey() {
-            return clientAddress;
-        }
-    }
 }
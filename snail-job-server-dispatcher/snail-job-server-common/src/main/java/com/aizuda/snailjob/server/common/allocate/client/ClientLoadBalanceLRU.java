@@ -1,12 +1,14 @@
 package com.aizuda.snailjob.server.common.allocate.client;
 
-import cn.hutool.core.collection.CollectionUtil;
-import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.server.common.ClientLoadBalance;
 import com.aizuda.snailjob.server.common.allocate.client.ClientLoadBalanceManager.AllocationAlgorithmEnum;
+import com.aizuda.snailjob.server.common.handler.InstanceGroupSnapshot.LabelBucket;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author: opensnail
@@ -14,58 +16,90 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class ClientLoadBalanceLRU implements ClientLoadBalance {
 
-    private int size;
+    /**
+     * 未使用快照时的版本号, 每次都需要与传入的节点集合对齐
+     */
+    private static final long NO_VERSION = -1;
+
+    private final int size;
+
+    /**
+     * 每个路由key的访问顺序, 12个小时未使用自动清理
+     */
+    private final Cache<String, LruItem> lruCache = CacheBuilder.newBuilder()
+            .expireAfterAccess(12, TimeUnit.HOURS)
+            .build();
 
     public ClientLoadBalanceLRU(int size) {
         this.size = size;
     }
 
-    private ConcurrentHashMap<String, LinkedHashMap<String, String>> LRU_CACHE = new ConcurrentHashMap<>();
-    private static long CACHE_VALID_TIME = 0;
-
     @Override
     public String route(String allocKey, TreeSet<String> clientAllAddressSet) {
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            LRU_CACHE.clear();
-            // 每12个小时定时清理一次数据
-            CACHE_VALID_TIME = System.currentTimeMillis() + 1000*60*60*12;
+        return getLruItem(allocKey).route(NO_VERSION, clientAllAddressSet);
+    }
+
+    @Override
+    public String route(String allocKey, LabelBucket bucket) {
+        return getLruItem(allocKey).route(bucket.getVersion(), bucket.getHostIds());
+    }
+
+    private LruItem getLruItem(String allocKey) {
+        try {
+            return lruCache.get(allocKey, () -> new LruItem(size));
+        } catch (ExecutionException e) {
+            return new LruItem(size);
         }
-        LinkedHashMap<String, String> lruItem = LRU_CACHE.get(allocKey);
-        if (Objects.isNull(lruItem)) {
-            lruItem = new LinkedHashMap<String, String>(16, 0.75f, true) {
+    }
+
+    @Override
+    public int routeType() {
+        return AllocationAlgorithmEnum.LRU.getType();
+    }
+
+    /**
+     * 单个路由key的访问顺序, 快照版本号不变时无需与节点集合对齐
+     */
+    private static final class LruItem {
+
+        private final LinkedHashMap<String, String> order;
+        private long version = NO_VERSION;
+
+        private LruItem(int size) {
+            this.order = new LinkedHashMap<>(16, 0.75f, true) {
                 @Override
-                protected boolean removeEldestEntry(Map.Entry eldest) {
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
                     return super.size() > size;
                 }
             };
-
-            LRU_CACHE.put(allocKey, lruItem);
-        }
-
-        // 添加新数据
-        for (String address : clientAllAddressSet) {
-            lruItem.computeIfAbsent(address, key -> address);
         }
 
-        // 删除已经下线的节点
-        List<String> delKeys = new ArrayList<>();
-        for (String address : lruItem.keySet()) {
-            if (!clientAllAddressSet.contains(address)) {
-                delKeys.add(address);
-            }
-        }
-        if (CollectionUtil.isNotEmpty(delKeys)) {
-            for (String delKey : delKeys) {
-                lruItem.remove(delKey);
+        private synchronized String route(long version, Set<String> clientAllAddressSet) {
+            if (version == NO_VERSION || this.version != version) {
+                // 删除已经下线的节点
+                order.keySet().retainAll(clientAllAddressSet);
+                if (order.size() < clientAllAddressSet.size()) {
+                    // 添加新数据, 新节点排在最前面最先被使用
+                    Set<String> used = new LinkedHashSet<>(order.keySet());
+                    order.clear();
+                    for (String address : clientAllAddressSet) {
+                        if (!used.contains(address)) {
+                            order.put(address, address);
+                        }
+                    }
+                    used.forEach(address -> order.put(address, address));
+                }
+                this.version = version;
             }
-        }
 
-        return lruItem.values().stream().findFirst().get();
-    }
+            if (order.isEmpty()) {
+                return null;
+            }
 
-    @Override
-    public int routeType() {
-        return AllocationAlgorithmEnum.LRU.getType();
+            // 取最久未使用的节点并标记为最近使用
+            String address = order.keySet().iterator().next();
+            order.get(address);
+            return address;
+        }
     }
 }
@@ -2,9 +2,14 @@ package com.aizuda.snailjob.server.common.allocate.client;
 
 import com.aizuda.snailjob.server.common.ClientLoadBalance;
 import com.aizuda.snailjob.server.common.allocate.client.ClientLoadBalanceManager.AllocationAlgorithmEnum;
+import com.aizuda.snailjob.server.common.handler.InstanceGroupSnapshot.LabelBucket;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
+import java.util.List;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -14,31 +19,42 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class ClientLoadBalanceRound implements ClientLoadBalance {
 
-    private static final ConcurrentHashMap<String, AtomicInteger> COUNTER = new ConcurrentHashMap<>();
-    private static final int THRESHOLD = Integer.MAX_VALUE - 10000;
-    private static long CACHE_VALID_TIME = 0;
+    /**
+     * 每个路由key的轮询计数, 12个小时未使用自动清理
+     */
+    private static final Cache<String, AtomicInteger> COUNTER = CacheBuilder.newBuilder()
+            .expireAfterAccess(12, TimeUnit.HOURS)
+            .build();
 
     @Override
     public String route(final String allocKey, final TreeSet<String> clientAllAddressSet) {
         if (clientAllAddressSet.isEmpty()) {
             return "";
         }
-        // cache clear
-        if (System.currentTimeMillis() > CACHE_VALID_TIME) {
-            COUNTER.clear();
-            // 每12个小时定时清理一次数据
-            CACHE_VALID_TIME = System.currentTimeMillis() + 1000*60*60*12;
+
+        return List.copyOf(clientAllAddressSet).get(nextIndex(allocKey, clientAllAddressSet.size()));
+    }
+
+    @Override
+    public String route(final String allocKey, final LabelBucket bucket) {
+        if (bucket.isEmpty()) {
+            return "";
         }
-        String[] addressArr = clientAllAddressSet.toArray(new String[0]);
-        AtomicInteger next = COUNTER.getOrDefault(allocKey, new AtomicInteger(1));
-        String nextClientId = addressArr[next.get() % clientAllAddressSet.size()];
-        int nextIndex = next.incrementAndGet();
-        if (nextIndex > THRESHOLD) {
+
+        List<String> hostIds = bucket.getHostIdList();
+        return hostIds.get(nextIndex(allocKey, hostIds.size()));
+    }
+
+    private static int nextIndex(String allocKey, int size) {
+        AtomicInteger next;
+        try {
+            next = COUNTER.get(allocKey, () -> new AtomicInteger(1));
+        } catch (ExecutionException e) {
             next = new AtomicInteger(1);
         }
 
-        COUNTER.put(allocKey, next);
-        return nextClientId;
+        // 溢出后取模仍为非负数
+        return Math.floorMod(next.getAndIncrement(), size);
     }
 
     @Override
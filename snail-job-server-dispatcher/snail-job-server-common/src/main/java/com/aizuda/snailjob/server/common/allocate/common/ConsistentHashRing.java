@@ -0,0 +1,125 @@
+package com.aizuda.snailjob.server.common.allocate.common;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * <p>
+ * 不可变的一致性hash环
+ * 与 {@link ConsistentHashRouter} 的虚拟节点和hash算法保持一致, 路由结果相同;
+ * 创建后只读, 查询无需加锁. 节点变化时基于上一个环增量生成新环, 只对新增节点计算虚拟节点的hash
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public final class ConsistentHashRing {
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * 实例集合的版本号
+     */
+    @Getter
+    private final long version;
+    private final Map<String/*node*/, long[]> nodeHashes;
+    private final long[] hashes;
+    private final String[] nodes;
+
+    private ConsistentHashRing(long version, Map<String, long[]> nodeHashes, long[] hashes, String[] nodes) {
+        this.version = version;
+        this.nodeHashes = nodeHashes;
+        this.hashes = hashes;
+        this.nodes = nodes;
+    }
+
+    /**
+     * 生成指定版本的hash环
+     *
+     * @param previous   上一个版本的环, 可以为null
+     * @param version    版本号
+     * @param nodes      物理节点
+     * @param vNodeCount 每个物理节点的虚拟节点数
+     * @return ConsistentHashRing
+     */
+    public static ConsistentHashRing of(ConsistentHashRing previous, long version, Collection<String> nodes, int vNodeCount) {
+        Map<String, long[]> previousHashes = Objects.isNull(previous) ? Collections.emptyMap() : previous.nodeHashes;
+        if (Objects.nonNull(previous) && previousHashes.size() == nodes.size() && previousHashes.keySet().containsAll(nodes)) {
+            // 节点未变化(例如组内其他标签的实例发生变化), 直接复用
+            return new ConsistentHashRing(version, previousHashes, previous.hashes, previous.nodes);
+        }
+
+        MessageDigest md5 = MD5.get();
+        Map<String, long[]> nodeHashes = new HashMap<>(nodes.size());
+        for (String node : nodes) {
+            long[] vNodeHashes = previousHashes.get(node);
+            if (Objects.isNull(vNodeHashes)) {
+                vNodeHashes = new long[vNodeCount];
+                for (int i = 0; i < vNodeCount; i++) {
+                    vNodeHashes[i] = hash(md5, node + "-" + i);
+                }
+            }
+            nodeHashes.put(node, vNodeHashes);
+        }
+
+        // hash冲突时保留较大的节点, 与 ConsistentHashRouter 按有序集合依次覆盖的结果一致
+        TreeMap<Long, String> ring = new TreeMap<>();
+        nodeHashes.forEach((node, vNodeHashes) -> {
+            for (long hash : vNodeHashes) {
+                ring.merge(hash, node, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+            }
+        });
+
+        long[] hashes = new long[ring.size()];
+        String[] ringNodes = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : ring.entrySet()) {
+            hashes[i] = entry.getKey();
+            ringNodes[i++] = entry.getValue();
+        }
+
+        return new ConsistentHashRing(version, Collections.unmodifiableMap(nodeHashes), hashes, ringNodes);
+    }
+
+    /**
+     * 路由到hash环上顺时针方向最近的节点
+     *
+     * @param objectKey 路由key
+     * @return 环为空时返回null
+     */
+    public String route(String objectKey) {
+        if (hashes.length == 0) {
+            return null;
+        }
+
+        int index = Arrays.binarySearch(hashes, hash(MD5.get(), objectKey));
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        return nodes[index == hashes.length ? 0 : index];
+    }
+
+    private static long hash(MessageDigest md5, String key) {
+        md5.reset();
+        byte[] digest = md5.digest(key.getBytes(StandardCharsets.UTF_8));
+
+        long h = 0;
+        for (int i = 0; i < 4; i++) {
+            h <<= 8;
+            h |= ((int) digest[i]) & 0xFF;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,80 @@
+package com.aizuda.snailjob.server.common.allocate.server;
+
+import cn.hutool.core.collection.CollUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.ServerLoadBalance;
+import com.google.common.collect.Lists;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * 通过最高随机权重(Rendezvous Hashing)分配bucketList
+ * 每个bucket分配给与其哈希权重最大的节点, 各节点只依赖节点列表即可独立算出一致的结果;
+ * 节点下线时只有该节点的bucket被重新分配, 新增节点时只从其他节点各迁移一部分bucket, 其余bucket保持不变
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class AllocateBucketRendezvous implements ServerLoadBalance<Integer, String> {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    @Override
+    public List<Integer> allocate(String currentCID, List<Integer> bucketList, List<String> serverList) {
+
+        if (CollUtil.isEmpty(serverList)) {
+            return Lists.newArrayList();
+        }
+
+        if (!serverList.contains(currentCID)) {
+            SnailJobLog.LOCAL.warn("currentCID: [{}] not in serverList:[{}]", currentCID, serverList);
+            return Lists.newArrayList();
+        }
+
+        List<Integer> consumerBucket = new ArrayList<>();
+        for (Integer bucket : bucketList) {
+            if (currentCID.equals(owner(bucket, serverList))) {
+                consumerBucket.add(bucket);
+            }
+        }
+
+        return consumerBucket;
+    }
+
+    /**
+     * 权重相同时取节点id较大的节点, 保证与节点列表的顺序无关
+     */
+    private static String owner(Integer bucket, List<String> serverList) {
+        String owner = null;
+        long maxWeight = Long.MIN_VALUE;
+        for (String server : serverList) {
+            long weight = weight(bucket, server);
+            if (owner == null || weight > maxWeight || (weight == maxWeight && server.compareTo(owner) > 0)) {
+                owner = server;
+                maxWeight = weight;
+            }
+        }
+
+        return owner;
+    }
+
+    private static long weight(Integer bucket, String server) {
+        return HASH_FUNCTION.newHasher()
+                .putString(server, StandardCharsets.UTF_8)
+                .putInt(bucket)
+                .hash()
+                .asLong();
+    }
+
+    @Override
+    public String getName() {
+        return "RENDEZVOUS";
+    }
+}
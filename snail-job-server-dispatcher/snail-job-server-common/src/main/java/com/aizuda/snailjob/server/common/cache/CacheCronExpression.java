@@ -0,0 +1,80 @@
+package com.aizuda.snailjob.server.common.cache;
+
+import com.aizuda.snailjob.common.core.util.CronExpression;
+import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.common.triple.Pair;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.text.ParseException;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已解析的Cron表达式缓存
+ * <p>
+ * 解析结果按 表达式+时区 缓存, 多个任务共享同一个实例, 获取到的实例禁止调用 setTimeZone 等修改方法
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public final class CacheCronExpression {
+
+    private static final Cache<Pair<String/*cron*/, String/*timeZoneId*/>, CronExpression> CACHE = CacheBuilder.newBuilder()
+            // 设置并发级别为cpu核心数
+            .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+            .maximumSize(4096)
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .build();
+
+    private CacheCronExpression() {
+    }
+
+    /**
+     * 获取系统默认时区下的Cron表达式
+     *
+     * @param cron Cron表达式
+     * @return CronExpression
+     * @throws ParseException 表达式不合法
+     */
+    public static CronExpression get(String cron) throws ParseException {
+        return get(cron, TimeZone.getDefault());
+    }
+
+    /**
+     * 获取指定时区下的Cron表达式
+     *
+     * @param cron     Cron表达式
+     * @param timeZone 时区
+     * @return CronExpression
+     * @throws ParseException 表达式不合法
+     */
+    public static CronExpression get(String cron, TimeZone timeZone) throws ParseException {
+        try {
+            return CACHE.get(Pair.of(cron, timeZone.getID()), () -> {
+                CronExpression cronExpression = new CronExpression(cron);
+                cronExpression.setTimeZone(timeZone);
+                return cronExpression;
+            });
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ParseException parseException) {
+                throw parseException;
+            }
+            throw new SnailJobServerException("Parsing CRON expression exception [{}]", cron, e.getCause());
+        } catch (UncheckedExecutionException e) {
+            throw new SnailJobServerException("Parsing CRON expression exception [{}]", cron, e.getCause());
+        }
+    }
+
+    public static long size() {
+        return CACHE.size();
+    }
+
+    public static void invalidateAll() {
+        CACHE.invalidateAll();
+    }
+}
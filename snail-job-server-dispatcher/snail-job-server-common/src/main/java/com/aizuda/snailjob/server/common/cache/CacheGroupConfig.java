@@ -0,0 +1,392 @@
+package com.aizuda.snailjob.server.common.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.template.datasource.persistence.mapper.GroupConfigMapper;
+import com.aizuda.snailjob.template.datasource.persistence.mapper.SceneConfigMapper;
+import com.aizuda.snailjob.template.datasource.persistence.po.GroupConfig;
+import com.aizuda.snailjob.template.datasource.persistence.po.RetrySceneConfig;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * 组配置及重试场景配置的本地缓存
+ * 启动时全量加载, 读取时直接访问不可变快照, 每次变更生成新的快照并递增版本号;
+ * 缓存中的对象为共享对象, 调用方只读不可修改
+ * </p>
+ * <ul>
+ *     <li>本节点修改配置时: 通过 {@link GroupConfigChangeEvent} 即时刷新对应的组</li>
+ *     <li>其他节点修改配置时: 周期性比对数据量与id之和, 不一致时全量加载; 一致时按 update_dt 增量加载</li>
+ *     <li>缓存未命中时: 从数据库加载并放入缓存, 例如其他节点刚创建的配置;
+ *     数据库中也不存在时短暂记录未命中, 避免不存在的组或场景每次都查询数据库, 本节点修改配置时清空</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class CacheGroupConfig implements Lifecycle {
+
+    /**
+     * 数据库中不存在的配置的缓存时间, 其他节点新建的配置最迟在此时间后可读取到
+     */
+    private static final long MISS_TTL_SECONDS = 10;
+    private static final String GROUP_ID_PREFIX = "group#";
+    private static final String SCENE_ID_PREFIX = "scene#";
+
+    private final GroupConfigMapper groupConfigMapper;
+    private final SceneConfigMapper sceneConfigMapper;
+    private final SystemProperties systemProperties;
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private TaskScheduler taskScheduler;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile LocalDateTime lastReconcileAt;
+    private ScheduledFuture<?> reconcileFuture;
+    private final Cache<String, Boolean> misses = CacheBuilder.newBuilder()
+            .expireAfterWrite(MISS_TTL_SECONDS, TimeUnit.SECONDS)
+            .maximumSize(10_000)
+            .build();
+
+    /**
+     * 当前快照的版本号, 每次变更递增
+     */
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * 获取组配置
+     *
+     * @param namespaceId 命名空间
+     * @param groupName   组名称
+     * @return 组配置, 不存在时返回null
+     */
+    public GroupConfig getGroupConfig(String namespaceId, String groupName) {
+        String key = groupKey(namespaceId, groupName);
+        GroupConfig groupConfig = snapshot.groupKeys.get(key);
+        if (Objects.nonNull(groupConfig) || Objects.nonNull(misses.getIfPresent(key))) {
+            return groupConfig;
+        }
+
+        List<GroupConfig> groupConfigs = groupConfigMapper.selectList(new LambdaQueryWrapper<GroupConfig>()
+                .eq(GroupConfig::getNamespaceId, namespaceId)
+                .eq(GroupConfig::getGroupName, groupName));
+        if (CollUtil.isEmpty(groupConfigs)) {
+            misses.put(key, Boolean.TRUE);
+            return null;
+        }
+
+        merge(groupConfigs, Collections.emptyList());
+        return CollUtil.getFirst(groupConfigs);
+    }
+
+    /**
+     * 批量获取组配置(包含未启用的), 调用方按状态过滤
+     *
+     * @param groupIds 组id
+     * @return 组id -> 组配置, 不包含不存在的组
+     */
+    public Map<Long, GroupConfig> getGroupConfigs(Set<Long> groupIds) {
+        return getByIds(groupIds, snapshot.groups, GROUP_ID_PREFIX,
+                missIds -> groupConfigMapper.selectList(new LambdaQueryWrapper<GroupConfig>()
+                        .in(GroupConfig::getId, missIds)),
+                GroupConfig::getId, loaded -> merge(loaded, Collections.emptyList()));
+    }
+
+    /**
+     * 获取场景配置(包含未启用的)
+     *
+     * @param namespaceId 命名空间
+     * @param groupName   组名称
+     * @param sceneName   场景名称
+     * @return 场景配置, 不存在时返回null
+     */
+    public RetrySceneConfig getSceneConfig(String namespaceId, String groupName, String sceneName) {
+        String key = sceneKey(namespaceId, groupName, sceneName);
+        RetrySceneConfig sceneConfig = snapshot.sceneKeys.get(key);
+        if (Objects.nonNull(sceneConfig) || Objects.nonNull(misses.getIfPresent(key))) {
+            return sceneConfig;
+        }
+
+        List<RetrySceneConfig> sceneConfigs = sceneConfigMapper.selectList(new LambdaQueryWrapper<RetrySceneConfig>()
+                .eq(RetrySceneConfig::getNamespaceId, namespaceId)
+                .eq(RetrySceneConfig::getGroupName, groupName)
+                .eq(RetrySceneConfig::getSceneName, sceneName));
+        if (CollUtil.isEmpty(sceneConfigs)) {
+            misses.put(key, Boolean.TRUE);
+            return null;
+        }
+
+        merge(Collections.emptyList(), sceneConfigs);
+        return CollUtil.getFirst(sceneConfigs);
+    }
+
+    /**
+     * 批量获取场景配置(包含未启用的), 调用方按状态过滤
+     *
+     * @param sceneIds 场景id
+     * @return 场景id -> 场景配置, 不包含不存在的场景
+     */
+    public Map<Long, RetrySceneConfig> getSceneConfigs(Set<Long> sceneIds) {
+        return getByIds(sceneIds, snapshot.scenes, SCENE_ID_PREFIX,
+                missIds -> sceneConfigMapper.selectList(new LambdaQueryWrapper<RetrySceneConfig>()
+                        .in(RetrySceneConfig::getId, missIds)),
+                RetrySceneConfig::getId, loaded -> merge(Collections.emptyList(), loaded));
+    }
+
+    /**
+     * 本节点修改组或场景配置后即时刷新对应的组
+     */
+    @TransactionalEventListener(fallbackExecution = true, phase = TransactionPhase.AFTER_COMMIT)
+    public void onGroupConfigChange(GroupConfigChangeEvent event) {
+        String namespaceId = event.getNamespaceId();
+        Set<String> groupNames = event.getGroupNames();
+        // 新建的组或场景可能之前记录过未命中
+        misses.invalidateAll();
+        try {
+            List<GroupConfig> groupConfigs = groupConfigMapper.selectList(new LambdaQueryWrapper<GroupConfig>()
+                    .eq(GroupConfig::getNamespaceId, namespaceId)
+                    .in(CollUtil.isNotEmpty(groupNames), GroupConfig::getGroupName, groupNames));
+            List<RetrySceneConfig> sceneConfigs = sceneConfigMapper.selectList(new LambdaQueryWrapper<RetrySceneConfig>()
+                    .eq(RetrySceneConfig::getNamespaceId, namespaceId)
+                    .in(CollUtil.isNotEmpty(groupNames), RetrySceneConfig::getGroupName, groupNames));
+
+            synchronized (this) {
+                snapshot = snapshot.replace(
+                        config -> inScope(event, config.getNamespaceId(), config.getGroupName()), groupConfigs,
+                        config -> inScope(event, config.getNamespaceId(), config.getGroupName()), sceneConfigs);
+            }
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.error("Failed to refresh group config cache. namespaceId:[{}] groupNames:{}",
+                    namespaceId, groupNames, e);
+        }
+    }
+
+    /**
+     * 与数据库对账, 同步其他节点对配置的修改
+     */
+    private void reconcile() {
+        try {
+            Snapshot current = snapshot;
+            if (!current.groupChecksum.equals(checksum(groupConfigMapper))
+                    || !current.sceneChecksum.equals(checksum(sceneConfigMapper))) {
+                // 数据量或id发生变化说明存在新增或删除
+                reload();
+                return;
+            }
+
+            // 多回溯一个周期, 容忍节点之间的时钟偏差
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = lastReconcileAt.minusSeconds(reconcileInterval());
+            List<GroupConfig> groupConfigs = groupConfigMapper.selectList(new LambdaQueryWrapper<GroupConfig>()
+                    .ge(GroupConfig::getUpdateDt, since));
+            List<RetrySceneConfig> sceneConfigs = sceneConfigMapper.selectList(new LambdaQueryWrapper<RetrySceneConfig>()
+                    .ge(RetrySceneConfig::getUpdateDt, since));
+            merge(groupConfigs, sceneConfigs);
+            lastReconcileAt = now;
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.error("Failed to reconcile group config cache", e);
+        }
+    }
+
+    private void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        List<GroupConfig> groupConfigs = groupConfigMapper.selectList(new LambdaQueryWrapper<>());
+        List<RetrySceneConfig> sceneConfigs = sceneConfigMapper.selectList(new LambdaQueryWrapper<>());
+        synchronized (this) {
+            snapshot = snapshot.replace(config -> true, groupConfigs, config -> true, sceneConfigs);
+        }
+        lastReconcileAt = now;
+
+        SnailJobLog.LOCAL.info("Group config cache loaded. version:[{}] groups:[{}] scenes:[{}]",
+                snapshot.version, groupConfigs.size(), sceneConfigs.size());
+    }
+
+    private synchronized void merge(List<GroupConfig> groupConfigs, List<RetrySceneConfig> sceneConfigs) {
+        if (CollUtil.isEmpty(groupConfigs) && CollUtil.isEmpty(sceneConfigs)) {
+            return;
+        }
+
+        Set<Long> groupIds = new HashSet<>();
+        groupConfigs.forEach(config -> groupIds.add(config.getId()));
+        Set<Long> sceneIds = new HashSet<>();
+        sceneConfigs.forEach(config -> sceneIds.add(config.getId()));
+        snapshot = snapshot.replace(config -> groupIds.contains(config.getId()), groupConfigs,
+                config -> sceneIds.contains(config.getId()), sceneConfigs);
+    }
+
+    private <T> Map<Long, T> getByIds(Set<Long> ids, Map<Long, T> cached, String missPrefix,
+                                      Function<Set<Long>, List<T>> loader,
+                                      Function<T, Long> idGetter,
+                                      Consumer<List<T>> merger) {
+        if (CollUtil.isEmpty(ids)) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, T> result = new HashMap<>(ids.size());
+        Set<Long> missIds = new HashSet<>();
+        for (Long id : ids) {
+            T config = cached.get(id);
+            if (Objects.nonNull(config)) {
+                result.put(id, config);
+            } else if (Objects.isNull(misses.getIfPresent(missPrefix + id))) {
+                missIds.add(id);
+            }
+        }
+
+        if (CollUtil.isNotEmpty(missIds)) {
+            List<T> loaded = loader.apply(missIds);
+            merger.accept(loaded);
+            loaded.forEach(config -> result.put(idGetter.apply(config), config));
+            missIds.stream().filter(id -> !result.containsKey(id)).forEach(id -> misses.put(missPrefix + id, Boolean.TRUE));
+        }
+
+        return result;
+    }
+
+    private int reconcileInterval() {
+        return Math.max(systemProperties.getConfigCacheReconcileInterval(), 1);
+    }
+
+    @Override
+    public void start() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // 加载失败时未命中的配置从数据库读取, 等待下次对账时全量加载
+            lastReconcileAt = LocalDateTime.now();
+            SnailJobLog.LOCAL.error("Failed to load group config cache", e);
+        }
+
+        Duration period = Duration.ofSeconds(reconcileInterval());
+        reconcileFuture = taskScheduler.scheduleWithFixedDelay(this::reconcile, Instant.now().plus(period), period);
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(reconcileFuture)) {
+            reconcileFuture.cancel(false);
+        }
+    }
+
+    private static boolean inScope(GroupConfigChangeEvent event, String namespaceId, String groupName) {
+        return Objects.equals(event.getNamespaceId(), namespaceId)
+                && (CollUtil.isEmpty(event.getGroupNames()) || event.getGroupNames().contains(groupName));
+    }
+
+    private static <T> Checksum checksum(BaseMapper<T> mapper) {
+        List<Map<String, Object>> rows = mapper.selectMaps(new QueryWrapper<T>()
+                .select("COUNT(*) AS total", "SUM(id) AS id_sum"));
+        // 不同数据库返回的列名大小写不一致
+        Map<String, Object> row = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (CollUtil.isNotEmpty(rows) && Objects.nonNull(rows.get(0))) {
+            row.putAll(rows.get(0));
+        }
+
+        return new Checksum(toLong(row.get("total")), toLong(row.get("id_sum")));
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static String groupKey(String namespaceId, String groupName) {
+        return namespaceId + StrUtil.SLASH + groupName;
+    }
+
+    private static String sceneKey(String namespaceId, String groupName, String sceneName) {
+        return groupKey(namespaceId, groupName) + StrUtil.SLASH + sceneName;
+    }
+
+    private record Checksum(long total, long idSum) {
+    }
+
+    /**
+     * 不可变的配置快照
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(0, Collections.emptyList(), Collections.emptyList());
+
+        private final long version;
+        private final Map<Long, GroupConfig> groups;
+        private final Map<String, GroupConfig> groupKeys;
+        private final Map<Long, RetrySceneConfig> scenes;
+        private final Map<String, RetrySceneConfig> sceneKeys;
+        private final Checksum groupChecksum;
+        private final Checksum sceneChecksum;
+
+        private Snapshot(long version, Collection<GroupConfig> groupConfigs, Collection<RetrySceneConfig> sceneConfigs) {
+            this.version = version;
+
+            Map<Long, GroupConfig> groups = new HashMap<>(groupConfigs.size());
+            Map<String, GroupConfig> groupKeys = new HashMap<>(groupConfigs.size());
+            long groupIdSum = 0;
+            for (GroupConfig config : groupConfigs) {
+                groups.put(config.getId(), config);
+                groupKeys.put(groupKey(config.getNamespaceId(), config.getGroupName()), config);
+                groupIdSum += config.getId();
+            }
+
+            Map<Long, RetrySceneConfig> scenes = new HashMap<>(sceneConfigs.size());
+            Map<String, RetrySceneConfig> sceneKeys = new HashMap<>(sceneConfigs.size());
+            long sceneIdSum = 0;
+            for (RetrySceneConfig config : sceneConfigs) {
+                scenes.put(config.getId(), config);
+                sceneKeys.put(sceneKey(config.getNamespaceId(), config.getGroupName(), config.getSceneName()), config);
+                sceneIdSum += config.getId();
+            }
+
+            this.groups = Collections.unmodifiableMap(groups);
+            this.groupKeys = Collections.unmodifiableMap(groupKeys);
+            this.scenes = Collections.unmodifiableMap(scenes);
+            this.sceneKeys = Collections.unmodifiableMap(sceneKeys);
+            this.groupChecksum = new Checksum(groups.size(), groupIdSum);
+            this.sceneChecksum = new Checksum(scenes.size(), sceneIdSum);
+        }
+
+        /**
+         * 移除满足条件的配置并放入最新加载的配置, 生成新的快照
+         */
+        private Snapshot replace(Predicate<GroupConfig> groupRemoved, List<GroupConfig> groupConfigs,
+                                 Predicate<RetrySceneConfig> sceneRemoved, List<RetrySceneConfig> sceneConfigs) {
+            Map<Long, GroupConfig> groups = new LinkedHashMap<>(this.groups);
+            groups.values().removeIf(groupRemoved);
+            groupConfigs.forEach(config -> groups.put(config.getId(), config));
+
+            Map<Long, RetrySceneConfig> scenes = new LinkedHashMap<>(this.scenes);
+            scenes.values().removeIf(sceneRemoved);
+            sceneConfigs.forEach(config -> scenes.put(config.getId(), config));
+
+            return new Snapshot(version + 1, groups.values(), scenes.values());
+        }
+    }
+}
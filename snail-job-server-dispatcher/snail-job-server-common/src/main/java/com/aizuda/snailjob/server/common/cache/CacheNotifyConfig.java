@@ -0,0 +1,151 @@
+package com.aizuda.snailjob.server.common.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.core.util.StreamUtils;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.alarm.NotifyConfigChangeEvent;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.convert.AlarmInfoConverter;
+import com.aizuda.snailjob.server.common.dto.NotifyConfigInfo;
+import com.aizuda.snailjob.server.common.dto.NotifyConfigInfo.RecipientInfo;
+import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
+import com.aizuda.snailjob.template.datasource.persistence.mapper.NotifyRecipientMapper;
+import com.aizuda.snailjob.template.datasource.persistence.po.NotifyConfig;
+import com.aizuda.snailjob.template.datasource.persistence.po.NotifyRecipient;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * 通知配置及接收人的本地缓存
+ * 告警发送时按通知配置id批量读取, 未命中的配置与其接收人各用一次查询加载;
+ * 本节点修改配置时通过 {@link NotifyConfigChangeEvent} 即时失效, 其他节点的修改在缓存过期后生效
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+public class CacheNotifyConfig implements Lifecycle {
+
+    private final AccessTemplate accessTemplate;
+    private final NotifyRecipientMapper recipientMapper;
+
+    /**
+     * 不存在的通知配置缓存为 Optional.empty(), 避免重复查询
+     */
+    private final Cache<Long, Optional<NotifyConfigInfo>> cache;
+
+    public CacheNotifyConfig(AccessTemplate accessTemplate, NotifyRecipientMapper recipientMapper,
+                             SystemProperties systemProperties) {
+        this.accessTemplate = accessTemplate;
+        this.recipientMapper = recipientMapper;
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .expireAfterWrite(Math.max(systemProperties.getAlarm().getNotifyConfigCacheTime(), 1), TimeUnit.SECONDS)
+                .maximumSize(10000)
+                .build();
+    }
+
+    /**
+     * 批量获取通知配置(包含未启用的), 调用方按状态、场景等条件过滤
+     *
+     * @param notifyIds 通知配置id
+     * @return 通知配置id -> 通知配置, 不包含不存在的配置
+     */
+    public Map<Long, NotifyConfigInfo> getNotifyConfigs(Set<Long> notifyIds) {
+        if (CollUtil.isEmpty(notifyIds)) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, NotifyConfigInfo> result = new HashMap<>(notifyIds.size());
+        Set<Long> missIds = new HashSet<>();
+        for (Long notifyId : notifyIds) {
+            Optional<NotifyConfigInfo> notifyConfigInfo = cache.getIfPresent(notifyId);
+            if (Objects.isNull(notifyConfigInfo)) {
+                missIds.add(notifyId);
+            } else {
+                notifyConfigInfo.ifPresent(info -> result.put(notifyId, info));
+            }
+        }
+
+        if (CollUtil.isNotEmpty(missIds)) {
+            Map<Long, NotifyConfigInfo> loaded = load(missIds);
+            for (Long missId : missIds) {
+                NotifyConfigInfo notifyConfigInfo = loaded.get(missId);
+                cache.put(missId, Optional.ofNullable(notifyConfigInfo));
+                if (Objects.nonNull(notifyConfigInfo)) {
+                    result.put(missId, notifyConfigInfo);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private Map<Long, NotifyConfigInfo> load(Set<Long> notifyIds) {
+        List<NotifyConfig> notifyConfigs = accessTemplate.getNotifyConfigAccess().list(
+                new LambdaQueryWrapper<NotifyConfig>().in(NotifyConfig::getId, notifyIds));
+        if (CollUtil.isEmpty(notifyConfigs)) {
+            return Collections.emptyMap();
+        }
+
+        Set<Long> recipientIds = notifyConfigs.stream()
+                .flatMap(config -> JsonUtil.parseList(config.getRecipientIds(), Long.class).stream())
+                .collect(Collectors.toSet());
+        Map<Long, NotifyRecipient> recipientMap = CollUtil.isEmpty(recipientIds) ? Collections.emptyMap()
+                : StreamUtils.toIdentityMap(recipientMapper.selectByIds(recipientIds), NotifyRecipient::getId);
+
+        List<NotifyConfigInfo> notifyConfigInfos = AlarmInfoConverter.INSTANCE.retryToNotifyConfigInfos(notifyConfigs);
+        for (NotifyConfigInfo notifyConfigInfo : notifyConfigInfos) {
+            List<RecipientInfo> recipients = new ArrayList<>();
+            for (Long recipientId : Optional.ofNullable(notifyConfigInfo.getRecipientIds()).orElse(Collections.emptySet())) {
+                NotifyRecipient notifyRecipient = recipientMap.get(recipientId);
+                if (Objects.isNull(notifyRecipient)) {
+                    continue;
+                }
+
+                RecipientInfo recipientInfo = new RecipientInfo();
+                recipientInfo.setNotifyAttribute(notifyRecipient.getNotifyAttribute());
+                recipientInfo.setNotifyType(notifyRecipient.getNotifyType());
+                recipients.add(recipientInfo);
+            }
+            notifyConfigInfo.setRecipientInfos(Collections.unmodifiableList(recipients));
+        }
+
+        return StreamUtils.toIdentityMap(notifyConfigInfos, NotifyConfigInfo::getId);
+    }
+
+    /**
+     * 本节点修改通知配置或接收人后即时失效
+     */
+    @TransactionalEventListener(fallbackExecution = true, phase = TransactionPhase.AFTER_COMMIT)
+    public void onNotifyConfigChange(NotifyConfigChangeEvent event) {
+        if (CollUtil.isEmpty(event.getNotifyIds())) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(event.getNotifyIds());
+        }
+    }
+
+    @Override
+    public void start() {
+        SnailJobLog.LOCAL.info("CacheNotifyConfig start");
+    }
+
+    @Override
+    public void close() {
+        SnailJobLog.LOCAL.info("CacheNotifyConfig stop");
+    }
+}
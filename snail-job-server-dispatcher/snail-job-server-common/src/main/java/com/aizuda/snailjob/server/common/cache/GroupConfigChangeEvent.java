@@ -0,0 +1,40 @@
+package com.aizuda.snailjob.server.common.cache;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 组配置或组下的场景配置新增、修改、启停、删除事件
+ * 由 {@link CacheGroupConfig} 监听并刷新本节点缓存中对应组的组配置及场景配置
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Getter
+public class GroupConfigChangeEvent extends ApplicationEvent {
+
+    private final String namespaceId;
+
+    /**
+     * 变更的组, 为空时表示刷新整个命名空间
+     */
+    private final Set<String> groupNames;
+
+    public GroupConfigChangeEvent(String namespaceId, Set<String> groupNames) {
+        super(namespaceId);
+        this.namespaceId = namespaceId;
+        this.groupNames = groupNames;
+    }
+
+    public static GroupConfigChangeEvent of(String namespaceId, String groupName) {
+        return new GroupConfigChangeEvent(namespaceId, Set.of(groupName));
+    }
+
+    public static GroupConfigChangeEvent namespace(String namespaceId) {
+        return new GroupConfigChangeEvent(namespaceId, Collections.emptySet());
+    }
+}
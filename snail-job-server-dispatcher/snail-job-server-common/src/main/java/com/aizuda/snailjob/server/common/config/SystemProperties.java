@@ -87,12 +87,42 @@ public class SystemProperties {
      */
     private int bucketTotal = 128;
 
+    /**
+     * 定时任务触发索引与数据库增量对账的周期(秒)
+     * 用于同步其他节点对任务的修改
+     */
+    private int jobTriggerReconcileInterval = 30;
+
+    /**
+     * 未完成的任务批次与数据库对账的周期(秒)
+     * 用于同步其他节点生成或者完成的批次
+     */
+    private int runningBatchReconcileInterval = 30;
+
+    /**
+     * 组和场景配置缓存与数据库对账的周期(秒)
+     * 用于同步其他节点对配置的修改
+     */
+    private int configCacheReconcileInterval = 30;
+
+    /**
+     * 定时任务分布式锁的租约时长(秒)
+     * 持有租约的节点在本地直接获取锁, 后台每隔1/3租约时长批量续约一次
+     */
+    private int lockLeaseTime = 30;
+
 
     /**
      * Dashboard 任务容错天数
      */
     private int summaryDay = 7;
 
+    /**
+     * Dashboard 全量重新统计的周期(分钟)
+     * 平时只增量统计状态发生变化的数据, 全量统计用于修复其他节点或人工修改造成的偏差
+     */
+    private int summaryRepairInterval = 60;
+
     /**
      * rpc类型
      */
@@ -114,6 +144,70 @@ public class SystemProperties {
      */
     private RpcServerProperties serverRpc = new RpcServerProperties();
 
+    /**
+     * 告警配置
+     */
+    private AlarmProperties alarm = new AlarmProperties();
+
+    /**
+     * 服务端集群成员配置
+     */
+    private MembershipProperties membership = new MembershipProperties();
+
+    @Data
+    public static class MembershipProperties {
+
+        /**
+         * 服务端之间通过gRPC双向流发送心跳的间隔
+         */
+        private Duration heartbeatInterval = Duration.of(300, ChronoUnit.MILLIS);
+
+        /**
+         * 超过该时长未收到心跳响应则判定节点下线并立即重新分配bucket
+         */
+        private Duration heartbeatTimeout = Duration.of(1, ChronoUnit.SECONDS);
+
+        /**
+         * 从DB同步服务端节点的周期, 用于发现新节点及心跳流不可用时的兜底
+         */
+        private Duration recoveryInterval = Duration.of(30, ChronoUnit.SECONDS);
+
+        /**
+         * 是否通过Rendezvous Hashing分配bucket, 节点变化时只迁移变化节点相关的bucket
+         * 与平均分配的结果不同, 必须在集群所有节点升级完成后统一开启, 否则新旧节点会重复或遗漏消费bucket
+         */
+        private boolean rendezvousAllocate = false;
+
+        /**
+         * 两个节点的集群中另一个节点失联时, 当前节点是否继续持有bucket
+         * 两个节点无法区分对端宕机还是网络分区, 开启后网络分区期间两个节点会同时消费全部bucket, 需要业务能容忍重复调度
+         */
+        private boolean twoNodeLease = false;
+
+    }
+
+    @Data
+    public static class AlarmProperties {
+
+        /**
+         * 相同告警的聚合窗口(秒), 窗口内第一条告警立即发送, 其余的只计数并在窗口结束时发送一条汇总告警
+         * 小于等于0时不聚合
+         */
+        private int aggregateWindow = 60;
+
+        /**
+         * 通知配置和接收人的本地缓存时长(秒)
+         * 本节点修改时即时失效, 其他节点的修改在缓存过期后生效
+         */
+        private int notifyConfigCacheTime = 60;
+
+        /**
+         * 每种通知渠道的发送线程池, 队列满时丢弃告警
+         */
+        private ThreadPoolConfig senderTp = new ThreadPoolConfig(2, 4, 60, TimeUnit.SECONDS, 1000);
+
+    }
+
     @Data
     public static class RpcServerProperties {
 
@@ -127,6 +221,11 @@ public class SystemProperties {
 
         private ThreadPoolConfig dispatcherTp = new ThreadPoolConfig(16, 16, 1, TimeUnit.SECONDS, 10000);
 
+        /**
+         * 执行客户端请求(心跳、日志上报等)的线程池, 队列满时直接拒绝请求
+         */
+        private ThreadPoolConfig handlerTp = new ThreadPoolConfig(32, 32, 1, TimeUnit.SECONDS, 10000);
+
     }
 
     @Data
@@ -0,0 +1,39 @@
+package com.aizuda.snailjob.server.common.dto;
+
+import lombok.Data;
+
+/**
+ * 本节点告警发送统计(节点启动后累计)
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+public class AlarmMetricsDTO {
+
+    /**
+     * 等待发送的告警数
+     */
+    private long queued;
+
+    /**
+     * 发送成功数
+     */
+    private long sent;
+
+    /**
+     * 发送失败数
+     */
+    private long failed;
+
+    /**
+     * 被聚合或限流抑制的告警数
+     */
+    private long suppressed;
+
+    /**
+     * 发送队列已满被丢弃的告警数
+     */
+    private long dropped;
+}
@@ -22,10 +22,43 @@ public class DistributeInstance {
 
     private final CopyOnWriteArraySet<Integer> CONSUMER_BUCKETS = new CopyOnWriteArraySet<>();
 
+    /**
+     * 持有bucket的租约到期时间, 由ServerMembership按心跳续约; 心跳流未启用时不过期
+     */
+    private volatile long leaseExpireAt = Long.MAX_VALUE;
+    private volatile boolean leaseHeld = true;
+
     public CopyOnWriteArraySet<Integer> getConsumerBucket() {
+        if (!hasLease()) {
+            // 租约过期时其他节点可能已经判定当前节点下线并接管了bucket
+            CONSUMER_BUCKETS.clear();
+        }
         return CONSUMER_BUCKETS;
     }
 
+    public boolean hasLease() {
+        return System.currentTimeMillis() <= leaseExpireAt;
+    }
+
+    /**
+     * 续约, 租约过期时清空持有的bucket
+     *
+     * @param expireAt 新的到期时间
+     * @return true-租约在过期后重新获得, 需要重新rebalance
+     */
+    public boolean renewLease(long expireAt) {
+        boolean lapsed = !hasLease();
+        leaseExpireAt = expireAt;
+        boolean held = hasLease();
+        if (lapsed || !held) {
+            CONSUMER_BUCKETS.clear();
+        }
+
+        boolean regained = held && (lapsed || !leaseHeld);
+        leaseHeld = held;
+        return regained;
+    }
+
     public void setConsumerBucket(List<Integer> buckets) {
         CONSUMER_BUCKETS.addAll(buckets);
     }
@@ -1,5 +1,6 @@
 package com.aizuda.snailjob.server.common.dto;
 
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
 import io.grpc.ManagedChannel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -7,6 +8,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * <p>
@@ -25,6 +27,18 @@ public class InstanceLiveInfo implements Comparable<InstanceLiveInfo> {
     private boolean alive;
     private ManagedChannel channel;
 
+    /**
+     * 与该实例协商出的gRPC payload编解码器, 为null时使用旧版(字符串)协议
+     */
+    @EqualsAndHashCode.Exclude
+    private volatile RpcCodec rpcCodec;
+
+    /**
+     * 客户端在响应中声明的扩展能力, 为null时表示尚未收到该实例的响应
+     */
+    @EqualsAndHashCode.Exclude
+    private volatile Set<String> clientFeatures;
+
     @Override
     public int compareTo(InstanceLiveInfo o) {
         if (Objects.isNull(nodeInfo) || Objects.isNull(o) || Objects.isNull(o.getNodeInfo())) {
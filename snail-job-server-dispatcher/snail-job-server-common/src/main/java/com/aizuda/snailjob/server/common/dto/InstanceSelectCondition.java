@@ -28,4 +28,11 @@ public class InstanceSelectCondition {
     public Map<String, String> getTargetLabels() {
         return StrUtil.isNotBlank(targetLabels) ? JsonUtil.parseHashMap(targetLabels) : Maps.newHashMap();
     }
+
+    /**
+     * 原始的标签JSON, 用于实例索引的标签桶查找
+     */
+    public String getTargetLabelsText() {
+        return targetLabels;
+    }
 }
@@ -20,6 +20,12 @@ public class LockConfig {
 
     private Duration lockAtLeast;
 
+    /**
+     * 本节点内的租约编号, 租约丢失后重新获取会生成新的编号
+     * 只用于忽略旧租约的释放, 不会写入DB, 不能作为防护令牌校验其他节点的写入
+     */
+    private long leaseId;
+
     public LocalDateTime getCreateDt() {
         return createDt;
     }
@@ -51,4 +57,12 @@ public class LockConfig {
     public LocalDateTime getLockAtLeast() {
         return createDt.plus(lockAtLeast);
     }
+
+    public long getLeaseId() {
+        return leaseId;
+    }
+
+    public void setLeaseId(long leaseId) {
+        this.leaseId = leaseId;
+    }
 }
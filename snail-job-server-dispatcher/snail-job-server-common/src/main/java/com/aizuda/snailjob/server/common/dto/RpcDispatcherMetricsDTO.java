@@ -0,0 +1,34 @@
+package com.aizuda.snailjob.server.common.dto;
+
+import lombok.Data;
+
+/**
+ * 服务端gRPC请求处理线程池的运行指标
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+public class RpcDispatcherMetricsDTO {
+
+    /**
+     * 等待执行的请求数
+     */
+    private Integer queueSize;
+
+    /**
+     * 队列剩余容量
+     */
+    private Integer remainingCapacity;
+
+    /**
+     * 正在执行的请求数
+     */
+    private Integer activeCount;
+
+    /**
+     * 因队列已满被拒绝的请求总数
+     */
+    private Long rejectedCount;
+}
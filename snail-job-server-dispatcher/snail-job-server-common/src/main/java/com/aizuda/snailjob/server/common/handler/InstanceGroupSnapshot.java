@@ -0,0 +1,254 @@
+package com.aizuda.snailjob.server.common.handler;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.server.common.dto.InstanceLiveInfo;
+import com.aizuda.snailjob.server.common.dto.RegisterNodeInfo;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * 按 namespace/group 维度维护的实例快照
+ * 快照创建后不可变(copy-on-write)，实例注册、下线、存活状态变化时由 {@link InstanceManager} 整体替换
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Getter
+public final class InstanceGroupSnapshot {
+
+    /**
+     * 单个快照最多缓存的标签组合数，超过后不再缓存直接计算
+     */
+    private static final int MAX_LABEL_BUCKET_SIZE = 64;
+    private static final AtomicLong VERSION_GENERATOR = new AtomicLong();
+
+    /**
+     * 快照版本号，全局单调递增，实例集合发生变化时版本号一定发生变化
+     */
+    private final long version;
+
+    /**
+     * namespaceId/groupName
+     */
+    private final String groupKey;
+
+    /**
+     * 组内所有实例(包含不存活的)
+     */
+    private final Set<InstanceLiveInfo> allInstances;
+
+    /**
+     * 组内存活实例
+     */
+    private final Set<InstanceLiveInfo> aliveInstances;
+
+    /**
+     * 未指定标签时匹配到的实例
+     */
+    private final LabelBucket defaultBucket;
+
+    private final Map<String/*hostId*/, InstanceLiveInfo> instanceMap;
+    private final Map<String/*targetLabels*/, LabelBucket> labelBuckets = new ConcurrentHashMap<>();
+
+    private InstanceGroupSnapshot(Map<String, InstanceLiveInfo> instanceMap) {
+        this.version = VERSION_GENERATOR.incrementAndGet();
+        this.instanceMap = instanceMap;
+        RegisterNodeInfo any = instanceMap.values().iterator().next().getNodeInfo();
+        this.groupKey = any.getNamespaceId() + StrUtil.SLASH + any.getGroupName();
+
+        TreeSet<InstanceLiveInfo> all = new TreeSet<>(instanceMap.values());
+        TreeSet<InstanceLiveInfo> alive = new TreeSet<>();
+        for (InstanceLiveInfo instanceLiveInfo : all) {
+            if (instanceLiveInfo.isAlive()) {
+                alive.add(instanceLiveInfo);
+            }
+        }
+
+        this.allInstances = Collections.unmodifiableSet(all);
+        this.aliveInstances = Collections.unmodifiableSet(alive);
+        this.defaultBucket = buildBucket(StrUtil.EMPTY, new HashMap<>(1));
+        this.labelBuckets.put(StrUtil.EMPTY, defaultBucket);
+    }
+
+    static InstanceGroupSnapshot of(Collection<InstanceLiveInfo> instances) {
+        Map<String, InstanceLiveInfo> instanceMap = new HashMap<>(instances.size());
+        for (InstanceLiveInfo instance : instances) {
+            instanceMap.put(instance.getNodeInfo().getHostId(), instance);
+        }
+        return new InstanceGroupSnapshot(Collections.unmodifiableMap(instanceMap));
+    }
+
+    /**
+     * 替换(或删除)组内的单个实例，返回新的快照
+     *
+     * @param hostId   实例id
+     * @param instance 最新的实例信息, 为null时表示删除
+     * @return 新快照, 组内无实例时返回null
+     */
+    InstanceGroupSnapshot replace(String hostId, InstanceLiveInfo instance) {
+        Map<String, InstanceLiveInfo> instanceMap = new HashMap<>(this.instanceMap);
+        if (Objects.isNull(instance)) {
+            instanceMap.remove(hostId);
+        } else {
+            instanceMap.put(hostId, instance);
+        }
+
+        if (instanceMap.isEmpty()) {
+            return null;
+        }
+
+        return new InstanceGroupSnapshot(Collections.unmodifiableMap(instanceMap));
+    }
+
+    /**
+     * 按实例id获取存活的实例
+     *
+     * @param hostId 实例id
+     * @return 不存在或不存活返回null
+     */
+    public InstanceLiveInfo getAliveInstance(String hostId) {
+        InstanceLiveInfo instanceLiveInfo = instanceMap.get(hostId);
+        if (Objects.isNull(instanceLiveInfo) || !instanceLiveInfo.isAlive()) {
+            return null;
+        }
+        return instanceLiveInfo;
+    }
+
+    /**
+     * 获取匹配标签的存活实例
+     *
+     * @param targetLabels 任务的标签(JSON)
+     * @return LabelBucket
+     */
+    public LabelBucket getLabelBucket(String targetLabels) {
+        if (StrUtil.isBlank(targetLabels)) {
+            return defaultBucket;
+        }
+
+        LabelBucket bucket = labelBuckets.get(targetLabels);
+        if (Objects.nonNull(bucket)) {
+            return bucket;
+        }
+
+        bucket = buildBucket(targetLabels, JsonUtil.parseHashMap(targetLabels));
+        if (labelBuckets.size() < MAX_LABEL_BUCKET_SIZE) {
+            labelBuckets.putIfAbsent(targetLabels, bucket);
+        }
+
+        return bucket;
+    }
+
+    /**
+     * 获取匹配标签的存活实例
+     *
+     * @param targetLabels 任务的标签
+     * @return LabelBucket
+     */
+    public LabelBucket getLabelBucket(Map<String, String> targetLabels) {
+        if (CollUtil.isEmpty(targetLabels)) {
+            return defaultBucket;
+        }
+
+        return getLabelBucket(JsonUtil.toJsonString(new TreeMap<>(targetLabels)));
+    }
+
+    private LabelBucket buildBucket(String labelsKey, Map<String, String> targetLabels) {
+        // 默认匹配在线客户端实例（不匹配人为剥离流量的节点）
+        targetLabels.put(SystemConstants.DEFAULT_LABEL.getKey(), SystemConstants.DEFAULT_LABEL.getValue());
+
+        TreeSet<InstanceLiveInfo> instances = new TreeSet<>();
+        TreeSet<String> hostIds = new TreeSet<>();
+        for (InstanceLiveInfo instanceLiveInfo : aliveInstances) {
+            RegisterNodeInfo nodeInfo = instanceLiveInfo.getNodeInfo();
+            if (matchLabels(nodeInfo.getLabelMap(), targetLabels)) {
+                instances.add(instanceLiveInfo);
+                hostIds.add(nodeInfo.getHostId());
+            }
+        }
+
+        return new LabelBucket(version, groupKey + StrUtil.SLASH + labelsKey, Collections.unmodifiableSet(instances), hostIds);
+    }
+
+    /**
+     * 匹配到了一个就可以
+     * 节点注册时的标签必须是全包含任务的标签
+     * <p>
+     * [] [] true
+     * [] [A] true
+     * [A] [] false
+     * <p>
+     * [A,B] [A] true
+     * [A,B] [A, B] true
+     * <p>
+     * [A,B] [A,C] false
+     * [A,B] [E] false
+     *
+     * @param nodeLabels   节点注册时的标签
+     * @param targetLabels 任务的标签
+     * @return
+     */
+    private static boolean matchLabels(Map<String, String> nodeLabels, Map<String, String> targetLabels) {
+        // 兼容客户端无标签的问题
+        if (CollUtil.isEmpty(nodeLabels)) {
+            return true;
+        }
+
+        for (Map.Entry<String, String> entry : targetLabels.entrySet()) {
+            if (!entry.getValue().equals(nodeLabels.get(entry.getKey()))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * 标签匹配结果
+     */
+    @Getter
+    public static final class LabelBucket {
+
+        /**
+         * 所属快照的版本号, 路由策略按版本号缓存计算结果
+         */
+        private final long version;
+
+        /**
+         * namespaceId/groupName/targetLabels, 同一组同一标签组合在不同快照中保持不变
+         */
+        private final String routeKey;
+
+        private final Set<InstanceLiveInfo> instances;
+
+        /**
+         * 匹配实例的hostId集合, 调用方只允许读取
+         */
+        private final TreeSet<String> hostIds;
+
+        /**
+         * 与hostIds顺序一致的列表, 用于按下标访问
+         */
+        private final List<String> hostIdList;
+
+        private LabelBucket(long version, String routeKey, Set<InstanceLiveInfo> instances, TreeSet<String> hostIds) {
+            this.version = version;
+            this.routeKey = routeKey;
+            this.instances = instances;
+            this.hostIds = hostIds;
+            this.hostIdList = List.copyOf(hostIds);
+        }
+
+        public boolean isEmpty() {
+            return instances.isEmpty();
+        }
+    }
+}
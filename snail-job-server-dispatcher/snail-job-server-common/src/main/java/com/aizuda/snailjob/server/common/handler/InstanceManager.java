@@ -4,7 +4,6 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.common.core.constant.SystemConstants;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
-import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.ClientLoadBalance;
 import com.aizuda.snailjob.server.common.Lifecycle;
@@ -29,9 +28,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * <p>
@@ -50,6 +47,10 @@ public class InstanceManager implements Lifecycle {
     private final Set<ConnectivityState> STATES = Sets.newHashSet(ConnectivityState.TRANSIENT_FAILURE, ConnectivityState.SHUTDOWN);
     private final int timeout = ServerRegister.DELAY_TIME + (ServerRegister.DELAY_TIME / 3);
     private static final ConcurrentHashMap<InstanceKey, InstanceLiveInfo> INSTANCE_MAP = new ConcurrentHashMap<>();
+    /**
+     * 二级索引: namespaceId -> groupName -> 实例快照
+     */
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<String, InstanceGroupSnapshot>> GROUP_INDEX = new ConcurrentHashMap<>();
     private static final ScheduledExecutorService INSTANCE_TIMEOUT_CHECK = Executors
             .newSingleThreadScheduledExecutor(r -> new Thread(r, "instance-timeout-check-thread"));
 
@@ -79,6 +80,8 @@ public class InstanceManager implements Lifecycle {
             return;
         }
 
+        // 实例新增或者存活状态发生变化时需要刷新索引
+        boolean[] changed = {false};
         INSTANCE_MAP.compute(key, (instanceKey, existing) -> {
             if (existing == null) {
                 existing = new InstanceLiveInfo();
@@ -88,6 +91,7 @@ public class InstanceManager implements Lifecycle {
                 existing.setAlive(Objects.nonNull(channel));
                 existing.setChannel(channel);
                 existing.setLastUpdateAt(System.currentTimeMillis());
+                changed[0] = true;
                 return existing;
             } else {
                 if (!existing.isAlive()) {
@@ -98,6 +102,7 @@ public class InstanceManager implements Lifecycle {
                         // 直接返回等下下线即可
                         return existing;
                     }
+                    changed[0] = true;
                 }
             }
 
@@ -105,41 +110,59 @@ public class InstanceManager implements Lifecycle {
             existing.setAlive(true);
             return existing;
         });
+
+        if (changed[0]) {
+            refreshIndex(key);
+        }
     }
 
+    /**
+     * 获取存活的实例信息
+     *
+     * @param instanceKey 实例key
+     * @return 不存在或不存活返回null
+     */
     public InstanceLiveInfo getInstanceALiveInfoSet(InstanceKey instanceKey) {
-        Set<InstanceLiveInfo> instanceALiveInfoSet = getInstanceALiveInfoSet(instanceKey.getNamespaceId(), instanceKey.getGroupName());
-        return StreamUtils.filter(instanceALiveInfoSet, new Predicate<InstanceLiveInfo>() {
-            @Override
-            public boolean test(InstanceLiveInfo instanceLiveInfo) {
-                return instanceLiveInfo.getNodeInfo().getHostId().equals(instanceKey.getHostId());
-            }
-        }).stream().findFirst().orElse(null);
+        InstanceGroupSnapshot snapshot = getGroupSnapshot(instanceKey.getNamespaceId(), instanceKey.getGroupName());
+        if (Objects.isNull(snapshot)) {
+            return null;
+        }
+
+        return snapshot.getAliveInstance(instanceKey.getHostId());
     }
 
+    /**
+     * 获取匹配标签的存活实例信息
+     *
+     * @param namespaceId  空间id
+     * @param groupName    组信息
+     * @param targetLabels 任务的标签(JSON)
+     * @return 只读的实例集合
+     */
     public Set<InstanceLiveInfo> getInstanceALiveInfoSet(String namespaceId, String groupName, String targetLabels) {
-        Map<String, String> targetLabelsMap;
-        if (StrUtil.isNotBlank(targetLabels)) {
-            targetLabelsMap = JsonUtil.parseHashMap(targetLabels);
-        } else {
-            targetLabelsMap = new HashMap<>(1);
+        InstanceGroupSnapshot snapshot = getGroupSnapshot(namespaceId, groupName);
+        if (Objects.isNull(snapshot)) {
+            return Collections.emptySet();
         }
 
-        Set<InstanceLiveInfo> instanceALiveInfoSet = getInstanceALiveInfoSet(namespaceId, groupName);
-        Map<String, String> finalTargetLabelsMap = targetLabelsMap;
-        return new HashSet<>(StreamUtils.filter(instanceALiveInfoSet, instanceLiveInfo -> {
-            RegisterNodeInfo nodeInfo = instanceLiveInfo.getNodeInfo();
-            return matchLabels(nodeInfo.getLabelMap(), finalTargetLabelsMap);
-        }));
+        return snapshot.getLabelBucket(targetLabels).getInstances();
     }
 
-
+    /**
+     * 获取匹配标签的存活实例信息
+     *
+     * @param namespaceId  空间id
+     * @param groupName    组信息
+     * @param targetLabels 任务的标签
+     * @return 只读的实例集合
+     */
     public Set<InstanceLiveInfo> getInstanceALiveInfoSet(String namespaceId, String groupName,  Map<String, String> targetLabels) {
-        Set<InstanceLiveInfo> instanceALiveInfoSet = getInstanceALiveInfoSet(namespaceId, groupName);
-        return new HashSet<>(StreamUtils.filter(instanceALiveInfoSet, instanceLiveInfo -> {
-            RegisterNodeInfo nodeInfo = instanceLiveInfo.getNodeInfo();
-            return matchLabels(nodeInfo.getLabelMap(), targetLabels);
-        }));
+        InstanceGroupSnapshot snapshot = getGroupSnapshot(namespaceId, groupName);
+        if (Objects.isNull(snapshot)) {
+            return Collections.emptySet();
+        }
+
+        return snapshot.getLabelBucket(targetLabels).getInstances();
     }
 
     /**
@@ -147,34 +170,54 @@ public class InstanceManager implements Lifecycle {
      *
      * @param namespaceId 空间id
      * @param groupName   组信息
-     * @return Set<InstanceLiveInfo>
+     * @return 只读的实例集合
      */
     public Set<InstanceLiveInfo> getInstanceALiveInfoSet(String namespaceId, String groupName) {
-        Set<InstanceLiveInfo> allPods = getAllInstances().stream()
-                .filter(instanceLiveInfo -> {
-                    RegisterNodeInfo nodeInfo = instanceLiveInfo.getNodeInfo();
-                    return nodeInfo.getGroupName().equals(groupName)
-                            && nodeInfo.getNamespaceId().equals(namespaceId);
-                }).collect(Collectors.toSet());
-        if (CollUtil.isEmpty(allPods)) {
-            // 此处为了降级，若缓存中没有则取DB中查询
-            List<ServerNode> serverNodes = serverNodeMapper.selectList(
-                    new LambdaQueryWrapper<ServerNode>()
-                            .eq(ServerNode::getNamespaceId, namespaceId)
-                            .eq(ServerNode::getGroupName, groupName));
-            if (CollUtil.isEmpty(serverNodes)) {
-                return Sets.newHashSet();
-            }
+        InstanceGroupSnapshot snapshot = getGroupSnapshot(namespaceId, groupName);
+        if (Objects.isNull(snapshot)) {
+            return Collections.emptySet();
+        }
 
-            for (final ServerNode node : serverNodes) {
-                // 刷新全量本地缓存
-                registerOrUpdate(RegisterNodeInfoConverter.INSTANCE.toRegisterNodeInfo(node));
-            }
+        return snapshot.getAliveInstances();
+    }
+
+    /**
+     * 获取组内的实例快照, 本地缓存中没有则降级从DB加载
+     *
+     * @param namespaceId 空间id
+     * @param groupName   组信息
+     * @return 组内无任何实例返回null
+     */
+    public InstanceGroupSnapshot getGroupSnapshot(String namespaceId, String groupName) {
+        InstanceGroupSnapshot snapshot = getCachedGroupSnapshot(namespaceId, groupName);
+        if (Objects.nonNull(snapshot)) {
+            return snapshot;
+        }
+
+        // 此处为了降级，若缓存中没有则取DB中查询
+        List<ServerNode> serverNodes = serverNodeMapper.selectList(
+                new LambdaQueryWrapper<ServerNode>()
+                        .eq(ServerNode::getNamespaceId, namespaceId)
+                        .eq(ServerNode::getGroupName, groupName));
+        if (CollUtil.isEmpty(serverNodes)) {
+            return null;
+        }
+
+        for (final ServerNode node : serverNodes) {
+            // 刷新全量本地缓存
+            registerOrUpdate(RegisterNodeInfoConverter.INSTANCE.toRegisterNodeInfo(node));
+        }
+
+        return getCachedGroupSnapshot(namespaceId, groupName);
+    }
 
-            return getInstanceALiveInfoSet(namespaceId, groupName);
+    private InstanceGroupSnapshot getCachedGroupSnapshot(String namespaceId, String groupName) {
+        ConcurrentHashMap<String, InstanceGroupSnapshot> groupMap = GROUP_INDEX.get(namespaceId);
+        if (Objects.isNull(groupMap)) {
+            return null;
         }
 
-        return allPods.stream().filter(InstanceLiveInfo::isAlive).collect(Collectors.toCollection(TreeSet::new));
+        return groupMap.get(groupName);
     }
 
     /**
@@ -203,12 +246,12 @@ public class InstanceManager implements Lifecycle {
      * @return Set<InstanceLiveInfo>
      */
     public Set<InstanceLiveInfo> getAllCacheInstanceInfoSet(String namespaceId, String groupName) {
-        return getAllInstances().stream()
-                .filter(instanceLiveInfo -> {
-                    RegisterNodeInfo nodeInfo = instanceLiveInfo.getNodeInfo();
-                    return nodeInfo.getGroupName().equals(groupName)
-                            && nodeInfo.getNamespaceId().equals(namespaceId);
-                }).collect(Collectors.toCollection(TreeSet::new));
+        InstanceGroupSnapshot snapshot = getCachedGroupSnapshot(namespaceId, groupName);
+        if (Objects.isNull(snapshot)) {
+            return Collections.emptySet();
+        }
+
+        return snapshot.getAllInstances();
     }
 
 
@@ -229,24 +272,24 @@ public class InstanceManager implements Lifecycle {
      */
     public InstanceLiveInfo getALiveInstanceByRouteKey(InstanceSelectCondition conditionDTO) {
 
-        Set<InstanceLiveInfo> instanceLiveInfos = getInstanceALiveInfoSet(conditionDTO.getNamespaceId(), conditionDTO.getGroupName());
-        if (CollUtil.isEmpty(instanceLiveInfos)) {
+        InstanceGroupSnapshot snapshot = getGroupSnapshot(conditionDTO.getNamespaceId(), conditionDTO.getGroupName());
+        if (Objects.isNull(snapshot) || snapshot.getAliveInstances().isEmpty()) {
             SnailJobLog.LOCAL.warn("client node is null. groupName:[{}]", conditionDTO.getGroupName());
             return null;
         }
 
-        Set<RegisterNodeInfo> registerNodeInfos = instanceLiveInfos.stream()
-                .map(InstanceLiveInfo::getNodeInfo)
-                .filter(node -> matchLabels(node.getLabelMap(), conditionDTO.getTargetLabels()))
-                .collect(Collectors.toSet());
+        InstanceGroupSnapshot.LabelBucket bucket = snapshot.getLabelBucket(conditionDTO.getTargetLabelsText());
+        if (bucket.isEmpty()) {
+            SnailJobLog.LOCAL.warn("client node is null. groupName:[{}] labels:[{}]",
+                    conditionDTO.getGroupName(), conditionDTO.getTargetLabelsText());
+            return null;
+        }
 
         ClientLoadBalance clientLoadBalanceRandom = ClientLoadBalanceManager.getClientLoadBalance(conditionDTO.getRouteKey());
 
-        String hostId = clientLoadBalanceRandom.route(conditionDTO.getAllocKey(), new TreeSet<>(StreamUtils.toSet(registerNodeInfos, RegisterNodeInfo::getHostId)));
+        String hostId = clientLoadBalanceRandom.route(conditionDTO.getAllocKey(), bucket);
 
-        Stream<InstanceLiveInfo> registerNodeInfoStream = instanceLiveInfos.stream()
-                .filter(s -> s.getNodeInfo().getHostId().equals(hostId));
-        return registerNodeInfoStream.findFirst().orElse(null);
+        return snapshot.getAliveInstance(hostId);
     }
 
     /**
@@ -278,6 +321,24 @@ public class InstanceManager implements Lifecycle {
 
     public void remove(InstanceKey key) {
         INSTANCE_MAP.remove(key);
+        refreshIndex(key);
+    }
+
+    /**
+     * 按实例在 INSTANCE_MAP 中的最新状态增量刷新所在组的快照
+     *
+     * @param key 实例key
+     */
+    private void refreshIndex(InstanceKey key) {
+        GROUP_INDEX.computeIfAbsent(key.getNamespaceId(), namespaceId -> new ConcurrentHashMap<>())
+                .compute(key.getGroupName(), (groupName, snapshot) -> {
+                    InstanceLiveInfo current = INSTANCE_MAP.get(key);
+                    if (Objects.isNull(snapshot)) {
+                        return Objects.isNull(current) ? null : InstanceGroupSnapshot.of(Collections.singletonList(current));
+                    }
+
+                    return snapshot.replace(key.getHostId(), current);
+                });
     }
 
     @Override
@@ -297,6 +358,7 @@ public class InstanceManager implements Lifecycle {
 
                     ManagedChannel channel = info.getChannel();
                     ConnectivityState channelState = channel.getState(!info.isAlive());
+                    boolean alive = info.isAlive();
                     if (STATES.contains(channelState)) {
                         // 连接已经失败，先置为false,也有可能重新连接上
                         SnailJobLog.LOCAL.warn("Node channel state check {}. {}", info.getNodeInfo().address(), channelState);
@@ -311,6 +373,9 @@ public class InstanceManager implements Lifecycle {
                         SnailJobLog.LOCAL.info("Node {} is offline. Removing...", info.getNodeInfo().address());
                         INSTANCE_MAP.remove(entry.getKey());
                         channel.shutdown();
+                        refreshIndex(entry.getKey());
+                    } else if (alive != info.isAlive()) {
+                        refreshIndex(entry.getKey());
                     }
                 }
             } catch (Exception e) {
@@ -325,41 +390,6 @@ public class InstanceManager implements Lifecycle {
 
     }
 
-    /**
-     * 匹配到了一个就可以
-     * 节点注册时的标签必须是全包含任务的标签
-     * <p>
-     * [] [] true
-     * [] [A] true
-     * [A] [] false
-     * <p>
-     * [A,B] [A] true
-     * [A,B] [A, B] true
-     * <p>
-     * [A,B] [A,C] false
-     * [A,B] [E] false
-     *
-     * @param nodeLabels   节点注册时的标签
-     * @param targetLabels 任务的标签
-     * @return
-     */
-    private boolean matchLabels(Map<String, String> nodeLabels, Map<String, String> targetLabels) {
-        // 兼容客户端无标签的问题
-        if (CollUtil.isEmpty(nodeLabels)) {
-            return true;
-        }
-        // 默认匹配在线客户端实例（不匹配人为剥离流量的节点）
-        targetLabels.put(SystemConstants.DEFAULT_LABEL.getKey(), SystemConstants.DEFAULT_LABEL.getValue());
-
-        for (Map.Entry<String, String> entry : targetLabels.entrySet()) {
-            if (!entry.getValue().equals(nodeLabels.get(entry.getKey()))) {
-                return false;
-            }
-        }
-
-        return true;
-    }
-
     /**
      * 更新单个服务器节点标签信息
      *
@@ -396,6 +426,8 @@ public class InstanceManager implements Lifecycle {
         if (StrUtil.isNotBlank(clientInfoDTO.getLabels())){
             instanceLiveInfo.getNodeInfo().setLabels(clientInfoDTO.getLabels());
             instanceLiveInfo.getNodeInfo().setLabelMap(JsonUtil.parseHashMap(clientInfoDTO.getLabels()));
+            // 标签变化后重建标签索引
+            refreshIndex(instanceKey);
         }
 
         SnailJobLog.LOCAL.info("client update success. instance:[{}]", JsonUtil.toJson(INSTANCE_MAP.get(instanceKey)));
@@ -0,0 +1,468 @@
+package com.aizuda.snailjob.server.common.handler;
+
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.constant.GrpcServerConstants;
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
+import com.aizuda.snailjob.common.core.enums.HeadersEnum;
+import com.aizuda.snailjob.common.core.enums.RpcTypeEnum;
+import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
+import com.aizuda.snailjob.common.core.grpc.auto.Metadata;
+import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.core.util.NetUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.config.SystemProperties.MembershipProperties;
+import com.aizuda.snailjob.server.common.dto.DistributeInstance;
+import com.aizuda.snailjob.server.common.register.ServerRegister;
+import com.aizuda.snailjob.server.common.rpc.client.grpc.GrpcChannel;
+import com.aizuda.snailjob.template.datasource.persistence.po.ServerNode;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * 服务端集群成员管理
+ * 每个服务端与其他服务端各保持一条gRPC双向流, 按固定间隔发送心跳, 超过超时时间未收到响应即判定下线,
+ * 成员发生变化时通过 {@link #awaitChange(long)} 唤醒 {@link ServerNodeBalance} 立即重新分配bucket
+ * </p>
+ * <ul>
+ *     <li>DB中的节点表只用于发现新节点及兜底, 由 {@link ServerNodeBalance} 通过 {@link #sync(List)} 同步</li>
+ *     <li>收到对端的心跳响应或对端发来的心跳都视为对端存活; 心跳响应中携带响应方最近收到各节点消息的时间,
+ *     只有当前节点及所有可达节点都超时未收到某节点的消息才判定其下线, 单向或部分网络分区不会导致各节点的视图不一致</li>
+ *     <li>当前节点只有在超时时间内收到多数节点对其心跳的响应时才持有bucket(租约), 否则清空持有的bucket,
+ *     其他节点判定当前节点下线时当前节点的租约一定已经过期, 同一个bucket不会同时被两个节点消费</li>
+ *     <li>当前节点持有租约(属于多数派)时, 当前节点及所有可达节点都判定下线的节点不再计入多数派, 节点逐个下线时集群仍可继续调度;
+ *     少数派无法持有租约, 也就无法缩小多数派的范围. 两个节点的集群无法区分宕机与网络分区, 需要通过
+ *     {@link MembershipProperties#isTwoNodeLease()} 显式开启后才允许单个节点持有租约</li>
+ *     <li>存在不支持心跳流的旧版本服务端时整体退回以DB中的过期时间为准</li>
+ *     <li>下线的节点会持续尝试重连, 恢复后重新参与分配; DB中过期后移除</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class ServerMembership implements Lifecycle {
+
+    private static final MethodDescriptor<SnailJobGrpcRequest, GrpcResult> HEARTBEAT_METHOD =
+            MethodDescriptor.<SnailJobGrpcRequest, GrpcResult>newBuilder()
+                    .setType(MethodDescriptor.MethodType.BIDI_STREAMING)
+                    .setFullMethodName(MethodDescriptor.generateFullMethodName(
+                            GrpcServerConstants.HEARTBEAT_SERVICE_NAME, GrpcServerConstants.HEARTBEAT_METHOD_NAME))
+                    .setRequestMarshaller(ProtoUtils.marshaller(SnailJobGrpcRequest.getDefaultInstance()))
+                    .setResponseMarshaller(ProtoUtils.marshaller(GrpcResult.getDefaultInstance()))
+                    .build();
+
+    private final SystemProperties systemProperties;
+    private final ConcurrentHashMap<String/*hostId*/, PeerLink> links = new ConcurrentHashMap<>();
+    private final Semaphore changed = new Semaphore(0);
+    private final AtomicLong reqId = new AtomicLong();
+    private ScheduledExecutorService heartbeatExecutor;
+
+    /**
+     * @return 是否启用心跳流, 仅gRPC模式下可用
+     */
+    public boolean isEnabled() {
+        return RpcTypeEnum.GRPC == systemProperties.getRpcType();
+    }
+
+    /**
+     * 同步DB中未过期的服务端节点, 新节点建立心跳流, DB中已过期的节点关闭心跳流
+     *
+     * @param serverNodes DB中未过期的服务端节点
+     */
+    public void sync(List<ServerNode> serverNodes) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Set<String> hostIds = new HashSet<>();
+        for (ServerNode serverNode : serverNodes) {
+            if (ServerRegister.CURRENT_CID.equals(serverNode.getHostId())) {
+                continue;
+            }
+
+            hostIds.add(serverNode.getHostId());
+            links.computeIfAbsent(serverNode.getHostId(),
+                    hostId -> new PeerLink(hostId, serverNode.getHostIp(), serverNode.getHostPort()));
+        }
+
+        links.values().removeIf(link -> {
+            if (hostIds.contains(link.hostId)) {
+                return false;
+            }
+
+            link.close();
+            return true;
+        });
+    }
+
+    /**
+     * 节点是否存活, 未建立心跳流的节点(当前节点、心跳流未启用)以DB为准;
+     * 集群中存在不支持心跳流的旧版本节点时, 旧节点无法感知心跳结果, 所有节点都以DB为准保证各节点分配一致
+     *
+     * @param hostId 节点id
+     * @return false-心跳超时
+     */
+    public boolean isAlive(String hostId) {
+        PeerLink link = links.get(hostId);
+        return Objects.isNull(link) || hasUnsupportedPeer() || link.alive;
+    }
+
+    private boolean hasUnsupportedPeer() {
+        return links.values().stream().anyMatch(link -> link.unsupported);
+    }
+
+    /**
+     * 当前节点最近收到各节点消息距今的时长, 随心跳响应返回给对端, 用于对端间接判断节点是否存活
+     *
+     * @return key: hostId value: 距今的毫秒数
+     */
+    public Map<String, Long> heardAges() {
+        long now = System.currentTimeMillis();
+        Map<String, Long> ages = new HashMap<>();
+        for (PeerLink link : links.values()) {
+            if (!link.unsupported) {
+                ages.put(link.hostId, Math.max(0, now - link.lastHeardAt));
+            }
+        }
+        return ages;
+    }
+
+    /**
+     * 等待成员变化
+     *
+     * @param timeoutMillis 最长等待时间
+     * @return true-成员发生了变化
+     */
+    public boolean awaitChange(long timeoutMillis) throws InterruptedException {
+        boolean acquired = changed.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        changed.drainPermits();
+        return acquired;
+    }
+
+    /**
+     * @return true-有尚未处理的成员变化
+     */
+    public boolean isChangePending() {
+        return changed.availablePermits() > 0;
+    }
+
+    /**
+     * 收到其他节点的心跳, 未知的节点说明有新节点加入, 立即从DB同步
+     *
+     * @param hostId 发送心跳的节点
+     */
+    public void onInboundHeartbeat(String hostId) {
+        if (StrUtil.isBlank(hostId)) {
+            return;
+        }
+
+        PeerLink link = links.get(hostId);
+        if (Objects.isNull(link)) {
+            signal();
+            return;
+        }
+
+        link.lastHeardAt = System.currentTimeMillis();
+    }
+
+    private void signal() {
+        if (changed.availablePermits() == 0) {
+            changed.release();
+        }
+    }
+
+    private void heartbeat() {
+        MembershipProperties membership = systemProperties.getMembership();
+        long timeout = membership.getHeartbeatTimeout().toMillis();
+        long now = System.currentTimeMillis();
+        boolean anyChanged = false;
+        for (PeerLink link : links.values()) {
+            try {
+                if (link.unsupported) {
+                    continue;
+                }
+
+                link.beat(now, timeout);
+
+                boolean alive = now - heardAt(link) <= timeout;
+                if (alive != link.alive) {
+                    link.alive = alive;
+                    anyChanged = true;
+                    SnailJobLog.LOCAL.info("Server node is {}. hostId:[{}] address:[{}:{}]",
+                            alive ? "online" : "offline", link.hostId, link.hostIp, link.hostPort);
+                }
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.error("Server heartbeat error. hostId:[{}]", link.hostId, e);
+            }
+        }
+
+        // 持有租约时才能把各节点都判定下线的节点移出多数派, 移出前的租约以包含这些节点的多数派计算
+        boolean holding = leaseExpireAt(timeout) > now;
+        for (PeerLink link : links.values()) {
+            if (link.alive) {
+                link.excluded = false;
+            } else if (holding && !link.excluded) {
+                link.excluded = true;
+                SnailJobLog.LOCAL.info("Server node is excluded from the lease quorum. hostId:[{}]", link.hostId);
+            }
+        }
+
+        // 租约过期后重新续约需要重新rebalance, 过期期间持有的bucket可能已经被其他节点接管
+        boolean regained = DistributeInstance.INSTANCE.renewLease(leaseExpireAt(timeout));
+        if (anyChanged || regained) {
+            signal();
+        }
+    }
+
+    /**
+     * 当前节点或任一可达节点最近收到该节点消息的时间
+     */
+    private long heardAt(PeerLink link) {
+        long heardAt = link.lastHeardAt;
+        for (PeerLink other : links.values()) {
+            heardAt = Math.max(heardAt, other.heardVia.getOrDefault(link.hostId, 0L));
+        }
+        return heardAt;
+    }
+
+    private long leaseExpireAt(long timeout) {
+        if (hasUnsupportedPeer()) {
+            return Long.MAX_VALUE;
+        }
+
+        List<Long> ackedSentAt = links.values().stream()
+                .filter(link -> !link.excluded)
+                .map(link -> link.lastAckedSentAt)
+                .toList();
+        return leaseExpireAt(ackedSentAt, systemProperties.getMembership().isTwoNodeLease(), timeout);
+    }
+
+    /**
+     * 租约到期时间: 多数节点(含当前节点)响应过的最新心跳的发送时间 + 超时时间
+     * 对端最近收到当前节点消息的时间不早于该心跳的发送时间, 因此对端判定当前节点下线时租约一定已经过期
+     *
+     * @param ackedSentAt  计入多数派的其他节点已响应的最新心跳的发送时间
+     * @param twoNodeLease 两个节点的集群是否允许单个节点持有租约
+     * @param timeout      心跳超时时间
+     * @return 租约到期时间, 不需要租约时返回 {@link Long#MAX_VALUE}
+     */
+    static long leaseExpireAt(List<Long> ackedSentAt, boolean twoNodeLease, long timeout) {
+        int clusterSize = ackedSentAt.size() + 1;
+        if (clusterSize == 1 || (clusterSize == 2 && twoNodeLease)) {
+            return Long.MAX_VALUE;
+        }
+
+        // 除当前节点外还需要的响应数
+        int required = clusterSize / 2;
+        List<Long> sorted = ackedSentAt.stream().sorted(Comparator.reverseOrder()).toList();
+        return sorted.get(required - 1) + timeout;
+    }
+
+    @Override
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        long interval = systemProperties.getMembership().getHeartbeatInterval().toMillis();
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "server-heartbeat"));
+        heartbeatExecutor.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        SnailJobLog.LOCAL.info("ServerMembership start. heartbeatInterval:[{}ms]", interval);
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(heartbeatExecutor)) {
+            heartbeatExecutor.shutdownNow();
+        }
+
+        links.values().forEach(PeerLink::close);
+        links.clear();
+    }
+
+    /**
+     * 与单个节点的心跳流, 只在心跳线程中发送数据
+     */
+    private final class PeerLink {
+
+        private final String hostId;
+        private final String hostIp;
+        private final Integer hostPort;
+        private final Map<String, String> headers;
+        private ManagedChannel channel;
+        private HeartbeatCall call;
+        private long nextConnectAt;
+
+        /**
+         * 最近收到该节点心跳响应或心跳的时间, 初始值为创建时间, 新节点在超时时间内以DB为准视为存活
+         */
+        private volatile long lastHeardAt = System.currentTimeMillis();
+
+        /**
+         * 该节点已响应的最新心跳的发送时间, 用于计算当前节点的租约
+         */
+        private volatile long lastAckedSentAt;
+
+        /**
+         * 该节点最近收到其他节点消息的时间(已换算为本地时间)
+         */
+        private volatile Map<String, Long> heardVia = Map.of();
+
+        /**
+         * 已发送未响应的心跳 key: reqId value: 发送时间
+         */
+        private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+        private volatile boolean alive = true;
+        private volatile boolean unsupported;
+
+        /**
+         * 持有租约时判定下线, 不再计入多数派, 恢复后重新计入
+         */
+        private volatile boolean excluded;
+
+        private PeerLink(String hostId, String hostIp, Integer hostPort) {
+            this.hostId = hostId;
+            this.hostIp = hostIp;
+            this.hostPort = hostPort;
+
+            Map<String, String> headers = new HashMap<>();
+            headers.put(HeadersEnum.HOST_ID.getKey(), ServerRegister.CURRENT_CID);
+            headers.put(HeadersEnum.HOST_IP.getKey(), NetUtil.getLocalIpStr());
+            headers.put(HeadersEnum.HOST_PORT.getKey(), String.valueOf(systemProperties.getServerPort()));
+            headers.put(HeadersEnum.GROUP_NAME.getKey(), ServerRegister.GROUP_NAME);
+            headers.put(HeadersEnum.NAMESPACE.getKey(), SystemConstants.DEFAULT_NAMESPACE);
+            headers.put(HeadersEnum.TOKEN.getKey(), systemProperties.getServerToken());
+            this.headers = Map.copyOf(headers);
+        }
+
+        private void beat(long now, long timeout) {
+            if (Objects.isNull(call) || call.closed) {
+                if (now < nextConnectAt) {
+                    return;
+                }
+
+                // 连接失败后按超时时间间隔重连
+                nextConnectAt = now + timeout;
+                if (Objects.isNull(channel)) {
+                    channel = GrpcChannel.connect(hostIp, hostPort);
+                    if (Objects.isNull(channel)) {
+                        return;
+                    }
+                }
+                call = new HeartbeatCall(this);
+                call.start(channel);
+            }
+
+            // 超时未响应的心跳不再影响租约
+            pending.values().removeIf(sentAt -> now - sentAt > timeout);
+            if (!call.requestObserver.isReady()) {
+                return;
+            }
+
+            long id = reqId.incrementAndGet();
+            pending.put(id, now);
+            call.requestObserver.onNext(SnailJobGrpcRequest.newBuilder()
+                    .setReqId(id)
+                    .setMetadata(Metadata.newBuilder()
+                            .setUri(GrpcServerConstants.HEARTBEAT_METHOD_NAME)
+                            .putAllHeaders(headers))
+                    .build());
+        }
+
+        private void close() {
+            if (Objects.nonNull(call)) {
+                call.cancel();
+            }
+
+            if (Objects.nonNull(channel)) {
+                channel.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 一次心跳流调用, 断开后由心跳线程重新建立
+     */
+    private final class HeartbeatCall implements StreamObserver<GrpcResult> {
+
+        private final PeerLink link;
+        private ClientCallStreamObserver<SnailJobGrpcRequest> requestObserver;
+        private volatile boolean closed;
+
+        private HeartbeatCall(PeerLink link) {
+            this.link = link;
+        }
+
+        private void start(ManagedChannel channel) {
+            requestObserver = (ClientCallStreamObserver<SnailJobGrpcRequest>) ClientCalls.asyncBidiStreamingCall(
+                    channel.newCall(HEARTBEAT_METHOD, CallOptions.DEFAULT), this);
+        }
+
+        private void cancel() {
+            closed = true;
+            requestObserver.cancel("Server node removed", null);
+        }
+
+        @Override
+        public void onNext(GrpcResult result) {
+            // 节点重启后hostId会变化, 同一地址上的新进程不代表旧节点存活
+            String hostId = result.getHeadersMap().get(HeadersEnum.HOST_ID.getKey());
+            if (!Objects.equals(link.hostId, hostId)) {
+                onInboundHeartbeat(hostId);
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            link.lastHeardAt = now;
+            Long sentAt = link.pending.remove(result.getReqId());
+            if (Objects.nonNull(sentAt)) {
+                link.lastAckedSentAt = Math.max(link.lastAckedSentAt, sentAt);
+            }
+
+            if (StrUtil.isNotBlank(result.getData())) {
+                Map<String, Long> ages = JsonUtil.parseObject(result.getData(), new TypeReference<Map<String, Long>>() {
+                });
+                Map<String, Long> heardVia = new HashMap<>();
+                ages.forEach((id, age) -> heardVia.put(id, now - age));
+                link.heardVia = heardVia;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            closed = true;
+            if (Status.fromThrowable(t).getCode() == Status.Code.UNIMPLEMENTED) {
+                link.unsupported = true;
+                SnailJobLog.LOCAL.info("Server node does not support heartbeat stream. hostId:[{}] address:[{}:{}]",
+                        link.hostId, link.hostIp, link.hostPort);
+                return;
+            }
+
+            SnailJobLog.LOCAL.debug("Server heartbeat stream closed. hostId:[{}] {}", link.hostId, t.getMessage());
+        }
+
+        @Override
+        public void onCompleted() {
+            closed = true;
+        }
+    }
+}
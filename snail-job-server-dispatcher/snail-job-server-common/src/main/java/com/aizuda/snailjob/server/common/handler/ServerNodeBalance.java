@@ -6,6 +6,8 @@ import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.ServerLoadBalance;
+import com.aizuda.snailjob.server.common.allocate.server.AllocateBucketRendezvous;
 import com.aizuda.snailjob.server.common.allocate.server.AllocateMessageQueueAveragely;
 import com.aizuda.snailjob.server.common.config.SystemProperties;
 import com.aizuda.snailjob.server.common.convert.RegisterNodeInfoConverter;
@@ -26,6 +28,7 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * 负责处理组或者节点变化时，重新分配组在不同的节点上消费
+ * gRPC模式下节点的上下线由 {@link ServerMembership} 的心跳流检测并立即触发rebalance, 周期性的DB查询只负责发现新节点
  *
  * @author: opensnail
  * @date : 2023-06-08 15:58
@@ -42,10 +45,16 @@ public class ServerNodeBalance implements Lifecycle, Runnable {
     public static final Long INITIAL_DELAY = 10L;
     private final ServerNodeMapper serverNodeMapper;
     private final SystemProperties systemProperties;
+    private final ServerMembership serverMembership;
 
     private Thread thread = null;
     private List<Integer> bucketList;
 
+    /**
+     * 心跳流可用时新分配到的bucket延迟接管, 等待原持有节点完成rebalance
+     */
+    private List<Integer> pendingBucket = Collections.emptyList();
+
     public void doBalance(Set<String> remoteHostIds) {
         SnailJobLog.LOCAL.info("rebalance start remoteHostIds:{}", JsonUtil.toJsonString(remoteHostIds));
         DistributeInstance.RE_BALANCE_ING.set(Boolean.TRUE);
@@ -56,16 +65,25 @@ public class ServerNodeBalance implements Lifecycle, Runnable {
             }
 
             // 删除本地缓存的消费桶的信息
+            Set<Integer> previous = new HashSet<>(DistributeInstance.INSTANCE.getConsumerBucket());
             DistributeInstance.INSTANCE.clearConsumerBucket();
+            pendingBucket = Collections.emptyList();
             if (CollUtil.isEmpty(remoteHostIds)) {
                 return;
             }
 
-            List<Integer> allocate = new AllocateMessageQueueAveragely()
-                    .allocate(ServerRegister.CURRENT_CID, bucketList, new ArrayList<>(remoteHostIds));
-
-            // 重新覆盖本地分配的bucket
-            DistributeInstance.INSTANCE.setConsumerBucket(allocate);
+            ServerLoadBalance<Integer, String> allocator = systemProperties.getMembership().isRendezvousAllocate()
+                    ? new AllocateBucketRendezvous() : new AllocateMessageQueueAveragely();
+            List<Integer> allocate = allocator.allocate(ServerRegister.CURRENT_CID, bucketList, new ArrayList<>(remoteHostIds));
+
+            if (serverMembership.isEnabled()) {
+                // 新分配到的bucket可能仍被其他节点持有, 先只保留原本持有的bucket, 等其他节点完成rebalance后再接管
+                DistributeInstance.INSTANCE.setConsumerBucket(StreamUtils.filter(allocate, previous::contains));
+                pendingBucket = allocate;
+            } else {
+                // 重新覆盖本地分配的bucket
+                DistributeInstance.INSTANCE.setConsumerBucket(allocate);
+            }
 
             SnailJobLog.LOCAL.info("rebalance complete. allocate:[{}]", allocate);
         } catch (Exception e) {
@@ -150,6 +168,10 @@ public class ServerNodeBalance implements Lifecycle, Runnable {
                         .ge(ServerNode::getExpireAt, LocalDateTime.now())
                         .eq(ServerNode::getNodeType, NodeTypeEnum.SERVER.getType()));
 
+                // 以心跳流的检测结果为准, 剔除DB未过期但心跳已超时的节点
+                serverMembership.sync(remotePods);
+                remotePods.removeIf(serverNode -> !serverMembership.isAlive(serverNode.getHostId()));
+
                 // 获取缓存中的节点
                 Set<String> localHostIds = instanceManager
                         .getAllCacheInstanceHostIdSet(ServerRegister.NAMESPACE_ID, ServerRegister.GROUP_NAME);
@@ -182,7 +204,16 @@ public class ServerNodeBalance implements Lifecycle, Runnable {
                     doBalance(remoteHostIds);
 
                     // 每次rebalance之后给10秒作为空闲时间，等待其他的节点也完成rebalance
-                    TimeUnit.SECONDS.sleep(INITIAL_DELAY);
+                    // 心跳流可用时各节点在一个心跳超时内都能感知到变化
+                    if (serverMembership.isEnabled()) {
+                        TimeUnit.MILLISECONDS.sleep(systemProperties.getMembership().getHeartbeatTimeout().toMillis());
+                        // 等待期间成员再次变化或租约过期时放弃接管, 由下一轮rebalance重新计算
+                        if (!serverMembership.isChangePending() && DistributeInstance.INSTANCE.hasLease()) {
+                            DistributeInstance.INSTANCE.setConsumerBucket(pendingBucket);
+                        }
+                    } else {
+                        TimeUnit.SECONDS.sleep(INITIAL_DELAY);
+                    }
 
                 } else {
 
@@ -197,7 +228,12 @@ public class ServerNodeBalance implements Lifecycle, Runnable {
                 SnailJobLog.LOCAL.error("check balance error", e);
             } finally {
                 try {
-                    TimeUnit.SECONDS.sleep(systemProperties.getLoadBalanceCycleTime());
+                    if (serverMembership.isEnabled()) {
+                        // 成员变化时立即唤醒, 否则按兜底周期从DB同步
+                        serverMembership.awaitChange(systemProperties.getMembership().getRecoveryInterval().toMillis());
+                    } else {
+                        TimeUnit.SECONDS.sleep(systemProperties.getLoadBalanceCycleTime());
+                    }
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                 }
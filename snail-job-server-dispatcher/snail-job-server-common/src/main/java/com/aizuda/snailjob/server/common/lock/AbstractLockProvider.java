@@ -39,6 +39,11 @@ public abstract class AbstractLockProvider implements LockProvider {
         LockManager.setLockAtLeast(lockAtLeast);
         LockManager.setLockAtMost(lockAtMost);
 
+        return tryLock(lockConfig);
+    }
+
+    protected boolean tryLock(final LockConfig lockConfig) {
+        String lockName = lockConfig.getLockName();
         boolean tryToCreateLockRecord = !CacheLockRecord.lockRecordRecentlyCreated(lockName);
         if (tryToCreateLockRecord) {
             if (doLock(lockConfig)) {
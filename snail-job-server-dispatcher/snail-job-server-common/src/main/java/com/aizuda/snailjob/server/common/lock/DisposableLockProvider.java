@@ -4,6 +4,9 @@ import com.aizuda.snailjob.server.common.dto.LockConfig;
 import com.aizuda.snailjob.server.common.lock.persistence.LockStorage;
 import com.aizuda.snailjob.server.common.lock.persistence.LockStorageFactory;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * @author xiaowoniu
  * @date 2024-01-11 21:26:54
@@ -11,6 +14,29 @@ import com.aizuda.snailjob.server.common.lock.persistence.LockStorageFactory;
  */
 public class DisposableLockProvider extends AbstractLockProvider {
 
+    /**
+     * 当前节点正在持有的一次性锁, 同一节点内的竞争直接失败, 不再访问DB
+     */
+    private static final Set<String> LOCAL_LOCKS = ConcurrentHashMap.newKeySet();
+
+    @Override
+    protected boolean tryLock(final LockConfig lockConfig) {
+        String lockName = lockConfig.getLockName();
+        if (!LOCAL_LOCKS.add(lockName)) {
+            return false;
+        }
+
+        boolean lock = false;
+        try {
+            lock = super.tryLock(lockConfig);
+            return lock;
+        } finally {
+            if (!lock) {
+                LOCAL_LOCKS.remove(lockName);
+            }
+        }
+    }
+
     @Override
     protected boolean doLockAfter(final LockConfig lockConfig) {
         return Boolean.FALSE;
@@ -18,7 +44,11 @@ public class DisposableLockProvider extends AbstractLockProvider {
 
     @Override
     protected void doUnlock(LockConfig lockConfig) {
-        doUnlockWithDelete(lockConfig);
+        try {
+            doUnlockWithDelete(lockConfig);
+        } finally {
+            LOCAL_LOCKS.remove(lockConfig.getLockName());
+        }
     }
 
     protected boolean doUnlockWithDelete(LockConfig lockConfig) {
@@ -0,0 +1,211 @@
+package com.aizuda.snailjob.server.common.lock;
+
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.dto.LockConfig;
+import com.aizuda.snailjob.server.common.lock.persistence.LockStorage;
+import com.aizuda.snailjob.server.common.lock.persistence.LockStorageFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * 常驻锁的租约管理
+ * 节点第一次获取锁时在DB中获取租约, 之后在租约有效期内直接在本地加锁, 不再访问DB;
+ * 后台每隔1/3租约时长用一条语句为所有持有的租约续约, 续约失败的租约会被丢弃, 旧租约的释放会被忽略
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class LockLeaseManager implements Lifecycle {
+
+    private static final ConcurrentHashMap<String, Lease> LEASES = new ConcurrentHashMap<>();
+
+    /**
+     * 获取租约失败后的退避截止时间, 期间不再访问DB
+     */
+    private static final ConcurrentHashMap<String, LocalDateTime> BACKOFF = new ConcurrentHashMap<>();
+    private static final AtomicLong LEASE_ID = new AtomicLong();
+    private static volatile Duration leaseTime = Duration.ofSeconds(30);
+
+    private final SystemProperties systemProperties;
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private TaskScheduler taskScheduler;
+    private ScheduledFuture<?> renewFuture;
+
+    /**
+     * 获取锁
+     *
+     * @param lockConfig 锁配置
+     * @return true-获取成功
+     */
+    public static boolean acquire(LockConfig lockConfig) {
+        String lockName = lockConfig.getLockName();
+        LocalDateTime now = lockConfig.getCreateDt();
+
+        Lease lease = LEASES.get(lockName);
+        if (Objects.isNull(lease) || !lease.isValid(now)) {
+            lease = acquireLease(lockName, now);
+            if (Objects.isNull(lease)) {
+                return false;
+            }
+        }
+
+        if (!lease.tryUse(now)) {
+            return false;
+        }
+
+        lockConfig.setLeaseId(lease.id);
+        return true;
+    }
+
+    /**
+     * 释放锁, 租约继续保留; 租约编号不一致说明租约已丢失, 无需处理
+     *
+     * @param lockConfig 锁配置
+     */
+    public static void release(LockConfig lockConfig) {
+        Lease lease = LEASES.get(lockConfig.getLockName());
+        if (Objects.nonNull(lease) && lease.id == lockConfig.getLeaseId()) {
+            lease.release(lockConfig.getLockAtLeast());
+        }
+    }
+
+    /**
+     * @return 当前节点持有的租约数量
+     */
+    public static int getSize() {
+        return LEASES.size();
+    }
+
+    private static Lease acquireLease(String lockName, LocalDateTime now) {
+        LocalDateTime backoff = BACKOFF.get(lockName);
+        if (Objects.nonNull(backoff) && now.isBefore(backoff)) {
+            return null;
+        }
+
+        LockConfig leaseConfig = new LockConfig();
+        leaseConfig.setLockName(lockName);
+        leaseConfig.setCreateDt(now);
+        leaseConfig.setLockAtMost(leaseTime);
+        leaseConfig.setLockAtLeast(Duration.ZERO);
+
+        LockStorage lockStorage = LockStorageFactory.getLockStorage();
+        if (!lockStorage.acquireLease(leaseConfig)) {
+            // 租约由其他节点持有, 在一个租约周期后再尝试
+            BACKOFF.put(lockName, now.plus(leaseTime));
+            return null;
+        }
+
+        BACKOFF.remove(lockName);
+        LocalDateTime until = leaseConfig.getLockAtMost();
+        // 租约一直由当前节点持有时沿用原来的编号和使用状态
+        return LEASES.compute(lockName, (key, old) -> {
+            if (Objects.nonNull(old)) {
+                old.until = until;
+                return old;
+            }
+
+            SnailJobLog.LOCAL.info("Lock lease acquired. lockName:[{}]", lockName);
+            return new Lease(LEASE_ID.incrementAndGet(), until);
+        });
+    }
+
+    private void renew() {
+        if (LEASES.isEmpty()) {
+            return;
+        }
+
+        Set<String> lockNames = new HashSet<>(LEASES.keySet());
+        LocalDateTime until = LocalDateTime.now().plus(leaseTime);
+        try {
+            Set<String> held = LockStorageFactory.getLockStorage().renewLeases(lockNames, until);
+            for (String lockName : lockNames) {
+                if (held.contains(lockName)) {
+                    LEASES.computeIfPresent(lockName, (key, lease) -> {
+                        lease.until = until;
+                        return lease;
+                    });
+                } else {
+                    LEASES.remove(lockName);
+                    SnailJobLog.LOCAL.warn("Lock lease lost. lockName:[{}]", lockName);
+                }
+            }
+        } catch (Exception e) {
+            // 续约失败时租约会自然过期, 过期后重新通过DB获取
+            SnailJobLog.LOCAL.error("Failed to renew lock leases. size:[{}]", lockNames.size(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        leaseTime = Duration.ofSeconds(Math.max(systemProperties.getLockLeaseTime(), 3));
+        Duration period = leaseTime.dividedBy(3);
+        renewFuture = taskScheduler.scheduleWithFixedDelay(this::renew, Instant.now().plus(period), period);
+        SnailJobLog.LOCAL.info("LockLeaseManager start. leaseTime:[{}]", leaseTime);
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(renewFuture)) {
+            renewFuture.cancel(false);
+        }
+
+        // 节点关闭时由JdbcLockProvider删除持有的锁记录
+        LEASES.clear();
+        BACKOFF.clear();
+    }
+
+    private static final class Lease {
+
+        private final long id;
+        private final AtomicBoolean inUse = new AtomicBoolean(false);
+        private volatile LocalDateTime until;
+
+        /**
+         * 最少锁定时长, 与之前每次释放锁时更新lockUntil的语义保持一致
+         */
+        private volatile LocalDateTime notBefore = LocalDateTime.MIN;
+
+        private Lease(long id, LocalDateTime until) {
+            this.id = id;
+            this.until = until;
+        }
+
+        /**
+         * 剩余时长不足1/3租约时视为无效, 避免在续约失败的边缘继续执行
+         */
+        private boolean isValid(LocalDateTime now) {
+            return now.plus(leaseTime.dividedBy(3)).isBefore(until);
+        }
+
+        private boolean tryUse(LocalDateTime now) {
+            return !now.isBefore(notBefore) && inUse.compareAndSet(false, true);
+        }
+
+        private void release(LocalDateTime lockAtLeast) {
+            notBefore = lockAtLeast;
+            inUse.set(false);
+        }
+    }
+}
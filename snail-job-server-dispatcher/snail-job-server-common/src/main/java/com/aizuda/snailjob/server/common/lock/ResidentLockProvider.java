@@ -12,6 +12,14 @@ import com.aizuda.snailjob.server.common.lock.persistence.LockStorageFactory;
  */
 public class ResidentLockProvider extends AbstractLockProvider {
 
+    /**
+     * 常驻锁通过租约获取, 当前节点持有租约时不访问DB
+     */
+    @Override
+    protected boolean tryLock(final LockConfig lockConfig) {
+        return LockLeaseManager.acquire(lockConfig);
+    }
+
     @Override
     protected boolean doLockAfter(final LockConfig lockConfig) {
         String lockName = lockConfig.getLockName();
@@ -31,7 +39,7 @@ public class ResidentLockProvider extends AbstractLockProvider {
 
     @Override
     protected void doUnlock(LockConfig lockConfig) {
-        doUnlockWithUpdate(lockConfig);
+        LockLeaseManager.release(lockConfig);
     }
 
     protected void doUnlockWithUpdate(LockConfig lockConfig) {
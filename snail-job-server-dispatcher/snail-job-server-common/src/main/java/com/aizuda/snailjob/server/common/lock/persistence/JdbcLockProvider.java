@@ -1,5 +1,6 @@
 package com.aizuda.snailjob.server.common.lock.persistence;
 
+import cn.hutool.core.collection.CollUtil;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.Lifecycle;
 import com.aizuda.snailjob.server.common.cache.CacheLockRecord;
@@ -8,6 +9,7 @@ import com.aizuda.snailjob.server.common.register.ServerRegister;
 import com.aizuda.snailjob.template.datasource.enums.DbTypeEnum;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.DistributedLockMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.DistributedLock;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.Ordered;
@@ -26,7 +28,10 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * 基于DB实现的分布式锁
@@ -138,6 +143,54 @@ public class JdbcLockProvider implements LockStorage, Lifecycle {
         }));
     }
 
+    @Override
+    public boolean acquireLease(LockConfig lockConfig) {
+        // 租约记录通常已存在, 先更新再插入避免每次都触发主键冲突
+        boolean updated = Boolean.TRUE.equals(notSupportedTransaction(status -> {
+            LocalDateTime now = lockConfig.getCreateDt();
+            DistributedLock distributedLock = new DistributedLock();
+            distributedLock.setLockedBy(ServerRegister.CURRENT_CID);
+            distributedLock.setLockedAt(now);
+            distributedLock.setLockUntil(lockConfig.getLockAtMost());
+            try {
+                return distributedLockMapper.update(distributedLock, new LambdaUpdateWrapper<DistributedLock>()
+                        .eq(DistributedLock::getName, lockConfig.getLockName())
+                        .and(wrapper -> wrapper.le(DistributedLock::getLockUntil, now)
+                                .or().eq(DistributedLock::getLockedBy, ServerRegister.CURRENT_CID))) > 0;
+            } catch (ConcurrencyFailureException | DataIntegrityViolationException | TransactionSystemException |
+                     UncategorizedSQLException e) {
+                return false;
+            }
+        }));
+
+        return updated || createLock(lockConfig);
+    }
+
+    @Override
+    public Set<String> renewLeases(Set<String> lockNames, LocalDateTime lockUntil) {
+        if (CollUtil.isEmpty(lockNames)) {
+            return Collections.emptySet();
+        }
+
+        return notSupportedTransaction(status -> {
+            DistributedLock distributedLock = new DistributedLock();
+            distributedLock.setLockUntil(lockUntil);
+            int updated = distributedLockMapper.update(distributedLock, new LambdaUpdateWrapper<DistributedLock>()
+                    .eq(DistributedLock::getLockedBy, ServerRegister.CURRENT_CID)
+                    .in(DistributedLock::getName, lockNames));
+            if (updated == lockNames.size()) {
+                return lockNames;
+            }
+
+            // 部分租约已被其他节点获取
+            return distributedLockMapper.selectList(new LambdaQueryWrapper<DistributedLock>()
+                            .select(DistributedLock::getName)
+                            .eq(DistributedLock::getLockedBy, ServerRegister.CURRENT_CID)
+                            .in(DistributedLock::getName, lockNames))
+                    .stream().map(DistributedLock::getName).collect(Collectors.toSet());
+        });
+    }
+
     @Override
     public void start() {
         LockStorageFactory.registerLockStorage(this);
@@ -150,7 +203,7 @@ public class JdbcLockProvider implements LockStorage, Lifecycle {
                 .eq(DistributedLock::getLockedBy, ServerRegister.CURRENT_CID));
     }
 
-    private Boolean notSupportedTransaction(TransactionCallback<Boolean> action) {
+    private <T> T notSupportedTransaction(TransactionCallback<T> action) {
         TransactionTemplate template = new TransactionTemplate(platformTransactionManager);
         template.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
         return template.execute(action);
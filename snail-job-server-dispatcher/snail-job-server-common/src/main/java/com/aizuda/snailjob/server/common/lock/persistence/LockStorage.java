@@ -3,6 +3,7 @@ package com.aizuda.snailjob.server.common.lock.persistence;
 import com.aizuda.snailjob.server.common.dto.LockConfig;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * @author xiaowoniu
@@ -46,4 +47,21 @@ public interface LockStorage {
      */
     boolean releaseLockWithUpdate(String lockName, LocalDateTime lockAtLeast);
 
+    /**
+     * 获取租约, 锁已过期或者已被当前节点持有时成功
+     *
+     * @param lockConfig 锁配置, lockAtMost为租约到期时间
+     * @return
+     */
+    boolean acquireLease(LockConfig lockConfig);
+
+    /**
+     * 批量续约当前节点持有的租约
+     *
+     * @param lockNames 锁名称
+     * @param lockUntil 新的到期时间
+     * @return 仍由当前节点持有的锁名称
+     */
+    Set<String> renewLeases(Set<String> lockNames, LocalDateTime lockUntil);
+
 }
@@ -17,7 +17,6 @@ public class ActorGenerator {
 
     public static final String SCAN_BUCKET_ACTOR = "ScanBucketActor";
     public static final String REQUEST_HANDLER_ACTOR = "RequestHandlerActor";
-    public static final String GRPC_REQUEST_HANDLER_ACTOR = "GrpcRequestHandlerActor";
     private static final String COMMON_LOG_DISPATCHER = "pekko.actor.common-log-dispatcher";
     private static final String COMMON_SCAN_TASK_DISPATCHER = "pekko.actor.common-scan-task-dispatcher";
     private static final String NETTY_RECEIVE_REQUEST_DISPATCHER = "pekko.actor.netty-receive-request-dispatcher";
@@ -216,16 +215,6 @@ public class ActorGenerator {
                 .withDispatcher(NETTY_RECEIVE_REQUEST_DISPATCHER));
     }
 
-    /**
-     * Grpc请求处理器
-     *
-     * @return actor 引用
-     */
-    public static ActorRef requestGrpcHandlerActor() {
-        return getNettyActorSystem().actorOf(getSpringExtension().props(GRPC_REQUEST_HANDLER_ACTOR)
-            .withDispatcher(NETTY_RECEIVE_REQUEST_DISPATCHER));
-    }
-
 
     /**
      * Job调度准备阶段actor
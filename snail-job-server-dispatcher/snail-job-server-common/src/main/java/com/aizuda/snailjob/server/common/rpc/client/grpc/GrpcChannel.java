@@ -6,6 +6,9 @@ import com.aizuda.snailjob.common.core.enums.HeadersEnum;
 import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
 import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
 import com.aizuda.snailjob.common.core.grpc.auto.Metadata;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodecs;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.NetUtil;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.config.SystemProperties;
@@ -15,6 +18,7 @@ import com.aizuda.snailjob.server.common.register.ServerRegister;
 import com.aizuda.snailjob.server.common.triple.Pair;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
 import io.grpc.DecompressorRegistry;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
@@ -57,11 +61,12 @@ public class GrpcChannel {
      * 发送数据
      *
      * @param url   url地址
-     * @param body  请求的消息体
+     * @param args  请求参数
+     * @param codec 协商出的编解码器, 为null时使用旧版(字符串)协议
      * @param reqId
      * @throws InterruptedException
      */
-    public static synchronized ListenableFuture<GrpcResult> send(String url, String body,
+    public static synchronized ListenableFuture<GrpcResult> send(String url, Object[] args, RpcCodec codec,
                                                                  Map<String, String> headers,
                                                                  long reqId,
                                                                  ManagedChannel channel) {
@@ -72,18 +77,26 @@ public class GrpcChannel {
         headers.put(HeadersEnum.HOST_PORT.getKey(), getServerPort());
         headers.put(HeadersEnum.NAMESPACE.getKey(), SystemConstants.DEFAULT_NAMESPACE);
         headers.put(HeadersEnum.TOKEN.getKey(), getServerToken());
+        headers.put(HeadersEnum.RPC_CODECS.getKey(), RpcCodecs.supported());
+        if (Objects.nonNull(codec)) {
+            headers.put(HeadersEnum.RPC_CODEC.getKey(), codec.name());
+        }
 
         Metadata metadata = Metadata
                 .newBuilder()
                 .setUri(url)
                 .putAllHeaders(headers)
                 .build();
-        SnailJobGrpcRequest snailJobRequest = SnailJobGrpcRequest
+        SnailJobGrpcRequest.Builder builder = SnailJobGrpcRequest
                 .newBuilder()
                 .setMetadata(metadata)
-                .setReqId(reqId)
-                .setBody(body)
-                .build();
+                .setReqId(reqId);
+        if (Objects.nonNull(codec)) {
+            builder.setPayload(ByteString.copyFrom(codec.encode(args)));
+        } else {
+            builder.setBody(JsonUtil.toJsonString(args));
+        }
+        SnailJobGrpcRequest snailJobRequest = builder.build();
 
         MethodDescriptor<SnailJobGrpcRequest, GrpcResult> methodDescriptor =
                 MethodDescriptor.<SnailJobGrpcRequest, GrpcResult>newBuilder()
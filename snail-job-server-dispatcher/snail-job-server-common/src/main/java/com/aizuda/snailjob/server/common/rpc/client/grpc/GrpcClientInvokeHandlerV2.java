@@ -5,8 +5,11 @@ import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.common.core.constant.SystemConstants;
 import com.aizuda.snailjob.common.core.context.SnailSpringContext;
+import com.aizuda.snailjob.common.core.enums.HeadersEnum;
 import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
 import com.aizuda.snailjob.common.core.model.Result;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodecs;
 import com.aizuda.snailjob.common.core.util.ClassUtils;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.NetUtil;
@@ -34,10 +37,12 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -119,9 +124,10 @@ public class GrpcClientInvokeHandlerV2 implements InvocationHandler {
                 sw.start("request start " + reqId);
 
                 ListenableFuture<GrpcResult> future;
+                RpcCodec codec = instanceLiveInfo.getRpcCodec();
                 try {
                     ManagedChannel channel = instanceLiveInfo.getChannel();
-                    future = GrpcChannel.send(mapping.path(), JsonUtil.toJsonString(args), requestHeaders, reqId, channel);
+                    future = GrpcChannel.send(mapping.path(), args, codec, new HashMap<>(requestHeaders), reqId, channel);
                 } finally {
                     sw.stop();
                 }
@@ -137,8 +143,17 @@ public class GrpcClientInvokeHandlerV2 implements InvocationHandler {
                         GrpcResult grpcResult = future.get(Optional.ofNullable(executorTimeout).orElse(20),
                                 TimeUnit.SECONDS);
 
+                        // 客户端在响应中声明其支持的编解码器, 后续请求据此切换协议
+                        instanceLiveInfo.setRpcCodec(
+                                RpcCodecs.negotiate(grpcResult.getHeadersMap().get(HeadersEnum.RPC_CODECS.getKey())));
+                        String clientFeatures = grpcResult.getHeadersMap().get(HeadersEnum.CLIENT_FEATURES.getKey());
+                        instanceLiveInfo.setClientFeatures(StrUtil.isBlank(clientFeatures)
+                                ? Collections.emptySet() : Set.copyOf(StrUtil.splitTrim(clientFeatures, StrUtil.COMMA)));
+
                         Object obj = null;
-                        if (StrUtil.isNotBlank(grpcResult.getData())) {
+                        if (Objects.nonNull(codec) && !grpcResult.getPayload().isEmpty()) {
+                            obj = codec.decode(grpcResult.getPayload().toByteArray(), type);
+                        } else if (StrUtil.isNotBlank(grpcResult.getData())) {
                             obj = JsonUtil.parseObject(grpcResult.getData(), type);
                         }
                         return new Result(grpcResult.getStatus(), grpcResult.getMessage(), obj);
@@ -1,15 +1,31 @@
 package com.aizuda.snailjob.server.common.rpc.server.grpc;
 
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.enums.HeadersEnum;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
+import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.cache.CacheToken;
 import io.grpc.Context;
 import io.grpc.Contexts;
+import io.grpc.ForwardingServerCallListener;
 import io.grpc.Metadata;
 import io.grpc.ServerCall;
 import io.grpc.ServerCall.Listener;
 import io.grpc.ServerCallHandler;
 import io.grpc.ServerInterceptor;
+import io.grpc.Status;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Map;
+
 /**
+ * 请求日志及Token校验
+ * <p>
+ * Token位于请求体的 metadata.headers 中, 因此在收到消息时校验, 校验失败的请求不会进入业务线程池
+ * </p>
+ *
  * @author: opensnail
  * @date : 2024-08-22
  */
@@ -24,10 +40,62 @@ public class GrpcInterceptor implements ServerInterceptor {
         Context context = Context.current();
 
         try {
-            return Contexts.interceptCall(context, serverCall, metadata, serverCallHandler);
+            Listener<ReqT> listener = Contexts.interceptCall(context, serverCall, metadata, serverCallHandler);
+            return new AuthListener<>(listener, serverCall);
         } finally {
             log.debug("method invoked: {} cast:{}ms", fullMethodName, System.currentTimeMillis() - start);
         }
     }
 
+    private static class AuthListener<ReqT, RespT> extends
+        ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final ServerCall<ReqT, RespT> serverCall;
+        private boolean rejected;
+
+        AuthListener(Listener<ReqT> delegate, ServerCall<ReqT, RespT> serverCall) {
+            super(delegate);
+            this.serverCall = serverCall;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onMessage(ReqT message) {
+            if (!(message instanceof SnailJobGrpcRequest request)) {
+                super.onMessage(message);
+                return;
+            }
+
+            Map<String, String> headersMap = request.getMetadata().getHeadersMap();
+            String groupName = headersMap.get(HeadersEnum.GROUP_NAME.getKey());
+            String namespace = headersMap.get(HeadersEnum.NAMESPACE.getKey());
+            String token = headersMap.get(HeadersEnum.TOKEN.getKey());
+            if (StrUtil.isAllNotBlank(groupName, token) && CacheToken.get(groupName, namespace).equals(token)) {
+                super.onMessage(message);
+                return;
+            }
+
+            SnailJobLog.LOCAL.error("Token authentication failed. [namespace:{} groupName:{} token:{}]",
+                namespace, groupName, token);
+            rejected = true;
+            GrpcResult grpcResult = GrpcResult.newBuilder()
+                .setReqId(request.getReqId())
+                .setStatus(StatusEnum.NO.getStatus())
+                .setMessage(StrUtil.format("Token authentication failed. [namespace:{} groupName:{} token:{}]",
+                    namespace, groupName, token))
+                .build();
+            serverCall.sendHeaders(new Metadata());
+            serverCall.sendMessage((RespT) grpcResult);
+            serverCall.close(Status.OK, new Metadata());
+        }
+
+        @Override
+        public void onHalfClose() {
+            // 已直接响应的请求不再交给后续处理器
+            if (!rejected) {
+                super.onHalfClose();
+            }
+        }
+    }
+
 }
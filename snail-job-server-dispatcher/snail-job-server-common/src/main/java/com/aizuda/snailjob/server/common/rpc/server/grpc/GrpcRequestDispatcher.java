@@ -0,0 +1,195 @@
+package com.aizuda.snailjob.server.common.rpc.server.grpc;
+
+import cn.hutool.core.lang.Assert;
+import cn.hutool.core.net.url.UrlBuilder;
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.enums.HeadersEnum;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
+import com.aizuda.snailjob.common.core.grpc.auto.Metadata;
+import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
+import com.aizuda.snailjob.common.core.model.SnailJobRequest;
+import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodec;
+import com.aizuda.snailjob.common.core.rpc.codec.RpcCodecs;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.HttpRequestHandler;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.config.SystemProperties.ThreadPoolConfig;
+import com.aizuda.snailjob.server.common.dto.GrpcRequest;
+import com.aizuda.snailjob.server.common.dto.RpcDispatcherMetricsDTO;
+import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import io.grpc.stub.StreamObserver;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 处理客户端的gRPC请求
+ * <p>
+ * 1. 路由表在启动时根据 {@link HttpRequestHandler#path()} 一次性构建
+ * 2. 请求在有界线程池中执行, 队列满时直接返回失败, 避免心跳、日志上报洪峰拖垮服务端
+ * 3. Token校验已在 {@link GrpcInterceptor} 中完成
+ * </p>
+ *
+ * @author: opensnail
+ * @date : 2023-07-24 09:20
+ * @since 2.1.0
+ */
+@Component
+public class GrpcRequestDispatcher implements Lifecycle {
+
+    private final Map<String/*path*/, HttpRequestHandler> handlers;
+    private final ThreadPoolExecutor handlerExecutor;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public GrpcRequestDispatcher(List<HttpRequestHandler> httpRequestHandlers, SystemProperties systemProperties) {
+        Map<String, HttpRequestHandler> handlerMap = new HashMap<>(httpRequestHandlers.size());
+        for (HttpRequestHandler httpRequestHandler : httpRequestHandlers) {
+            HttpRequestHandler exists = handlerMap.putIfAbsent(httpRequestHandler.path(), httpRequestHandler);
+            Assert.isNull(exists, () -> new SnailJobServerException("Duplicate request handler. path:[{}] [{}] [{}]",
+                httpRequestHandler.path(), exists, httpRequestHandler));
+        }
+
+        this.handlers = Map.copyOf(handlerMap);
+        this.handlerExecutor = createHandlerExecutor(systemProperties.getServerRpc().getHandlerTp());
+    }
+
+    @Override
+    public void start() {
+        SnailJobLog.LOCAL.info("grpc request handlers: {}", handlers.keySet());
+    }
+
+    @Override
+    public void close() {
+        handlerExecutor.shutdown();
+    }
+
+    public void dispatch(GrpcRequest grpcRequest) {
+        try {
+            handlerExecutor.execute(() -> doDispatch(grpcRequest));
+        } catch (RejectedExecutionException e) {
+            SnailJobLog.LOCAL.warn("Request rejected. uri:[{}] queueSize:[{}] activeCount:[{}] rejectedCount:[{}]",
+                grpcRequest.getUri(), getQueueSize(), getActiveCount(), rejectedCount.incrementAndGet());
+            reply(grpcRequest, null, new SnailJobRpcResult(StatusEnum.NO.getStatus(),
+                "Server busy, please try again later", null, grpcRequest.getSnailJobRequest().getReqId()));
+        }
+    }
+
+    /**
+     * @return 等待执行的请求数
+     */
+    public int getQueueSize() {
+        return handlerExecutor.getQueue().size();
+    }
+
+    /**
+     * @return 正在执行的请求数
+     */
+    public int getActiveCount() {
+        return handlerExecutor.getActiveCount();
+    }
+
+    /**
+     * @return 因队列已满被拒绝的请求总数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 请求处理线程池的运行指标, 在控制台的节点列表中展示
+     */
+    public RpcDispatcherMetricsDTO getMetrics() {
+        RpcDispatcherMetricsDTO metrics = new RpcDispatcherMetricsDTO();
+        metrics.setQueueSize(getQueueSize());
+        metrics.setRemainingCapacity(handlerExecutor.getQueue().remainingCapacity());
+        metrics.setActiveCount(getActiveCount());
+        metrics.setRejectedCount(getRejectedCount());
+        return metrics;
+    }
+
+    private void doDispatch(GrpcRequest grpcRequest) {
+        SnailJobGrpcRequest snailJobGrpcRequest = grpcRequest.getSnailJobRequest();
+        Metadata metadata = snailJobGrpcRequest.getMetadata();
+        Map<String, String> headersMap = metadata.getHeadersMap();
+        // 未声明编解码器的为旧版本协议, 参数与返回值均使用字符串字段
+        RpcCodec codec = RpcCodecs.get(headersMap.get(HeadersEnum.RPC_CODEC.getKey()));
+        SnailJobRpcResult snailJobRpcResult = null;
+        try {
+            String args = Objects.nonNull(codec)
+                ? codec.toJsonText(snailJobGrpcRequest.getPayload().toByteArray())
+                : snailJobGrpcRequest.getBody();
+            snailJobRpcResult = doProcess(grpcRequest.getUri(), buildContent(snailJobGrpcRequest.getReqId(), args),
+                headersMap);
+            if (Objects.isNull(snailJobRpcResult)) {
+                snailJobRpcResult = new SnailJobRpcResult(StatusEnum.NO.getStatus(), "Server-side exception", null,
+                    snailJobGrpcRequest.getReqId());
+            }
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.error("http request error. [{}]", snailJobGrpcRequest, e);
+            snailJobRpcResult = new SnailJobRpcResult(StatusEnum.NO.getStatus(), e.getMessage(), null,
+                snailJobGrpcRequest.getReqId());
+        } finally {
+            reply(grpcRequest, codec, snailJobRpcResult);
+        }
+    }
+
+    private static void reply(GrpcRequest grpcRequest, RpcCodec codec, SnailJobRpcResult snailJobRpcResult) {
+        StreamObserver<GrpcResult> streamObserver = grpcRequest.getStreamObserver();
+        GrpcResult.Builder builder = GrpcResult.newBuilder()
+            .setReqId(snailJobRpcResult.getReqId())
+            .setStatus(snailJobRpcResult.getStatus())
+            .setMessage(Optional.ofNullable(snailJobRpcResult.getMessage()).orElse(StrUtil.EMPTY))
+            .putHeaders(HeadersEnum.RPC_CODECS.getKey(), RpcCodecs.supported());
+        if (Objects.nonNull(codec)) {
+            builder.setPayload(ByteString.copyFrom(codec.encode(snailJobRpcResult.getData())));
+        } else {
+            builder.setData(JsonUtil.toJsonString(snailJobRpcResult.getData()));
+        }
+
+        streamObserver.onNext(builder.build());
+        streamObserver.onCompleted();
+    }
+
+    /**
+     * 直接拼接 {@link SnailJobRequest} 的JSON, 参数只在具体的 HttpRequestHandler 中解析一次
+     */
+    private static String buildContent(long reqId, String args) {
+        return "{\"reqId\":" + reqId + ",\"args\":" + (StrUtil.isBlank(args) ? "null" : args) + "}";
+    }
+
+    private SnailJobRpcResult doProcess(String uri, String content, Map<String, String> headersMap) {
+        UrlBuilder builder = UrlBuilder.ofHttp(uri);
+        HttpRequestHandler httpRequestHandler = handlers.get(builder.getPathStr());
+        if (Objects.isNull(httpRequestHandler)) {
+            throw new SnailJobServerException("No matching handler found. Path:[{}]", builder.getPathStr());
+        }
+
+        DefaultHttpHeaders headers = new DefaultHttpHeaders();
+        headersMap.forEach(headers::add);
+        return httpRequestHandler.doHandler(content, builder, headers);
+    }
+
+    private static ThreadPoolExecutor createHandlerExecutor(ThreadPoolConfig threadPool) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadPool.getCorePoolSize(),
+            threadPool.getMaximumPoolSize(), threadPool.getKeepAliveTime(), threadPool.getTimeUnit(),
+            new LinkedBlockingQueue<>(threadPool.getQueueCapacity()),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("snail-job-grpc-handler-%d").build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
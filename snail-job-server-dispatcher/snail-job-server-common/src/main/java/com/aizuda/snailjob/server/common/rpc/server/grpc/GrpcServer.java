@@ -10,6 +10,7 @@ import com.aizuda.snailjob.server.common.config.SystemProperties;
 import com.aizuda.snailjob.server.common.config.SystemProperties.RpcServerProperties;
 import com.aizuda.snailjob.server.common.config.SystemProperties.ThreadPoolConfig;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.common.handler.ServerMembership;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.grpc.CompressorRegistry;
 import io.grpc.DecompressorRegistry;
@@ -48,6 +49,8 @@ import java.util.concurrent.TimeUnit;
 public class GrpcServer implements Lifecycle {
 
     private final SystemProperties systemProperties;
+    private final GrpcRequestDispatcher grpcRequestDispatcher;
+    private final ServerMembership serverMembership;
     private volatile boolean started = false;
     private Server server;
 
@@ -105,11 +108,17 @@ public class GrpcServer implements Lifecycle {
         // 创建服务UNARY类型定义
         ServerServiceDefinition serviceDefinition = createUnaryServiceDefinition(
                 GrpcServerConstants.UNARY_SERVICE_NAME, GrpcServerConstants.UNARY_METHOD_NAME,
-                new UnaryRequestHandler());
+                new UnaryRequestHandler(grpcRequestDispatcher));
         handlerRegistry.addService(serviceDefinition);
         // unary common call register.
 
         handlerRegistry.addService(ServerInterceptors.intercept(serviceDefinition, serverInterceptor));
+
+        // 服务端之间的心跳双向流
+        ServerServiceDefinition heartbeatDefinition = createBidiStreamingServiceDefinition(
+                GrpcServerConstants.HEARTBEAT_SERVICE_NAME, GrpcServerConstants.HEARTBEAT_METHOD_NAME,
+                new HeartbeatStreamHandler(serverMembership));
+        handlerRegistry.addService(ServerInterceptors.intercept(heartbeatDefinition, serverInterceptor));
     }
 
     public static ServerServiceDefinition createUnaryServiceDefinition(
@@ -130,6 +139,24 @@ public class GrpcServer implements Lifecycle {
                 .build();
     }
 
+    public static ServerServiceDefinition createBidiStreamingServiceDefinition(
+            String serviceName,
+            String methodName,
+            ServerCalls.BidiStreamingMethod<SnailJobGrpcRequest, GrpcResult> bidiStreamingMethod) {
+
+        MethodDescriptor<SnailJobGrpcRequest, GrpcResult> methodDescriptor =
+                MethodDescriptor.<SnailJobGrpcRequest, GrpcResult>newBuilder()
+                        .setType(MethodDescriptor.MethodType.BIDI_STREAMING)
+                        .setFullMethodName(MethodDescriptor.generateFullMethodName(serviceName, methodName))
+                        .setRequestMarshaller(ProtoUtils.marshaller(SnailJobGrpcRequest.getDefaultInstance()))
+                        .setResponseMarshaller(ProtoUtils.marshaller(GrpcResult.getDefaultInstance()))
+                        .build();
+
+        return ServerServiceDefinition.builder(serviceName)
+                .addMethod(methodDescriptor, ServerCalls.asyncBidiStreamingCall(bidiStreamingMethod))
+                .build();
+    }
+
     private ThreadPoolExecutor createGrpcExecutor(final ThreadPoolConfig threadPool) {
         ThreadPoolExecutor grpcExecutor = new ThreadPoolExecutor(threadPool.getCorePoolSize(),
                 threadPool.getMaximumPoolSize(), threadPool.getKeepAliveTime(), TimeUnit.MILLISECONDS,
@@ -0,0 +1,53 @@
+package com.aizuda.snailjob.server.common.rpc.server.grpc;
+
+import com.aizuda.snailjob.common.core.enums.HeadersEnum;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.grpc.auto.GrpcResult;
+import com.aizuda.snailjob.common.core.grpc.auto.SnailJobGrpcRequest;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.server.common.handler.ServerMembership;
+import com.aizuda.snailjob.server.common.register.ServerRegister;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 服务端之间的心跳双向流, 每收到一次心跳立即响应当前节点的hostId及最近收到各节点消息距今的时长
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@RequiredArgsConstructor
+public class HeartbeatStreamHandler implements ServerCalls.BidiStreamingMethod<SnailJobGrpcRequest, GrpcResult> {
+
+    private final ServerMembership serverMembership;
+
+    @Override
+    public StreamObserver<SnailJobGrpcRequest> invoke(StreamObserver<GrpcResult> responseObserver) {
+        return new StreamObserver<>() {
+
+            @Override
+            public void onNext(SnailJobGrpcRequest request) {
+                serverMembership.onInboundHeartbeat(
+                        request.getMetadata().getHeadersMap().get(HeadersEnum.HOST_ID.getKey()));
+                responseObserver.onNext(GrpcResult.newBuilder()
+                        .setReqId(request.getReqId())
+                        .setStatus(StatusEnum.YES.getStatus())
+                        .setData(JsonUtil.toJsonString(serverMembership.heardAges()))
+                        .putHeaders(HeadersEnum.HOST_ID.getKey(), ServerRegister.CURRENT_CID)
+                        .build());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // 对端断开, 由对端负责重连
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+}
@@ -33,8 +33,8 @@ import static com.aizuda.snailjob.common.core.constant.SystemConstants.BEAT.PONG
 public class BeatHttpRequestHandler extends GetHttpRequestHandler {
 
     @Override
-    public boolean supports(String path) {
-        return HTTP_PATH.BEAT.equals(path);
+    public String path() {
+        return HTTP_PATH.BEAT;
     }
 
     @Override
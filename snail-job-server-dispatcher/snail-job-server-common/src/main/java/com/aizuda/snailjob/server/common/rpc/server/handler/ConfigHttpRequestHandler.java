@@ -25,8 +25,8 @@ public class ConfigHttpRequestHandler extends GetHttpRequestHandler {
     private final AccessTemplate accessTemplate;
 
     @Override
-    public boolean supports(String path) {
-        return HTTP_PATH.SYNC_CONFIG.equals(path);
+    public String path() {
+        return HTTP_PATH.SYNC_CONFIG;
     }
 
     @Override
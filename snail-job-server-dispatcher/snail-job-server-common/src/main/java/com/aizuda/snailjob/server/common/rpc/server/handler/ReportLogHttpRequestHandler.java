@@ -37,8 +37,8 @@ import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH
 @Component
 public class ReportLogHttpRequestHandler extends PostHttpRequestHandler {
     @Override
-    public boolean supports(String path) {
-        return BATCH_LOG_REPORT.equals(path);
+    public String path() {
+        return BATCH_LOG_REPORT;
     }
 
     @Override
@@ -25,8 +25,8 @@ public class UpdateClientInfoHttpRequestHandler extends PostHttpRequestHandler {
     private final InstanceManager instanceManager;
 
     @Override
-    public boolean supports(String path) {
-        return UPDATE_CLIENT_INFO.equals(path);
+    public String path() {
+        return UPDATE_CLIENT_INFO;
     }
 
     @Override
@@ -5,6 +5,7 @@ import com.aizuda.snailjob.common.core.exception.SnailJobCommonException;
 import com.aizuda.snailjob.common.core.util.CronExpression;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.server.common.WaitStrategy;
+import com.aizuda.snailjob.server.common.cache.CacheCronExpression;
 import com.aizuda.snailjob.server.common.dto.PointInTimeDTO;
 import com.aizuda.snailjob.server.common.enums.DelayLevelEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
@@ -191,9 +192,10 @@ public class WaitStrategies {
         public Long computeTriggerTime(WaitStrategyContext context) {
 
             try {
-                Date nextValidTime = new CronExpression(context.getTriggerInterval()).getNextValidTimeAfter(new Date(context.getNextTriggerAt()));
-                Assert.notNull(nextValidTime, () -> new SnailJobServerException("Expression error: {}", context.getTriggerInterval()));
-                return DateUtils.toEpochMilli(nextValidTime);
+                CronExpression cronExpression = CacheCronExpression.get(context.getTriggerInterval());
+                long nextValidTime = cronExpression.getNextValidTimeAfter(context.getNextTriggerAt());
+                Assert.isTrue(nextValidTime > 0, () -> new SnailJobServerException("Expression error: {}", context.getTriggerInterval()));
+                return nextValidTime;
             } catch (ParseException e) {
                 throw new SnailJobServerException("Parsing CRON expression exception [{}]", context.getTriggerInterval(), e);
             }
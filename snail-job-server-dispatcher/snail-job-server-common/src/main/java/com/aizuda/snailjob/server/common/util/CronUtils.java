@@ -2,6 +2,7 @@ package com.aizuda.snailjob.server.common.util;
 
 import cn.hutool.core.lang.Assert;
 import com.aizuda.snailjob.common.core.util.CronExpression;
+import com.aizuda.snailjob.server.common.cache.CacheCronExpression;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 
 import java.text.ParseException;
@@ -10,9 +11,7 @@ import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * @author opensnail
@@ -24,19 +23,22 @@ public class CronUtils {
     public static List<String> getExecuteTimeByCron(String cron, int nums) {
 
         List<String> list = new ArrayList<>();
+        CronExpression cronExpression;
+        try {
+            cronExpression = CacheCronExpression.get(cron);
+        } catch (ParseException ignored) {
+            return list;
+        }
+
         LocalDateTime now = LocalDateTime.now();
         for (int i = 0; i < nums; i++) {
-            Date nextValidTime;
-            try {
-                ZonedDateTime zdt = now.atZone(ZoneOffset.ofHours(8));
-                nextValidTime = new CronExpression(cron).getNextValidTimeAfter(Date.from(zdt.toInstant()));
-                if (Objects.isNull(nextValidTime)) {
-                    continue;
-                }
-                now = LocalDateTime.ofEpochSecond(nextValidTime.getTime() / 1000, 0, ZoneOffset.ofHours(8));
-                list.add(DateUtils.format(now, DateUtils.NORM_DATETIME_PATTERN));
-            } catch (ParseException ignored) {
+            ZonedDateTime zdt = now.atZone(ZoneOffset.ofHours(8));
+            long nextValidTime = cronExpression.getNextValidTimeAfter(zdt.toInstant().toEpochMilli());
+            if (nextValidTime < 0) {
+                continue;
             }
+            now = LocalDateTime.ofEpochSecond(nextValidTime / 1000, 0, ZoneOffset.ofHours(8));
+            list.add(DateUtils.format(now, DateUtils.NORM_DATETIME_PATTERN));
         }
 
         return list;
@@ -0,0 +1,29 @@
+package com.aizuda.snailjob.server.job.task.client;
+
+import com.aizuda.snailjob.common.core.model.Result;
+import com.aizuda.snailjob.server.common.rpc.client.RequestMethod;
+import com.aizuda.snailjob.server.common.rpc.client.annotation.Body;
+import com.aizuda.snailjob.server.common.rpc.client.annotation.Mapping;
+import com.aizuda.snailjob.server.job.task.dto.JobLogTopicSyncDTO;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
+
+import java.util.List;
+
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_LOG_PUSH;
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_LOG_TOPIC_SYNC;
+
+/**
+ * 服务端节点之间转发任务日志
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public interface JobLogRpcClient {
+
+    @Mapping(path = JOB_LOG_TOPIC_SYNC, method = RequestMethod.POST)
+    Result<Boolean> syncTopics(@Body JobLogTopicSyncDTO topicSyncDTO);
+
+    @Mapping(path = JOB_LOG_PUSH, method = RequestMethod.POST)
+    Result<Boolean> push(@Body List<JobLogMessageDO> messages);
+}
@@ -1,5 +1,7 @@
 package com.aizuda.snailjob.server.job.task.client;
 
+import com.aizuda.snailjob.model.dto.DispatchJobAckDTO;
+import com.aizuda.snailjob.model.request.DispatchJobBatchRequest;
 import com.aizuda.snailjob.model.request.StopJobRequest;
 import com.aizuda.snailjob.model.request.DispatchJobRequest;
 import com.aizuda.snailjob.common.core.model.Result;
@@ -7,6 +9,9 @@ import com.aizuda.snailjob.server.common.rpc.client.RequestMethod;
 import com.aizuda.snailjob.server.common.rpc.client.annotation.Body;
 import com.aizuda.snailjob.server.common.rpc.client.annotation.Mapping;
 
+import java.util.List;
+
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_BATCH_DISPATCH;
 import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_DISPATCH;
 import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_STOP;
 
@@ -25,4 +30,7 @@ public interface JobRpcClient {
     @Mapping(path = JOB_DISPATCH, method = RequestMethod.POST)
     Result<Boolean> dispatch(@Body DispatchJobRequest dispatchJobRequest);
 
+    @Mapping(path = JOB_BATCH_DISPATCH, method = RequestMethod.POST)
+    Result<List<DispatchJobAckDTO>> batchDispatch(@Body DispatchJobBatchRequest dispatchJobBatchRequest);
+
 }
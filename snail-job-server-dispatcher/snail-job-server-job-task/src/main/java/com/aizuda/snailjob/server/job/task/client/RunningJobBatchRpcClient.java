@@ -0,0 +1,22 @@
+package com.aizuda.snailjob.server.job.task.client;
+
+import com.aizuda.snailjob.common.core.model.Result;
+import com.aizuda.snailjob.server.common.rpc.client.RequestMethod;
+import com.aizuda.snailjob.server.common.rpc.client.annotation.Body;
+import com.aizuda.snailjob.server.common.rpc.client.annotation.Mapping;
+import com.aizuda.snailjob.server.job.task.dto.RunningJobBatchDTO;
+
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.RUNNING_JOB_BATCH_REGISTER;
+
+/**
+ * 服务端节点之间同步未完成的任务批次
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public interface RunningJobBatchRpcClient {
+
+    @Mapping(path = RUNNING_JOB_BATCH_REGISTER, method = RequestMethod.POST)
+    Result<Boolean> register(@Body RunningJobBatchDTO runningJobBatchDTO);
+}
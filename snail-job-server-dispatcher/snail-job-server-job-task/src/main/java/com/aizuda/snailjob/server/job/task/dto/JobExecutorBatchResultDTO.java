@@ -0,0 +1,21 @@
+package com.aizuda.snailjob.server.job.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 同一任务批次中多个任务项的执行结果(如批量调度失败), 一次更新任务项状态并只判断一次批次是否完成
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+@AllArgsConstructor
+public class JobExecutorBatchResultDTO {
+
+    private List<JobExecutorResultDTO> results;
+
+}
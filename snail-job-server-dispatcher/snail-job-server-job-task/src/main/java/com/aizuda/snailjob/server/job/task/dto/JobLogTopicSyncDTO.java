@@ -0,0 +1,27 @@
+package com.aizuda.snailjob.server.job.task.dto;
+
+import lombok.Data;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 节点控制台订阅的任务日志
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+public class JobLogTopicSyncDTO {
+
+    /**
+     * 订阅方节点id
+     */
+    private String hostId;
+
+    /**
+     * key: 任务批次 value: 任务
+     */
+    private Map<Long, Set<Long>> topics;
+}
@@ -53,4 +53,9 @@ public class JobPartitionTaskDTO extends PartitionTask {
      * 是否是常驻任务
      */
     private Integer resident;
+
+    /**
+     * bucket
+     */
+    private Integer bucketIndex;
 }
@@ -0,0 +1,24 @@
+package com.aizuda.snailjob.server.job.task.dto;
+
+import lombok.Data;
+
+/**
+ * 任务项的扩展字段(sj_job_task.ext_attrs)
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+public class JobTaskExtAttrsDTO {
+
+    /**
+     * 一次MAP操作的唯一标识, 客户端分批上报时保持一致
+     */
+    private String mapId;
+
+    /**
+     * 分批上报的批次序号
+     */
+    private Integer chunkSeq;
+}
@@ -39,6 +39,11 @@ public class JobTaskPrepareDTO {
      */
     private Integer executorTimeout;
 
+    /**
+     * 任务所属的bucket
+     */
+    private Integer bucketIndex;
+
     private Long taskBatchId;
 
     private String clientId;
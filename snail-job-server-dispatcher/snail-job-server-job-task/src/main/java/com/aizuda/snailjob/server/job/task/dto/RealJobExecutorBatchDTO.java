@@ -0,0 +1,21 @@
+package com.aizuda.snailjob.server.job.task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 同一任务批次中调度到同一客户端的任务项
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+@AllArgsConstructor
+public class RealJobExecutorBatchDTO {
+
+    private List<RealJobExecutorDTO> realJobExecutors;
+
+}
@@ -0,0 +1,27 @@
+package com.aizuda.snailjob.server.job.task.dto;
+
+import lombok.Data;
+
+/**
+ * 其他节点生成或重试的未完成批次
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Data
+public class RunningJobBatchDTO {
+
+    private Long jobId;
+
+    private Long taskBatchId;
+
+    /**
+     * 任务所属的bucket
+     */
+    private Integer bucketIndex;
+
+    private Integer taskBatchStatus;
+
+    private Long executionAt;
+}
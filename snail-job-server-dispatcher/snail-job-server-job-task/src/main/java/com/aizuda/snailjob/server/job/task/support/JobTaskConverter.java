@@ -129,12 +129,19 @@ public interface JobTaskConverter {
 
     RealStopTaskInstanceDTO toRealStopTaskInstanceDTO(TaskStopJobContext context);
 
+    JobPartitionTaskDTO toJobPartitionTask(Job job);
+
     List<JobPartitionTaskDTO> toJobPartitionTasks(List<Job> jobs);
 
     List<JobPartitionTaskDTO> toJobTaskBatchPartitionTasks(List<JobTaskBatch> jobTaskBatches);
 
     JobTaskBatch toJobTaskBatch(JobTaskBatchGeneratorContext context);
 
+    @Mappings(
+            @Mapping(source = "id", target = "taskBatchId")
+    )
+    RunningJobBatchDTO toRunningJobBatchDTO(JobTaskBatch jobTaskBatch);
+
     CompleteJobBatchDTO toCompleteJobBatchDTO(JobExecutorResultDTO jobExecutorResultDTO);
 
     CompleteJobBatchDTO completeJobBatchDTO(JobTaskPrepareDTO jobTaskPrepareDTO);
@@ -12,6 +12,11 @@ public class BlockStrategyContext {
 
     private Long jobId;
 
+    /**
+     * 任务所属的bucket
+     */
+    private Integer bucketIndex;
+
     private Long taskBatchId;
 
     private String namespaceId;
@@ -0,0 +1,87 @@
+package com.aizuda.snailjob.server.job.task.support.cache;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Job Dashboard 待重新统计的任务批次
+ * 任务批次状态发生变化时登记, 由 JobSummarySchedule 定时只重新统计这些批次所属的(任务, 日期)
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class JobSummaryDirtyCache {
+
+    /**
+     * 登记的最大批次数, 超过后不再登记而是触发一次全量统计
+     */
+    private static final int MAX_SIZE = 100000;
+
+    private static final Set<Long/*任务批次*/> DIRTY_TASK_BATCH_IDS = ConcurrentHashMap.newKeySet();
+    private static final AtomicBoolean OVERFLOW = new AtomicBoolean(false);
+
+    /**
+     * 登记状态发生变化的任务批次
+     *
+     * @param taskBatchId 任务批次
+     */
+    public static void mark(Long taskBatchId) {
+        if (Objects.isNull(taskBatchId)) {
+            return;
+        }
+
+        if (DIRTY_TASK_BATCH_IDS.size() >= MAX_SIZE) {
+            OVERFLOW.set(true);
+            return;
+        }
+
+        DIRTY_TASK_BATCH_IDS.add(taskBatchId);
+    }
+
+    public static void markAll(Collection<Long> taskBatchIds) {
+        taskBatchIds.forEach(JobSummaryDirtyCache::mark);
+    }
+
+    /**
+     * 取出并清空已登记的任务批次
+     *
+     * @return 任务批次
+     */
+    public static Set<Long> drain() {
+        Set<Long> taskBatchIds = new HashSet<>();
+        Iterator<Long> iterator = DIRTY_TASK_BATCH_IDS.iterator();
+        while (iterator.hasNext()) {
+            taskBatchIds.add(iterator.next());
+            iterator.remove();
+        }
+
+        return taskBatchIds;
+    }
+
+    /**
+     * 是否因登记数量超限而需要全量统计
+     */
+    public static boolean isOverflow() {
+        return OVERFLOW.get();
+    }
+
+    /**
+     * 是否因登记数量超限而需要全量统计, 调用后复位
+     */
+    public static boolean checkAndResetOverflow() {
+        return OVERFLOW.getAndSet(false);
+    }
+
+    /**
+     * 全量统计失败时恢复超限标记, 下个周期再次全量统计
+     */
+    public static void markOverflow() {
+        OVERFLOW.set(true);
+    }
+}
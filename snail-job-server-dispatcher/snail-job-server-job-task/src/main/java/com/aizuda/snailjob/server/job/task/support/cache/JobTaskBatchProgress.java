@@ -0,0 +1,107 @@
+package com.aizuda.snailjob.server.job.task.support.cache;
+
+import com.aizuda.snailjob.common.core.enums.JobTaskStatusEnum;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 任务批次的完成进度
+ * 按任务项记录最新状态，同一个任务重复上报只会改变一次计数
+ * 生成任务项的节点以计数器判定批次是否完成, 由DB重建的进度(节点故障转移)只用于快速判定, 仍需以DB确认
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class JobTaskBatchProgress {
+
+    private final ConcurrentHashMap<Long/*taskId*/, Integer/*taskStatus*/> taskStatusMap = new ConcurrentHashMap<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger success = new AtomicInteger();
+    private final AtomicInteger fail = new AtomicInteger();
+    private final AtomicInteger stop = new AtomicInteger();
+    private final AtomicInteger cancel = new AtomicInteger();
+    private final boolean rebuilt;
+
+    public JobTaskBatchProgress(boolean rebuilt) {
+        this.rebuilt = rebuilt;
+    }
+
+    /**
+     * 更新任务项状态
+     *
+     * @param taskId     任务项id
+     * @param taskStatus 任务项状态
+     */
+    public void put(Long taskId, Integer taskStatus) {
+        if (Objects.isNull(taskId) || Objects.isNull(taskStatus)) {
+            return;
+        }
+
+        taskStatusMap.compute(taskId, (id, previous) -> {
+            if (Objects.isNull(previous)) {
+                total.incrementAndGet();
+            } else if (previous.equals(taskStatus)) {
+                return previous;
+            } else {
+                counter(previous).decrementAndGet();
+            }
+
+            counter(taskStatus).incrementAndGet();
+            return taskStatus;
+        });
+    }
+
+    /**
+     * 所有任务项都已经结束
+     */
+    public boolean isComplete() {
+        return total.get() > 0 && running.get() == 0;
+    }
+
+    /**
+     * 进度是否由DB重建, 重建的进度不包含其他节点处理的结果
+     */
+    public boolean isRebuilt() {
+        return rebuilt;
+    }
+
+    public int getTotal() {
+        return total.get();
+    }
+
+    public int getSuccess() {
+        return success.get();
+    }
+
+    public int getFail() {
+        return fail.get();
+    }
+
+    public int getStop() {
+        return stop.get();
+    }
+
+    private AtomicInteger counter(Integer taskStatus) {
+        if (JobTaskStatusEnum.NOT_COMPLETE.contains(taskStatus)) {
+            return running;
+        }
+
+        if (JobTaskStatusEnum.SUCCESS.getStatus() == taskStatus) {
+            return success;
+        }
+
+        if (JobTaskStatusEnum.FAIL.getStatus() == taskStatus) {
+            return fail;
+        }
+
+        if (JobTaskStatusEnum.STOP.getStatus() == taskStatus) {
+            return stop;
+        }
+
+        return cancel;
+    }
+}
@@ -0,0 +1,89 @@
+package com.aizuda.snailjob.server.job.task.support.cache;
+
+import cn.hutool.core.collection.CollUtil;
+import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务批次完成进度缓存
+ * 生成任务项时写入, 任务项上报结果时增量更新, 本节点不存在时(节点故障转移)由DB重建
+ * 其他节点处理的结果不会更新到本节点, 这种情况由准备阶段对运行中批次的兜底检查完成批次
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class JobTaskBatchProgressCache {
+
+    private static final Cache<Long/*任务批次*/, JobTaskBatchProgress> cache;
+
+    static {
+        cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(8) // 并发级别
+                .expireAfterAccess(30, TimeUnit.MINUTES) // 长时间无访问则过期, 再次使用时由DB重建
+                .build();
+    }
+
+    /**
+     * 生成任务项后登记到批次进度中
+     *
+     * @param taskBatchId 任务批次
+     * @param jobTasks    新生成的任务项
+     */
+    public static void register(Long taskBatchId, List<JobTask> jobTasks) {
+        if (Objects.isNull(taskBatchId) || CollUtil.isEmpty(jobTasks)) {
+            return;
+        }
+
+        JobTaskBatchProgress progress = cache.asMap().computeIfAbsent(taskBatchId, id -> new JobTaskBatchProgress(false));
+        for (JobTask jobTask : jobTasks) {
+            progress.put(jobTask.getId(), jobTask.getTaskStatus());
+        }
+    }
+
+    /**
+     * 以DB中的任务项状态为准重建批次进度, 丢弃本节点原有的计数
+     *
+     * @param taskBatchId 任务批次
+     * @param jobTasks    DB中该批次的所有任务项
+     */
+    public static void rebuild(Long taskBatchId, List<JobTask> jobTasks) {
+        if (Objects.isNull(taskBatchId) || CollUtil.isEmpty(jobTasks)) {
+            return;
+        }
+
+        JobTaskBatchProgress progress = new JobTaskBatchProgress(true);
+        for (JobTask jobTask : jobTasks) {
+            progress.put(jobTask.getId(), jobTask.getTaskStatus());
+        }
+        cache.put(taskBatchId, progress);
+    }
+
+    /**
+     * 任务项上报结果后更新批次进度, 本节点没有该批次的进度时不处理
+     *
+     * @param taskBatchId 任务批次
+     * @param taskId      任务项
+     * @param taskStatus  任务项状态
+     */
+    public static void refresh(Long taskBatchId, Long taskId, Integer taskStatus) {
+        JobTaskBatchProgress progress = cache.getIfPresent(taskBatchId);
+        if (Objects.nonNull(progress)) {
+            progress.put(taskId, taskStatus);
+        }
+    }
+
+    public static JobTaskBatchProgress get(Long taskBatchId) {
+        return cache.getIfPresent(taskBatchId);
+    }
+
+    public static void remove(Long taskBatchId) {
+        cache.invalidate(taskBatchId);
+    }
+
+}
@@ -1,97 +1,83 @@
 package com.aizuda.snailjob.server.job.task.support.cache;
 
-import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.common.util.GraphUtils;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
-import com.google.common.graph.MutableGraph;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 
-import java.util.HashSet;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 /**
+ * 工作流DAG缓存
+ * <p>
+ * 批次中保存的是触发时流程图的快照且没有记录工作流的版本号, 因此以 工作流ID + 流程图内容指纹 作为版本,
+ * 同一个工作流同一份流程图的所有批次共享同一个编译好的 {@link WorkflowGraph}
+ * </p>
+ *
  * @author xiaowoniu
  * @date 2023-12-30 13:18:07
  * @since 2.6.0
  */
 public class MutableGraphCache {
 
-    private static final Cache<Long/*工作流批次*/, MutableGraph<Long>> cache;
+    private static final Cache<GraphKey, WorkflowGraph> cache;
 
     static {
         cache = CacheBuilder.newBuilder()
                 .concurrencyLevel(8) // 并发级别
-                .expireAfterWrite(5, TimeUnit.MINUTES) // 写入后的过期时间
+                .maximumSize(1024)
+                .expireAfterAccess(30, TimeUnit.MINUTES) // 访问后的过期时间
                 .build();
     }
 
     /**
-     * 获取指定workflowBatchId的可变图对象，若图对象不存在则使用给定的jsonGraph反序列化生成新的图对象并返回
+     * 获取工作流的DAG, 若缓存中不存在则反序列化jsonGraph并编译
      *
-     * @param workflowBatchId 工作流批次ID
-     * @param jsonGraph       JSON格式的图对象字符串
-     * @return {@link MutableGraph} 图对象
+     * @param workflowId 工作流ID
+     * @param jsonGraph  JSON格式的图对象字符串
+     * @return {@link WorkflowGraph} 图对象, jsonGraph为空时返回空图
      */
-    public static MutableGraph<Long> getOrDefault(Long workflowBatchId, String jsonGraph) {
-        return Optional.ofNullable(cache.getIfPresent(workflowBatchId)).orElse(GraphUtils.deserializeJsonToGraph(jsonGraph));
-    }
+    public static WorkflowGraph get(Long workflowId, String jsonGraph) {
+        if (StrUtil.isBlank(jsonGraph)) {
+            return WorkflowGraph.EMPTY;
+        }
 
-    /**
-     * 根据给定的workflowBatchId获取图对象。
-     *
-     * @param workflowBatchId 工作流批次ID
-     * @return {@link MutableGraph} 返回对应的图对象，如果不存在则返回空图
-     */
-    public static MutableGraph<Long> get(Long workflowBatchId) {
-        return getOrDefault(workflowBatchId, "");
+        HashCode fingerprint = Hashing.murmur3_128().hashString(jsonGraph, StandardCharsets.UTF_8);
+        try {
+            return cache.get(new GraphKey(workflowId, fingerprint),
+                    () -> WorkflowGraph.of(GraphUtils.deserializeJsonToGraph(jsonGraph)));
+        } catch (ExecutionException e) {
+            throw new SnailJobServerException("Failed to parse workflow graph. workflowId:[{}]", workflowId, e.getCause());
+        }
     }
 
     /**
      * 获取所有的叶子节点
      *
-     * @param workflowBatchId 工作流批次ID
-     * @param jsonGraph       JSON格式的图对象字符串
+     * @param workflowId 工作流ID
+     * @param jsonGraph  JSON格式的图对象字符串
      * @return 叶子节点
      */
-    public static List<Long> getLeaves(Long workflowBatchId, String jsonGraph) {
-
-        MutableGraph<Long> graph = getOrDefault(workflowBatchId, jsonGraph);
-        List<Long> leaves = Lists.newArrayList();
-        for (Long node : graph.nodes()) {
-            if (CollUtil.isEmpty(graph.successors(node))) {
-                leaves.add(node);
-            }
-        }
-
-        return leaves;
+    public static List<Long> getLeaves(Long workflowId, String jsonGraph) {
+        return get(workflowId, jsonGraph).getLeaves();
     }
 
-    public static Set<Long> getAllDescendants(MutableGraph<Long> graph, Long parentId) {
-        Set<Long> descendants = new HashSet<>();
-        getAllDescendantsHelper(graph, parentId, descendants);
-        return descendants;
+    public static Set<Long> getAllDescendants(WorkflowGraph graph, Long parentId) {
+        return graph.getAllDescendants(parentId);
     }
 
-    public static Set<Long> getBrotherNode(MutableGraph<Long> graph, Long nodeId) {
-        Set<Long> predecessors = graph.predecessors(nodeId);
-        if (CollUtil.isEmpty(predecessors)) {
-            return Sets.newHashSet();
-        }
-        return graph.successors(predecessors.stream().findFirst().get());
+    public static Set<Long> getBrotherNode(WorkflowGraph graph, Long nodeId) {
+        return graph.getBrotherNode(nodeId);
     }
 
-    private static void getAllDescendantsHelper(MutableGraph<Long> graph, Long parentId, Set<Long> descendants) {
-        Set<Long> successors = graph.successors(parentId);
-        descendants.addAll(successors);
-
-        for (Long successor : successors) {
-            getAllDescendantsHelper(graph, successor, descendants);
-        }
+    private record GraphKey(Long workflowId, HashCode fingerprint) {
     }
 
 }
@@ -0,0 +1,157 @@
+package com.aizuda.snailjob.server.job.task.support.cache;
+
+import com.aizuda.snailjob.server.common.dto.DistributeInstance;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 定时任务未完成的批次(待处理、运行中)
+ * 任务触发时若当前节点持有该任务的bucket, 直接按缓存的批次状态执行准备阶段及阻塞策略而无需查询数据库
+ * <ul>
+ *     <li>本节点生成、重试批次或者批次状态变更时登记, 批次变为终态时移除</li>
+ *     <li>其他节点生成或重试的批次通过 RunningJobBatchRelay 登记到持有bucket的节点</li>
+ *     <li>bucket分配给当前节点时由 RunningJobBatchLoader 从数据库加载, 加载完成前以数据库为准</li>
+ *     <li>遗漏的批次及在其他节点完成的批次由 RunningJobBatchLoader 按 update_dt 周期性对账</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class RunningJobBatchCache {
+
+    private static final Map<Long/*任务*/, Map<Long/*任务批次*/, RunningJobBatch>> JOB_BATCHES = new ConcurrentHashMap<>();
+    private static final Map<Long/*任务批次*/, Long/*任务*/> BATCH_JOB = new ConcurrentHashMap<>();
+    private static final Set<Integer> LOADED_BUCKETS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 登记未完成的批次或者更新批次的状态
+     *
+     * @param jobId           任务
+     * @param taskBatchId     任务批次
+     * @param taskBatchStatus 批次状态
+     * @param executionAt     执行时间
+     */
+    public static void register(Long jobId, Long taskBatchId, Integer taskBatchStatus, Long executionAt) {
+        if (Objects.isNull(jobId) || Objects.isNull(taskBatchId) || Objects.isNull(taskBatchStatus)) {
+            return;
+        }
+
+        RunningJobBatch batch = new RunningJobBatch(taskBatchId, taskBatchStatus, executionAt, System.currentTimeMillis());
+        JOB_BATCHES.compute(jobId, (key, batches) -> {
+            if (Objects.isNull(batches)) {
+                batches = new ConcurrentHashMap<>();
+            }
+            batches.put(taskBatchId, batch);
+            return batches;
+        });
+        BATCH_JOB.put(taskBatchId, jobId);
+    }
+
+    /**
+     * 批次变为终态
+     *
+     * @param taskBatchId 任务批次
+     */
+    public static void complete(Long taskBatchId) {
+        if (Objects.isNull(taskBatchId)) {
+            return;
+        }
+
+        Long jobId = BATCH_JOB.remove(taskBatchId);
+        if (Objects.isNull(jobId)) {
+            return;
+        }
+
+        JOB_BATCHES.computeIfPresent(jobId, (key, batches) -> {
+            batches.remove(taskBatchId);
+            return batches.isEmpty() ? null : batches;
+        });
+    }
+
+    /**
+     * 以数据库查询结果为准移除已完成的批次
+     * 查询开始之后登记的批次可能尚未提交, 不做处理
+     *
+     * @param jobId          任务
+     * @param notCompleteIds 数据库中未完成的批次
+     * @param queryAt        查询开始时间
+     */
+    public static void retain(Long jobId, Collection<Long> notCompleteIds, long queryAt) {
+        Map<Long, RunningJobBatch> batches = JOB_BATCHES.get(jobId);
+        if (Objects.isNull(batches)) {
+            return;
+        }
+
+        batches.forEach((taskBatchId, batch) -> {
+            if (batch.registerAt() < queryAt && !notCompleteIds.contains(taskBatchId)) {
+                complete(taskBatchId);
+            }
+        });
+    }
+
+    /**
+     * 当前节点是否持有bucket且已加载完成, 即缓存中的批次是否可以代替数据库
+     *
+     * @param bucketIndex 任务所属的bucket
+     */
+    public static boolean isOwned(Integer bucketIndex) {
+        return Objects.nonNull(bucketIndex)
+                && LOADED_BUCKETS.contains(bucketIndex)
+                && DistributeInstance.INSTANCE.getConsumerBucket().contains(bucketIndex);
+    }
+
+    /**
+     * 任务未完成的批次, 按批次id升序
+     *
+     * @param jobId 任务
+     */
+    public static List<RunningJobBatch> list(Long jobId) {
+        Map<Long, RunningJobBatch> batches = JOB_BATCHES.get(jobId);
+        if (Objects.isNull(batches)) {
+            return Collections.emptyList();
+        }
+
+        return batches.values().stream()
+                .sorted(Comparator.comparing(RunningJobBatch::taskBatchId))
+                .toList();
+    }
+
+    /**
+     * 所有登记的批次及登记时间
+     */
+    public static Map<Long, Long> getAll() {
+        Map<Long, Long> all = new HashMap<>();
+        JOB_BATCHES.values().forEach(batches ->
+                batches.forEach((taskBatchId, batch) -> all.put(taskBatchId, batch.registerAt())));
+        return all;
+    }
+
+    public static Set<Integer> getLoadedBuckets() {
+        return Set.copyOf(LOADED_BUCKETS);
+    }
+
+    /**
+     * bucket内的批次加载完成
+     */
+    public static void markLoaded(Collection<Integer> buckets) {
+        LOADED_BUCKETS.addAll(buckets);
+    }
+
+    /**
+     * 移除不再分配给当前节点的bucket
+     */
+    public static void retainBuckets(Collection<Integer> buckets) {
+        LOADED_BUCKETS.retainAll(buckets);
+    }
+
+    /**
+     * @param taskBatchId     任务批次
+     * @param taskBatchStatus 批次状态
+     * @param executionAt     执行时间
+     * @param registerAt      登记时间
+     */
+    public record RunningJobBatch(Long taskBatchId, Integer taskBatchStatus, Long executionAt, long registerAt) {
+    }
+}
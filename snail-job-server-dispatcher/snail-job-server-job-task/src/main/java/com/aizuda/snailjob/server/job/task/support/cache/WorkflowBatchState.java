@@ -0,0 +1,128 @@
+package com.aizuda.snailjob.server.job.task.support.cache;
+
+import com.aizuda.snailjob.common.core.enums.JobTaskBatchStatusEnum;
+import com.aizuda.snailjob.template.datasource.persistence.po.Job;
+import com.aizuda.snailjob.template.datasource.persistence.po.JobTaskBatch;
+import com.aizuda.snailjob.template.datasource.persistence.po.WorkflowNode;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * <p>
+ * 工作流批次的执行状态
+ * 批次开始时一次性加载DAG、节点及节点关联的任务, 节点批次的状态随本节点的批次生成与状态变更同步更新
+ * </p>
+ * 其他服务端节点也可能处理同一工作流批次的节点结果, 因此只有执行成功的节点批次被视为确定的结果(成功的批次不会再被重试),
+ * 其余状态在使用前需要以DB为准刷新
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class WorkflowBatchState {
+
+    @Getter
+    private final Long workflowTaskBatchId;
+    @Getter
+    private final WorkflowGraph graph;
+    private final Map<Long/*节点*/, WorkflowNode> workflowNodes;
+    private final Map<Long/*任务*/, Job> jobs;
+    private final Map<Long/*节点*/, Map<Long/*任务批次*/, JobTaskBatch>> nodeBatches = new ConcurrentHashMap<>();
+
+    public WorkflowBatchState(Long workflowTaskBatchId, WorkflowGraph graph, Map<Long, WorkflowNode> workflowNodes,
+                              Map<Long, Job> jobs) {
+        this.workflowTaskBatchId = workflowTaskBatchId;
+        this.graph = graph;
+        this.workflowNodes = Map.copyOf(workflowNodes);
+        this.jobs = Map.copyOf(jobs);
+    }
+
+    public WorkflowNode getWorkflowNode(Long nodeId) {
+        return workflowNodes.get(nodeId);
+    }
+
+    /**
+     * 按优先级排序的节点
+     *
+     * @param nodeIds 节点
+     * @return 存在的节点
+     */
+    public List<WorkflowNode> getWorkflowNodes(Collection<Long> nodeIds) {
+        List<WorkflowNode> nodes = new ArrayList<>(nodeIds.size());
+        for (Long nodeId : nodeIds) {
+            WorkflowNode workflowNode = workflowNodes.get(nodeId);
+            if (Objects.nonNull(workflowNode)) {
+                nodes.add(workflowNode);
+            }
+        }
+
+        nodes.sort(Comparator.comparing(WorkflowNode::getPriorityLevel, Comparator.nullsLast(Comparator.naturalOrder())));
+        return nodes;
+    }
+
+    public Map<Long, WorkflowNode> getWorkflowNodeMap() {
+        return workflowNodes;
+    }
+
+    public Job getJob(Long jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * 节点的所有批次都已执行成功
+     */
+    public boolean isSucceeded(Long nodeId) {
+        Map<Long, JobTaskBatch> batches = nodeBatches.get(nodeId);
+        return Objects.nonNull(batches) && !batches.isEmpty() && batches.values().stream()
+                .allMatch(batch -> JobTaskBatchStatusEnum.SUCCESS.getStatus() == batch.getTaskBatchStatus());
+    }
+
+    /**
+     * 节点的批次, 按批次id升序
+     */
+    public List<JobTaskBatch> getJobTaskBatches(Long nodeId) {
+        Map<Long, JobTaskBatch> batches = nodeBatches.get(nodeId);
+        return Objects.isNull(batches) ? new ArrayList<>() : new ArrayList<>(batches.values());
+    }
+
+    /**
+     * 生成批次或者批次状态发生变化
+     */
+    public void update(Long workflowNodeId, Long taskBatchId, Integer taskBatchStatus, Integer operationReason) {
+        if (Objects.isNull(workflowNodeId) || Objects.isNull(taskBatchId)) {
+            return;
+        }
+
+        Map<Long, JobTaskBatch> batches = nodeBatches.computeIfAbsent(workflowNodeId,
+                key -> new ConcurrentSkipListMap<>());
+        JobTaskBatch batch = batches.computeIfAbsent(taskBatchId, key -> {
+            JobTaskBatch jobTaskBatch = new JobTaskBatch();
+            jobTaskBatch.setId(taskBatchId);
+            jobTaskBatch.setWorkflowTaskBatchId(workflowTaskBatchId);
+            jobTaskBatch.setWorkflowNodeId(workflowNodeId);
+            return jobTaskBatch;
+        });
+
+        if (Objects.nonNull(taskBatchStatus)) {
+            batch.setTaskBatchStatus(taskBatchStatus);
+        }
+        if (Objects.nonNull(operationReason)) {
+            batch.setOperationReason(operationReason);
+        }
+    }
+
+    public void update(JobTaskBatch jobTaskBatch) {
+        update(jobTaskBatch.getWorkflowNodeId(), jobTaskBatch.getId(), jobTaskBatch.getTaskBatchStatus(),
+                jobTaskBatch.getOperationReason());
+    }
+
+    /**
+     * 缓存容量按节点数计算
+     */
+    int weight() {
+        return workflowNodes.size() + 1;
+    }
+}
@@ -0,0 +1,87 @@
+package com.aizuda.snailjob.server.job.task.support.cache;
+
+import com.aizuda.snailjob.template.datasource.persistence.po.JobTaskBatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 工作流批次执行状态缓存
+ * 批次开始处理时由 WorkflowBatchHandler 加载, 批次结束时移除, 过期或者节点故障转移后再次使用时由DB重建
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class WorkflowBatchStateCache {
+
+    /**
+     * 缓存的节点总数上限
+     */
+    private static final long MAX_WEIGHT = 100000;
+
+    private static final Cache<Long/*工作流批次*/, WorkflowBatchState> cache;
+
+    static {
+        cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(8) // 并发级别
+                .maximumWeight(MAX_WEIGHT)
+                .<Long, WorkflowBatchState>weigher((key, state) -> state.weight())
+                .expireAfterAccess(30, TimeUnit.MINUTES) // 长时间无访问则过期, 再次使用时由DB重建
+                .build();
+    }
+
+    public static WorkflowBatchState get(Long workflowTaskBatchId) {
+        if (Objects.isNull(workflowTaskBatchId)) {
+            return null;
+        }
+
+        return cache.getIfPresent(workflowTaskBatchId);
+    }
+
+    /**
+     * 并发加载时以先放入的为准
+     */
+    public static WorkflowBatchState putIfAbsent(WorkflowBatchState state) {
+        WorkflowBatchState existing = cache.asMap().putIfAbsent(state.getWorkflowTaskBatchId(), state);
+        return Objects.isNull(existing) ? state : existing;
+    }
+
+    public static void remove(Long workflowTaskBatchId) {
+        if (Objects.nonNull(workflowTaskBatchId)) {
+            cache.invalidate(workflowTaskBatchId);
+        }
+    }
+
+    /**
+     * 工作流节点的批次生成或者状态变化, 本节点没有该工作流批次的状态时不处理
+     * 存在事务时在提交后更新
+     */
+    public static void update(Long workflowTaskBatchId, Long workflowNodeId, Long taskBatchId,
+                              Integer taskBatchStatus, Integer operationReason) {
+        WorkflowBatchState state = get(workflowTaskBatchId);
+        if (Objects.isNull(state)) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    state.update(workflowNodeId, taskBatchId, taskBatchStatus, operationReason);
+                }
+            });
+        } else {
+            state.update(workflowNodeId, taskBatchId, taskBatchStatus, operationReason);
+        }
+    }
+
+    public static void update(JobTaskBatch jobTaskBatch) {
+        update(jobTaskBatch.getWorkflowTaskBatchId(), jobTaskBatch.getWorkflowNodeId(), jobTaskBatch.getId(),
+                jobTaskBatch.getTaskBatchStatus(), jobTaskBatch.getOperationReason());
+    }
+}
@@ -0,0 +1,153 @@
+package com.aizuda.snailjob.server.job.task.support.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.graph.Graph;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.ImmutableGraph;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * <p>
+ * 编译后的工作流DAG(不可变)
+ * 同一个工作流同一份流程图的所有批次共享一个实例, 叶子节点与每个节点的所有后代节点在构建时一次性计算好,
+ * 避免每次处理节点时递归遍历整张图
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public final class WorkflowGraph {
+
+    public static final WorkflowGraph EMPTY = new WorkflowGraph(GraphBuilder.directed().<Long>immutable().build());
+
+    @Getter
+    private final ImmutableGraph<Long> graph;
+
+    /**
+     * 叶子节点(没有后继节点的节点)
+     */
+    @Getter
+    private final List<Long> leaves;
+
+    /**
+     * 节点 -> 该节点的所有后代节点
+     */
+    private final Map<Long, Set<Long>> descendants;
+
+    private WorkflowGraph(ImmutableGraph<Long> graph) {
+        this.graph = graph;
+        this.leaves = computeLeaves(graph);
+        this.descendants = computeDescendants(graph);
+    }
+
+    public static WorkflowGraph of(Graph<Long> graph) {
+        if (Objects.isNull(graph)) {
+            return EMPTY;
+        }
+
+        return new WorkflowGraph(ImmutableGraph.copyOf(graph));
+    }
+
+    public Set<Long> nodes() {
+        return graph.nodes();
+    }
+
+    public Set<Long> successors(Long nodeId) {
+        return graph.nodes().contains(nodeId) ? graph.successors(nodeId) : Collections.emptySet();
+    }
+
+    public Set<Long> predecessors(Long nodeId) {
+        return graph.nodes().contains(nodeId) ? graph.predecessors(nodeId) : Collections.emptySet();
+    }
+
+    /**
+     * 获取节点的所有后代节点
+     *
+     * @param parentId 节点ID
+     * @return 后代节点, 节点不存在时返回空集合
+     */
+    public Set<Long> getAllDescendants(Long parentId) {
+        return descendants.getOrDefault(parentId, Collections.emptySet());
+    }
+
+    /**
+     * 获取兄弟节点(第一个前驱节点的所有后继节点, 包含自身)
+     *
+     * @param nodeId 节点ID
+     * @return 兄弟节点
+     */
+    public Set<Long> getBrotherNode(Long nodeId) {
+        Set<Long> predecessors = predecessors(nodeId);
+        if (predecessors.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        return graph.successors(predecessors.iterator().next());
+    }
+
+    private static List<Long> computeLeaves(ImmutableGraph<Long> graph) {
+        ImmutableList.Builder<Long> builder = ImmutableList.builder();
+        for (Long node : graph.nodes()) {
+            if (graph.outDegree(node) == 0) {
+                builder.add(node);
+            }
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * 按拓扑序的逆序计算后代节点, 每个节点的后代 = 所有后继节点 + 后继节点的后代
+     */
+    private static Map<Long, Set<Long>> computeDescendants(ImmutableGraph<Long> graph) {
+        List<Long> topologicalOrder = topologicalOrder(graph);
+        Map<Long, Set<Long>> result = new HashMap<>(graph.nodes().size());
+        for (int i = topologicalOrder.size() - 1; i >= 0; i--) {
+            Long node = topologicalOrder.get(i);
+            Set<Long> successors = graph.successors(node);
+            if (successors.isEmpty()) {
+                result.put(node, ImmutableSet.of());
+                continue;
+            }
+
+            ImmutableSet.Builder<Long> builder = ImmutableSet.builder();
+            for (Long successor : successors) {
+                builder.add(successor);
+                builder.addAll(result.getOrDefault(successor, ImmutableSet.of()));
+            }
+            result.put(node, builder.build());
+        }
+
+        return ImmutableMap.copyOf(result);
+    }
+
+    private static List<Long> topologicalOrder(ImmutableGraph<Long> graph) {
+        Map<Long, Integer> inDegree = new HashMap<>(graph.nodes().size());
+        Deque<Long> queue = new ArrayDeque<>();
+        for (Long node : graph.nodes()) {
+            int degree = graph.inDegree(node);
+            inDegree.put(node, degree);
+            if (degree == 0) {
+                queue.add(node);
+            }
+        }
+
+        List<Long> order = new ArrayList<>(graph.nodes().size());
+        while (!queue.isEmpty()) {
+            Long node = queue.poll();
+            order.add(node);
+            for (Long successor : graph.successors(node)) {
+                if (inDegree.merge(successor, -1, Integer::sum) == 0) {
+                    queue.add(successor);
+                }
+            }
+        }
+
+        return order;
+    }
+}
@@ -21,6 +21,9 @@ import com.aizuda.snailjob.server.job.task.dto.WorkflowNodeTaskExecuteDTO;
 import com.aizuda.snailjob.server.job.task.support.JobExecutor;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.alarm.event.JobTaskFailAlarmEvent;
+import com.aizuda.snailjob.server.job.task.support.cache.JobSummaryDirtyCache;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchStateCache;
 import com.aizuda.snailjob.server.job.task.support.executor.job.JobExecutorContext;
 import com.aizuda.snailjob.server.job.task.support.executor.job.JobExecutorFactory;
 import com.aizuda.snailjob.server.job.task.support.generator.task.JobTaskGenerateContext;
@@ -237,6 +240,16 @@ public class JobExecutorActor extends AbstractActor {
         jobTaskBatch.setOperationReason(operationReason);
         Assert.isTrue(1 == jobTaskBatchMapper.updateById(jobTaskBatch),
                 () -> new SnailJobServerException("Updating task failed"));
+        JobSummaryDirtyCache.mark(taskExecute.getTaskBatchId());
+        if (JobTaskBatchStatusEnum.COMPLETED.contains(taskStatus)) {
+            RunningJobBatchCache.complete(taskExecute.getTaskBatchId());
+        } else if (Objects.isNull(taskExecute.getWorkflowTaskBatchId())) {
+            // 待处理变为运行中, 准备阶段据此执行超时检查
+            RunningJobBatchCache.register(taskExecute.getJobId(), taskExecute.getTaskBatchId(),
+                    taskStatus, jobTaskBatch.getExecutionAt());
+        }
+        WorkflowBatchStateCache.update(taskExecute.getWorkflowTaskBatchId(), taskExecute.getWorkflowNodeId(),
+                taskExecute.getTaskBatchId(), taskStatus, operationReason);
 
         if (JobTaskBatchStatusEnum.NOT_SUCCESS.contains(taskStatus)) {
             SnailSpringContext.getContext().publishEvent(
@@ -7,9 +7,12 @@ import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.server.job.task.dto.CompleteJobBatchDTO;
+import com.aizuda.snailjob.server.job.task.dto.JobExecutorBatchResultDTO;
 import com.aizuda.snailjob.server.job.task.dto.JobExecutorResultDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
+import com.aizuda.snailjob.server.job.task.support.cache.JobTaskBatchProgressCache;
 import com.aizuda.snailjob.server.job.task.support.handler.JobTaskBatchHandler;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
@@ -19,7 +22,10 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 /**
  * @author opensnail
@@ -57,6 +63,7 @@ public class JobExecutorResultActor extends AbstractActor {
                 Assert.isTrue(1 == jobTaskMapper.update(jobTask,
                                 new LambdaUpdateWrapper<JobTask>().eq(JobTask::getId, result.getTaskId())),
                         () -> new SnailJobServerException("Updating task instance failed"));
+                JobTaskBatchProgressCache.refresh(result.getTaskBatchId(), result.getTaskId(), result.getTaskStatus());
 
                 // 除MAP和MAP_REDUCE 任务之外，其他任务都是叶子节点
                 if (Objects.nonNull(result.getIsLeaf()) && StatusEnum.NO.getStatus().equals(result.getIsLeaf())) {
@@ -70,6 +77,38 @@ public class JobExecutorResultActor extends AbstractActor {
                 getContext().stop(getSelf());
             }
 
+        }).match(JobExecutorBatchResultDTO.class, batchResult -> {
+            try {
+                // 按(任务批次, 状态)合并为一次更新, 每个任务批次只判断一次是否完成
+                Map<Long, Map<Integer, List<JobExecutorResultDTO>>> grouped = batchResult.getResults().stream()
+                        .collect(Collectors.groupingBy(JobExecutorResultDTO::getTaskBatchId,
+                                Collectors.groupingBy(JobExecutorResultDTO::getTaskStatus)));
+                grouped.forEach((taskBatchId, statusResults) -> {
+                    JobExecutorResultDTO leaf = null;
+                    for (Map.Entry<Integer, List<JobExecutorResultDTO>> entry : statusResults.entrySet()) {
+                        JobTask jobTask = new JobTask();
+                        jobTask.setTaskStatus(entry.getKey());
+                        jobTaskMapper.update(jobTask, new LambdaUpdateWrapper<JobTask>()
+                                .in(JobTask::getId, StreamUtils.toList(entry.getValue(), JobExecutorResultDTO::getTaskId)));
+
+                        for (JobExecutorResultDTO result : entry.getValue()) {
+                            JobTaskBatchProgressCache.refresh(taskBatchId, result.getTaskId(), result.getTaskStatus());
+                            if (!StatusEnum.NO.getStatus().equals(result.getIsLeaf())) {
+                                leaf = result;
+                            }
+                        }
+                    }
+
+                    // 除MAP和MAP_REDUCE 任务之外，其他任务都是叶子节点
+                    if (Objects.nonNull(leaf)) {
+                        tryCompleteAndStop(leaf);
+                    }
+                });
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.error(" job executor batch result exception. size:[{}]", batchResult.getResults().size(), e);
+            } finally {
+                getContext().stop(getSelf());
+            }
         }).build();
 
     }
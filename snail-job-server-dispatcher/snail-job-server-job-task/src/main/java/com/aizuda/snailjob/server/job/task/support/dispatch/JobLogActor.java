@@ -6,6 +6,8 @@ import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.dto.TaskLogFieldDTO;
 import com.aizuda.snailjob.server.common.dto.JobLogDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogRelay;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogTailHub;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
 import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
 import  org.apache.pekko.actor.AbstractActor;
@@ -32,6 +34,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JobLogActor extends AbstractActor {
     private final AccessTemplate accessTemplate;
+    private final JobLogRelay jobLogRelay;
 
     @Override
     public Receive createReceive() {
@@ -58,6 +61,8 @@ public class JobLogActor extends AbstractActor {
                         }
 
                         accessTemplate.getJobLogMessageAccess().insertBatch(jobLogMessageList);
+                        JobLogTailHub.publish(jobLogMessageList);
+                        jobLogRelay.forward(jobLogMessageList);
                     } catch (Exception e) {
                         log.error("Saving client logs failed.", e);
                     } finally {
@@ -82,5 +87,7 @@ public class JobLogActor extends AbstractActor {
         jobLogMessage.setMessage(Optional.ofNullable(jobLogDTO.getMessage()).orElse(StrUtil.EMPTY));
         jobLogMessage.setTaskId(Optional.ofNullable(jobLogMessage.getTaskId()).orElse(0L));
         accessTemplate.getJobLogMessageAccess().insert(jobLogMessage);
+        JobLogTailHub.publish(List.of(jobLogMessage));
+        jobLogRelay.forward(List.of(jobLogMessage));
     }
 }
@@ -3,11 +3,16 @@ package com.aizuda.snailjob.server.job.task.support.dispatch;
 import  org.apache.pekko.actor.AbstractActor;
 import cn.hutool.core.collection.CollUtil;
 import com.aizuda.snailjob.common.core.enums.JobTaskBatchStatusEnum;
+import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.enums.JobTaskExecutorSceneEnum;
 import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
 import com.aizuda.snailjob.server.job.task.dto.JobTaskPrepareDTO;
 import com.aizuda.snailjob.server.job.task.support.JobPrepareHandler;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache.RunningJobBatch;
+import com.aizuda.snailjob.server.job.task.support.timer.JobTimerTask;
+import com.aizuda.snailjob.server.job.task.support.timer.JobTimerWheel;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskBatchMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.JobTaskBatch;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
@@ -18,7 +23,10 @@ import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
+import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 import static com.aizuda.snailjob.common.core.enums.JobTaskBatchStatusEnum.NOT_COMPLETE;
 
@@ -51,22 +59,20 @@ public class JobTaskPrepareActor extends AbstractActor {
     }
 
     private void doPrepare(JobTaskPrepareDTO prepare) {
-        LambdaQueryWrapper<JobTaskBatch> queryWrapper = new LambdaQueryWrapper<JobTaskBatch>()
-                .eq(JobTaskBatch::getJobId, prepare.getJobId())
-                .in(JobTaskBatch::getTaskBatchStatus, NOT_COMPLETE);
-
         JobTaskExecutorSceneEnum jobTaskExecutorSceneEnum = JobTaskExecutorSceneEnum.get(
                 prepare.getTaskExecutorScene());
-        if (SyetemTaskTypeEnum.WORKFLOW.getType().equals(jobTaskExecutorSceneEnum.getSystemTaskType().getType())) {
-            queryWrapper.eq(JobTaskBatch::getWorkflowNodeId, prepare.getWorkflowNodeId());
-            queryWrapper.eq(JobTaskBatch::getWorkflowTaskBatchId, prepare.getWorkflowTaskBatchId());
-            queryWrapper.eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.WORKFLOW.getType());
-        } else {
-            queryWrapper.eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType());
+        boolean workflow = SyetemTaskTypeEnum.WORKFLOW.getType()
+                .equals(jobTaskExecutorSceneEnum.getSystemTaskType().getType());
+
+        List<JobTaskBatch> notCompleteJobTaskBatchList = null;
+        if (!workflow && RunningJobBatchCache.isOwned(prepare.getBucketIndex())) {
+            // 当前节点持有该任务, 按缓存的批次状态处理, 无需查询DB
+            notCompleteJobTaskBatchList = listCachedJobTaskBatch(prepare.getJobId());
         }
 
-        List<JobTaskBatch> notCompleteJobTaskBatchList = jobTaskBatchMapper
-                .selectList(queryWrapper);
+        if (Objects.isNull(notCompleteJobTaskBatchList)) {
+            notCompleteJobTaskBatchList = listNotCompleteJobTaskBatch(prepare, workflow);
+        }
 
         // 说明所以任务已经完成
         if (CollUtil.isEmpty(notCompleteJobTaskBatchList)) {
@@ -92,4 +98,49 @@ public class JobTaskPrepareActor extends AbstractActor {
             onlyTimeoutCheck = true;
         }
     }
+
+    /**
+     * 缓存的未完成批次
+     * 待处理的批次不在本节点的时间轮中时, 可能已在其他节点开始执行, 返回null以数据库为准
+     */
+    private static List<JobTaskBatch> listCachedJobTaskBatch(Long jobId) {
+        List<JobTaskBatch> jobTaskBatches = new ArrayList<>();
+        for (RunningJobBatch runningJobBatch : RunningJobBatchCache.list(jobId)) {
+            if (JobTaskBatchStatusEnum.WAITING.getStatus() == runningJobBatch.taskBatchStatus()
+                    && !JobTimerWheel.isExisted(MessageFormat.format(JobTimerTask.IDEMPOTENT_KEY_PREFIX, runningJobBatch.taskBatchId()))) {
+                return null;
+            }
+
+            JobTaskBatch jobTaskBatch = new JobTaskBatch();
+            jobTaskBatch.setId(runningJobBatch.taskBatchId());
+            jobTaskBatch.setTaskBatchStatus(runningJobBatch.taskBatchStatus());
+            jobTaskBatch.setExecutionAt(runningJobBatch.executionAt());
+            jobTaskBatches.add(jobTaskBatch);
+        }
+        return jobTaskBatches;
+    }
+
+    private List<JobTaskBatch> listNotCompleteJobTaskBatch(JobTaskPrepareDTO prepare, boolean workflow) {
+        LambdaQueryWrapper<JobTaskBatch> queryWrapper = new LambdaQueryWrapper<JobTaskBatch>()
+                .eq(JobTaskBatch::getJobId, prepare.getJobId())
+                .in(JobTaskBatch::getTaskBatchStatus, NOT_COMPLETE);
+
+        if (workflow) {
+            queryWrapper.eq(JobTaskBatch::getWorkflowNodeId, prepare.getWorkflowNodeId());
+            queryWrapper.eq(JobTaskBatch::getWorkflowTaskBatchId, prepare.getWorkflowTaskBatchId());
+            queryWrapper.eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.WORKFLOW.getType());
+            return jobTaskBatchMapper.selectList(queryWrapper);
+        }
+
+        queryWrapper.eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType());
+        long queryAt = System.currentTimeMillis();
+        List<JobTaskBatch> notCompleteJobTaskBatchList = jobTaskBatchMapper.selectList(queryWrapper);
+
+        // 移除在其他节点已完成的批次, 并以数据库的状态为准
+        RunningJobBatchCache.retain(prepare.getJobId(),
+                StreamUtils.toSet(notCompleteJobTaskBatchList, JobTaskBatch::getId), queryAt);
+        notCompleteJobTaskBatchList.forEach(jobTaskBatch -> RunningJobBatchCache.register(jobTaskBatch.getJobId(),
+                jobTaskBatch.getId(), jobTaskBatch.getTaskBatchStatus(), jobTaskBatch.getExecutionAt()));
+        return notCompleteJobTaskBatchList;
+    }
 }
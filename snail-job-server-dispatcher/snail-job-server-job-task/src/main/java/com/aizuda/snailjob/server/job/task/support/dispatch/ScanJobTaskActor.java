@@ -11,22 +11,20 @@ import com.aizuda.snailjob.server.common.WaitStrategy;
 import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.cache.CacheConsumerGroup;
 import com.aizuda.snailjob.server.common.config.SystemProperties;
-import com.aizuda.snailjob.server.common.dto.PartitionTask;
 import com.aizuda.snailjob.server.common.dto.ScanTask;
 import com.aizuda.snailjob.server.common.enums.JobTaskExecutorSceneEnum;
 import com.aizuda.snailjob.server.common.strategy.WaitStrategies;
 import com.aizuda.snailjob.server.common.util.DateUtils;
-import com.aizuda.snailjob.server.common.util.PartitionTaskUtils;
 import com.aizuda.snailjob.server.job.task.dto.JobPartitionTaskDTO;
 import com.aizuda.snailjob.server.job.task.dto.JobTaskPrepareDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.cache.ResidentTaskCache;
+import com.aizuda.snailjob.server.job.task.support.trigger.JobTriggerIndex;
+import com.aizuda.snailjob.server.job.task.support.trigger.RunningJobBatchLoader;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.GroupConfigMapper;
-import com.aizuda.snailjob.template.datasource.persistence.mapper.JobMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.GroupConfig;
-import com.aizuda.snailjob.template.datasource.persistence.po.Job;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.plugins.pagination.PageDTO;
+import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -36,12 +34,15 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
 /**
  * JOB任务扫描
+ * 待触发的任务由 {@link JobTriggerIndex} 在内存中维护
  *
  * @author: opensnail
  * @date : 2023-09-22 09:08
@@ -53,9 +54,10 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ScanJobTaskActor extends AbstractActor {
 
-    private final JobMapper jobMapper;
     private final SystemProperties systemProperties;
     private final GroupConfigMapper groupConfigMapper;
+    private final JobTriggerIndex jobTriggerIndex;
+    private final RunningJobBatchLoader runningJobBatchLoader;
 
     @Override
     public Receive createReceive() {
@@ -76,24 +78,49 @@ public class ScanJobTaskActor extends AbstractActor {
             return;
         }
 
-        long total = PartitionTaskUtils.process(startId -> listAvailableJobs(startId, scanTask),
-                this::processJobPartitionTasks, 0);
+        // 同步bucket分配及其他节点的修改, 稳态下不再扫描数据库
+        jobTriggerIndex.rebalance(scanTask.getBuckets());
+        jobTriggerIndex.reconcile();
+        runningJobBatchLoader.rebalance(scanTask.getBuckets());
+        runningJobBatchLoader.reconcile();
+
+        List<JobPartitionTaskDTO> dueJobs = jobTriggerIndex.pollDue(
+                DateUtils.toNowMilli() + DateUtils.toEpochMilli(SystemConstants.SCHEDULE_PERIOD));
+        List<JobPartitionTaskDTO> openJobs;
+        try {
+            openJobs = filterClosedGroups(dueJobs);
+        } catch (Exception e) {
+            // 放回索引等待下次扫描
+            jobTriggerIndex.requeue(dueJobs);
+            throw e;
+        }
+
+        try {
+            for (List<JobPartitionTaskDTO> partitionTasks : Lists.partition(openJobs,
+                    systemProperties.getJobPullPageSize())) {
+                processJobPartitionTasks(partitionTasks);
+            }
+        } finally {
+            jobTriggerIndex.flush();
+        }
 
-        log.debug("job scan end. total:[{}]", total);
+        log.debug("job scan end. total:[{}]", dueJobs.size());
     }
 
-    private void processJobPartitionTasks(List<? extends PartitionTask> partitionTasks) {
+    private void processJobPartitionTasks(List<JobPartitionTaskDTO> partitionTasks) {
 
-        List<Job> waitUpdateJobs = new ArrayList<>();
         List<JobTaskPrepareDTO> waitExecJobs = new ArrayList<>();
         long now = DateUtils.toNowMilli();
-        for (PartitionTask partitionTask : partitionTasks) {
-            processJob((JobPartitionTaskDTO) partitionTask, waitUpdateJobs, waitExecJobs, now);
+        for (JobPartitionTaskDTO partitionTask : partitionTasks) {
+            try {
+                processJob(partitionTask, waitExecJobs, now);
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.error("Failed to calculate next trigger time. jobId:[{}]", partitionTask.getId(), e);
+                // 放回索引等待下次扫描
+                jobTriggerIndex.requeue(Collections.singletonList(partitionTask));
+            }
         }
 
-        // 批量更新
-        jobMapper.updateBatchNextTriggerAtById(waitUpdateJobs);
-
         for (final JobTaskPrepareDTO waitExecJob : waitExecJobs) {
             // 执行预处理阶段
             ActorRef actorRef = ActorGenerator.jobTaskPrepareActor();
@@ -102,13 +129,9 @@ public class ScanJobTaskActor extends AbstractActor {
         }
     }
 
-    private void processJob(JobPartitionTaskDTO partitionTask, final List<Job> waitUpdateJobs,
-                            final List<JobTaskPrepareDTO> waitExecJobs, long now) {
+    private void processJob(JobPartitionTaskDTO partitionTask, final List<JobTaskPrepareDTO> waitExecJobs, long now) {
         CacheConsumerGroup.addOrUpdate(partitionTask.getGroupName(), partitionTask.getNamespaceId());
 
-        Job job = new Job();
-        job.setId(partitionTask.getId());
-
         boolean triggerTask = true;
         Long nextTriggerAt = ResidentTaskCache.get(partitionTask.getId());
         if (needCalculateNextTriggerTime(partitionTask)) {
@@ -124,14 +147,12 @@ public class ScanJobTaskActor extends AbstractActor {
             }
         }
 
-        job.setNextTriggerAt(nextTriggerAt);
-
-        waitUpdateJobs.add(job);
-
         if (triggerTask) {
             waitExecJobs.add(JobTaskConverter.INSTANCE.toJobTaskPrepare(partitionTask));
         }
 
+        jobTriggerIndex.reschedule(partitionTask, nextTriggerAt);
+
     }
 
     /**
@@ -158,36 +179,23 @@ public class ScanJobTaskActor extends AbstractActor {
         return waitStrategy.computeTriggerTime(waitStrategyContext);
     }
 
-    private List<JobPartitionTaskDTO> listAvailableJobs(Long startId, ScanTask scanTask) {
-        if (CollUtil.isEmpty(scanTask.getBuckets())) {
-            return Collections.emptyList();
+    /**
+     * 过滤已关闭的组, 已关闭组的任务保持原触发时间放回索引
+     */
+    private List<JobPartitionTaskDTO> filterClosedGroups(List<JobPartitionTaskDTO> dueJobs) {
+        if (CollUtil.isEmpty(dueJobs)) {
+            return dueJobs;
         }
 
-        List<Job> jobs = jobMapper.selectPage(new PageDTO<>(0, systemProperties.getJobPullPageSize(), Boolean.FALSE),
-                new LambdaQueryWrapper<Job>()
-                        .select(Job::getGroupName, Job::getNextTriggerAt, Job::getBlockStrategy, Job::getTriggerType,
-                                Job::getTriggerInterval, Job::getExecutorTimeout, Job::getTaskType, Job::getResident,
-                                Job::getId, Job::getNamespaceId)
-                        .eq(Job::getJobStatus, StatusEnum.YES.getStatus())
-                        .eq(Job::getDeleted, StatusEnum.NO.getStatus())
-                        .ne(Job::getTriggerType, SystemConstants.WORKFLOW_TRIGGER_TYPE)
-                        .in(Job::getBucketIndex, scanTask.getBuckets())
-                        .le(Job::getNextTriggerAt,
-                                DateUtils.toNowMilli() + DateUtils.toEpochMilli(SystemConstants.SCHEDULE_PERIOD))
-                        .ge(Job::getId, startId)
-                        .orderByAsc(Job::getId)
-        ).getRecords();
-
-        // 过滤已关闭的组
-        if (CollUtil.isNotEmpty(jobs)) {
-            List<String> groupConfigs = StreamUtils.toList(groupConfigMapper.selectList(new LambdaQueryWrapper<GroupConfig>()
-                            .select(GroupConfig::getGroupName)
-                            .eq(GroupConfig::getGroupStatus, StatusEnum.YES.getStatus())
-                            .in(GroupConfig::getGroupName, StreamUtils.toSet(jobs, Job::getGroupName))),
-                    GroupConfig::getGroupName);
-            jobs = jobs.stream().filter(job -> groupConfigs.contains(job.getGroupName())).collect(Collectors.toList());
-        }
+        Set<String> groupConfigs = StreamUtils.toSet(groupConfigMapper.selectList(new LambdaQueryWrapper<GroupConfig>()
+                        .select(GroupConfig::getGroupName)
+                        .eq(GroupConfig::getGroupStatus, StatusEnum.YES.getStatus())
+                        .in(GroupConfig::getGroupName, StreamUtils.toSet(dueJobs, JobPartitionTaskDTO::getGroupName))),
+                GroupConfig::getGroupName);
 
-        return JobTaskConverter.INSTANCE.toJobPartitionTasks(jobs);
+        Map<Boolean, List<JobPartitionTaskDTO>> partitioned = dueJobs.stream()
+                .collect(Collectors.partitioningBy(job -> groupConfigs.contains(job.getGroupName())));
+        jobTriggerIndex.requeue(partitioned.get(Boolean.FALSE));
+        return partitioned.get(Boolean.TRUE);
     }
 }
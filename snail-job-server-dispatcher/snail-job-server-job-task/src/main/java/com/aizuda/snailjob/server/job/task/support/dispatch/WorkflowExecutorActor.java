@@ -17,7 +17,8 @@ import com.aizuda.snailjob.server.job.task.dto.WorkflowTaskFailAlarmEventDTO;
 import com.aizuda.snailjob.server.job.task.support.WorkflowExecutor;
 import com.aizuda.snailjob.server.job.task.support.WorkflowTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.alarm.event.WorkflowTaskFailAlarmEvent;
-import com.aizuda.snailjob.server.job.task.support.cache.MutableGraphCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchState;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowGraph;
 import com.aizuda.snailjob.server.job.task.support.executor.workflow.WorkflowExecutorContext;
 import com.aizuda.snailjob.server.job.task.support.executor.workflow.WorkflowExecutorFactory;
 import com.aizuda.snailjob.server.job.task.support.handler.WorkflowBatchHandler;
@@ -28,7 +29,6 @@ import com.aizuda.snailjob.template.datasource.persistence.mapper.*;
 import com.aizuda.snailjob.template.datasource.persistence.po.*;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.google.common.collect.Sets;
-import com.google.common.graph.MutableGraph;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -58,10 +58,7 @@ import static com.aizuda.snailjob.common.core.enums.JobOperationReasonEnum.WORKF
 public class WorkflowExecutorActor extends AbstractActor {
 
     private final WorkflowTaskBatchMapper workflowTaskBatchMapper;
-    private final WorkflowNodeMapper workflowNodeMapper;
     private final WorkflowMapper workflowMapper;
-    private final JobMapper jobMapper;
-    private final JobTaskBatchMapper jobTaskBatchMapper;
     private final WorkflowBatchHandler workflowBatchHandler;
 
     @Override
@@ -90,7 +87,11 @@ public class WorkflowExecutorActor extends AbstractActor {
     }
 
     private void doExecutor(WorkflowNodeTaskExecuteDTO taskExecute) {
-        WorkflowTaskBatch workflowTaskBatch = workflowTaskBatchMapper.selectById(taskExecute.getWorkflowTaskBatchId());
+        // flowInfo等在批次执行期间不变的数据由执行状态提供, 这里只查询状态及上下文
+        WorkflowTaskBatch workflowTaskBatch = workflowTaskBatchMapper.selectOne(new LambdaQueryWrapper<WorkflowTaskBatch>()
+                .select(WorkflowTaskBatch::getId, WorkflowTaskBatch::getWorkflowId, WorkflowTaskBatch::getTaskBatchStatus,
+                        WorkflowTaskBatch::getWfContext, WorkflowTaskBatch::getVersion)
+                .eq(WorkflowTaskBatch::getId, taskExecute.getWorkflowTaskBatchId()));
         Assert.notNull(workflowTaskBatch, () -> new SnailJobServerException("Task does not exist"));
 
         if (SystemConstants.ROOT.equals(taskExecute.getParentId())
@@ -107,10 +108,10 @@ public class WorkflowExecutorActor extends AbstractActor {
         }
 
         // 获取DAG图
-        String flowInfo = workflowTaskBatch.getFlowInfo();
-        MutableGraph<Long> graph = MutableGraphCache.getOrDefault(workflowTaskBatch.getId(), flowInfo);
+        WorkflowBatchState batchState = workflowBatchHandler.getBatchState(workflowTaskBatch);
+        WorkflowGraph graph = batchState.getGraph();
 
-        Set<Long> brotherNode = MutableGraphCache.getBrotherNode(graph, taskExecute.getParentId());
+        Set<Long> brotherNode = graph.getBrotherNode(taskExecute.getParentId());
         Sets.SetView<Long> setView = Sets.union(brotherNode, Sets.newHashSet(taskExecute.getParentId()));
         // 查到当前节点【ParentId】的所有兄弟节点是否有后继节点，若有则不能直接完成任务
         Set<Long> allSuccessors = Sets.newHashSet();
@@ -134,21 +135,13 @@ public class WorkflowExecutorActor extends AbstractActor {
         }
 
         // 添加父节点，为了判断父节点的处理状态
-        List<JobTaskBatch> allJobTaskBatchList = jobTaskBatchMapper.selectList(new LambdaQueryWrapper<JobTaskBatch>()
-                .select(JobTaskBatch::getWorkflowTaskBatchId, JobTaskBatch::getWorkflowNodeId,
-                        JobTaskBatch::getTaskBatchStatus, JobTaskBatch::getOperationReason, JobTaskBatch::getId)
-                .eq(JobTaskBatch::getWorkflowTaskBatchId, workflowTaskBatch.getId())
-                .in(JobTaskBatch::getWorkflowNodeId,
-                        Sets.union(allSuccessors, Sets.newHashSet(taskExecute.getParentId())))
-        );
-
-        List<WorkflowNode> workflowNodes = workflowNodeMapper.selectList(new LambdaQueryWrapper<WorkflowNode>()
-                .in(WorkflowNode::getId, Sets.union(allSuccessors, Sets.newHashSet(taskExecute.getParentId())))
-                .orderByAsc(WorkflowNode::getPriorityLevel));
-
-        Map<Long, List<JobTaskBatch>> jobTaskBatchMap = StreamUtils.groupByKey(allJobTaskBatchList,
-                JobTaskBatch::getWorkflowNodeId);
-        Map<Long, WorkflowNode> workflowNodeMap = StreamUtils.toIdentityMap(workflowNodes, WorkflowNode::getId);
+        Set<Long> nodeIds = Sets.union(allSuccessors, Sets.newHashSet(taskExecute.getParentId()));
+        Map<Long, List<JobTaskBatch>> jobTaskBatchMap = workflowBatchHandler.listJobTaskBatches(batchState, nodeIds);
+        List<JobTaskBatch> allJobTaskBatchList = jobTaskBatchMap.values().stream()
+                .flatMap(List::stream).collect(Collectors.toList());
+
+        List<WorkflowNode> workflowNodes = batchState.getWorkflowNodes(nodeIds);
+        Map<Long, WorkflowNode> workflowNodeMap = batchState.getWorkflowNodeMap();
         List<JobTaskBatch> parentJobTaskBatchList = jobTaskBatchMap.get(taskExecute.getParentId());
 
         WorkflowNode parentWorkflowNode = workflowNodeMap.get(taskExecute.getParentId());
@@ -175,8 +168,6 @@ public class WorkflowExecutorActor extends AbstractActor {
                     StreamUtils.toSet(allJobTaskBatchList, JobTaskBatch::getId));
         }
 
-        List<Job> jobs = jobMapper.selectBatchIds(StreamUtils.toSet(workflowNodes, WorkflowNode::getJobId));
-        Map<Long, Job> jobMap = StreamUtils.toIdentityMap(jobs, Job::getId);
 
         // 只会条件节点会使用
         Object evaluationResult = null;
@@ -201,7 +192,7 @@ public class WorkflowExecutorActor extends AbstractActor {
             WorkflowExecutor workflowExecutor = WorkflowExecutorFactory.getWorkflowExecutor(workflowNode.getNodeType());
 
             WorkflowExecutorContext context = WorkflowTaskConverter.INSTANCE.toWorkflowExecutorContext(workflowNode);
-            context.setJob(jobMap.get(workflowNode.getJobId()));
+            context.setJob(batchState.getJob(workflowNode.getJobId()));
             context.setWorkflowTaskBatchId(taskExecute.getWorkflowTaskBatchId());
             context.setParentWorkflowNodeId(taskExecute.getParentId());
             context.setEvaluationResult(evaluationResult);
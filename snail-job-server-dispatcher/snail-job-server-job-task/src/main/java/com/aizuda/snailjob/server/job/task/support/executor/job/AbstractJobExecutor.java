@@ -2,10 +2,19 @@ package com.aizuda.snailjob.server.job.task.support.executor.job;
 
 import cn.hutool.core.collection.CollUtil;
 import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
+import com.aizuda.snailjob.server.job.task.dto.RealJobExecutorBatchDTO;
+import com.aizuda.snailjob.server.job.task.dto.RealJobExecutorDTO;
 import com.aizuda.snailjob.server.job.task.support.JobExecutor;
+import org.apache.pekko.actor.ActorRef;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * @author opensnail
  * @date 2023-10-03 22:13:04
@@ -24,6 +33,24 @@ public abstract class AbstractJobExecutor implements JobExecutor, InitializingBe
 
     protected abstract void doExecute(JobExecutorContext context);
 
+    /**
+     * 按客户端合并调度, 同一客户端的多个任务项通过一次请求下发
+     *
+     * @param realJobExecutors 待调度的任务项
+     */
+    protected void dispatch(List<RealJobExecutorDTO> realJobExecutors) {
+        Map<String, List<RealJobExecutorDTO>> clientExecutors = realJobExecutors.stream()
+                .collect(Collectors.groupingBy(RealJobExecutorDTO::getClientId, LinkedHashMap::new, Collectors.toList()));
+        for (List<RealJobExecutorDTO> executors : clientExecutors.values()) {
+            ActorRef actorRef = ActorGenerator.jobRealTaskExecutorActor();
+            if (executors.size() == 1) {
+                actorRef.tell(executors.get(0), actorRef);
+            } else {
+                actorRef.tell(new RealJobExecutorBatchDTO(executors), actorRef);
+            }
+        }
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         JobExecutorFactory.registerJobExecutor(getTaskInstanceType(), this);
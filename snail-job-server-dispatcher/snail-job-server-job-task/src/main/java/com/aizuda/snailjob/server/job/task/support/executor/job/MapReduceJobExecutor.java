@@ -1,15 +1,14 @@
 package com.aizuda.snailjob.server.job.task.support.executor.job;
 
-import  org.apache.pekko.actor.ActorRef;
 import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.common.core.enums.JobTaskTypeEnum;
-import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.util.ClientInfoUtils;
 import com.aizuda.snailjob.server.job.task.dto.RealJobExecutorDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -28,14 +27,16 @@ public class MapReduceJobExecutor extends AbstractJobExecutor  {
     @Override
     protected void doExecute(final JobExecutorContext context) {
         List<JobTask> taskList = context.getTaskList();
+        List<RealJobExecutorDTO> realJobExecutors = new ArrayList<>(taskList.size());
         for (final JobTask jobTask : taskList) {
             if (StrUtil.isBlank(jobTask.getClientInfo())) {
-                return;
+                break;
             }
             RealJobExecutorDTO realJobExecutor = JobTaskConverter.INSTANCE.toRealJobExecutorDTO(context, jobTask);
             realJobExecutor.setClientId(ClientInfoUtils.clientId(jobTask.getClientInfo()));
-            ActorRef actorRef = ActorGenerator.jobRealTaskExecutorActor();
-            actorRef.tell(realJobExecutor, actorRef);
+            realJobExecutors.add(realJobExecutor);
         }
+
+        dispatch(realJobExecutors);
     }
 }
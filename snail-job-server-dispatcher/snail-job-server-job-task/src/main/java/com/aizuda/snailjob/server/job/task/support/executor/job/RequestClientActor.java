@@ -9,25 +9,33 @@ import com.aizuda.snailjob.server.common.rpc.client.grpc.GrpcClientInvokeHandler
 import com.aizuda.snailjob.server.common.util.ClientInfoUtils;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.google.common.collect.Maps;
 import lombok.RequiredArgsConstructor;
 import org.apache.pekko.actor.AbstractActor;
 import org.apache.pekko.actor.ActorRef;
+import com.aizuda.snailjob.model.dto.DispatchJobAckDTO;
 import com.aizuda.snailjob.model.dto.ExecuteResult;
+import com.aizuda.snailjob.model.request.DispatchJobBatchRequest;
 import com.aizuda.snailjob.model.request.DispatchJobRequest;
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
 import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.enums.JobNotifySceneEnum;
 import com.aizuda.snailjob.common.core.enums.JobTaskStatusEnum;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.model.Result;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.dto.JobLogMetaDTO;
 import com.aizuda.snailjob.server.common.rpc.client.RequestBuilder;
 import com.aizuda.snailjob.server.common.util.DateUtils;
 import com.aizuda.snailjob.server.job.task.client.JobRpcClient;
+import com.aizuda.snailjob.server.job.task.dto.JobExecutorBatchResultDTO;
 import com.aizuda.snailjob.server.job.task.dto.JobExecutorResultDTO;
 import com.aizuda.snailjob.server.job.task.dto.JobTaskFailAlarmEventDTO;
+import com.aizuda.snailjob.server.job.task.dto.RealJobExecutorBatchDTO;
 import com.aizuda.snailjob.server.job.task.dto.RealJobExecutorDTO;
 import com.aizuda.snailjob.server.job.task.support.ClientCallbackHandler;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
@@ -42,8 +50,14 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.lang.reflect.UndeclaredThrowableException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * @author opensnail
@@ -55,6 +69,17 @@ import java.util.Objects;
 @Slf4j
 @RequiredArgsConstructor
 public class RequestClientActor extends AbstractActor {
+
+    /**
+     * 每次批量调度的最大任务项数量
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * 每次批量调度请求序列化后的最大字节数, 客户端gRPC默认的maxInboundMessageSize为10MB, 留出余量
+     */
+    private static final long MAX_BATCH_BYTES = 4 * 1024 * 1024;
+
     private final InstanceManager instanceManager;
     private final JobTaskMapper jobTaskMapper;
 
@@ -68,6 +93,14 @@ public class RequestClientActor extends AbstractActor {
             } finally {
                 getContext().stop(getSelf());
             }
+        }).match(RealJobExecutorBatchDTO.class, realJobExecutorBatchDTO -> {
+            try {
+                doBatchExecute(realJobExecutorBatchDTO.getRealJobExecutors());
+            } catch (Exception e) {
+                log.error("Client batch request exception occurred", e);
+            } finally {
+                getContext().stop(getSelf());
+            }
         }).build();
     }
 
@@ -100,62 +133,186 @@ public class RequestClientActor extends AbstractActor {
 
         try {
             // 构建请求客户端对象
-            JobRpcClient rpcClient = buildRpcClient(instanceLiveInfo, realJobExecutorDTO);
+            JobRpcClient rpcClient = buildRpcClient(instanceLiveInfo, realJobExecutorDTO,
+                    new JobExecutorRetryListener(realJobExecutorDTO, jobTaskMapper));
             Result<Boolean> dispatch = rpcClient.dispatch(dispatchJobRequest);
             if (dispatch.getStatus() == StatusEnum.YES.getStatus() && Objects.equals(dispatch.getData(), Boolean.TRUE)) {
                 SnailJobLog.LOCAL.info("Task ID:[{}] Task scheduled successfully.", realJobExecutorDTO.getTaskId());
             } else {
                 // 客户端返回失败，则认为任务执行失败
-                ClientCallbackHandler clientCallback = ClientCallbackFactory.getClientCallback(realJobExecutorDTO.getTaskType());
-                ClientCallbackContext context = JobTaskConverter.INSTANCE.toClientCallbackContext(realJobExecutorDTO);
-                context.setTaskStatus(JobTaskStatusEnum.FAIL.getStatus());
-                context.setExecuteResult(ExecuteResult.failure(null, dispatch.getMessage()));
-                clientCallback.callback(context);
+                clientCallbackFailure(realJobExecutorDTO, dispatch.getMessage());
             }
 
         } catch (Exception e) {
-            Throwable throwable;
-            if (e.getClass().isAssignableFrom(RetryException.class)) {
-                RetryException re = (RetryException) e;
-                throwable = re.getLastFailedAttempt().getExceptionCause();
-            } else if (e.getClass().isAssignableFrom(UndeclaredThrowableException.class)) {
-                UndeclaredThrowableException re = (UndeclaredThrowableException) e;
-                throwable = re.getUndeclaredThrowable();
-            } else {
-                throwable = e;
+            Throwable throwable = unwrap(e);
+            logDispatchFailure(realJobExecutorDTO, nowMilli, throwable);
+            taskExecuteFailure(realJobExecutorDTO, throwable.getMessage());
+            publishFailAlarm(realJobExecutorDTO.getTaskBatchId(), throwable.getMessage());
+        }
+
+    }
+
+    /**
+     * 同一客户端的多个任务项通过一次请求调度, 客户端按任务项逐个应答
+     * 按数量和序列化后的大小拆分请求, 避免超过客户端gRPC的maxInboundMessageSize
+     */
+    private void doBatchExecute(List<RealJobExecutorDTO> realJobExecutors) {
+        RealJobExecutorDTO first = realJobExecutors.get(0);
+        long nowMilli = DateUtils.toNowMilli();
+        InstanceLiveInfo instanceLiveInfo = instanceManager.getInstanceALiveInfoSet(InstanceKey.builder()
+                .namespaceId(first.getNamespaceId())
+                .groupName(first.getGroupName())
+                .hostId(first.getClientId())
+                .build());
+        if (Objects.isNull(instanceLiveInfo)) {
+            for (RealJobExecutorDTO realJobExecutorDTO : realJobExecutors) {
+                JobLogMetaDTO jobLogMetaDTO = JobTaskConverter.INSTANCE.toJobLogDTO(realJobExecutorDTO);
+                jobLogMetaDTO.setTimestamp(nowMilli);
+                SnailJobLog.REMOTE.error("Task ID:[{}] Task scheduling failed. Reason: No executable client <|>{}<|>",
+                        realJobExecutorDTO.getTaskId(), jobLogMetaDTO);
             }
+            batchTaskExecuteFailure(realJobExecutors, "Client does not exist");
+            return;
+        }
 
-            JobLogMetaDTO jobLogMetaDTO = JobTaskConverter.INSTANCE.toJobLogDTO(realJobExecutorDTO);
-            jobLogMetaDTO.setTimestamp(nowMilli);
-            if (realJobExecutorDTO.getRetryStatus()) {
-                SnailJobLog.REMOTE.error("Task ID:[{}] Task scheduling failed, executing retry. Retry count:[{}]. <|>{}<|>", jobLogMetaDTO.getTaskId(),
-                        realJobExecutorDTO.getRetryCount(), jobLogMetaDTO, throwable);
-            } else {
-                SnailJobLog.REMOTE.error("Task ID:[{}] Task scheduling failed. <|>{}<|>",
-                        jobLogMetaDTO.getTaskId(),
-                        jobLogMetaDTO, throwable);
+        List<RealJobExecutorDTO> chunk = new ArrayList<>();
+        List<DispatchJobRequest> requests = new ArrayList<>();
+        long chunkBytes = 0;
+        for (RealJobExecutorDTO realJobExecutorDTO : realJobExecutors) {
+            DispatchJobRequest dispatchJobRequest = JobTaskConverter.INSTANCE.toDispatchJobRequest(realJobExecutorDTO);
+            // 兼容历史客户端版本正式版本即可删除
+            dispatchJobRequest.setRetry(realJobExecutorDTO.getRetryStatus());
+            long bytes = JsonUtil.toJsonString(dispatchJobRequest).getBytes(StandardCharsets.UTF_8).length;
+            if (!chunk.isEmpty() && (chunk.size() >= MAX_BATCH_SIZE || chunkBytes + bytes > MAX_BATCH_BYTES)) {
+                doBatchExecute(instanceLiveInfo, chunk, requests, nowMilli);
+                chunk = new ArrayList<>();
+                requests = new ArrayList<>();
+                chunkBytes = 0;
             }
 
-            taskExecuteFailure(realJobExecutorDTO, throwable.getMessage());
-            SnailSpringContext.getContext().publishEvent(
-                    new JobTaskFailAlarmEvent(JobTaskFailAlarmEventDTO.builder()
-                            .jobTaskBatchId(dispatchJobRequest.getTaskBatchId())
-                            .reason(throwable.getMessage())
-                            .notifyScene(JobNotifySceneEnum.JOB_TASK_ERROR.getNotifyScene())
-                            .build()));
+            chunk.add(realJobExecutorDTO);
+            requests.add(dispatchJobRequest);
+            chunkBytes += bytes;
         }
 
+        doBatchExecute(instanceLiveInfo, chunk, requests, nowMilli);
+    }
+
+    private void doBatchExecute(InstanceLiveInfo instanceLiveInfo, List<RealJobExecutorDTO> realJobExecutors,
+                                List<DispatchJobRequest> requests, long nowMilli) {
+        if (!supportsBatchDispatch(instanceLiveInfo)) {
+            realJobExecutors.forEach(this::doExecute);
+            return;
+        }
+
+        RealJobExecutorDTO first = realJobExecutors.get(0);
+        DispatchJobBatchRequest batchRequest = new DispatchJobBatchRequest();
+        batchRequest.setDispatchJobs(requests);
+
+        try {
+            JobExecutorRetryListener retryListener = new JobExecutorRetryListener(realJobExecutors, jobTaskMapper);
+            JobRpcClient rpcClient = buildRpcClient(instanceLiveInfo, first, retryListener);
+            Result<List<DispatchJobAckDTO>> result = rpcClient.batchDispatch(batchRequest);
+
+            // 故障转移后实际应答的是新选择的客户端, 按它声明的能力判断
+            InstanceLiveInfo target = (InstanceLiveInfo) retryListener.properties()
+                    .getOrDefault(GrpcClientInvokeHandlerV2.NEW_INSTANCE_LIVE_INFO, instanceLiveInfo);
+            if (result.getStatus() == StatusEnum.NO.getStatus() && Objects.isNull(result.getData())
+                    && !supportsBatchDispatch(target)) {
+                // 响应中没有声明批量调度能力, 说明是没有批量调度接口的历史版本客户端, 退化为逐个调度
+                SnailJobLog.LOCAL.info("Batch dispatch unsupported, dispatching one by one. clientId:[{}] message:[{}]",
+                        target.getNodeInfo().getHostId(), result.getMessage());
+                realJobExecutors.forEach(realJobExecutorDTO -> {
+                    realJobExecutorDTO.setClientId(target.getNodeInfo().getHostId());
+                    doExecute(realJobExecutorDTO);
+                });
+                return;
+            }
+
+            Map<Long, DispatchJobAckDTO> acks = StreamUtils.toIdentityMap(
+                    Optional.ofNullable(result.getData()).orElse(Collections.emptyList()), DispatchJobAckDTO::getTaskId);
+            for (RealJobExecutorDTO realJobExecutorDTO : realJobExecutors) {
+                DispatchJobAckDTO ack = acks.get(realJobExecutorDTO.getTaskId());
+                if (Objects.nonNull(ack) && Boolean.TRUE.equals(ack.getAccepted())) {
+                    SnailJobLog.LOCAL.info("Task ID:[{}] Task scheduled successfully.", realJobExecutorDTO.getTaskId());
+                } else {
+                    clientCallbackFailure(realJobExecutorDTO,
+                            Objects.nonNull(ack) ? ack.getMessage() : result.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            Throwable throwable = unwrap(e);
+            for (RealJobExecutorDTO realJobExecutorDTO : realJobExecutors) {
+                logDispatchFailure(realJobExecutorDTO, nowMilli, throwable);
+            }
+            batchTaskExecuteFailure(realJobExecutors, throwable.getMessage());
+            publishFailAlarm(first.getTaskBatchId(), throwable.getMessage());
+        }
+    }
+
+    /**
+     * 尚未收到过该实例的响应时先尝试批量调度, 响应后按其声明的能力判断
+     */
+    private static boolean supportsBatchDispatch(InstanceLiveInfo instanceLiveInfo) {
+        Set<String> clientFeatures = instanceLiveInfo.getClientFeatures();
+        return Objects.isNull(clientFeatures) || clientFeatures.contains(SystemConstants.FEATURE_BATCH_DISPATCH);
+    }
+
+    private static Throwable unwrap(Exception e) {
+        if (e.getClass().isAssignableFrom(RetryException.class)) {
+            RetryException re = (RetryException) e;
+            return re.getLastFailedAttempt().getExceptionCause();
+        } else if (e.getClass().isAssignableFrom(UndeclaredThrowableException.class)) {
+            UndeclaredThrowableException re = (UndeclaredThrowableException) e;
+            return re.getUndeclaredThrowable();
+        }
+
+        return e;
+    }
+
+    private static void logDispatchFailure(RealJobExecutorDTO realJobExecutorDTO, long nowMilli, Throwable throwable) {
+        JobLogMetaDTO jobLogMetaDTO = JobTaskConverter.INSTANCE.toJobLogDTO(realJobExecutorDTO);
+        jobLogMetaDTO.setTimestamp(nowMilli);
+        if (realJobExecutorDTO.getRetryStatus()) {
+            SnailJobLog.REMOTE.error("Task ID:[{}] Task scheduling failed, executing retry. Retry count:[{}]. <|>{}<|>", jobLogMetaDTO.getTaskId(),
+                    realJobExecutorDTO.getRetryCount(), jobLogMetaDTO, throwable);
+        } else {
+            SnailJobLog.REMOTE.error("Task ID:[{}] Task scheduling failed. <|>{}<|>",
+                    jobLogMetaDTO.getTaskId(),
+                    jobLogMetaDTO, throwable);
+        }
+    }
+
+    private static void clientCallbackFailure(RealJobExecutorDTO realJobExecutorDTO, String message) {
+        ClientCallbackHandler clientCallback = ClientCallbackFactory.getClientCallback(realJobExecutorDTO.getTaskType());
+        ClientCallbackContext context = JobTaskConverter.INSTANCE.toClientCallbackContext(realJobExecutorDTO);
+        context.setTaskStatus(JobTaskStatusEnum.FAIL.getStatus());
+        context.setExecuteResult(ExecuteResult.failure(null, message));
+        clientCallback.callback(context);
+    }
+
+    private static void publishFailAlarm(Long taskBatchId, String reason) {
+        SnailSpringContext.getContext().publishEvent(
+                new JobTaskFailAlarmEvent(JobTaskFailAlarmEventDTO.builder()
+                        .jobTaskBatchId(taskBatchId)
+                        .reason(reason)
+                        .notifyScene(JobNotifySceneEnum.JOB_TASK_ERROR.getNotifyScene())
+                        .build()));
     }
 
     public static class JobExecutorRetryListener implements SnailJobRetryListener {
 
         private final Map<String, Object> properties;
-        private final RealJobExecutorDTO realJobExecutorDTO;
+        private final List<RealJobExecutorDTO> realJobExecutors;
         private final JobTaskMapper jobTaskMapper;
 
         public JobExecutorRetryListener(final RealJobExecutorDTO realJobExecutorDTO, JobTaskMapper jobTaskMapper) {
+            this(Collections.singletonList(realJobExecutorDTO), jobTaskMapper);
+        }
+
+        public JobExecutorRetryListener(final List<RealJobExecutorDTO> realJobExecutors, JobTaskMapper jobTaskMapper) {
             this.jobTaskMapper = jobTaskMapper;
-            this.realJobExecutorDTO = realJobExecutorDTO;
+            this.realJobExecutors = realJobExecutors;
             properties = Maps.newHashMap();
         }
 
@@ -168,14 +325,17 @@ public class RequestClientActor extends AbstractActor {
         public <V> void onRetry(final Attempt<V> attempt) {
             // 负载节点
             if (attempt.hasException()) {
-                JobLogMetaDTO jobLogMetaDTO = JobTaskConverter.INSTANCE.toJobLogDTO(realJobExecutorDTO);
-                jobLogMetaDTO.setTimestamp(DateUtils.toNowMilli());
-                SnailJobLog.REMOTE.error("Task scheduling failed attempt retry. Task instance ID:[{}] retryCount:[{}]. <|>{}<|>",
-                        realJobExecutorDTO.getTaskBatchId(), attempt.getAttemptNumber(), jobLogMetaDTO, attempt.getExceptionCause());
+                long nowMilli = DateUtils.toNowMilli();
+                for (RealJobExecutorDTO realJobExecutorDTO : realJobExecutors) {
+                    JobLogMetaDTO jobLogMetaDTO = JobTaskConverter.INSTANCE.toJobLogDTO(realJobExecutorDTO);
+                    jobLogMetaDTO.setTimestamp(nowMilli);
+                    SnailJobLog.REMOTE.error("Task scheduling failed attempt retry. Task instance ID:[{}] retryCount:[{}]. <|>{}<|>",
+                            realJobExecutorDTO.getTaskBatchId(), attempt.getAttemptNumber(), jobLogMetaDTO, attempt.getExceptionCause());
+                }
                 return;
             }
 
-            // 更新job_task数据
+            // 更新job_task数据, 同一请求中的任务项一次更新
             if (attempt.hasResult() && attempt.getAttemptNumber() > 1) {
                 Map<String, Object> properties = properties();
                 InstanceLiveInfo instanceLiveInfo = (InstanceLiveInfo) properties.get(GrpcClientInvokeHandlerV2.NEW_INSTANCE_LIVE_INFO);
@@ -183,15 +343,16 @@ public class RequestClientActor extends AbstractActor {
                     RegisterNodeInfo nodeInfo = instanceLiveInfo.getNodeInfo();
                     JobTask task = new JobTask();
                     task.setClientInfo(ClientInfoUtils.generate(nodeInfo));
-                    task.setId(realJobExecutorDTO.getTaskId());
                     task.setRetryCount((int) attempt.getAttemptNumber());
-                    jobTaskMapper.updateById(task);
+                    jobTaskMapper.update(task, new LambdaUpdateWrapper<JobTask>()
+                            .in(JobTask::getId, StreamUtils.toList(realJobExecutors, RealJobExecutorDTO::getTaskId)));
                 }
             }
         }
     }
 
-    private JobRpcClient buildRpcClient(InstanceLiveInfo registerNodeInfo, RealJobExecutorDTO realJobExecutorDTO) {
+    private JobRpcClient buildRpcClient(InstanceLiveInfo registerNodeInfo, RealJobExecutorDTO realJobExecutorDTO,
+                                        JobExecutorRetryListener retryListener) {
 
         int maxRetryTimes = realJobExecutorDTO.getMaxRetryTimes();
         boolean retry = realJobExecutorDTO.getRetryStatus();
@@ -203,12 +364,27 @@ public class RequestClientActor extends AbstractActor {
                 .failRetry(maxRetryTimes > 0 && !retry)
                 .retryTimes(maxRetryTimes)
                 .retryInterval(realJobExecutorDTO.getRetryInterval())
-                .retryListener(new JobExecutorRetryListener(realJobExecutorDTO, jobTaskMapper))
+                .retryListener(retryListener)
                 .client(JobRpcClient.class)
                 .targetLabels(realJobExecutorDTO.getLabels())
                 .build();
     }
 
+    /**
+     * 批量调度失败时一次交给结果Actor, 一次更新任务项状态并只判断一次批次是否完成
+     */
+    private static void batchTaskExecuteFailure(List<RealJobExecutorDTO> realJobExecutors, String message) {
+        List<JobExecutorResultDTO> results = StreamUtils.toList(realJobExecutors, realJobExecutorDTO -> {
+            JobExecutorResultDTO jobExecutorResultDTO = JobTaskConverter.INSTANCE.toJobExecutorResultDTO(realJobExecutorDTO);
+            jobExecutorResultDTO.setTaskStatus(JobTaskStatusEnum.FAIL.getStatus());
+            jobExecutorResultDTO.setMessage(message);
+            return jobExecutorResultDTO;
+        });
+
+        ActorRef actorRef = ActorGenerator.jobTaskExecutorResultActor();
+        actorRef.tell(new JobExecutorBatchResultDTO(results), actorRef);
+    }
+
     private static void taskExecuteFailure(RealJobExecutorDTO realJobExecutorDTO, String message) {
         ActorRef actorRef = ActorGenerator.jobTaskExecutorResultActor();
         JobExecutorResultDTO jobExecutorResultDTO = JobTaskConverter.INSTANCE.toJobExecutorResultDTO(realJobExecutorDTO);
@@ -1,9 +1,7 @@
 package com.aizuda.snailjob.server.job.task.support.executor.job;
 
-import  org.apache.pekko.actor.ActorRef;
 import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.common.core.enums.JobTaskTypeEnum;
-import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.util.ClientInfoUtils;
 import com.aizuda.snailjob.server.job.task.dto.RealJobExecutorDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
@@ -11,6 +9,7 @@ import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -30,18 +29,20 @@ public class ShardingJobExecutor extends AbstractJobExecutor {
     @Override
     protected void doExecute(JobExecutorContext context) {
         List<JobTask> taskList = context.getTaskList();
+        List<RealJobExecutorDTO> realJobExecutors = new ArrayList<>(taskList.size());
         for (int i = 0; i < taskList.size(); i++) {
             JobTask jobTask = taskList.get(i);
             if (StrUtil.isBlank(jobTask.getClientInfo())) {
-                return;
+                break;
             }
             RealJobExecutorDTO realJobExecutor = JobTaskConverter.INSTANCE.toRealJobExecutorDTO(context, jobTask);
             realJobExecutor.setClientId(ClientInfoUtils.clientId(jobTask.getClientInfo()));
             realJobExecutor.setShardingIndex(i);
             realJobExecutor.setShardingTotal(taskList.size());
-            ActorRef actorRef = ActorGenerator.jobRealTaskExecutorActor();
-            actorRef.tell(realJobExecutor, actorRef);
+            realJobExecutors.add(realJobExecutor);
         }
 
+        dispatch(realJobExecutors);
+
     }
 }
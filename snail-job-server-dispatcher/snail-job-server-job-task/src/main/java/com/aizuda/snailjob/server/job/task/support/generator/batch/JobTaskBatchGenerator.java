@@ -7,19 +7,24 @@ import com.aizuda.snailjob.common.core.enums.JobNotifySceneEnum;
 import com.aizuda.snailjob.common.core.enums.JobOperationReasonEnum;
 import com.aizuda.snailjob.common.core.enums.JobTaskBatchStatusEnum;
 import com.aizuda.snailjob.server.common.enums.JobTaskExecutorSceneEnum;
+import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.common.handler.InstanceManager;
 import com.aizuda.snailjob.server.common.util.DateUtils;
 import com.aizuda.snailjob.server.job.task.dto.JobTaskFailAlarmEventDTO;
 import com.aizuda.snailjob.server.job.task.dto.JobTimerTaskDTO;
+import com.aizuda.snailjob.server.job.task.dto.RunningJobBatchDTO;
 import com.aizuda.snailjob.server.job.task.dto.TaskExecuteDTO;
 import com.aizuda.snailjob.server.job.task.dto.WorkflowNodeTaskExecuteDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.alarm.event.JobTaskFailAlarmEvent;
+import com.aizuda.snailjob.server.job.task.support.cache.JobSummaryDirtyCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchStateCache;
 import com.aizuda.snailjob.server.job.task.support.handler.JobTaskBatchHandler;
 import com.aizuda.snailjob.server.job.task.support.handler.WorkflowBatchHandler;
 import com.aizuda.snailjob.server.job.task.support.timer.JobTimerTask;
 import com.aizuda.snailjob.server.job.task.support.timer.JobTimerWheel;
+import com.aizuda.snailjob.server.job.task.support.trigger.RunningJobBatchRelay;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskBatchMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.Job;
@@ -52,6 +57,7 @@ public class JobTaskBatchGenerator {
     private final JobTaskBatchHandler jobTaskBatchHandler;
     private final JobMapper jobMapper;
     private final InstanceManager instanceManager;
+    private final RunningJobBatchRelay runningJobBatchRelay;
 
     public JobTaskBatch generateJobTaskBatch(JobTaskBatchGeneratorContext context) {
 
@@ -77,10 +83,29 @@ public class JobTaskBatchGenerator {
             Assert.isTrue(1 == jobTaskBatchMapper.insert(jobTaskBatch), () -> new SnailJobServerException("Adding new scheduling task failed. Job ID:[{}]", context.getJobId()));
         } catch (DuplicateKeyException ignored) {
             // 忽略重复的DAG任务
-            return jobTaskBatchMapper.selectOne(new LambdaQueryWrapper<JobTaskBatch>()
+            JobTaskBatch existedJobTaskBatch = jobTaskBatchMapper.selectOne(new LambdaQueryWrapper<JobTaskBatch>()
                     .eq(JobTaskBatch::getWorkflowTaskBatchId, context.getWorkflowTaskBatchId())
                     .eq(JobTaskBatch::getWorkflowNodeId, context.getWorkflowNodeId())
             );
+            if (Objects.nonNull(existedJobTaskBatch)) {
+                WorkflowBatchStateCache.update(existedJobTaskBatch);
+            }
+            return existedJobTaskBatch;
+        }
+
+        // 同步工作流批次的执行状态
+        if (Objects.nonNull(jobTaskBatch.getWorkflowTaskBatchId())) {
+            WorkflowBatchStateCache.update(jobTaskBatch);
+        }
+
+        // 生成时即为终态的批次需要计入Dashboard
+        if (JobTaskBatchStatusEnum.COMPLETED.contains(jobTaskBatch.getTaskBatchStatus())) {
+            JobSummaryDirtyCache.mark(jobTaskBatch.getId());
+        } else if (SyetemTaskTypeEnum.JOB.getType().equals(jobTaskBatch.getSystemTaskType())) {
+            // 后续触发时据此判断是否存在未完成的批次
+            RunningJobBatchDTO runningJobBatch = JobTaskConverter.INSTANCE.toRunningJobBatchDTO(jobTaskBatch);
+            runningJobBatch.setBucketIndex(context.getBucketIndex());
+            runningJobBatchRelay.register(runningJobBatch);
         }
 
         // 无客户端节点-告警通知
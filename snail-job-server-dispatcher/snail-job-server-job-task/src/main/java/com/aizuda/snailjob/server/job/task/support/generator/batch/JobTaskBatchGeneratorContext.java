@@ -23,6 +23,11 @@ public class JobTaskBatchGeneratorContext {
      */
     private Long jobId;
 
+    /**
+     * 任务所属的bucket
+     */
+    private Integer bucketIndex;
+
     /**
      * 下次触发时间
      */
@@ -3,6 +3,7 @@ package com.aizuda.snailjob.server.job.task.support.generator.task;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.job.task.support.cache.JobTaskBatchProgressCache;
 import com.aizuda.snailjob.template.datasource.enums.DbTypeEnum;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
@@ -27,7 +28,10 @@ public abstract class AbstractJobTaskGenerator implements JobTaskGenerator, Init
 
     @Override
     public List<JobTask> generate(JobTaskGenerateContext context) {
-        return doGenerate(context);
+        List<JobTask> jobTasks = doGenerate(context);
+        // 登记批次进度, 后续结果上报只做增量计数
+        JobTaskBatchProgressCache.register(context.getTaskBatchId(), jobTasks);
+        return jobTasks;
     }
 
     protected abstract List<JobTask> doGenerate(JobTaskGenerateContext context);
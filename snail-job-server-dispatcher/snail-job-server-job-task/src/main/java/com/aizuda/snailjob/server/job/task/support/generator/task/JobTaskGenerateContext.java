@@ -58,4 +58,9 @@ public class JobTaskGenerateContext {
      * json格式，如：{"key1":"value1","key2":"value2"}
      */
     private String labels;
+
+    /**
+     * 任务项的扩展字段
+     */
+    private String extAttrs;
 }
@@ -202,6 +202,7 @@ public class MapReduceTaskGenerator extends AbstractJobTaskGenerator {
                 jobTask.setCreateDt(LocalDateTime.now());
                 jobTask.setUpdateDt(LocalDateTime.now());
                 jobTask.setResultMessage(Optional.ofNullable(jobTask.getResultMessage()).orElse(StrUtil.EMPTY));
+                jobTask.setExtAttrs(Optional.ofNullable(context.getExtAttrs()).orElse(StrUtil.EMPTY));
                 jobTasks.add(jobTask);
             }
 
@@ -23,13 +23,15 @@ import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.JobTaskStopHandler;
 import com.aizuda.snailjob.server.job.task.support.alarm.event.WorkflowTaskFailAlarmEvent;
 import com.aizuda.snailjob.server.job.task.support.cache.MutableGraphCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchState;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchStateCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowGraph;
 import com.aizuda.snailjob.server.job.task.support.stop.JobTaskStopFactory;
 import com.aizuda.snailjob.server.job.task.support.stop.TaskStopJobContext;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.github.rholder.retry.*;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.graph.MutableGraph;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.support.TransactionSynchronization;
@@ -64,13 +66,9 @@ public class WorkflowBatchHandler {
     private final JobTaskMapper jobTaskMapper;
     private final WorkflowNodeMapper workflowNodeMapper;
 
-    private boolean checkLeafCompleted(MutableGraph<Long> graph, Long leaf, Map<Long,
-            List<JobTaskBatch>> currentWorkflowNodeMap, Set<Long> parentIds) {
+    private boolean checkLeafCompleted(WorkflowGraph graph, Long leaf, Map<Long,
+            List<JobTaskBatch>> currentWorkflowNodeMap, Set<Long> parentIds, Map<Long, WorkflowNode> workflowNodeMap) {
 
-        List<WorkflowNode> workflowNodes = workflowNodeMapper.selectList(new LambdaQueryWrapper<WorkflowNode>()
-                .in(WorkflowNode::getId, graph.nodes()));
-
-        Map<Long, WorkflowNode> workflowNodeMap = StreamUtils.toIdentityMap(workflowNodes, WorkflowNode::getId);
         Map<Long, Boolean> leafCompletedMap = Maps.newHashMap();
         checkNeedProcess(graph, currentWorkflowNodeMap, parentIds, leafCompletedMap, workflowNodeMap);
 
@@ -98,7 +96,7 @@ public class WorkflowBatchHandler {
         return isNeedProcess;
     }
 
-    private static void checkNeedProcess(MutableGraph<Long> graph, Map<Long, List<JobTaskBatch>> currentWorkflowNodeMap,
+    private static void checkNeedProcess(WorkflowGraph graph, Map<Long, List<JobTaskBatch>> currentWorkflowNodeMap,
                                          Set<Long> parentIds,
                                          Map<Long, Boolean> leafCompletedMap,
                                          Map<Long, WorkflowNode> workflowNodeMap) {
@@ -144,37 +142,31 @@ public class WorkflowBatchHandler {
                 .orElseGet(() -> workflowTaskBatchMapper.selectById(workflowTaskBatchId));
         Assert.notNull(workflowTaskBatch, () -> new SnailJobServerException("Task does not exist"));
 
-        String flowInfo = workflowTaskBatch.getFlowInfo();
-        MutableGraph<Long> graph = MutableGraphCache.getOrDefault(workflowTaskBatchId, flowInfo);
+        WorkflowBatchState batchState = getBatchState(workflowTaskBatch);
+        WorkflowGraph graph = batchState.getGraph();
 
         // 说明没有后继节点了, 此时需要判断整个DAG是否全部执行完成
-        List<JobTaskBatch> jobTaskBatches = jobTaskBatchMapper.selectList(new LambdaQueryWrapper<JobTaskBatch>()
-                .eq(JobTaskBatch::getWorkflowTaskBatchId, workflowTaskBatch.getId())
-                .in(JobTaskBatch::getWorkflowNodeId, graph.nodes())
-        );
-
-        if (CollUtil.isEmpty(jobTaskBatches)) {
+        Map<Long, List<JobTaskBatch>> currentWorkflowNodeMap = listJobTaskBatches(batchState, graph.nodes());
+        if (currentWorkflowNodeMap.isEmpty()) {
             return false;
         }
 
-        if (jobTaskBatches.stream().anyMatch(
+        if (currentWorkflowNodeMap.values().stream().flatMap(List::stream).anyMatch(
                 jobTaskBatch -> JobTaskBatchStatusEnum.NOT_COMPLETE.contains(jobTaskBatch.getTaskBatchStatus()))) {
             return false;
         }
 
-        Map<Long, List<JobTaskBatch>> currentWorkflowNodeMap = StreamUtils.groupByKey(jobTaskBatches,
-                JobTaskBatch::getWorkflowNodeId);
-
         // 判定最后的工作流批次状态
         int taskStatus = JobTaskBatchStatusEnum.SUCCESS.getStatus();
         int operationReason = JobOperationReasonEnum.NONE.getReason();
 
         // 判定所有的叶子节点是否完成
-        List<Long> leaves = MutableGraphCache.getLeaves(workflowTaskBatchId, flowInfo);
+        List<Long> leaves = graph.getLeaves();
         for (Long leaf : leaves) {
             List<JobTaskBatch> jobTaskBatchList = currentWorkflowNodeMap.getOrDefault(leaf, Lists.newArrayList());
             if (CollUtil.isEmpty(jobTaskBatchList)) {
-                boolean isNeedProcess = checkLeafCompleted(graph, leaf, currentWorkflowNodeMap, graph.predecessors(leaf));
+                boolean isNeedProcess = checkLeafCompleted(graph, leaf, currentWorkflowNodeMap, graph.predecessors(leaf),
+                        batchState.getWorkflowNodeMap());
                 // 说明当前叶子节点需要处理，但是未处理返回false
                 if (isNeedProcess) {
                     return false;
@@ -208,11 +200,89 @@ public class WorkflowBatchHandler {
         }
 
         handlerTaskBatch(workflowTaskBatchId, taskStatus, operationReason);
+        WorkflowBatchStateCache.remove(workflowTaskBatchId);
 
         return true;
 
     }
 
+    /**
+     * 获取工作流批次的执行状态, 本节点不存在时(首次处理、缓存淘汰或者节点故障转移)从DB重建
+     *
+     * @param workflowTaskBatch 工作流批次(flowInfo为空时会通过id查询)
+     * @return 执行状态
+     */
+    public WorkflowBatchState getBatchState(WorkflowTaskBatch workflowTaskBatch) {
+        WorkflowBatchState batchState = WorkflowBatchStateCache.get(workflowTaskBatch.getId());
+        if (Objects.nonNull(batchState)) {
+            return batchState;
+        }
+
+        String flowInfo = workflowTaskBatch.getFlowInfo();
+        if (StrUtil.isBlank(flowInfo)) {
+            WorkflowTaskBatch flowInfoBatch = workflowTaskBatchMapper.selectOne(new LambdaQueryWrapper<WorkflowTaskBatch>()
+                    .select(WorkflowTaskBatch::getFlowInfo)
+                    .eq(WorkflowTaskBatch::getId, workflowTaskBatch.getId()));
+            Assert.notNull(flowInfoBatch, () -> new SnailJobServerException("Task does not exist"));
+            flowInfo = flowInfoBatch.getFlowInfo();
+        }
+
+        WorkflowGraph graph = MutableGraphCache.get(workflowTaskBatch.getWorkflowId(), flowInfo);
+        List<WorkflowNode> workflowNodes = workflowNodeMapper.selectList(new LambdaQueryWrapper<WorkflowNode>()
+                .in(WorkflowNode::getId, graph.nodes()));
+        Set<Long> jobIds = workflowNodes.stream().map(WorkflowNode::getJobId)
+                .filter(Objects::nonNull).collect(Collectors.toSet());
+        List<Job> jobs = CollUtil.isEmpty(jobIds) ? Collections.emptyList() : jobMapper.selectBatchIds(jobIds);
+
+        batchState = new WorkflowBatchState(workflowTaskBatch.getId(), graph,
+                StreamUtils.toIdentityMap(workflowNodes, WorkflowNode::getId), StreamUtils.toIdentityMap(jobs, Job::getId));
+        jobTaskBatchMapper.selectList(new LambdaQueryWrapper<JobTaskBatch>()
+                .select(JobTaskBatch::getId, JobTaskBatch::getWorkflowNodeId,
+                        JobTaskBatch::getTaskBatchStatus, JobTaskBatch::getOperationReason)
+                .eq(JobTaskBatch::getWorkflowTaskBatchId, workflowTaskBatch.getId())
+        ).forEach(batchState::update);
+
+        return WorkflowBatchStateCache.putIfAbsent(batchState);
+    }
+
+    /**
+     * 查询节点的任务批次
+     * 已执行成功的节点直接使用执行状态中的批次, 其余节点可能在其他服务端节点发生了变化, 以DB为准并同步到执行状态
+     *
+     * @param batchState 工作流批次的执行状态
+     * @param nodeIds    节点
+     * @return 节点的任务批次, 没有批次的节点不返回
+     */
+    public Map<Long, List<JobTaskBatch>> listJobTaskBatches(WorkflowBatchState batchState, Collection<Long> nodeIds) {
+        Map<Long, List<JobTaskBatch>> jobTaskBatchMap = Maps.newHashMap();
+        Set<Long> unsettledNodeIds = new HashSet<>();
+        for (Long nodeId : nodeIds) {
+            if (batchState.isSucceeded(nodeId)) {
+                jobTaskBatchMap.put(nodeId, batchState.getJobTaskBatches(nodeId));
+            } else {
+                unsettledNodeIds.add(nodeId);
+            }
+        }
+
+        if (CollUtil.isEmpty(unsettledNodeIds)) {
+            return jobTaskBatchMap;
+        }
+
+        List<JobTaskBatch> jobTaskBatches = jobTaskBatchMapper.selectList(new LambdaQueryWrapper<JobTaskBatch>()
+                .select(JobTaskBatch::getWorkflowTaskBatchId, JobTaskBatch::getWorkflowNodeId,
+                        JobTaskBatch::getTaskBatchStatus, JobTaskBatch::getOperationReason, JobTaskBatch::getId)
+                .eq(JobTaskBatch::getWorkflowTaskBatchId, batchState.getWorkflowTaskBatchId())
+                .in(JobTaskBatch::getWorkflowNodeId, unsettledNodeIds)
+                .orderByAsc(JobTaskBatch::getId)
+        );
+        for (JobTaskBatch jobTaskBatch : jobTaskBatches) {
+            batchState.update(jobTaskBatch);
+            jobTaskBatchMap.computeIfAbsent(jobTaskBatch.getWorkflowNodeId(), k -> new ArrayList<>()).add(jobTaskBatch);
+        }
+
+        return jobTaskBatchMap;
+    }
+
     private void handlerTaskBatch(Long workflowTaskBatchId, int taskStatus, int operationReason) {
 
         WorkflowTaskBatch jobTaskBatch = new WorkflowTaskBatch();
@@ -236,6 +306,7 @@ public class WorkflowBatchHandler {
         Assert.isTrue(1 == workflowTaskBatchMapper.updateById(workflowTaskBatch),
                 () -> new SnailJobServerException("Stopping workflow batch failed. ID:[{}]",
                         workflowTaskBatchId));
+        WorkflowBatchStateCache.remove(workflowTaskBatchId);
 
         SnailSpringContext.getContext().publishEvent(new WorkflowTaskFailAlarmEvent(WorkflowTaskFailAlarmEventDTO.builder()
                 .workflowTaskBatchId(workflowTaskBatchId)
@@ -284,7 +355,7 @@ public class WorkflowBatchHandler {
                 .orElseGet(() -> workflowTaskBatchMapper.selectById(workflowTaskBatchId));
         Assert.notNull(workflowTaskBatch, () -> new SnailJobServerException("Task does not exist"));
         String flowInfo = workflowTaskBatch.getFlowInfo();
-        MutableGraph<Long> graph = MutableGraphCache.getOrDefault(workflowTaskBatchId, flowInfo);
+        WorkflowGraph graph = MutableGraphCache.get(workflowTaskBatch.getWorkflowId(), flowInfo);
         Set<Long> successors = graph.successors(SystemConstants.ROOT);
         if (CollUtil.isEmpty(successors)) {
             return;
@@ -301,7 +372,7 @@ public class WorkflowBatchHandler {
         recoveryWorkflowExecutor(SystemConstants.ROOT, workflowTaskBatchId, graph, jobTaskBatchMap);
     }
 
-    private void recoveryWorkflowExecutor(Long parentId, Long workflowTaskBatchId, MutableGraph<Long> graph, Map<Long, JobTaskBatch> jobTaskBatchMap) {
+    private void recoveryWorkflowExecutor(Long parentId, Long workflowTaskBatchId, WorkflowGraph graph, Map<Long, JobTaskBatch> jobTaskBatchMap) {
 
         // 判定条件节点是否已经执行完成
         JobTaskBatch parentJobTaskBatch = jobTaskBatchMap.get(parentId);
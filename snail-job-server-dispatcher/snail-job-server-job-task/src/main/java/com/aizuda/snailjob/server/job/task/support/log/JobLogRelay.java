@@ -0,0 +1,208 @@
+package com.aizuda.snailjob.server.job.task.support.log;
+
+import cn.hutool.core.collection.CollUtil;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.model.Result;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.dto.InstanceLiveInfo;
+import com.aizuda.snailjob.server.common.handler.InstanceManager;
+import com.aizuda.snailjob.server.common.handler.ServerMembership;
+import com.aizuda.snailjob.server.common.register.ServerRegister;
+import com.aizuda.snailjob.server.common.rpc.client.RequestBuilder;
+import com.aizuda.snailjob.server.job.task.client.JobLogRpcClient;
+import com.aizuda.snailjob.server.job.task.dto.JobLogTopicSyncDTO;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * <p>
+ * 服务端节点之间转发任务日志
+ * 客户端的日志可能上报到任意节点, 控制台的订阅只在打开日志的节点上.
+ * 订阅方定期把本节点订阅的(任务批次, 任务)同步给其他节点, 其他节点保存日志后按订阅直接转发, 不需要定时查询数据库
+ * </p>
+ * <ul>
+ *     <li>订阅同步失败或集群成员发生变化时, 期间其他节点保存的日志可能没有转发过来, 通知订阅从数据库补偿一次</li>
+ *     <li>对端超过有效期未续约的订阅视为已取消</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class JobLogRelay implements Lifecycle {
+
+    /**
+     * 同步订阅的间隔
+     */
+    private static final long SYNC_INTERVAL_MILLIS = 10_000L;
+
+    /**
+     * 对端订阅的有效期
+     */
+    private static final long REMOTE_TOPIC_TTL_MILLIS = 3 * SYNC_INTERVAL_MILLIS;
+
+    private final InstanceManager instanceManager;
+    private final ServerMembership serverMembership;
+    private final ConcurrentHashMap<String/*hostId*/, RemoteTopics> remoteTopics = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor relayExecutor = new ThreadPoolExecutor(2, 4, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(1000), new CustomizableThreadFactory("sj-log-relay-"));
+    private ScheduledExecutorService syncExecutor;
+    private Set<String> peerHostIds = Set.of();
+    private boolean syncedEmpty = true;
+
+    /**
+     * 本节点的订阅发生变化后立即同步给其他节点
+     */
+    public void syncTopicsNow() {
+        try {
+            relayExecutor.execute(this::syncTopics);
+        } catch (RejectedExecutionException e) {
+            SnailJobLog.LOCAL.warn("Job log relay is busy, topics will be synced in next round");
+        }
+    }
+
+    /**
+     * 转发本节点保存的日志给订阅了这些日志的其他节点
+     *
+     * @param messages 日志
+     */
+    public void forward(List<JobLogMessageDO> messages) {
+        if (remoteTopics.isEmpty() || CollUtil.isEmpty(messages)) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<String, InstanceLiveInfo> peers = peers();
+        remoteTopics.forEach((hostId, remote) -> {
+            if (remote.expireAt() < now) {
+                remoteTopics.remove(hostId, remote);
+                return;
+            }
+
+            List<JobLogMessageDO> matched = messages.stream()
+                    .filter(message -> remote.topics().getOrDefault(message.getTaskBatchId(), Set.of())
+                            .contains(message.getTaskId()))
+                    .toList();
+            if (matched.isEmpty()) {
+                return;
+            }
+
+            InstanceLiveInfo peer = peers.get(hostId);
+            if (Objects.isNull(peer)) {
+                return;
+            }
+
+            try {
+                relayExecutor.execute(() -> push(peer, matched));
+            } catch (RejectedExecutionException e) {
+                // 丢弃的日志在订阅结束前由数据库补偿
+                SnailJobLog.LOCAL.warn("Job log relay is busy, dropped [{}] messages. hostId:[{}]", matched.size(), hostId);
+            }
+        });
+    }
+
+    /**
+     * 收到其他节点同步的订阅
+     *
+     * @param topicSyncDTO 对端的全部订阅
+     */
+    public void onRemoteTopics(JobLogTopicSyncDTO topicSyncDTO) {
+        if (CollUtil.isEmpty(topicSyncDTO.getTopics())) {
+            remoteTopics.remove(topicSyncDTO.getHostId());
+            return;
+        }
+
+        remoteTopics.put(topicSyncDTO.getHostId(), new RemoteTopics(topicSyncDTO.getTopics(),
+                System.currentTimeMillis() + REMOTE_TOPIC_TTL_MILLIS));
+    }
+
+    private synchronized void syncTopics() {
+        Map<String, InstanceLiveInfo> peers = peers();
+        boolean membershipChanged = !peers.keySet().equals(peerHostIds);
+        peerHostIds = Set.copyOf(peers.keySet());
+
+        Map<Long, Set<Long>> topics = JobLogTailHub.topics();
+        // 没有订阅时只需要通知一次, 对端的订阅会过期
+        if (topics.isEmpty() && syncedEmpty) {
+            return;
+        }
+        syncedEmpty = topics.isEmpty();
+
+        JobLogTopicSyncDTO topicSyncDTO = new JobLogTopicSyncDTO();
+        topicSyncDTO.setHostId(ServerRegister.CURRENT_CID);
+        topicSyncDTO.setTopics(topics);
+
+        boolean failed = false;
+        for (InstanceLiveInfo peer : peers.values()) {
+            try {
+                Result<Boolean> result = buildRpcClient(peer).syncTopics(topicSyncDTO);
+                failed |= StatusEnum.NO.getStatus() == result.getStatus();
+            } catch (Exception e) {
+                failed = true;
+                SnailJobLog.LOCAL.warn("Failed to sync job log topics. hostId:[{}]", peer.getNodeInfo().getHostId(), e);
+            }
+        }
+
+        if (!topics.isEmpty() && (membershipChanged || failed)) {
+            JobLogTailHub.requestCatchUp();
+        }
+    }
+
+    private void push(InstanceLiveInfo peer, List<JobLogMessageDO> messages) {
+        try {
+            buildRpcClient(peer).push(messages);
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.warn("Failed to forward job logs. hostId:[{}]", peer.getNodeInfo().getHostId(), e);
+        }
+    }
+
+    /**
+     * 心跳判定存活的其他服务端节点
+     */
+    private Map<String, InstanceLiveInfo> peers() {
+        return instanceManager.getInstanceALiveInfoSet(ServerRegister.NAMESPACE_ID, ServerRegister.GROUP_NAME)
+                .stream()
+                .filter(info -> !ServerRegister.CURRENT_CID.equals(info.getNodeInfo().getHostId()))
+                .filter(info -> serverMembership.isAlive(info.getNodeInfo().getHostId()))
+                .collect(Collectors.toMap(info -> info.getNodeInfo().getHostId(), info -> info, (a, b) -> a));
+    }
+
+    private static JobLogRpcClient buildRpcClient(InstanceLiveInfo info) {
+        return RequestBuilder.<JobLogRpcClient, Result>newBuilder()
+                .nodeInfo(info)
+                .client(JobLogRpcClient.class)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        syncExecutor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "sj-log-relay-sync"));
+        syncExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                syncTopics();
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.error("Job log topic sync failed", e);
+            }
+        }, SYNC_INTERVAL_MILLIS, SYNC_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(syncExecutor)) {
+            syncExecutor.shutdownNow();
+        }
+        relayExecutor.shutdown();
+    }
+
+    private record RemoteTopics(Map<Long, Set<Long>> topics, long expireAt) {
+    }
+}
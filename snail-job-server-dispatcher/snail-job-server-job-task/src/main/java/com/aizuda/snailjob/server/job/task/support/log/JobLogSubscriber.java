@@ -0,0 +1,262 @@
+package com.aizuda.snailjob.server.job.task.support.log;
+
+import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.common.log.constant.LogFieldConstants;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * 一个websocket会话对任务日志的订阅
+ * 推送的日志先进入有界缓冲区, 缓冲区满时丢弃最旧的日志, 由投递线程串行发送保证顺序
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public final class JobLogSubscriber {
+
+    /**
+     * 每个会话缓冲的最大日志行数
+     */
+    private static final int BUFFER_SIZE = 2048;
+
+    @Getter
+    private final String sid;
+    @Getter
+    private final Long taskBatchId;
+    @Getter
+    private final Long taskId;
+    private final Consumer<String> sink;
+    private final Executor executor;
+    private final Deque<String> buffer = new ArrayDeque<>();
+    /**
+     * 已发送日志的id及上报时间, 用于推送与数据库补偿查询之间的去重
+     */
+    private final Map<Long/*id*/, Long/*realTime*/> deliveredIds = new HashMap<>();
+    /**
+     * 未回填id的已发送日志(如批量插入时数据库未返回主键), 按内容去重, 数据库中读到同一条日志后转为按id去重
+     */
+    private final Map<String, Long/*realTime*/> deliveredContents = new HashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean catchUpRequested = new AtomicBoolean(false);
+    private volatile boolean started;
+    private volatile boolean closed;
+    private String endMessage;
+    private long dropped;
+
+    /**
+     * 数据库补偿查询的游标(已读取的最大上报时间)
+     */
+    @Getter
+    private volatile long cursor;
+
+    JobLogSubscriber(String sid, Long taskBatchId, Long taskId, Consumer<String> sink, Executor executor) {
+        this.sid = sid;
+        this.taskBatchId = taskBatchId;
+        this.taskId = taskId;
+        this.sink = sink;
+        this.executor = executor;
+    }
+
+    public boolean matches(Long taskBatchId, Long taskId) {
+        return !closed && Objects.equals(this.taskBatchId, taskBatchId) && Objects.equals(this.taskId, taskId);
+    }
+
+    /**
+     * 订阅生效前直接发送数据库中的历史日志, 期间推送的新日志暂存在缓冲区
+     *
+     * @param messages 历史日志
+     */
+    public void replay(List<JobLogMessageDO> messages) {
+        for (JobLogMessageDO message : messages) {
+            cursor = Math.max(cursor, Optional.ofNullable(message.getRealTime()).orElse(0L));
+            if (markDelivered(message)) {
+                toLines(message).forEach(sink);
+            }
+        }
+    }
+
+    /**
+     * 开始投递缓冲区中的日志
+     */
+    public void start() {
+        started = true;
+        scheduleDrain();
+    }
+
+    /**
+     * 追加日志(推送或数据库补偿查询)
+     *
+     * @param messages 日志
+     * @param fromDb   是否来自数据库查询, 用于推进补偿查询游标
+     */
+    public void offer(List<JobLogMessageDO> messages, boolean fromDb) {
+        if (closed) {
+            return;
+        }
+
+        for (JobLogMessageDO message : messages) {
+            if (fromDb) {
+                cursor = Math.max(cursor, Optional.ofNullable(message.getRealTime()).orElse(0L));
+            }
+
+            if (!markDelivered(message)) {
+                continue;
+            }
+
+            List<String> lines = toLines(message);
+            synchronized (buffer) {
+                for (String line : lines) {
+                    if (buffer.size() >= BUFFER_SIZE) {
+                        buffer.pollFirst();
+                        dropped++;
+                    }
+                    buffer.offerLast(line);
+                }
+            }
+        }
+
+        scheduleDrain();
+    }
+
+    /**
+     * 发送完缓冲区中的日志后发送结束标识并取消订阅
+     */
+    public void end(String endMessage) {
+        synchronized (buffer) {
+            this.endMessage = endMessage;
+        }
+        started = true;
+        scheduleDrain();
+    }
+
+    /**
+     * 转发的日志可能有遗漏(如集群成员变化), 请求下次检查时从数据库补偿一次
+     */
+    void requestCatchUp() {
+        catchUpRequested.set(true);
+    }
+
+    /**
+     * 获取并清除补偿请求
+     *
+     * @return 是否需要从数据库补偿
+     */
+    public boolean takeCatchUpRequest() {
+        return catchUpRequested.getAndSet(false);
+    }
+
+    /**
+     * 补偿查询不会再读取到的日志不需要再参与去重
+     *
+     * @param beforeRealTime 下次补偿查询的起始上报时间
+     */
+    public void prune(long beforeRealTime) {
+        synchronized (deliveredIds) {
+            deliveredIds.values().removeIf(realTime -> realTime < beforeRealTime);
+            deliveredContents.values().removeIf(realTime -> realTime < beforeRealTime);
+        }
+    }
+
+    void close() {
+        closed = true;
+        synchronized (buffer) {
+            buffer.clear();
+        }
+    }
+
+    private void scheduleDrain() {
+        if (started && draining.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!closed) {
+                String line;
+                boolean end = false;
+                synchronized (buffer) {
+                    line = buffer.pollFirst();
+                    if (Objects.isNull(line) && Objects.nonNull(endMessage)) {
+                        line = endMessage;
+                        end = true;
+                    }
+
+                    if (dropped > 0) {
+                        SnailJobLog.LOCAL.warn("Log subscriber buffer overflow, dropped [{}] lines. sid:[{}] taskBatchId:[{}]",
+                                dropped, sid, taskBatchId);
+                        dropped = 0;
+                    }
+                }
+
+                if (Objects.isNull(line)) {
+                    break;
+                }
+
+                sink.accept(line);
+                if (end) {
+                    JobLogTailHub.unsubscribe(this);
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.warn("Failed to push logs, cancel subscription. sid:[{}]", sid, e);
+            JobLogTailHub.unsubscribe(this);
+            return;
+        } finally {
+            draining.set(false);
+        }
+
+        // 释放标识后可能又有新的日志进入
+        boolean pending;
+        synchronized (buffer) {
+            pending = !closed && (!buffer.isEmpty() || Objects.nonNull(endMessage));
+        }
+        if (pending) {
+            scheduleDrain();
+        }
+    }
+
+    private boolean markDelivered(JobLogMessageDO message) {
+        long realTime = Optional.ofNullable(message.getRealTime()).orElse(0L);
+        String contentKey = message.getTaskId() + StrUtil.COLON + realTime + StrUtil.COLON + message.getMessage();
+        synchronized (deliveredIds) {
+            if (Objects.isNull(message.getId())) {
+                return Objects.isNull(deliveredContents.putIfAbsent(contentKey, realTime));
+            }
+
+            if (Objects.nonNull(deliveredIds.putIfAbsent(message.getId(), realTime))) {
+                return false;
+            }
+
+            // 之前推送时还没有id
+            return deliveredContents.isEmpty() || Objects.isNull(deliveredContents.remove(contentKey));
+        }
+    }
+
+    private static List<String> toLines(JobLogMessageDO message) {
+        if (StrUtil.isBlank(message.getMessage())) {
+            return Collections.emptyList();
+        }
+
+        List<Map<String, String>> logContents = JsonUtil.parseObject(message.getMessage(), List.class);
+        if (Objects.isNull(logContents)) {
+            return Collections.emptyList();
+        }
+
+        return logContents.stream()
+                .sorted(Comparator.comparingLong(o -> Long.parseLong(o.get(LogFieldConstants.TIME_STAMP))))
+                .map(JsonUtil::toJsonString)
+                .toList();
+    }
+}
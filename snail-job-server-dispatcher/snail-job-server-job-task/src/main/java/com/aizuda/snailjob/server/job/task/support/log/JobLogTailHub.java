@@ -0,0 +1,141 @@
+package com.aizuda.snailjob.server.job.task.support.log;
+
+import cn.hutool.core.collection.CollUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * 任务日志订阅中心
+ * 控制台打开日志时按(任务批次, 任务)订阅, JobLogActor 保存日志后直接推送给订阅的会话, 不再需要定时轮询数据库
+ * </p>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public final class JobLogTailHub {
+
+    private static final ConcurrentHashMap<String/*sid*/, JobLogSubscriber> SUBSCRIBERS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<TopicKey, Set<JobLogSubscriber>> TOPICS = new ConcurrentHashMap<>();
+
+    /**
+     * 投递线程, 每个订阅同一时刻最多只有一个投递任务
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(4, 4, 10, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), new CustomizableThreadFactory("sj-log-tail-"));
+
+    private JobLogTailHub() {
+    }
+
+    /**
+     * 订阅任务日志, 同一会话只保留最后一次订阅
+     *
+     * @param sid         会话id
+     * @param taskBatchId 任务批次
+     * @param taskId      任务
+     * @param sink        日志发送方式
+     * @return 订阅
+     */
+    public static JobLogSubscriber subscribe(String sid, Long taskBatchId, Long taskId, Consumer<String> sink) {
+        JobLogSubscriber subscriber = new JobLogSubscriber(sid, taskBatchId, taskId, sink, EXECUTOR);
+        JobLogSubscriber previous = SUBSCRIBERS.put(sid, subscriber);
+        if (Objects.nonNull(previous)) {
+            removeTopic(previous);
+        }
+
+        TOPICS.compute(new TopicKey(taskBatchId, taskId), (key, subscribers) -> {
+            Set<JobLogSubscriber> result = Objects.isNull(subscribers) ? ConcurrentHashMap.newKeySet() : subscribers;
+            result.add(subscriber);
+            return result;
+        });
+        SnailJobLog.LOCAL.debug("Subscribe job log. sid:[{}] taskBatchId:[{}] taskId:[{}]", sid, taskBatchId, taskId);
+        return subscriber;
+    }
+
+    public static JobLogSubscriber get(String sid) {
+        return SUBSCRIBERS.get(sid);
+    }
+
+    /**
+     * 会话关闭时取消订阅
+     */
+    public static void unsubscribe(String sid) {
+        JobLogSubscriber subscriber = SUBSCRIBERS.remove(sid);
+        if (Objects.nonNull(subscriber)) {
+            removeTopic(subscriber);
+        }
+    }
+
+    static void unsubscribe(JobLogSubscriber subscriber) {
+        SUBSCRIBERS.remove(subscriber.getSid(), subscriber);
+        removeTopic(subscriber);
+    }
+
+    /**
+     * 推送新保存的日志
+     *
+     * @param messages 日志
+     */
+    public static void publish(List<JobLogMessageDO> messages) {
+        if (TOPICS.isEmpty() || CollUtil.isEmpty(messages)) {
+            return;
+        }
+
+        Map<TopicKey, List<JobLogMessageDO>> grouped = new HashMap<>();
+        for (JobLogMessageDO message : messages) {
+            TopicKey key = new TopicKey(message.getTaskBatchId(), message.getTaskId());
+            if (TOPICS.containsKey(key)) {
+                grouped.computeIfAbsent(key, k -> new ArrayList<>()).add(message);
+            }
+        }
+
+        grouped.forEach((key, list) -> {
+            list.sort(Comparator.comparing(JobLogMessageDO::getRealTime, Comparator.nullsFirst(Comparator.naturalOrder())));
+            for (JobLogSubscriber subscriber : TOPICS.getOrDefault(key, Collections.emptySet())) {
+                subscriber.offer(list, false);
+            }
+        });
+    }
+
+    /**
+     * 本节点订阅的(任务批次, 任务)
+     *
+     * @return taskBatchId -> taskIds
+     */
+    public static Map<Long, Set<Long>> topics() {
+        Map<Long, Set<Long>> topics = new HashMap<>();
+        for (TopicKey key : TOPICS.keySet()) {
+            if (Objects.nonNull(key.taskBatchId()) && Objects.nonNull(key.taskId())) {
+                topics.computeIfAbsent(key.taskBatchId(), k -> new HashSet<>()).add(key.taskId());
+            }
+        }
+        return topics;
+    }
+
+    /**
+     * 通知所有订阅下次检查时从数据库补偿
+     */
+    public static void requestCatchUp() {
+        SUBSCRIBERS.values().forEach(JobLogSubscriber::requestCatchUp);
+    }
+
+    private static void removeTopic(JobLogSubscriber subscriber) {
+        subscriber.close();
+        TOPICS.computeIfPresent(new TopicKey(subscriber.getTaskBatchId(), subscriber.getTaskId()), (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private record TopicKey(Long taskBatchId, Long taskId) {
+    }
+}
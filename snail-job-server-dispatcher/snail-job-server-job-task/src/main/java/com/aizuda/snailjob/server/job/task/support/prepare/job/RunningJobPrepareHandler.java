@@ -14,6 +14,8 @@ import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.JobTaskStopHandler;
 import com.aizuda.snailjob.server.job.task.support.block.job.BlockStrategyContext;
 import com.aizuda.snailjob.server.job.task.support.block.job.JobBlockStrategyFactory;
+import com.aizuda.snailjob.server.job.task.support.cache.JobTaskBatchProgressCache;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache;
 import com.aizuda.snailjob.server.job.task.support.handler.JobTaskBatchHandler;
 import com.aizuda.snailjob.server.job.task.support.stop.JobTaskStopFactory;
 import com.aizuda.snailjob.server.job.task.support.stop.TaskStopJobContext;
@@ -50,7 +52,11 @@ public class RunningJobPrepareHandler extends AbstractJobPrepareHandler {
         CompleteJobBatchDTO completeJobBatchDTO = JobTaskConverter.INSTANCE.completeJobBatchDTO(prepare);
         completeJobBatchDTO.setJobOperationReason(jobOperationReasonEnum.getReason());
         completeJobBatchDTO.setRetryStatus(Boolean.FALSE);
+        // 兜底检查以DB为准, 丢弃本节点可能不完整的批次进度(例如部分结果由其他节点处理)
+        JobTaskBatchProgressCache.remove(prepare.getTaskBatchId());
         if (jobTaskBatchHandler.handleResult(completeJobBatchDTO)) {
+            // 批次可能已在其他节点完成
+            RunningJobBatchCache.complete(prepare.getTaskBatchId());
             blockStrategy = JobBlockStrategyEnum.CONCURRENCY.getBlockStrategy();
         } else {
             // 计算超时时间
@@ -33,8 +33,8 @@ import static com.aizuda.snailjob.server.common.register.ClientRegister.DELAY_TI
 public class GetRegNodesPostHttpRequestHandler extends GetHttpRequestHandler {
     private final InstanceManager instanceManager;
     @Override
-    public boolean supports(String path) {
-        return GET_REG_NODES_AND_REFRESH.equals(path);
+    public String path() {
+        return GET_REG_NODES_AND_REFRESH;
     }
 
     @Override
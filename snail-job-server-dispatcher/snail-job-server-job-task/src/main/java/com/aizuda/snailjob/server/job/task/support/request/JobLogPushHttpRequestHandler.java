@@ -0,0 +1,52 @@
+package com.aizuda.snailjob.server.job.task.support.request;
+
+import cn.hutool.core.net.url.UrlQuery;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.model.SnailJobRequest;
+import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.handler.PostHttpRequestHandler;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogTailHub;
+import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_LOG_PUSH;
+
+/**
+ * 接收其他服务端节点转发的任务日志, 推送给本节点的订阅
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+public class JobLogPushHttpRequestHandler extends PostHttpRequestHandler {
+
+    @Override
+    public String path() {
+        return JOB_LOG_PUSH;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return HttpMethod.POST;
+    }
+
+    @Override
+    public SnailJobRpcResult doHandler(String content, UrlQuery query, HttpHeaders headers) {
+        SnailJobLog.LOCAL.debug("Job log push. content:[{}]", content);
+
+        SnailJobRequest retryRequest = JsonUtil.parseObject(content, SnailJobRequest.class);
+        Object[] args = retryRequest.getArgs();
+
+        List<JobLogMessageDO> messages = JsonUtil.parseList(JsonUtil.toJsonString(args[0]), JobLogMessageDO.class);
+        JobLogTailHub.publish(messages);
+
+        return new SnailJobRpcResult(StatusEnum.YES.getStatus(), "success", Boolean.TRUE, retryRequest.getReqId());
+    }
+}
@@ -0,0 +1,53 @@
+package com.aizuda.snailjob.server.job.task.support.request;
+
+import cn.hutool.core.net.url.UrlQuery;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.model.SnailJobRequest;
+import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.handler.PostHttpRequestHandler;
+import com.aizuda.snailjob.server.job.task.dto.JobLogTopicSyncDTO;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogRelay;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.JOB_LOG_TOPIC_SYNC;
+
+/**
+ * 接收其他服务端节点同步的任务日志订阅
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class JobLogTopicSyncHttpRequestHandler extends PostHttpRequestHandler {
+    private final JobLogRelay jobLogRelay;
+
+    @Override
+    public String path() {
+        return JOB_LOG_TOPIC_SYNC;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return HttpMethod.POST;
+    }
+
+    @Override
+    public SnailJobRpcResult doHandler(String content, UrlQuery query, HttpHeaders headers) {
+        SnailJobLog.LOCAL.debug("Job log topic sync. content:[{}]", content);
+
+        SnailJobRequest retryRequest = JsonUtil.parseObject(content, SnailJobRequest.class);
+        Object[] args = retryRequest.getArgs();
+
+        JobLogTopicSyncDTO topicSyncDTO = JsonUtil.parseObject(JsonUtil.toJsonString(args[0]), JobLogTopicSyncDTO.class);
+        jobLogRelay.onRemoteTopics(topicSyncDTO);
+
+        return new SnailJobRpcResult(StatusEnum.YES.getStatus(), "success", Boolean.TRUE, retryRequest.getReqId());
+    }
+}
@@ -3,6 +3,7 @@ package com.aizuda.snailjob.server.job.task.support.request;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.net.url.UrlQuery;
+import cn.hutool.core.util.StrUtil;
 import com.aizuda.snailjob.model.request.MapTaskRequest;
 import com.aizuda.snailjob.common.core.constant.SystemConstants;
 import com.aizuda.snailjob.common.core.enums.JobTaskTypeEnum;
@@ -22,8 +23,11 @@ import com.aizuda.snailjob.server.job.task.support.executor.job.JobExecutorFacto
 import com.aizuda.snailjob.server.job.task.support.generator.task.JobTaskGenerateContext;
 import com.aizuda.snailjob.server.job.task.support.generator.task.JobTaskGenerator;
 import com.aizuda.snailjob.server.job.task.support.generator.task.JobTaskGeneratorFactory;
+import com.aizuda.snailjob.server.job.task.dto.JobTaskExtAttrsDTO;
+import com.aizuda.snailjob.server.job.task.support.handler.DistributedLockHandler;
 import com.aizuda.snailjob.server.job.task.support.handler.JobTaskBatchHandler;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobMapper;
+import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.WorkflowTaskBatchMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.Job;
 import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
@@ -34,8 +38,12 @@ import io.netty.handler.codec.http.HttpMethod;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.text.MessageFormat;
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
@@ -48,13 +56,19 @@ import java.util.Objects;
 @Component
 @RequiredArgsConstructor
 public  class MapTaskPostHttpRequestHandler extends PostHttpRequestHandler {
+
+    private static final String CHUNK_LOCK_KEY = "map_chunk_{0}_{1}";
+    private static final int MAX_MAP_ID_LENGTH = 64;
+
     private final WorkflowTaskBatchMapper workflowTaskBatchMapper;
     private final JobMapper jobMapper;
+    private final JobTaskMapper jobTaskMapper;
     private final JobTaskBatchHandler jobTaskBatchHandler;
+    private final DistributedLockHandler distributedLockHandler;
 
     @Override
-    public boolean supports(final String path) {
-        return SystemConstants.HTTP_PATH.BATCH_REPORT_JOB_MAP_TASK.equals(path);
+    public String path() {
+        return SystemConstants.HTTP_PATH.BATCH_REPORT_JOB_MAP_TASK;
     }
 
     @Override
@@ -64,7 +78,7 @@ public  class MapTaskPostHttpRequestHandler extends PostHttpRequestHandler {
 
     @Override
     public SnailJobRpcResult doHandler(final String content, final UrlQuery query, final HttpHeaders headers) {
-        SnailJobLog.LOCAL.info("map task Request. content:[{}]", content);
+        SnailJobLog.LOCAL.debug("map task Request. content:[{}]", content);
         String groupName = HttpHeaderUtil.getGroupName(headers);
         String namespace = HttpHeaderUtil.getNamespace(headers);
 
@@ -95,6 +109,46 @@ public  class MapTaskPostHttpRequestHandler extends PostHttpRequestHandler {
                     retryRequest.getReqId());
         }
 
+        if (StrUtil.isBlank(mapTaskRequest.getMapId()) || Objects.isNull(mapTaskRequest.getChunkSeq())) {
+            // 旧版本客户端一次上报全部子任务, 不需要去重
+            return doHandlerMapChunk(retryRequest, mapTaskRequest, job, namespace, groupName, null);
+        }
+
+        if (mapTaskRequest.getMapId().length() > MAX_MAP_ID_LENGTH) {
+            return new SnailJobRpcResult(StatusEnum.NO.getStatus(), "Map id is too long", Boolean.FALSE,
+                    retryRequest.getReqId());
+        }
+
+        // 分批上报时按批次序号去重: 批次的任务项在ext_attrs中记录(mapId, chunkSeq)并与任务项在同一事务中入库,
+        // 客户端超时重试的批次可能落到其他服务端节点, 通过分布式锁串行化检查与入库
+        JobTaskExtAttrsDTO extAttrs = new JobTaskExtAttrsDTO();
+        extAttrs.setMapId(mapTaskRequest.getMapId());
+        extAttrs.setChunkSeq(mapTaskRequest.getChunkSeq());
+        String chunkMark = JsonUtil.toJsonString(extAttrs);
+
+        AtomicReference<SnailJobRpcResult> result = new AtomicReference<>();
+        String lockName = RegisterJobExecutorsHttpRequestHandler.processLockName(
+                MessageFormat.format(CHUNK_LOCK_KEY, String.valueOf(mapTaskRequest.getTaskBatchId()), mapTaskRequest.getMapId()));
+        distributedLockHandler.lockWithDisposableAndRetry(() -> {
+            boolean processed = jobTaskMapper.selectCount(new LambdaQueryWrapper<JobTask>()
+                    .eq(JobTask::getTaskBatchId, mapTaskRequest.getTaskBatchId())
+                    .eq(JobTask::getParentId, mapTaskRequest.getParentId())
+                    .eq(JobTask::getExtAttrs, chunkMark)) > 0;
+            if (processed) {
+                result.set(new SnailJobRpcResult(StatusEnum.YES.getStatus(), "Map task chunk already processed",
+                        Boolean.TRUE, retryRequest.getReqId()));
+                return;
+            }
+
+            result.set(doHandlerMapChunk(retryRequest, mapTaskRequest, job, namespace, groupName, chunkMark));
+        }, lockName, Duration.ofSeconds(30), Duration.ofSeconds(1), 10);
+
+        return Optional.ofNullable(result.get()).orElseGet(() -> new SnailJobRpcResult(StatusEnum.NO.getStatus(),
+                "Map task chunk processing failed", Boolean.FALSE, retryRequest.getReqId()));
+    }
+
+    private SnailJobRpcResult doHandlerMapChunk(SnailJobRequest retryRequest, MapTaskRequest mapTaskRequest, Job job,
+                                                String namespace, String groupName, String extAttrs) {
         String argStr = jobTaskBatchHandler.getArgStr(mapTaskRequest.getTaskBatchId(), job);
 
         // 创建map任务
@@ -106,10 +160,10 @@ public  class MapTaskPostHttpRequestHandler extends PostHttpRequestHandler {
         context.setMrStage(MapReduceStageEnum.MAP.getStage());
         context.setMapSubTask(mapTaskRequest.getSubTask());
         context.setWfContext(mapTaskRequest.getWfContext());
+        context.setExtAttrs(extAttrs);
         List<JobTask> taskList = taskInstance.generate(context);
         if (CollUtil.isEmpty(taskList)) {
-            return new SnailJobRpcResult(StatusEnum.NO.getStatus(), "Job task is empty", Boolean.FALSE,
-                    retryRequest.getReqId());
+            throw new SnailJobServerException("Job task is empty");
         }
 
         String newWfContext = null;
@@ -43,8 +43,8 @@ public class RegisterJobExecutorsHttpRequestHandler extends GetHttpRequestHandle
     private final AccessTemplate accessTemplate;
 
     @Override
-    public boolean supports(String path) {
-        return HTTP_PATH.REGISTER_JOB_EXECUTORS.equals(path);
+    public String path() {
+        return HTTP_PATH.REGISTER_JOB_EXECUTORS;
     }
 
     @Override
@@ -28,8 +28,8 @@ import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH
 public class ReportDispatchResultPostHttpRequestHandler extends PostHttpRequestHandler {
 
     @Override
-    public boolean supports(String path) {
-        return REPORT_JOB_DISPATCH_RESULT.equals(path);
+    public String path() {
+        return REPORT_JOB_DISPATCH_RESULT;
     }
 
     @Override
@@ -0,0 +1,54 @@
+package com.aizuda.snailjob.server.job.task.support.request;
+
+import cn.hutool.core.net.url.UrlQuery;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.model.SnailJobRequest;
+import com.aizuda.snailjob.common.core.model.SnailJobRpcResult;
+import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.handler.PostHttpRequestHandler;
+import com.aizuda.snailjob.server.job.task.dto.RunningJobBatchDTO;
+import com.aizuda.snailjob.server.job.task.support.trigger.RunningJobBatchRelay;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpMethod;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH.RUNNING_JOB_BATCH_REGISTER;
+
+/**
+ * 接收其他服务端节点生成或重试的未完成批次, 本节点持有该任务的bucket时登记
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RunningJobBatchRegisterHttpRequestHandler extends PostHttpRequestHandler {
+
+    private final RunningJobBatchRelay runningJobBatchRelay;
+
+    @Override
+    public String path() {
+        return RUNNING_JOB_BATCH_REGISTER;
+    }
+
+    @Override
+    public HttpMethod method() {
+        return HttpMethod.POST;
+    }
+
+    @Override
+    public SnailJobRpcResult doHandler(String content, UrlQuery query, HttpHeaders headers) {
+        SnailJobLog.LOCAL.debug("Running job batch register. content:[{}]", content);
+
+        SnailJobRequest retryRequest = JsonUtil.parseObject(content, SnailJobRequest.class);
+        Object[] args = retryRequest.getArgs();
+
+        RunningJobBatchDTO runningJobBatchDTO = JsonUtil.parseObject(JsonUtil.toJsonString(args[0]), RunningJobBatchDTO.class);
+        runningJobBatchRelay.onRemoteRegister(runningJobBatchDTO);
+
+        return new SnailJobRpcResult(StatusEnum.YES.getStatus(), "success", Boolean.TRUE, retryRequest.getReqId());
+    }
+}
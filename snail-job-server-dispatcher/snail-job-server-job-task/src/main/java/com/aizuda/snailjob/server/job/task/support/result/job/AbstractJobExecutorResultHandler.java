@@ -14,6 +14,11 @@ import com.aizuda.snailjob.server.job.task.support.JobExecutorResultHandler;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.JobTaskStopHandler;
 import com.aizuda.snailjob.server.job.task.support.alarm.event.JobTaskFailAlarmEvent;
+import com.aizuda.snailjob.server.job.task.support.cache.JobSummaryDirtyCache;
+import com.aizuda.snailjob.server.job.task.support.cache.JobTaskBatchProgress;
+import com.aizuda.snailjob.server.job.task.support.cache.JobTaskBatchProgressCache;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchStateCache;
 import com.aizuda.snailjob.server.job.task.support.handler.WorkflowBatchHandler;
 import com.aizuda.snailjob.server.job.task.support.stop.JobTaskStopFactory;
 import com.aizuda.snailjob.server.job.task.support.stop.TaskStopJobContext;
@@ -29,6 +34,7 @@ import lombok.RequiredArgsConstructor;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -48,13 +54,28 @@ public abstract class AbstractJobExecutorResultHandler implements JobExecutorRes
     @Override
     public void handleResult(final JobExecutorResultContext context) {
 
+        JobTaskBatchProgress progress = JobTaskBatchProgressCache.get(context.getTaskBatchId());
+        if (Objects.nonNull(progress) && !progress.isComplete()) {
+            // 本节点生成的批次以计数为准; 由DB重建的进度不包含其他节点处理的结果, 需以DB计数确认
+            if (!progress.isRebuilt() || jobTaskMapper.selectCount(new LambdaQueryWrapper<JobTask>()
+                    .eq(JobTask::getTaskBatchId, context.getTaskBatchId())
+                    .in(JobTask::getTaskStatus, JobTaskStatusEnum.NOT_COMPLETE)) > 0) {
+                return;
+            }
+        }
+
         List<JobTask> jobTasks = jobTaskMapper.selectList(
                 new LambdaQueryWrapper<JobTask>()
-                        .select(JobTask::getTaskStatus, JobTask::getMrStage)
+                        .select(JobTask::getId, JobTask::getTaskStatus, JobTask::getMrStage)
                         .eq(JobTask::getTaskBatchId, context.getTaskBatchId()));
 
-        if (CollUtil.isEmpty(jobTasks) ||
-                jobTasks.stream().anyMatch(jobTask -> JobTaskStatusEnum.NOT_COMPLETE.contains(jobTask.getTaskStatus()))) {
+        if (CollUtil.isEmpty(jobTasks)) {
+            return;
+        }
+
+        if (jobTasks.stream().anyMatch(jobTask -> JobTaskStatusEnum.NOT_COMPLETE.contains(jobTask.getTaskStatus()))) {
+            // 本节点无进度(节点故障转移)或者进度与DB不一致, 以DB为准重建
+            JobTaskBatchProgressCache.rebuild(context.getTaskBatchId(), jobTasks);
             return;
         }
 
@@ -89,6 +110,7 @@ public abstract class AbstractJobExecutorResultHandler implements JobExecutorRes
             boolean res = updateStatus(context, taskBatchStatus);
             context.setTaskBatchComplete(res);
             if (res) {
+                JobTaskBatchProgressCache.remove(context.getTaskBatchId());
                 // 停止客户端的任务
                 stop(context);
             }
@@ -123,14 +145,29 @@ public abstract class AbstractJobExecutorResultHandler implements JobExecutorRes
             jobTaskBatchMapper.update(jobTaskBatch,
                     new LambdaUpdateWrapper<JobTaskBatch>()
                             .eq(JobTaskBatch::getId, context.getTaskBatchId()));
+            JobSummaryDirtyCache.mark(context.getTaskBatchId());
+            RunningJobBatchCache.complete(context.getTaskBatchId());
+            updateWorkflowBatchState(context, jobTaskBatch);
             return false;
         }
 
-        return 1 == jobTaskBatchMapper.update(jobTaskBatch,
+        boolean updated = 1 == jobTaskBatchMapper.update(jobTaskBatch,
                 new LambdaUpdateWrapper<JobTaskBatch>()
                         .eq(JobTaskBatch::getId, context.getTaskBatchId())
                         .in(!context.isRetry(), JobTaskBatch::getTaskBatchStatus, JobTaskBatchStatusEnum.NOT_COMPLETE)
         );
+        if (updated) {
+            JobSummaryDirtyCache.mark(context.getTaskBatchId());
+            RunningJobBatchCache.complete(context.getTaskBatchId());
+            updateWorkflowBatchState(context, jobTaskBatch);
+        }
+
+        return updated;
+    }
+
+    private static void updateWorkflowBatchState(JobExecutorResultContext context, JobTaskBatch jobTaskBatch) {
+        WorkflowBatchStateCache.update(context.getWorkflowTaskBatchId(), context.getWorkflowNodeId(),
+                jobTaskBatch.getId(), jobTaskBatch.getTaskBatchStatus(), jobTaskBatch.getOperationReason());
     }
 
     protected void stop(JobExecutorResultContext context) {
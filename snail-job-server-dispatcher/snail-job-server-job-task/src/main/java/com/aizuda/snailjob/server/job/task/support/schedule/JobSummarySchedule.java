@@ -9,8 +9,14 @@ import com.aizuda.snailjob.server.common.Lifecycle;
 import com.aizuda.snailjob.server.common.config.SystemProperties;
 import com.aizuda.snailjob.server.common.dto.JobTaskBatchReason;
 import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
+import com.aizuda.snailjob.server.common.dto.LockConfig;
+import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.common.lock.LockBuilder;
+import com.aizuda.snailjob.server.common.lock.LockManager;
+import com.aizuda.snailjob.server.common.lock.LockProvider;
 import com.aizuda.snailjob.server.common.schedule.AbstractSchedule;
 import com.aizuda.snailjob.server.common.triple.Pair;
+import com.aizuda.snailjob.server.job.task.support.cache.JobSummaryDirtyCache;
 import com.aizuda.snailjob.template.datasource.persistence.dataobject.JobBatchSummaryResponseDO;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobSummaryMapper;
@@ -21,18 +27,13 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +46,8 @@ import java.util.stream.Collectors;
 @Component
 @RequiredArgsConstructor
 public class JobSummarySchedule extends AbstractSchedule implements Lifecycle {
+    private static final int BATCH_SIZE = 500;
+    private static final String SUMMARY_WRITE_LOCK = "jobSummaryWrite";
     private final JobTaskBatchMapper jobTaskBatchMapper;
     private final JobSummaryMapper jobSummaryMapper;
     private final JobMapper jobMapper;
@@ -65,63 +68,163 @@ public class JobSummarySchedule extends AbstractSchedule implements Lifecycle {
         return "PT20S";
     }
 
+    /**
+     * 全量统计最近 summaryDay 天的数据, 用于启动时补齐以及定期修复
+     */
     @Override
     protected void doExecute() {
-        try {
-            for (int i = 0; i < systemProperties.getSummaryDay(); i++) {
+        // 全量统计覆盖了本节点登记的所有数据, 开始前取出登记并复位超限标记, 有日期统计失败时再恢复
+        Set<Long> taskBatchIds = JobSummaryDirtyCache.drain();
+        boolean overflow = JobSummaryDirtyCache.checkAndResetOverflow();
+        boolean success = true;
+        for (int i = 0; i < systemProperties.getSummaryDay(); i++) {
+
+            // 定时按日实时查询统计数据（00:00:00 - 23:59:59）
+            LocalDateTime todayFrom = LocalDateTime.of(LocalDate.now(), LocalTime.MIN).plusDays(-i);
+            try {
+                summaryWithLock(todayFrom, Collections.emptySet());
+            } catch (Exception e) {
+                success = false;
+                SnailJobLog.LOCAL.error("job summary dashboard log error. todayFrom:[{}]", todayFrom, e);
+            }
+        }
 
-                // 定时按日实时查询统计数据（00:00:00 - 23:59:59）
-                LocalDateTime todayFrom = LocalDateTime.of(LocalDate.now(), LocalTime.MIN).plusDays(-i);
-                LocalDateTime todayTo = LocalDateTime.of(LocalDate.now(), LocalTime.MAX).plusDays(-i);
-                LambdaQueryWrapper<JobTaskBatch> wrapper = new LambdaQueryWrapper<JobTaskBatch>()
+        if (!success) {
+            JobSummaryDirtyCache.markAll(taskBatchIds);
+            if (overflow) {
+                JobSummaryDirtyCache.markOverflow();
+            }
+        }
+    }
+
+    /**
+     * 增量统计: 只重新统计状态发生过变化的任务批次所属的(任务, 日期)
+     * 每个节点只处理自己登记的批次, 写入时与全量修复使用同一把锁
+     */
+    private void incrementalSummary() {
+        // 超限标记在全量统计实际执行后才复位, 未获取到调度锁时下个周期继续尝试
+        if (JobSummaryDirtyCache.isOverflow()) {
+            execute();
+            return;
+        }
+
+        Set<Long> taskBatchIds = JobSummaryDirtyCache.drain();
+        if (CollUtil.isEmpty(taskBatchIds)) {
+            return;
+        }
+
+        try {
+            LocalDateTime earliest = LocalDateTime.of(LocalDate.now(), LocalTime.MIN)
+                    .plusDays(1 - systemProperties.getSummaryDay());
+            Map<LocalDateTime, Set<Long>> dirtyJobMap = new HashMap<>();
+            for (List<Long> partition : Lists.partition(new ArrayList<>(taskBatchIds), BATCH_SIZE)) {
+                List<JobTaskBatch> jobTaskBatches = jobTaskBatchMapper.selectList(new LambdaQueryWrapper<JobTaskBatch>()
+                        .select(JobTaskBatch::getJobId, JobTaskBatch::getCreateDt)
                         .eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType())
-                        .between(JobTaskBatch::getCreateDt, todayFrom, todayTo)
-                        .groupBy(JobTaskBatch::getNamespaceId, JobTaskBatch::getGroupName,
-                                JobTaskBatch::getJobId, JobTaskBatch::getTaskBatchStatus, JobTaskBatch::getOperationReason);
-                List<JobBatchSummaryResponseDO> summaryResponseDOList = jobTaskBatchMapper.selectJobBatchSummaryList(wrapper);
-                if (CollUtil.isEmpty(summaryResponseDOList)) {
-                    continue;
+                        .ge(JobTaskBatch::getCreateDt, earliest)
+                        .in(JobTaskBatch::getId, partition));
+                for (JobTaskBatch jobTaskBatch : jobTaskBatches) {
+                    LocalDateTime triggerAt = LocalDateTime.of(jobTaskBatch.getCreateDt().toLocalDate(), LocalTime.MIN);
+                    dirtyJobMap.computeIfAbsent(triggerAt, key -> new HashSet<>()).add(jobTaskBatch.getJobId());
                 }
+            }
 
-                // insertOrUpdate
-                List<JobSummary> jobSummaryList = jobSummaryList(todayFrom, summaryResponseDOList);
-
-                List<JobSummary> jobSummaries = jobSummaryMapper.selectList(new LambdaQueryWrapper<JobSummary>()
-                        .eq(JobSummary::getTriggerAt, todayFrom)
-                        .eq(JobSummary::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType())
-                        .in(JobSummary::getBusinessId, StreamUtils.toSet(jobSummaryList, JobSummary::getBusinessId)));
-
-                Map<Pair<Long, LocalDateTime>, JobSummary> summaryMap = StreamUtils.toIdentityMap(jobSummaries,
-                        jobSummary -> Pair.of(jobSummary.getBusinessId(), jobSummary.getTriggerAt()));
-
-                List<JobSummary> waitInserts = Lists.newArrayList();
-                List<JobSummary> waitUpdates = Lists.newArrayList();
-                for (final JobSummary jobSummary : jobSummaryList) {
-                    if (Objects.isNull(
-                            summaryMap.get(Pair.of(jobSummary.getBusinessId(), jobSummary.getTriggerAt())))) {
-                        waitInserts.add(jobSummary);
-                    } else {
-                        waitUpdates.add(jobSummary);
-                    }
+            for (Map.Entry<LocalDateTime, Set<Long>> entry : dirtyJobMap.entrySet()) {
+                for (List<Long> jobIds : Lists.partition(new ArrayList<>(entry.getValue()), BATCH_SIZE)) {
+                    summaryWithLock(entry.getKey(), new HashSet<>(jobIds));
                 }
+            }
+        } catch (Exception e) {
+            // 重新登记, 下个周期再统计
+            JobSummaryDirtyCache.markAll(taskBatchIds);
+            SnailJobLog.LOCAL.error("job summary dashboard incremental error", e);
+        }
+    }
 
-                int updateTotalJobSummary = 0;
-                if (CollUtil.isNotEmpty(waitUpdates)) {
-                    updateTotalJobSummary = jobSummaryMapper.updateBatch(waitUpdates);
-                }
+    /**
+     * 全量修复与各节点的增量统计都会写入汇总表, 写入前获取同一把锁, 避免并发插入相同的统计数据
+     */
+    private void summaryWithLock(LocalDateTime todayFrom, Set<Long> jobIds) {
+        // 全量修复时当前线程持有调度锁, 锁信息存放在线程变量中, 写入完成后恢复
+        LockConfig scheduleLockConfig = LockManager.getLockConfig();
+        LockProvider lockProvider = LockBuilder.newBuilder()
+                .withDisposable(SUMMARY_WRITE_LOCK)
+                .build();
+        boolean lock = false;
+        try {
+            lock = lockProvider.lock(Duration.parse(lockAtMost()));
+            if (!lock) {
+                throw new SnailJobServerException("Job summary is being written by another node. lockName:[{}]",
+                        SUMMARY_WRITE_LOCK);
+            }
+            summary(todayFrom, jobIds);
+        } finally {
+            if (lock) {
+                lockProvider.unlock();
+            } else {
+                LockManager.clear();
+            }
 
-                int insertTotalJobSummary = 0;
-                if (CollUtil.isNotEmpty(waitInserts)) {
-                    insertTotalJobSummary = jobSummaryMapper.insertBatch(waitInserts);
-                }
+            if (Objects.nonNull(scheduleLockConfig)) {
+                LockManager.initialize(scheduleLockConfig);
+            }
+        }
+    }
 
-                SnailJobLog.LOCAL.debug(
-                        "job summary dashboard success todayFrom:[{}] todayTo:[{}] updateTotalJobSummary:[{}] insertTotalJobSummary:[{}]",
-                        todayFrom, todayTo, updateTotalJobSummary, insertTotalJobSummary);
+    /**
+     * 统计指定日期的数据
+     *
+     * @param todayFrom 日期(00:00:00)
+     * @param jobIds    只统计这些任务, 为空则统计当天所有任务
+     */
+    private void summary(LocalDateTime todayFrom, Set<Long> jobIds) {
+        LocalDateTime todayTo = LocalDateTime.of(todayFrom.toLocalDate(), LocalTime.MAX);
+        LambdaQueryWrapper<JobTaskBatch> wrapper = new LambdaQueryWrapper<JobTaskBatch>()
+                .eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType())
+                .in(CollUtil.isNotEmpty(jobIds), JobTaskBatch::getJobId, jobIds)
+                .between(JobTaskBatch::getCreateDt, todayFrom, todayTo)
+                .groupBy(JobTaskBatch::getNamespaceId, JobTaskBatch::getGroupName,
+                        JobTaskBatch::getJobId, JobTaskBatch::getTaskBatchStatus, JobTaskBatch::getOperationReason);
+        List<JobBatchSummaryResponseDO> summaryResponseDOList = jobTaskBatchMapper.selectJobBatchSummaryList(wrapper);
+        if (CollUtil.isEmpty(summaryResponseDOList)) {
+            return;
+        }
+
+        // insertOrUpdate
+        List<JobSummary> jobSummaryList = jobSummaryList(todayFrom, summaryResponseDOList);
+
+        List<JobSummary> jobSummaries = jobSummaryMapper.selectList(new LambdaQueryWrapper<JobSummary>()
+                .eq(JobSummary::getTriggerAt, todayFrom)
+                .eq(JobSummary::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType())
+                .in(JobSummary::getBusinessId, StreamUtils.toSet(jobSummaryList, JobSummary::getBusinessId)));
+
+        Map<Pair<Long, LocalDateTime>, JobSummary> summaryMap = StreamUtils.toIdentityMap(jobSummaries,
+                jobSummary -> Pair.of(jobSummary.getBusinessId(), jobSummary.getTriggerAt()));
+
+        List<JobSummary> waitInserts = Lists.newArrayList();
+        List<JobSummary> waitUpdates = Lists.newArrayList();
+        for (final JobSummary jobSummary : jobSummaryList) {
+            if (Objects.isNull(
+                    summaryMap.get(Pair.of(jobSummary.getBusinessId(), jobSummary.getTriggerAt())))) {
+                waitInserts.add(jobSummary);
+            } else {
+                waitUpdates.add(jobSummary);
             }
-        } catch (Exception e) {
-            SnailJobLog.LOCAL.error("job summary dashboard log error", e);
         }
+
+        int updateTotalJobSummary = 0;
+        if (CollUtil.isNotEmpty(waitUpdates)) {
+            updateTotalJobSummary = jobSummaryMapper.updateBatch(waitUpdates);
+        }
+
+        int insertTotalJobSummary = 0;
+        if (CollUtil.isNotEmpty(waitInserts)) {
+            insertTotalJobSummary = jobSummaryMapper.insertBatch(waitInserts);
+        }
+
+        SnailJobLog.LOCAL.debug(
+                "job summary dashboard success todayFrom:[{}] todayTo:[{}] updateTotalJobSummary:[{}] insertTotalJobSummary:[{}]",
+                todayFrom, todayTo, updateTotalJobSummary, insertTotalJobSummary);
     }
 
     private List<JobSummary> jobSummaryList(LocalDateTime triggerAt,
@@ -175,7 +278,9 @@ public class JobSummarySchedule extends AbstractSchedule implements Lifecycle {
 
     @Override
     public void start() {
-        taskScheduler.scheduleAtFixedRate(this::execute, Duration.parse("PT1M"));
+        // 启动时先全量统计一次, 之后定期全量修复
+        taskScheduler.scheduleAtFixedRate(this::execute, Duration.ofMinutes(systemProperties.getSummaryRepairInterval()));
+        taskScheduler.scheduleAtFixedRate(this::incrementalSummary, Duration.parse("PT1M"));
     }
 
     @Override
@@ -8,6 +8,9 @@ import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.job.task.dto.JobExecutorResultDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.JobTaskStopHandler;
+import com.aizuda.snailjob.server.job.task.support.cache.JobSummaryDirtyCache;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchStateCache;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskBatchMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.JobTask;
@@ -51,6 +54,10 @@ public abstract class AbstractJobTaskStopHandler implements JobTaskStopHandler,
             jobTaskBatch.setTaskBatchStatus(JobTaskBatchStatusEnum.STOP.getStatus());
             jobTaskBatch.setOperationReason(context.getJobOperationReason());
             jobTaskBatchMapper.updateById(jobTaskBatch);
+            JobSummaryDirtyCache.mark(context.getTaskBatchId());
+            RunningJobBatchCache.complete(context.getTaskBatchId());
+            WorkflowBatchStateCache.update(context.getWorkflowTaskBatchId(), context.getWorkflowNodeId(),
+                    context.getTaskBatchId(), jobTaskBatch.getTaskBatchStatus(), jobTaskBatch.getOperationReason());
             return;
         }
 
@@ -0,0 +1,26 @@
+package com.aizuda.snailjob.server.job.task.support.trigger;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Set;
+
+/**
+ * 定时任务新增、修改、启停、删除事件
+ * 由 {@link JobTriggerIndex} 监听并刷新本节点的触发索引
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Getter
+public class JobChangeEvent extends ApplicationEvent {
+
+    private final Set<Long> jobIds;
+
+    public JobChangeEvent(Set<Long> jobIds) {
+        super(jobIds);
+        this.jobIds = jobIds;
+    }
+
+}
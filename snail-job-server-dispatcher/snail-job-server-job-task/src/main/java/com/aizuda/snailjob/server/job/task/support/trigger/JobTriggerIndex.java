@@ -0,0 +1,359 @@
+package com.aizuda.snailjob.server.job.task.support.trigger;
+
+import cn.hutool.core.collection.CollUtil;
+import com.aizuda.snailjob.common.core.constant.SystemConstants;
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.util.PartitionTaskUtils;
+import com.aizuda.snailjob.server.job.task.dto.JobPartitionTaskDTO;
+import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
+import com.aizuda.snailjob.template.datasource.persistence.mapper.JobMapper;
+import com.aizuda.snailjob.template.datasource.persistence.po.Job;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.PageDTO;
+import com.google.common.collect.Lists;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * <p>
+ * 定时任务触发索引
+ * 按当前节点分配的bucket在内存中维护任务的下次触发时间(最小堆), 扫描时直接从内存中获取即将触发的任务,
+ * 下次触发时间只在内存中更新, 通过脏数据集合增量刷入数据库
+ * </p>
+ * <ul>
+ *     <li>bucket重新分配时: 新分配的bucket从数据库全量加载, 不再分配的bucket刷盘后移除</li>
+ *     <li>本节点修改任务时: 通过 {@link JobChangeEvent} 即时刷新</li>
+ *     <li>其他节点修改任务时: 按 update_dt 周期性增量对账(索引 update_dt, bucket_index), 刷盘触发时间不修改 update_dt, 对账不会读到本节点刷盘的数据</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class JobTriggerIndex implements Lifecycle {
+
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private final JobMapper jobMapper;
+    private final SystemProperties systemProperties;
+
+    private final Map<Integer/*bucket*/, BucketQueue> bucketQueues = new HashMap<>();
+    private final Map<Long/*jobId*/, Long/*nextTriggerAt*/> dirtyMap = new HashMap<>();
+    private volatile LocalDateTime lastReconcileAt;
+
+    /**
+     * 同步当前节点分配的bucket
+     *
+     * @param buckets 当前节点分配的bucket
+     */
+    public void rebalance(Set<Integer> buckets) {
+        Set<Integer> addBuckets = new HashSet<>();
+        boolean removed;
+        synchronized (this) {
+            removed = bucketQueues.keySet().removeIf(bucket -> !buckets.contains(bucket));
+            for (Integer bucket : buckets) {
+                if (!bucketQueues.containsKey(bucket)) {
+                    bucketQueues.put(bucket, new BucketQueue());
+                    addBuckets.add(bucket);
+                }
+            }
+        }
+
+        // 不再分配的bucket可能存在未刷盘的数据, 先刷盘以便新的节点加载到最新的触发时间
+        if (removed) {
+            flush();
+        }
+
+        if (CollUtil.isEmpty(addBuckets)) {
+            return;
+        }
+
+        if (Objects.isNull(lastReconcileAt)) {
+            lastReconcileAt = LocalDateTime.now();
+        }
+
+        long total = PartitionTaskUtils.process(startId -> listJobs(startId, addBuckets), partitionTasks -> {
+            synchronized (this) {
+                partitionTasks.forEach(partitionTask -> offer((JobPartitionTaskDTO) partitionTask));
+            }
+        }, 0);
+
+        SnailJobLog.LOCAL.info("Job trigger index loaded. buckets:{} total:[{}]", addBuckets, total);
+    }
+
+    /**
+     * 取出所有触发时间小于等于 deadline 的任务
+     * 取出的任务需要通过 {@link #reschedule(JobPartitionTaskDTO, long)} 或者 {@link #requeue(List)} 放回索引
+     *
+     * @param deadline 截止时间
+     * @return 待触发的任务
+     */
+    public synchronized List<JobPartitionTaskDTO> pollDue(long deadline) {
+        List<JobPartitionTaskDTO> dueJobs = new ArrayList<>();
+        for (BucketQueue bucketQueue : bucketQueues.values()) {
+            PriorityQueue<TriggerEntry> heap = bucketQueue.heap;
+            while (!heap.isEmpty() && heap.peek().triggerAt() <= deadline) {
+                TriggerEntry entry = heap.poll();
+                // 任务被修改或者移除后旧的节点直接丢弃
+                if (bucketQueue.jobs.get(entry.job().getId()) == entry.job()
+                        && entry.job().getNextTriggerAt() == entry.triggerAt()) {
+                    dueJobs.add(entry.job());
+                }
+            }
+        }
+
+        return dueJobs;
+    }
+
+    /**
+     * 更新任务的下次触发时间并放回索引, 等待下次刷盘
+     *
+     * @param job           通过 {@link #pollDue(long)} 取出的任务
+     * @param nextTriggerAt 下次触发时间
+     */
+    public synchronized void reschedule(JobPartitionTaskDTO job, long nextTriggerAt) {
+        BucketQueue bucketQueue = bucketQueues.get(job.getBucketIndex());
+        // bucket已经不属于当前节点或者在触发期间任务被修改
+        if (Objects.isNull(bucketQueue) || bucketQueue.jobs.get(job.getId()) != job) {
+            return;
+        }
+
+        job.setNextTriggerAt(nextTriggerAt);
+        bucketQueue.heap.offer(new TriggerEntry(nextTriggerAt, job));
+        dirtyMap.put(job.getId(), nextTriggerAt);
+    }
+
+    /**
+     * 触发时间不变直接放回索引
+     *
+     * @param jobs 通过 {@link #pollDue(long)} 取出的任务
+     */
+    public synchronized void requeue(List<JobPartitionTaskDTO> jobs) {
+        for (JobPartitionTaskDTO job : jobs) {
+            BucketQueue bucketQueue = bucketQueues.get(job.getBucketIndex());
+            if (Objects.nonNull(bucketQueue) && bucketQueue.jobs.get(job.getId()) == job) {
+                bucketQueue.heap.offer(new TriggerEntry(job.getNextTriggerAt(), job));
+            }
+        }
+    }
+
+    /**
+     * 将内存中更新过的触发时间刷入数据库
+     */
+    public void flush() {
+        List<Job> waitUpdateJobs;
+        synchronized (this) {
+            if (dirtyMap.isEmpty()) {
+                return;
+            }
+
+            waitUpdateJobs = new ArrayList<>(dirtyMap.size());
+            for (Map.Entry<Long, Long> entry : dirtyMap.entrySet()) {
+                Job job = new Job();
+                job.setId(entry.getKey());
+                job.setNextTriggerAt(entry.getValue());
+                waitUpdateJobs.add(job);
+            }
+            dirtyMap.clear();
+        }
+
+        for (List<Job> partition : Lists.partition(waitUpdateJobs, FLUSH_BATCH_SIZE)) {
+            try {
+                jobMapper.updateBatchNextTriggerAtById(partition);
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.error("Failed to flush job next trigger time. size:[{}]", partition.size(), e);
+                synchronized (this) {
+                    // 刷盘失败等待下次重试, 期间已有更新的以最新的为准
+                    partition.forEach(job -> dirtyMap.putIfAbsent(job.getId(), job.getNextTriggerAt()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 按 update_dt 与数据库增量对账, 同步其他节点对任务的修改
+     */
+    public void reconcile() {
+        LocalDateTime lastReconcileAt = this.lastReconcileAt;
+        int interval = systemProperties.getJobTriggerReconcileInterval();
+        LocalDateTime now = LocalDateTime.now();
+        if (Objects.isNull(lastReconcileAt) || lastReconcileAt.plusSeconds(interval).isAfter(now)) {
+            return;
+        }
+
+        Set<Integer> buckets;
+        synchronized (this) {
+            buckets = new HashSet<>(bucketQueues.keySet());
+        }
+        if (CollUtil.isEmpty(buckets)) {
+            return;
+        }
+
+        // 多回溯一个周期, 容忍节点之间的时钟偏差
+        LocalDateTime since = lastReconcileAt.minusSeconds(interval);
+        long startId = 0;
+        List<Job> jobs;
+        do {
+            jobs = jobMapper.selectPage(new PageDTO<>(0, systemProperties.getJobPullPageSize(), Boolean.FALSE),
+                    new LambdaQueryWrapper<Job>()
+                            .select(Job::getGroupName, Job::getNextTriggerAt, Job::getBlockStrategy, Job::getTriggerType,
+                                    Job::getTriggerInterval, Job::getExecutorTimeout, Job::getTaskType, Job::getResident,
+                                    Job::getId, Job::getNamespaceId, Job::getBucketIndex, Job::getJobStatus,
+                                    Job::getDeleted)
+                            .ge(Job::getUpdateDt, since)
+                            .in(Job::getBucketIndex, buckets)
+                            .ge(Job::getId, startId)
+                            .orderByAsc(Job::getId)
+            ).getRecords();
+
+            synchronized (this) {
+                jobs.forEach(this::apply);
+            }
+
+            if (CollUtil.isNotEmpty(jobs)) {
+                startId = jobs.get(jobs.size() - 1).getId() + 1;
+            }
+        } while (jobs.size() >= systemProperties.getJobPullPageSize());
+
+        this.lastReconcileAt = now;
+    }
+
+    /**
+     * 本节点修改任务后即时刷新索引
+     */
+    @TransactionalEventListener(fallbackExecution = true, phase = TransactionPhase.AFTER_COMMIT)
+    public void onJobChange(JobChangeEvent event) {
+        synchronized (this) {
+            if (bucketQueues.isEmpty() || CollUtil.isEmpty(event.getJobIds())) {
+                return;
+            }
+        }
+
+        try {
+            List<Job> jobs = jobMapper.selectList(new LambdaQueryWrapper<Job>()
+                    .select(Job::getGroupName, Job::getNextTriggerAt, Job::getBlockStrategy, Job::getTriggerType,
+                            Job::getTriggerInterval, Job::getExecutorTimeout, Job::getTaskType, Job::getResident,
+                            Job::getId, Job::getNamespaceId, Job::getBucketIndex, Job::getJobStatus, Job::getDeleted)
+                    .in(Job::getId, event.getJobIds()));
+
+            Set<Long> removedIds = new HashSet<>(event.getJobIds());
+            synchronized (this) {
+                for (Job job : jobs) {
+                    removedIds.remove(job.getId());
+                    apply(job);
+                }
+
+                // 已删除的任务
+                for (Long jobId : removedIds) {
+                    bucketQueues.values().forEach(bucketQueue -> bucketQueue.jobs.remove(jobId));
+                    dirtyMap.remove(jobId);
+                }
+            }
+        } catch (Exception e) {
+            SnailJobLog.LOCAL.error("Failed to refresh job trigger index. jobIds:{}", event.getJobIds(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    /**
+     * 使用数据库中的最新数据刷新索引, 调用方需持有锁
+     */
+    private void apply(Job job) {
+        BucketQueue bucketQueue = bucketQueues.get(job.getBucketIndex());
+        if (Objects.isNull(bucketQueue)) {
+            return;
+        }
+
+        if (!StatusEnum.YES.getStatus().equals(job.getJobStatus())
+                || StatusEnum.YES.getStatus().equals(job.getDeleted())
+                || SystemConstants.WORKFLOW_TRIGGER_TYPE.equals(job.getTriggerType())) {
+            bucketQueue.jobs.remove(job.getId());
+            dirtyMap.remove(job.getId());
+            return;
+        }
+
+        JobPartitionTaskDTO latest = JobTaskConverter.INSTANCE.toJobPartitionTask(job);
+        JobPartitionTaskDTO existing = bucketQueue.jobs.get(job.getId());
+        if (Objects.nonNull(existing)
+                && Objects.equals(existing.getTriggerType(), latest.getTriggerType())
+                && Objects.equals(existing.getTriggerInterval(), latest.getTriggerInterval())
+                && Objects.equals(existing.getResident(), latest.getResident())) {
+            // 调度配置未变化(包括本节点刷盘后的数据)时保留内存中的触发时间
+            existing.setGroupName(latest.getGroupName());
+            existing.setNamespaceId(latest.getNamespaceId());
+            existing.setBlockStrategy(latest.getBlockStrategy());
+            existing.setExecutorTimeout(latest.getExecutorTimeout());
+            existing.setTaskType(latest.getTaskType());
+            return;
+        }
+
+        // 修改任务时已重新计算过下次触发时间, 以数据库为准
+        dirtyMap.remove(job.getId());
+        offer(latest);
+    }
+
+    /**
+     * 调用方需持有锁
+     */
+    private void offer(JobPartitionTaskDTO job) {
+        BucketQueue bucketQueue = bucketQueues.get(job.getBucketIndex());
+        if (Objects.isNull(bucketQueue)) {
+            return;
+        }
+
+        bucketQueue.jobs.put(job.getId(), job);
+        bucketQueue.heap.offer(new TriggerEntry(job.getNextTriggerAt(), job));
+    }
+
+    private List<JobPartitionTaskDTO> listJobs(Long startId, Set<Integer> buckets) {
+        List<Job> jobs = jobMapper.selectPage(new PageDTO<>(0, systemProperties.getJobPullPageSize(), Boolean.FALSE),
+                new LambdaQueryWrapper<Job>()
+                        .select(Job::getGroupName, Job::getNextTriggerAt, Job::getBlockStrategy, Job::getTriggerType,
+                                Job::getTriggerInterval, Job::getExecutorTimeout, Job::getTaskType, Job::getResident,
+                                Job::getId, Job::getNamespaceId, Job::getBucketIndex)
+                        .eq(Job::getJobStatus, StatusEnum.YES.getStatus())
+                        .eq(Job::getDeleted, StatusEnum.NO.getStatus())
+                        .ne(Job::getTriggerType, SystemConstants.WORKFLOW_TRIGGER_TYPE)
+                        .in(Job::getBucketIndex, buckets)
+                        .ge(Job::getId, startId)
+                        .orderByAsc(Job::getId)
+        ).getRecords();
+
+        return JobTaskConverter.INSTANCE.toJobPartitionTasks(jobs);
+    }
+
+    /**
+     * 单个bucket内的任务
+     */
+    private static final class BucketQueue {
+
+        private final Map<Long/*jobId*/, JobPartitionTaskDTO> jobs = new HashMap<>();
+
+        /**
+         * 按触发时间排序, 任务修改后不删除旧节点, 出堆时通过引用和触发时间判断是否失效
+         */
+        private final PriorityQueue<TriggerEntry> heap = new PriorityQueue<>(
+                Comparator.comparingLong(TriggerEntry::triggerAt));
+    }
+
+    private record TriggerEntry(long triggerAt, JobPartitionTaskDTO job) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.aizuda.snailjob.server.job.task.support.trigger;
+
+import cn.hutool.core.collection.CollUtil;
+import com.aizuda.snailjob.common.core.enums.JobTaskBatchStatusEnum;
+import com.aizuda.snailjob.common.core.util.StreamUtils;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache;
+import com.aizuda.snailjob.template.datasource.persistence.mapper.JobMapper;
+import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskBatchMapper;
+import com.aizuda.snailjob.template.datasource.persistence.po.Job;
+import com.aizuda.snailjob.template.datasource.persistence.po.JobTaskBatch;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.PageDTO;
+import com.google.common.collect.Lists;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * 维护 {@link RunningJobBatchCache}
+ * <ul>
+ *     <li>bucket重新分配时: 新分配的bucket从数据库加载未完成的批次</li>
+ *     <li>按 update_dt 增量登记其他节点生成、重试或者变更状态的批次, 并按id校验已登记的批次是否已在其他节点完成</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RunningJobBatchLoader {
+
+    private static final int QUERY_BATCH_SIZE = 500;
+
+    private final JobMapper jobMapper;
+    private final JobTaskBatchMapper jobTaskBatchMapper;
+    private final SystemProperties systemProperties;
+    private volatile LocalDateTime lastReconcileAt;
+
+    /**
+     * 同步当前节点分配的bucket
+     *
+     * @param buckets 当前节点分配的bucket
+     */
+    public synchronized void rebalance(Set<Integer> buckets) {
+        RunningJobBatchCache.retainBuckets(buckets);
+
+        Set<Integer> addBuckets = new HashSet<>(buckets);
+        addBuckets.removeAll(RunningJobBatchCache.getLoadedBuckets());
+        if (CollUtil.isEmpty(addBuckets)) {
+            return;
+        }
+
+        if (Objects.isNull(lastReconcileAt)) {
+            lastReconcileAt = LocalDateTime.now();
+        }
+
+        long total = 0;
+        long startId = 0;
+        List<Job> jobs;
+        do {
+            jobs = jobMapper.selectPage(new PageDTO<>(0, systemProperties.getJobPullPageSize(), Boolean.FALSE),
+                    new LambdaQueryWrapper<Job>()
+                            .select(Job::getId)
+                            .in(Job::getBucketIndex, addBuckets)
+                            .ge(Job::getId, startId)
+                            .orderByAsc(Job::getId)
+            ).getRecords();
+
+            for (List<Long> jobIds : Lists.partition(StreamUtils.toList(jobs, Job::getId), QUERY_BATCH_SIZE)) {
+                List<JobTaskBatch> jobTaskBatches = jobTaskBatchMapper.selectList(new LambdaQueryWrapper<JobTaskBatch>()
+                        .select(JobTaskBatch::getId, JobTaskBatch::getJobId,
+                                JobTaskBatch::getTaskBatchStatus, JobTaskBatch::getExecutionAt)
+                        .in(JobTaskBatch::getJobId, jobIds)
+                        .in(JobTaskBatch::getTaskBatchStatus, JobTaskBatchStatusEnum.NOT_COMPLETE)
+                        .eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType()));
+                jobTaskBatches.forEach(RunningJobBatchLoader::register);
+                total += jobTaskBatches.size();
+            }
+
+            if (CollUtil.isNotEmpty(jobs)) {
+                startId = jobs.get(jobs.size() - 1).getId() + 1;
+            }
+        } while (jobs.size() >= systemProperties.getJobPullPageSize());
+
+        RunningJobBatchCache.markLoaded(addBuckets);
+        SnailJobLog.LOCAL.info("Running job batches loaded. buckets:{} total:[{}]", addBuckets, total);
+    }
+
+    /**
+     * 与数据库对账, 同步其他节点生成、重试或者完成的批次
+     */
+    public synchronized void reconcile() {
+        LocalDateTime lastReconcileAt = this.lastReconcileAt;
+        int interval = systemProperties.getRunningBatchReconcileInterval();
+        LocalDateTime now = LocalDateTime.now();
+        if (Objects.isNull(lastReconcileAt) || lastReconcileAt.plusSeconds(interval).isAfter(now)) {
+            return;
+        }
+
+        // 多回溯一个周期, 容忍节点之间的时钟偏差
+        LocalDateTime since = lastReconcileAt.minusSeconds(interval);
+        long startId = 0;
+        List<JobTaskBatch> jobTaskBatches;
+        do {
+            jobTaskBatches = jobTaskBatchMapper.selectPage(
+                    new PageDTO<>(0, systemProperties.getJobPullPageSize(), Boolean.FALSE),
+                    new LambdaQueryWrapper<JobTaskBatch>()
+                            .select(JobTaskBatch::getId, JobTaskBatch::getJobId,
+                                    JobTaskBatch::getTaskBatchStatus, JobTaskBatch::getExecutionAt)
+                            .in(JobTaskBatch::getTaskBatchStatus, JobTaskBatchStatusEnum.NOT_COMPLETE)
+                            .ge(JobTaskBatch::getUpdateDt, since)
+                            .eq(JobTaskBatch::getSystemTaskType, SyetemTaskTypeEnum.JOB.getType())
+                            .ge(JobTaskBatch::getId, startId)
+                            .orderByAsc(JobTaskBatch::getId)
+            ).getRecords();
+
+            jobTaskBatches.forEach(RunningJobBatchLoader::register);
+
+            if (CollUtil.isNotEmpty(jobTaskBatches)) {
+                startId = jobTaskBatches.get(jobTaskBatches.size() - 1).getId() + 1;
+            }
+        } while (jobTaskBatches.size() >= systemProperties.getJobPullPageSize());
+
+        // 只校验上次对账之前登记的批次, 之后登记的批次可能尚未提交
+        long registerBefore = lastReconcileAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<Long> registeredIds = new ArrayList<>();
+        RunningJobBatchCache.getAll().forEach((taskBatchId, registerAt) -> {
+            if (registerAt < registerBefore) {
+                registeredIds.add(taskBatchId);
+            }
+        });
+
+        for (List<Long> taskBatchIds : Lists.partition(registeredIds, QUERY_BATCH_SIZE)) {
+            Set<Long> notCompleteIds = StreamUtils.toSet(jobTaskBatchMapper.selectList(
+                    new LambdaQueryWrapper<JobTaskBatch>()
+                            .select(JobTaskBatch::getId)
+                            .in(JobTaskBatch::getId, taskBatchIds)
+                            .in(JobTaskBatch::getTaskBatchStatus, JobTaskBatchStatusEnum.NOT_COMPLETE)), JobTaskBatch::getId);
+            for (Long taskBatchId : taskBatchIds) {
+                if (!notCompleteIds.contains(taskBatchId)) {
+                    RunningJobBatchCache.complete(taskBatchId);
+                }
+            }
+        }
+
+        this.lastReconcileAt = now;
+    }
+
+    private static void register(JobTaskBatch batch) {
+        RunningJobBatchCache.register(batch.getJobId(), batch.getId(), batch.getTaskBatchStatus(), batch.getExecutionAt());
+    }
+}
@@ -0,0 +1,145 @@
+package com.aizuda.snailjob.server.job.task.support.trigger;
+
+import com.aizuda.snailjob.common.core.enums.StatusEnum;
+import com.aizuda.snailjob.common.core.model.Result;
+import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.Lifecycle;
+import com.aizuda.snailjob.server.common.dto.DistributeInstance;
+import com.aizuda.snailjob.server.common.dto.InstanceLiveInfo;
+import com.aizuda.snailjob.server.common.handler.InstanceManager;
+import com.aizuda.snailjob.server.common.handler.ServerMembership;
+import com.aizuda.snailjob.server.common.register.ServerRegister;
+import com.aizuda.snailjob.server.common.rpc.client.RequestBuilder;
+import com.aizuda.snailjob.server.job.task.client.RunningJobBatchRpcClient;
+import com.aizuda.snailjob.server.job.task.dto.RunningJobBatchDTO;
+import com.aizuda.snailjob.server.job.task.support.cache.RunningJobBatchCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登记未完成的批次到 {@link RunningJobBatchCache}
+ * 控制台触发、重试等在未持有该任务bucket的节点上生成或重试的批次, 提交后通知其他节点, 由持有bucket的节点登记,
+ * 使持有bucket的节点在准备阶段可以直接按缓存执行阻塞策略
+ * <ul>
+ *     <li>通知失败的批次由 RunningJobBatchLoader 按 update_dt 对账补齐</li>
+ *     <li>未持有bucket的节点不登记收到的批次</li>
+ * </ul>
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+@Component
+@RequiredArgsConstructor
+public class RunningJobBatchRelay implements Lifecycle {
+
+    private final InstanceManager instanceManager;
+    private final ServerMembership serverMembership;
+    private final ThreadPoolExecutor relayExecutor = new ThreadPoolExecutor(1, 2, 1, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(1000), new CustomizableThreadFactory("sj-running-batch-relay-"));
+
+    /**
+     * 本节点生成、重试批次或者变更批次状态
+     * 存在事务时在提交后登记
+     *
+     * @param runningJobBatch 未完成的批次
+     */
+    public void register(RunningJobBatchDTO runningJobBatch) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doRegister(runningJobBatch);
+                }
+            });
+        } else {
+            doRegister(runningJobBatch);
+        }
+    }
+
+    /**
+     * 收到其他节点生成或重试的批次
+     *
+     * @param runningJobBatch 未完成的批次
+     */
+    public void onRemoteRegister(RunningJobBatchDTO runningJobBatch) {
+        if (Objects.nonNull(runningJobBatch.getBucketIndex())
+                && !DistributeInstance.INSTANCE.getConsumerBucket().contains(runningJobBatch.getBucketIndex())) {
+            return;
+        }
+
+        registerLocal(runningJobBatch);
+    }
+
+    private void doRegister(RunningJobBatchDTO runningJobBatch) {
+        registerLocal(runningJobBatch);
+        if (Objects.nonNull(runningJobBatch.getBucketIndex())
+                && DistributeInstance.INSTANCE.getConsumerBucket().contains(runningJobBatch.getBucketIndex())) {
+            return;
+        }
+
+        try {
+            relayExecutor.execute(() -> broadcast(runningJobBatch));
+        } catch (RejectedExecutionException e) {
+            SnailJobLog.LOCAL.warn("Running job batch relay is busy, batch will be reconciled. taskBatchId:[{}]",
+                    runningJobBatch.getTaskBatchId());
+        }
+    }
+
+    private static void registerLocal(RunningJobBatchDTO runningJobBatch) {
+        RunningJobBatchCache.register(runningJobBatch.getJobId(), runningJobBatch.getTaskBatchId(),
+                runningJobBatch.getTaskBatchStatus(), runningJobBatch.getExecutionAt());
+    }
+
+    private void broadcast(RunningJobBatchDTO runningJobBatch) {
+        for (InstanceLiveInfo peer : peers()) {
+            try {
+                Result<Boolean> result = buildRpcClient(peer).register(runningJobBatch);
+                if (StatusEnum.NO.getStatus() == result.getStatus()) {
+                    SnailJobLog.LOCAL.warn("Failed to register running job batch. hostId:[{}] taskBatchId:[{}] message:[{}]",
+                            peer.getNodeInfo().getHostId(), runningJobBatch.getTaskBatchId(), result.getMessage());
+                }
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.warn("Failed to register running job batch. hostId:[{}] taskBatchId:[{}]",
+                        peer.getNodeInfo().getHostId(), runningJobBatch.getTaskBatchId(), e);
+            }
+        }
+    }
+
+    /**
+     * 心跳判定存活的其他服务端节点
+     */
+    private List<InstanceLiveInfo> peers() {
+        return instanceManager.getInstanceALiveInfoSet(ServerRegister.NAMESPACE_ID, ServerRegister.GROUP_NAME)
+                .stream()
+                .filter(info -> !ServerRegister.CURRENT_CID.equals(info.getNodeInfo().getHostId()))
+                .filter(info -> serverMembership.isAlive(info.getNodeInfo().getHostId()))
+                .toList();
+    }
+
+    private static RunningJobBatchRpcClient buildRpcClient(InstanceLiveInfo info) {
+        return RequestBuilder.<RunningJobBatchRpcClient, Result>newBuilder()
+                .nodeInfo(info)
+                .client(RunningJobBatchRpcClient.class)
+                .build();
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void close() {
+        relayExecutor.shutdown();
+    }
+}
@@ -0,0 +1,100 @@
+package com.aizuda.snailjob.server.retry.task.support.cache;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Retry Dashboard 待重新统计的(场景, 日期)
+ * 重试任务新增或状态发生变化时登记, 由 RetrySummarySchedule 定时只重新统计这些场景
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class RetrySummaryDirtyCache {
+
+    /**
+     * 登记的最大数量, 超过后不再登记而是触发一次全量统计
+     */
+    private static final int MAX_SIZE = 100000;
+
+    private static final Set<SummaryKey> DIRTY_KEYS = ConcurrentHashMap.newKeySet();
+    private static final AtomicBoolean OVERFLOW = new AtomicBoolean(false);
+
+    /**
+     * 登记需要重新统计的场景
+     *
+     * @param namespaceId 命名空间
+     * @param groupName   组名称
+     * @param sceneName   场景名称
+     * @param createDt    重试任务的创建时间, 为空则重新统计该场景统计周期内的所有日期
+     */
+    public static void mark(String namespaceId, String groupName, String sceneName, LocalDateTime createDt) {
+        if (Objects.isNull(namespaceId) || Objects.isNull(groupName) || Objects.isNull(sceneName)) {
+            return;
+        }
+
+        if (DIRTY_KEYS.size() >= MAX_SIZE) {
+            OVERFLOW.set(true);
+            return;
+        }
+
+        LocalDate day = Objects.isNull(createDt) ? null : createDt.toLocalDate();
+        DIRTY_KEYS.add(new SummaryKey(namespaceId, groupName, sceneName, day));
+    }
+
+    public static void markAll(Collection<SummaryKey> keys) {
+        keys.forEach(key -> mark(key.namespaceId(), key.groupName(), key.sceneName(),
+                Objects.isNull(key.day()) ? null : key.day().atStartOfDay()));
+    }
+
+    /**
+     * 取出并清空已登记的场景
+     *
+     * @return 场景
+     */
+    public static Set<SummaryKey> drain() {
+        Set<SummaryKey> keys = new HashSet<>();
+        Iterator<SummaryKey> iterator = DIRTY_KEYS.iterator();
+        while (iterator.hasNext()) {
+            keys.add(iterator.next());
+            iterator.remove();
+        }
+
+        return keys;
+    }
+
+    /**
+     * 是否因登记数量超限而需要全量统计
+     */
+    public static boolean isOverflow() {
+        return OVERFLOW.get();
+    }
+
+    /**
+     * 是否因登记数量超限而需要全量统计, 调用后复位
+     */
+    public static boolean checkAndResetOverflow() {
+        return OVERFLOW.getAndSet(false);
+    }
+
+    /**
+     * 全量统计失败时恢复超限标记, 下个周期再次全量统计
+     */
+    public static void markOverflow() {
+        OVERFLOW.set(true);
+    }
+
+    /**
+     * @param day 日期, 为空表示统计周期内的所有日期
+     */
+    public record SummaryKey(String namespaceId, String groupName, String sceneName, LocalDate day) {
+    }
+}
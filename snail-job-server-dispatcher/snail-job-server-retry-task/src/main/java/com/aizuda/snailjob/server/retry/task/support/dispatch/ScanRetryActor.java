@@ -9,6 +9,7 @@ import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.WaitStrategy;
+import com.aizuda.snailjob.server.common.cache.CacheGroupConfig;
 import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.config.SystemProperties;
 import com.aizuda.snailjob.server.common.dto.PartitionTask;
@@ -23,7 +24,6 @@ import com.aizuda.snailjob.server.retry.task.dto.RetryTaskPrepareDTO;
 import com.aizuda.snailjob.server.retry.task.support.RetryTaskConverter;
 import com.aizuda.snailjob.server.retry.task.support.handler.RateLimiterHandler;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
-import com.aizuda.snailjob.template.datasource.persistence.mapper.GroupConfigMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetryMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.GroupConfig;
 import com.aizuda.snailjob.template.datasource.persistence.po.Retry;
@@ -58,7 +58,7 @@ public class ScanRetryActor extends AbstractActor {
     private final SystemProperties systemProperties;
     private final AccessTemplate accessTemplate;
     private final RetryMapper retryMapper;
-    private final GroupConfigMapper groupConfigMapper;
+    private final CacheGroupConfig cacheGroupConfig;
     private final RateLimiterHandler rateLimiterHandler;
 
     @Override
@@ -147,15 +147,9 @@ public class ScanRetryActor extends AbstractActor {
     private Map<Long, RetrySceneConfig> getSceneConfigMap(final List<? extends PartitionTask> partitionTasks) {
         Set<Long> sceneIdSet = StreamUtils.toSet(partitionTasks,
                 partitionTask -> ((RetryPartitionTask) partitionTask).getSceneId());
-        List<RetrySceneConfig> retrySceneConfigs = accessTemplate.getSceneConfigAccess()
-                .list(new LambdaQueryWrapper<RetrySceneConfig>()
-                        .select(RetrySceneConfig::getBackOff, RetrySceneConfig::getTriggerInterval,
-                                RetrySceneConfig::getBlockStrategy, RetrySceneConfig::getSceneName,
-                                RetrySceneConfig::getCbTriggerType, RetrySceneConfig::getCbTriggerInterval,
-                                RetrySceneConfig::getExecutorTimeout, RetrySceneConfig::getId)
-                        .eq(RetrySceneConfig::getSceneStatus, StatusEnum.YES.getStatus())
-                        .in(RetrySceneConfig::getId, sceneIdSet));
-        return StreamUtils.toIdentityMap(retrySceneConfigs, RetrySceneConfig::getId);
+        Map<Long, RetrySceneConfig> sceneConfigMap = new HashMap<>(cacheGroupConfig.getSceneConfigs(sceneIdSet));
+        sceneConfigMap.values().removeIf(config -> !StatusEnum.YES.getStatus().equals(config.getSceneStatus()));
+        return sceneConfigMap;
     }
 
     private void processRetry(RetryPartitionTask partitionTask, RetrySceneConfig retrySceneConfig, List<RetryTaskPrepareDTO> waitExecRetries, List<Retry> waitUpdateRetries) {
@@ -215,13 +209,12 @@ public class ScanRetryActor extends AbstractActor {
 
         // 过滤已关闭的组
         if (CollUtil.isNotEmpty(retries)) {
-            List<Long> groupConfigs = StreamUtils.toList(
-                    groupConfigMapper.selectList(new LambdaQueryWrapper<GroupConfig>()
-                            .select(GroupConfig::getId)
-                            .eq(GroupConfig::getGroupStatus, StatusEnum.YES.getStatus())
-                            .in(GroupConfig::getId, StreamUtils.toSet(retries, Retry::getGroupId))),
-                    GroupConfig::getId);
-            retries = retries.stream().filter(retry -> groupConfigs.contains(retry.getGroupId())).collect(Collectors.toList());
+            Map<Long, GroupConfig> groupConfigMap = cacheGroupConfig.getGroupConfigs(
+                    StreamUtils.toSet(retries, Retry::getGroupId));
+            retries = retries.stream().filter(retry -> {
+                GroupConfig groupConfig = groupConfigMap.get(retry.getGroupId());
+                return Objects.nonNull(groupConfig) && StatusEnum.YES.getStatus().equals(groupConfig.getGroupStatus());
+            }).collect(Collectors.toList());
         }
 
         return RetryTaskConverter.INSTANCE.toRetryPartitionTasks(retries);
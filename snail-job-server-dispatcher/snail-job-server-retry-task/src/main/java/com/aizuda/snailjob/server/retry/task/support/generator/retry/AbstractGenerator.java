@@ -6,12 +6,15 @@ import cn.hutool.core.lang.Pair;
 import cn.hutool.core.util.HashUtil;
 import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.enums.RetryStatusEnum;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.WaitStrategy;
+import com.aizuda.snailjob.server.common.cache.CacheGroupConfig;
+import com.aizuda.snailjob.server.common.cache.GroupConfigChangeEvent;
 import com.aizuda.snailjob.server.common.config.SystemProperties;
 import com.aizuda.snailjob.server.common.enums.DelayLevelEnum;
 import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
@@ -21,6 +24,7 @@ import com.aizuda.snailjob.server.common.strategy.WaitStrategies.WaitStrategyCon
 import com.aizuda.snailjob.server.common.strategy.WaitStrategies.WaitStrategyEnum;
 import com.aizuda.snailjob.server.retry.task.support.RetryTaskConverter;
 import com.aizuda.snailjob.server.retry.task.support.RetryTaskLogConverter;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
 import com.aizuda.snailjob.template.datasource.access.TaskAccess;
 import com.aizuda.snailjob.template.datasource.persistence.po.Retry;
@@ -46,6 +50,8 @@ public abstract class AbstractGenerator implements TaskGenerator {
     protected AccessTemplate accessTemplate;
     @Autowired
     private SystemProperties systemProperties;
+    @Autowired
+    private CacheGroupConfig cacheGroupConfig;
 
     @Override
     public void taskGenerator(TaskContext taskContext) {
@@ -88,6 +94,8 @@ public abstract class AbstractGenerator implements TaskGenerator {
         Assert.isTrue(
                 waitInsertTasks.size() == retryTaskAccess.insertBatch(waitInsertTasks),
                 () -> new SnailJobServerException("failed to report data"));
+        RetrySummaryDirtyCache.mark(taskContext.getNamespaceId(), taskContext.getGroupName(),
+                taskContext.getSceneName(), now);
     }
 
     /**
@@ -163,9 +171,8 @@ public abstract class AbstractGenerator implements TaskGenerator {
     protected abstract Integer initStatus(TaskContext taskContext);
 
     private RetrySceneConfig checkAndInitScene(TaskContext taskContext) {
-        RetrySceneConfig retrySceneConfig = accessTemplate.getSceneConfigAccess()
-                .getSceneConfigByGroupNameAndSceneName(taskContext.getGroupName(), taskContext.getSceneName(),
-                        taskContext.getNamespaceId());
+        RetrySceneConfig retrySceneConfig = cacheGroupConfig.getSceneConfig(taskContext.getNamespaceId(),
+                taskContext.getGroupName(), taskContext.getSceneName());
         if (Objects.isNull(retrySceneConfig)) {
             if (taskContext.getInitScene().equals(StatusEnum.NO.getStatus())) {
                 throw new SnailJobServerException(
@@ -202,6 +209,8 @@ public abstract class AbstractGenerator implements TaskGenerator {
         retrySceneConfig.setDescription("Automatically initialize scenario");
         Assert.isTrue(1 == accessTemplate.getSceneConfigAccess().insert(retrySceneConfig),
                 () -> new SnailJobServerException("init scene error"));
+        // 提交后刷新本节点的缓存
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.of(namespaceId, groupName));
         return retrySceneConfig;
     }
 
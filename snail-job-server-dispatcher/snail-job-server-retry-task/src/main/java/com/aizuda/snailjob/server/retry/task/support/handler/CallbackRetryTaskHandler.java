@@ -14,6 +14,7 @@ import com.aizuda.snailjob.server.common.strategy.WaitStrategies.WaitStrategyEnu
 import com.aizuda.snailjob.server.common.util.DateUtils;
 import com.aizuda.snailjob.server.retry.task.support.RetryTaskConverter;
 import com.aizuda.snailjob.server.retry.task.support.RetryTaskLogConverter;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetryTaskMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.Retry;
@@ -81,6 +82,8 @@ public class CallbackRetryTaskHandler {
         try {
             Assert.isTrue(1 == accessTemplate.getRetryAccess().insert(callbackRetry),
                     () -> new SnailJobServerException("failed to report data"));
+            RetrySummaryDirtyCache.mark(callbackRetry.getNamespaceId(), callbackRetry.getGroupName(),
+                    callbackRetry.getSceneName(), callbackRetry.getCreateDt());
         } catch (DuplicateKeyException e) {
             log.warn("Callback data duplicate insertion. [{}]", JsonUtil.toJsonString(callbackRetry));
         }
@@ -36,8 +36,8 @@ import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH
 public class ReportCallbackResultHttpRequestHandler extends PostHttpRequestHandler {
 
     @Override
-    public boolean supports(String path) {
-        return REPORT_CALLBACK_RESULT.equals(path);
+    public String path() {
+        return REPORT_CALLBACK_RESULT;
     }
 
     @Override
@@ -37,8 +37,8 @@ import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH
 public class ReportDispatchResultHttpRequestHandler extends PostHttpRequestHandler {
 
     @Override
-    public boolean supports(String path) {
-        return REPORT_RETRY_DISPATCH_RESULT.equals(path);
+    public String path() {
+        return REPORT_RETRY_DISPATCH_RESULT;
     }
 
     @Override
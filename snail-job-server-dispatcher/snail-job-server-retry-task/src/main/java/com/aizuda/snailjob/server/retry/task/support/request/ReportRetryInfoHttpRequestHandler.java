@@ -10,13 +10,13 @@ import com.aizuda.snailjob.common.core.model.SnailJobRequest;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.cache.CacheGroupConfig;
 import com.aizuda.snailjob.server.common.enums.TaskGeneratorSceneEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.common.handler.PostHttpRequestHandler;
 import com.aizuda.snailjob.server.retry.task.support.generator.retry.TaskContext;
 import com.aizuda.snailjob.server.retry.task.support.generator.retry.TaskGenerator;
 import com.aizuda.snailjob.server.retry.task.service.TaskContextConverter;
-import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
 import com.aizuda.snailjob.template.datasource.persistence.po.GroupConfig;
 import com.github.rholder.retry.*;
 import io.netty.handler.codec.http.HttpHeaders;
@@ -50,11 +50,11 @@ import static com.aizuda.snailjob.common.core.constant.SystemConstants.HTTP_PATH
 @RequiredArgsConstructor
 public class ReportRetryInfoHttpRequestHandler extends PostHttpRequestHandler {
     private final List<TaskGenerator> taskGenerators;
-    private final AccessTemplate accessTemplate;
+    private final CacheGroupConfig cacheGroupConfig;
 
     @Override
-    public boolean supports(String path) {
-        return BATCH_REPORT.equals(path);
+    public String path() {
+        return BATCH_REPORT;
     }
 
     @Override
@@ -110,8 +110,7 @@ public class ReportRetryInfoHttpRequestHandler extends PostHttpRequestHandler {
             String namespaceId = headers.getAsString(HeadersEnum.NAMESPACE.getKey());
             String groupName = headers.getAsString(HeadersEnum.GROUP_NAME.getKey());
 
-            GroupConfig groupConfig = accessTemplate.getGroupConfigAccess()
-                    .getGroupConfigByGroupName(groupName, namespaceId);
+            GroupConfig groupConfig = cacheGroupConfig.getGroupConfig(namespaceId, groupName);
             if (Objects.isNull(groupConfig)) {
                 throw new SnailJobServerException(
                         "failed to report data, no group configuration found. groupName:[{}]", groupName);
@@ -9,6 +9,7 @@ import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.retry.task.dto.RetryTaskFailAlarmEventDTO;
 import com.aizuda.snailjob.server.retry.task.support.RetryTaskConverter;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache;
 import com.aizuda.snailjob.server.retry.task.support.event.RetryTaskFailAlarmEvent;
 import com.aizuda.snailjob.server.retry.task.support.handler.CallbackRetryTaskHandler;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
@@ -89,6 +90,8 @@ public class RetryFailureHandler extends AbstractRetryResultHandler {
                 retry.setDeleted(retry.getId());
                 Assert.isTrue(1 == retryMapper.updateById(retry),
                         () -> new SnailJobServerException("Update retry task failed. Group name:[{}]", retry.getGroupName()));
+                RetrySummaryDirtyCache.mark(retry.getNamespaceId(), retry.getGroupName(), retry.getSceneName(),
+                        retry.getCreateDt());
                 // 创建一个回调任务
                 callbackRetryTaskHandler.create(retry, retrySceneConfig);
             } else if (context.isIncrementRetryCount()) {
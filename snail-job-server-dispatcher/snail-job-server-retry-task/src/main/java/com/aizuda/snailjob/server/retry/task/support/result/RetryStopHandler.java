@@ -4,6 +4,7 @@ import cn.hutool.core.lang.Assert;
 import com.aizuda.snailjob.common.core.enums.RetryOperationReasonEnum;
 import com.aizuda.snailjob.common.core.enums.RetryStatusEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetryMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetryTaskMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.Retry;
@@ -52,6 +53,8 @@ public class RetryStopHandler extends AbstractRetryResultHandler {
             Assert.isTrue(1 == retryMapper.updateById(retry),
                     () -> new SnailJobServerException("Update retry task failed. Group name:[{}]",
                             retry.getGroupName()));
+            // 未查询重试任务, 不知道其创建日期, 重新统计该场景所有日期
+            RetrySummaryDirtyCache.mark(context.getNamespaceId(), context.getGroupName(), context.getSceneName(), null);
 
             RetryTask retryTask = new RetryTask();
             retryTask.setId(context.getRetryTaskId());
@@ -4,6 +4,7 @@ import cn.hutool.core.lang.Assert;
 import com.aizuda.snailjob.common.core.enums.RetryStatusEnum;
 import com.aizuda.snailjob.common.core.enums.RetryTaskStatusEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache;
 import com.aizuda.snailjob.server.retry.task.support.handler.CallbackRetryTaskHandler;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetryMapper;
@@ -57,6 +58,8 @@ public class RetrySuccessHandler extends AbstractRetryResultHandler {
             Assert.isTrue(1 == retryMapper.updateById(retry),
                     () -> new SnailJobServerException("Update retry task failed. Group name:[{}]",
                             retry.getGroupName()));
+            RetrySummaryDirtyCache.mark(retry.getNamespaceId(), retry.getGroupName(), retry.getSceneName(),
+                    retry.getCreateDt());
 
             RetryTask retryTask = new RetryTask();
             retryTask.setId(context.getRetryTaskId());
@@ -5,14 +5,20 @@ import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.Lifecycle;
 import com.aizuda.snailjob.server.common.config.SystemProperties;
+import com.aizuda.snailjob.server.common.dto.LockConfig;
+import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.common.lock.LockBuilder;
+import com.aizuda.snailjob.server.common.lock.LockManager;
+import com.aizuda.snailjob.server.common.lock.LockProvider;
 import com.aizuda.snailjob.server.common.schedule.AbstractSchedule;
 import com.aizuda.snailjob.server.common.triple.Triple;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache.SummaryKey;
 import com.aizuda.snailjob.template.datasource.persistence.dataobject.DashboardRetryResponseDO;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetryMapper;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.RetrySummaryMapper;
 import com.aizuda.snailjob.template.datasource.persistence.po.Retry;
 import com.aizuda.snailjob.template.datasource.persistence.po.RetrySummary;
-import com.aizuda.snailjob.template.datasource.persistence.po.RetryTask;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
@@ -24,6 +30,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Retry Dashboard
@@ -35,6 +42,7 @@ import java.util.*;
 @Component
 @RequiredArgsConstructor
 public class RetrySummarySchedule extends AbstractSchedule implements Lifecycle {
+    private static final String SUMMARY_WRITE_LOCK = "retrySummaryWrite";
     private final RetryMapper retryMapper;
     private final RetrySummaryMapper retrySummaryMapper;
     private final SystemProperties systemProperties;
@@ -54,70 +62,161 @@ public class RetrySummarySchedule extends AbstractSchedule implements Lifecycle
         return "PT20S";
     }
 
+    /**
+     * 全量统计最近 summaryDay 天的数据, 用于启动时补齐以及定期修复
+     */
     @Override
     protected void doExecute() {
+        // 全量统计覆盖了本节点登记的所有数据, 开始前取出登记并复位超限标记, 有日期统计失败时再恢复
+        Set<SummaryKey> keys = RetrySummaryDirtyCache.drain();
+        boolean overflow = RetrySummaryDirtyCache.checkAndResetOverflow();
+        boolean success = true;
+        for (int i = 0; i < systemProperties.getSummaryDay(); i++) {
+
+            // 重试按日实时查询统计数据（00:00:00 - 23:59:59）
+            LocalDateTime todayFrom = LocalDateTime.of(LocalDate.now(), LocalTime.MIN).plusDays(-i);
+            try {
+                summaryWithLock(todayFrom, Collections.emptySet());
+            } catch (Exception e) {
+                success = false;
+                SnailJobLog.LOCAL.error("retry summary dashboard log error. todayFrom:[{}]", todayFrom, e);
+            }
+        }
+
+        if (!success) {
+            RetrySummaryDirtyCache.markAll(keys);
+            if (overflow) {
+                RetrySummaryDirtyCache.markOverflow();
+            }
+        }
+    }
+
+    /**
+     * 增量统计: 只重新统计有重试任务新增或状态变化的(场景, 日期)
+     * 每个节点只处理自己登记的场景, 写入时与全量修复使用同一把锁
+     */
+    private void incrementalSummary() {
+        // 超限标记在全量统计实际执行后才复位, 未获取到调度锁时下个周期继续尝试
+        if (RetrySummaryDirtyCache.isOverflow()) {
+            execute();
+            return;
+        }
+
+        Set<SummaryKey> keys = RetrySummaryDirtyCache.drain();
+        if (CollUtil.isEmpty(keys)) {
+            return;
+        }
+
         try {
             for (int i = 0; i < systemProperties.getSummaryDay(); i++) {
-
-                // 重试按日实时查询统计数据（00:00:00 - 23:59:59）
-                LocalDateTime todayFrom = LocalDateTime.of(LocalDate.now(), LocalTime.MIN).plusDays(-i);
-                LocalDateTime todayTo = LocalDateTime.of(LocalDate.now(), LocalTime.MAX).plusDays(-i);
-                LambdaQueryWrapper<Retry> wrapper = new LambdaQueryWrapper<Retry>()
-                        .between(Retry::getCreateDt, todayFrom, todayTo)
-                        .groupBy(Retry::getNamespaceId, Retry::getGroupName, Retry::getSceneName);
-                List<DashboardRetryResponseDO> dashboardRetryResponseDOList = retryMapper.selectRetrySummaryList(wrapper);
-                if (CollUtil.isEmpty(dashboardRetryResponseDOList)) {
-                    continue;
+                LocalDate day = LocalDate.now().plusDays(-i);
+                Set<SummaryKey> dayKeys = keys.stream()
+                        .filter(key -> Objects.isNull(key.day()) || day.equals(key.day()))
+                        .collect(Collectors.toSet());
+                if (CollUtil.isNotEmpty(dayKeys)) {
+                    summaryWithLock(LocalDateTime.of(day, LocalTime.MIN), dayKeys);
                 }
+            }
+        } catch (Exception e) {
+            // 重新登记, 下个周期再统计
+            RetrySummaryDirtyCache.markAll(keys);
+            SnailJobLog.LOCAL.error("retry summary dashboard incremental error", e);
+        }
+    }
 
-                // insertOrUpdate
-                List<RetrySummary> retrySummaryList = retrySummaryList(todayFrom, dashboardRetryResponseDOList);
+    /**
+     * 全量修复与各节点的增量统计都会写入汇总表, 写入前获取同一把锁, 避免并发插入相同的统计数据
+     */
+    private void summaryWithLock(LocalDateTime todayFrom, Set<SummaryKey> keys) {
+        // 全量修复时当前线程持有调度锁, 锁信息存放在线程变量中, 写入完成后恢复
+        LockConfig scheduleLockConfig = LockManager.getLockConfig();
+        LockProvider lockProvider = LockBuilder.newBuilder()
+                .withDisposable(SUMMARY_WRITE_LOCK)
+                .build();
+        boolean lock = false;
+        try {
+            lock = lockProvider.lock(Duration.parse(lockAtMost()));
+            if (!lock) {
+                throw new SnailJobServerException("Retry summary is being written by another node. lockName:[{}]",
+                        SUMMARY_WRITE_LOCK);
+            }
+            summary(todayFrom, keys);
+        } finally {
+            if (lock) {
+                lockProvider.unlock();
+            } else {
+                LockManager.clear();
+            }
 
-                Set<String> groupNames = Sets.newHashSet();
-                Set<String> namespaceIds = Sets.newHashSet();
-                Set<String> sceneNames = Sets.newHashSet();
-                for (final RetrySummary retrySummary : retrySummaryList) {
-                    groupNames.add(retrySummary.getGroupName());
-                    namespaceIds.add(retrySummary.getNamespaceId());
-                    sceneNames.add(retrySummary.getSceneName());
-                }
+            if (Objects.nonNull(scheduleLockConfig)) {
+                LockManager.initialize(scheduleLockConfig);
+            }
+        }
+    }
 
-                List<RetrySummary> retrySummaries = retrySummaryMapper.selectList(new LambdaQueryWrapper<RetrySummary>()
-                        .in(RetrySummary::getGroupName, groupNames)
-                        .in(RetrySummary::getNamespaceId, namespaceIds)
-                        .in(RetrySummary::getSceneName, sceneNames)
-                        .eq(RetrySummary::getTriggerAt, todayFrom)
-                );
-
-                Map<Triple<String, String, LocalDateTime>, RetrySummary> summaryMap = StreamUtils.toIdentityMap(
-                        retrySummaries,
-                        retrySummary -> Triple.of(mergeKey(retrySummary), retrySummary.getSceneName(), retrySummary.getTriggerAt()));
-
-                List<RetrySummary> waitInserts = Lists.newArrayList();
-                List<RetrySummary> waitUpdates = Lists.newArrayList();
-                for (final RetrySummary retrySummary : retrySummaryList) {
-                    if (Objects.isNull(summaryMap.get(Triple.of(mergeKey(retrySummary), retrySummary.getSceneName(), retrySummary.getTriggerAt())))) {
-                        waitInserts.add(retrySummary);
-                    } else {
-                        waitUpdates.add(retrySummary);
-                    }
-                }
+    /**
+     * 统计指定日期的数据
+     *
+     * @param todayFrom 日期(00:00:00)
+     * @param keys      只统计这些场景, 为空则统计当天所有场景
+     */
+    private void summary(LocalDateTime todayFrom, Set<SummaryKey> keys) {
+        LocalDateTime todayTo = LocalDateTime.of(todayFrom.toLocalDate(), LocalTime.MAX);
+        LambdaQueryWrapper<Retry> wrapper = new LambdaQueryWrapper<Retry>()
+                .in(CollUtil.isNotEmpty(keys), Retry::getNamespaceId, StreamUtils.toSet(keys, SummaryKey::namespaceId))
+                .in(CollUtil.isNotEmpty(keys), Retry::getGroupName, StreamUtils.toSet(keys, SummaryKey::groupName))
+                .in(CollUtil.isNotEmpty(keys), Retry::getSceneName, StreamUtils.toSet(keys, SummaryKey::sceneName))
+                .between(Retry::getCreateDt, todayFrom, todayTo)
+                .groupBy(Retry::getNamespaceId, Retry::getGroupName, Retry::getSceneName);
+        List<DashboardRetryResponseDO> dashboardRetryResponseDOList = retryMapper.selectRetrySummaryList(wrapper);
+        if (CollUtil.isEmpty(dashboardRetryResponseDOList)) {
+            return;
+        }
 
-                int insertTotalRetrySummary = 0;
-                if (CollUtil.isNotEmpty(waitInserts)) {
-                    insertTotalRetrySummary = retrySummaryMapper.insertBatch(waitInserts);
-                }
+        // insertOrUpdate
+        List<RetrySummary> retrySummaryList = retrySummaryList(todayFrom, dashboardRetryResponseDOList);
 
-                int updateTotalRetrySummary = 0;
-                if (CollUtil.isNotEmpty(waitUpdates)) {
-                    updateTotalRetrySummary = retrySummaryMapper.updateBatch(waitUpdates);
-                }
+        Set<String> groupNames = Sets.newHashSet();
+        Set<String> namespaceIds = Sets.newHashSet();
+        Set<String> sceneNames = Sets.newHashSet();
+        for (final RetrySummary retrySummary : retrySummaryList) {
+            groupNames.add(retrySummary.getGroupName());
+            namespaceIds.add(retrySummary.getNamespaceId());
+            sceneNames.add(retrySummary.getSceneName());
+        }
 
-                SnailJobLog.LOCAL.debug("retry summary dashboard success todayFrom:[{}] todayTo:[{}] insertTotalRetrySummary:[{}] updateTotalRetrySummary:[{}]", todayFrom, todayTo, insertTotalRetrySummary, updateTotalRetrySummary);
+        List<RetrySummary> retrySummaries = retrySummaryMapper.selectList(new LambdaQueryWrapper<RetrySummary>()
+                .in(RetrySummary::getGroupName, groupNames)
+                .in(RetrySummary::getNamespaceId, namespaceIds)
+                .in(RetrySummary::getSceneName, sceneNames)
+                .eq(RetrySummary::getTriggerAt, todayFrom)
+        );
+
+        Map<Triple<String, String, LocalDateTime>, RetrySummary> summaryMap = StreamUtils.toIdentityMap(
+                retrySummaries,
+                retrySummary -> Triple.of(mergeKey(retrySummary), retrySummary.getSceneName(), retrySummary.getTriggerAt()));
+
+        List<RetrySummary> waitInserts = Lists.newArrayList();
+        List<RetrySummary> waitUpdates = Lists.newArrayList();
+        for (final RetrySummary retrySummary : retrySummaryList) {
+            if (Objects.isNull(summaryMap.get(Triple.of(mergeKey(retrySummary), retrySummary.getSceneName(), retrySummary.getTriggerAt())))) {
+                waitInserts.add(retrySummary);
+            } else {
+                waitUpdates.add(retrySummary);
             }
-        } catch (Exception e) {
-            SnailJobLog.LOCAL.error("retry summary dashboard log error", e);
         }
+
+        int insertTotalRetrySummary = 0;
+        if (CollUtil.isNotEmpty(waitInserts)) {
+            insertTotalRetrySummary = retrySummaryMapper.insertBatch(waitInserts);
+        }
+
+        int updateTotalRetrySummary = 0;
+        if (CollUtil.isNotEmpty(waitUpdates)) {
+            updateTotalRetrySummary = retrySummaryMapper.updateBatch(waitUpdates);
+        }
+
+        SnailJobLog.LOCAL.debug("retry summary dashboard success todayFrom:[{}] todayTo:[{}] insertTotalRetrySummary:[{}] updateTotalRetrySummary:[{}]", todayFrom, todayTo, insertTotalRetrySummary, updateTotalRetrySummary);
     }
 
     private String mergeKey(final RetrySummary retrySummary) {
@@ -143,7 +242,9 @@ public class RetrySummarySchedule extends AbstractSchedule implements Lifecycle
 
     @Override
     public void start() {
-        taskScheduler.scheduleAtFixedRate(this::execute, Duration.parse("PT1M"));
+        // 启动时先全量统计一次, 之后定期全量修复
+        taskScheduler.scheduleAtFixedRate(this::execute, Duration.ofMinutes(systemProperties.getSummaryRepairInterval()));
+        taskScheduler.scheduleAtFixedRate(this::incrementalSummary, Duration.parse("PT1M"));
     }
 
     @Override
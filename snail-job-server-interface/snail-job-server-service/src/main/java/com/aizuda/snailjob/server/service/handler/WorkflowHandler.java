@@ -6,7 +6,7 @@ import com.aizuda.snailjob.model.response.base.WorkflowDetailResponse;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.WorkflowNodeMapper;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import com.google.common.graph.MutableGraph;
+import com.google.common.graph.Graph;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -34,7 +34,7 @@ public class WorkflowHandler {
      * @param workflowNodeMap 工作流节点Map
      * @return 构建的节点配置
      */
-    public WorkflowDetailResponse.NodeConfig buildNodeConfig(MutableGraph<Long> graph,
+    public WorkflowDetailResponse.NodeConfig buildNodeConfig(Graph<Long> graph,
                                                              Long parentId,
                                                              Map<Long, WorkflowDetailResponse.NodeConfig> nodeConfigMap,
                                                              Map<Long, WorkflowDetailResponse.NodeInfo> workflowNodeMap) {
@@ -92,7 +92,7 @@ public class WorkflowHandler {
         return currentConfig;
     }
 
-    private void findCommonAncestor(Long predecessor, Set<Long> set, MutableGraph<Long> graph) {
+    private void findCommonAncestor(Long predecessor, Set<Long> set, Graph<Long> graph) {
 
         Set<Long> predecessors = graph.predecessors(predecessor);
         if (CollUtil.isEmpty(predecessors)) {
@@ -4,6 +4,7 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.HashUtil;
 import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.model.request.base.JobRequest;
@@ -19,6 +20,7 @@ import com.aizuda.snailjob.server.common.util.TriggerIntervalUtils;
 import com.aizuda.snailjob.server.job.task.dto.JobTaskPrepareDTO;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.prepare.job.TerminalJobPrepareHandler;
+import com.aizuda.snailjob.server.job.task.support.trigger.JobChangeEvent;
 import com.aizuda.snailjob.server.service.convert.JobConverter;
 import com.aizuda.snailjob.server.service.dto.*;
 import com.aizuda.snailjob.server.service.kit.JobKit;
@@ -123,6 +125,7 @@ public abstract class AbstractJobService implements JobService {
                         .in(Job::getId, ids)
         ), () -> new SnailJobServerException("Failed to delete scheduled task"));
 
+        publishJobChangeEvent(ids);
         return true;
     }
 
@@ -170,7 +173,9 @@ public abstract class AbstractJobService implements JobService {
         LambdaUpdateWrapper<Job> updateWrapper = new LambdaUpdateWrapper<>();
         updateWrapper.eq(Job::getId, jobRequest.getId());
 
-        return 1 == jobMapper.update(updateJob, updateWrapper);
+        boolean updated = 1 == jobMapper.update(updateJob, updateWrapper);
+        publishJobChangeEvent(Set.of(jobRequest.getId()));
+        return updated;
     }
 
     @Override
@@ -194,6 +199,7 @@ public abstract class AbstractJobService implements JobService {
         // 子类填充属性
         addJobPopulate(job, request);
         Assert.isTrue(1 == jobMapper.insert(job), () -> new SnailJobServerException("Adding new task failed"));
+        publishJobChangeEvent(Set.of(job.getId()));
         return job.getId();
     }
 
@@ -215,7 +221,9 @@ public abstract class AbstractJobService implements JobService {
         update.setJobStatus(requestDTO.getStatus());
         update.setId(requestDTO.getId());
 
-        return 1 == jobMapper.updateById(update);
+        boolean updated = 1 == jobMapper.updateById(update);
+        publishJobChangeEvent(Set.of(requestDTO.getId()));
+        return updated;
     }
 
     @Override
@@ -231,6 +239,13 @@ public abstract class AbstractJobService implements JobService {
         }
     }
 
+    /**
+     * 通知调度端刷新任务的触发索引
+     */
+    protected void publishJobChangeEvent(Set<Long> jobIds) {
+        SnailSpringContext.getContext().publishEvent(new JobChangeEvent(jobIds));
+    }
+
     protected abstract void getJobByIdAfter(JobResponse responseBaseDTO, Job job);
 
     protected abstract void updateJobPreValidator(JobRequest jobRequest);
@@ -16,6 +16,7 @@ import com.aizuda.snailjob.server.service.convert.RetryConverter;
 import com.aizuda.snailjob.model.response.base.RetryResponse;
 import com.aizuda.snailjob.model.request.base.StatusUpdateRequest;
 import com.aizuda.snailjob.model.request.base.TriggerRetryRequest;
+import com.aizuda.snailjob.server.retry.task.support.cache.RetrySummaryDirtyCache;
 import com.aizuda.snailjob.server.service.handler.RetryArgsDeserializeHandler;
 import com.aizuda.snailjob.server.service.service.RetryService;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
@@ -133,7 +134,12 @@ public abstract class AbstractRetryService implements RetryService {
 
         retry.setUpdateDt(LocalDateTime.now());
 
-        return retryTaskAccess.updateById(retry) == 1;
+        boolean updated = retryTaskAccess.updateById(retry) == 1;
+        if (updated) {
+            RetrySummaryDirtyCache.mark(retry.getNamespaceId(), retry.getGroupName(), retry.getSceneName(), retry.getCreateDt());
+        }
+
+        return updated;
     }
 
     protected abstract String getNamespaceId();
@@ -11,6 +11,7 @@ import com.aizuda.snailjob.model.response.base.JobBatchResponse;
 import com.aizuda.snailjob.model.request.JobTaskConfigRequest;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.job.task.support.cache.MutableGraphCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowGraph;
 import com.aizuda.snailjob.server.service.convert.JobBatchResponseConverter;
 import com.aizuda.snailjob.server.service.convert.WorkflowConverter;
 import com.aizuda.snailjob.model.response.base.WorkflowDetailResponse;
@@ -29,7 +30,6 @@ import com.aizuda.snailjob.template.datasource.persistence.po.WorkflowTaskBatch;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
-import com.google.common.graph.MutableGraph;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Comparator;
@@ -104,7 +104,7 @@ public abstract class AbstractWorkflowBatchService implements WorkflowBatchServi
         List<WorkflowDetailResponse.NodeInfo> nodeInfos = WorkflowConverter.INSTANCE.convertList(workflowNodes);
 
         String flowInfo = workflowTaskBatch.getFlowInfo();
-        MutableGraph<Long> graph = MutableGraphCache.getOrDefault(workflowBatchId, flowInfo);
+        WorkflowGraph graph = MutableGraphCache.get(workflowTaskBatch.getWorkflowId(), flowInfo);
 
         Set<Long> allNoOperationNode = Sets.newHashSet();
         Map<Long, WorkflowDetailResponse.NodeInfo> workflowNodeMap = nodeInfos.stream()
@@ -137,7 +137,7 @@ public abstract class AbstractWorkflowBatchService implements WorkflowBatchServi
                                 .filter(Objects::nonNull)
                                 .anyMatch(AbstractWorkflowBatchService::isNoOperation)) {
                             // 当前节点下面的所有节点都是无需处理的节点
-                            Set<Long> allDescendants = MutableGraphCache.getAllDescendants(graph, nodeInfo.getId());
+                            Set<Long> allDescendants = graph.getAllDescendants(nodeInfo.getId());
                             allNoOperationNode.addAll(allDescendants);
                         } else {
                             // 删除被误添加的节点
@@ -174,7 +174,7 @@ public abstract class AbstractWorkflowBatchService implements WorkflowBatchServi
 
         try {
             // 反序列化构建图
-            WorkflowDetailResponse.NodeConfig config = workflowHandler.buildNodeConfig(graph, SystemConstants.ROOT,
+            WorkflowDetailResponse.NodeConfig config = workflowHandler.buildNodeConfig(graph.getGraph(), SystemConstants.ROOT,
                     new HashMap<>(), workflowNodeMap);
             responseVO.setNodeConfig(config);
         } catch (Exception e) {
@@ -1,6 +1,8 @@
 package com.aizuda.snailjob.server.web.controller;
 
 import com.aizuda.snailjob.server.common.dto.DistributeInstance;
+import com.aizuda.snailjob.server.common.dto.RpcDispatcherMetricsDTO;
+import com.aizuda.snailjob.server.common.rpc.server.grpc.GrpcRequestDispatcher;
 import com.aizuda.snailjob.server.web.annotation.LoginRequired;
 import com.aizuda.snailjob.server.web.model.base.PageResult;
 import com.aizuda.snailjob.server.web.model.request.*;
@@ -27,6 +29,8 @@ public class DashboardController {
 
     @Autowired
     private DashboardService dashBoardService;
+    @Autowired
+    private GrpcRequestDispatcher grpcRequestDispatcher;
 
     @LoginRequired
     @GetMapping("/task-retry-job")
@@ -69,4 +73,9 @@ public class DashboardController {
         return DistributeInstance.INSTANCE.getConsumerBucket();
     }
 
+    @GetMapping("/rpc/metrics")
+    public RpcDispatcherMetricsDTO rpcMetrics() {
+        return grpcRequestDispatcher.getMetrics();
+    }
+
 }
@@ -2,6 +2,10 @@ package com.aizuda.snailjob.server.web.controller;
 
 import com.aizuda.snailjob.common.core.model.Result;
 import com.aizuda.snailjob.common.core.util.SnailJobVersion;
+import com.aizuda.snailjob.server.common.alarm.AlarmSender;
+import com.aizuda.snailjob.server.common.dto.AlarmMetricsDTO;
+import com.aizuda.snailjob.server.web.annotation.LoginRequired;
+import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -15,10 +19,21 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequestMapping("/system")
+@RequiredArgsConstructor
 public class SystemInfoController {
+    private final AlarmSender alarmSender;
 
     @GetMapping("version")
     public Result<String> version() {
         return new Result<>(SnailJobVersion.getVersion());
     }
+
+    /**
+     * 本节点的告警发送统计
+     */
+    @LoginRequired
+    @GetMapping("alarm/metrics")
+    public Result<AlarmMetricsDTO> alarmMetrics() {
+        return new Result<>(alarmSender.getMetrics());
+    }
 }
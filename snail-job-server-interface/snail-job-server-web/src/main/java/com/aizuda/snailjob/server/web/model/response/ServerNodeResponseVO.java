@@ -1,5 +1,6 @@
 package com.aizuda.snailjob.server.web.model.response;
 
+import com.aizuda.snailjob.server.common.dto.RpcDispatcherMetricsDTO;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -33,5 +34,7 @@ public class ServerNodeResponseVO {
 
     private Set<Integer> consumerBuckets;
 
+    private RpcDispatcherMetricsDTO rpcMetrics;
+
     private String labels;
 }
@@ -11,4 +11,11 @@ public interface JobLogService {
 
     void getJobLogPage(JobLogQueryVO jobQueryVO);
 
+    /**
+     * 定时检查订阅的任务是否结束, 并补偿查询其他节点保存的日志
+     *
+     * @param jobQueryVO 查询条件
+     */
+    void tailJobLog(JobLogQueryVO jobQueryVO);
+
 }
@@ -9,19 +9,24 @@ import com.aizuda.snailjob.common.core.enums.JobTaskBatchStatusEnum;
 import com.aizuda.snailjob.common.core.enums.JobTaskStatusEnum;
 import com.aizuda.snailjob.server.common.pekko.ActorGenerator;
 import com.aizuda.snailjob.server.common.enums.JobTaskExecutorSceneEnum;
+import com.aizuda.snailjob.server.common.enums.SyetemTaskTypeEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.common.util.DateUtils;
+import com.aizuda.snailjob.server.job.task.dto.RunningJobBatchDTO;
 import com.aizuda.snailjob.server.job.task.dto.TaskExecuteDTO;
 import com.aizuda.snailjob.server.job.task.enums.JobRetrySceneEnum;
 import com.aizuda.snailjob.server.job.task.support.ClientCallbackHandler;
 import com.aizuda.snailjob.server.job.task.support.JobTaskConverter;
 import com.aizuda.snailjob.server.job.task.support.JobTaskStopHandler;
+import com.aizuda.snailjob.server.job.task.support.cache.JobSummaryDirtyCache;
+import com.aizuda.snailjob.server.job.task.support.cache.WorkflowBatchStateCache;
 import com.aizuda.snailjob.server.job.task.support.callback.ClientCallbackContext;
 import com.aizuda.snailjob.server.job.task.support.callback.ClientCallbackFactory;
 import com.aizuda.snailjob.server.job.task.support.stop.JobTaskStopFactory;
 import com.aizuda.snailjob.server.job.task.support.stop.TaskStopJobContext;
 import com.aizuda.snailjob.server.job.task.support.timer.JobTimeoutCheckTask;
 import com.aizuda.snailjob.server.job.task.support.timer.JobTimerWheel;
+import com.aizuda.snailjob.server.job.task.support.trigger.RunningJobBatchRelay;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.*;
 import com.aizuda.snailjob.template.datasource.persistence.po.*;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
@@ -48,6 +53,7 @@ public class JobHandler {
     private final JobTaskMapper jobTaskMapper;
     private final WorkflowTaskBatchMapper workflowTaskBatchMapper;
     private final JobLogMessageMapper jobLogMessageMapper;
+    private final RunningJobBatchRelay runningJobBatchRelay;
 
     public Boolean retry(Long taskBatchId) {
         return retry(taskBatchId, null, null);
@@ -66,10 +72,19 @@ public class JobHandler {
         jobTaskBatch.setOperationReason(JobOperationReasonEnum.NONE.getReason());
         Assert.isTrue(jobTaskBatchMapper.updateById(jobTaskBatch) > 0,
                 () -> new SnailJobServerException("update job batch to running failed."));
+        JobSummaryDirtyCache.mark(taskBatchId);
+        WorkflowBatchStateCache.update(jobTaskBatch);
 
         Job job = jobMapper.selectById(jobTaskBatch.getJobId());
         Assert.notNull(job, () -> new SnailJobServerException("job can not be null."));
 
+        if (SyetemTaskTypeEnum.JOB.getType().equals(jobTaskBatch.getSystemTaskType())) {
+            // 登记到持有该任务bucket的节点, 后续触发时据此执行阻塞策略
+            RunningJobBatchDTO runningJobBatch = JobTaskConverter.INSTANCE.toRunningJobBatchDTO(jobTaskBatch);
+            runningJobBatch.setBucketIndex(job.getBucketIndex());
+            runningJobBatchRelay.register(runningJobBatch);
+        }
+
         List<JobTask> jobTasks = jobTaskMapper.selectList(
                 new LambdaQueryWrapper<JobTask>()
                         .select(JobTask::getId, JobTask::getTaskStatus)
@@ -14,6 +14,7 @@ import com.aizuda.snailjob.common.core.util.NetUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
 import com.aizuda.snailjob.server.common.dto.DistributeInstance;
+import com.aizuda.snailjob.server.common.dto.RpcDispatcherMetricsDTO;
 import com.aizuda.snailjob.server.common.dto.ServerNodeExtAttrs;
 import com.aizuda.snailjob.server.common.dto.UpdateClientInfoDTO;
 import com.aizuda.snailjob.server.common.enums.DashboardLineEnum;
@@ -22,6 +23,7 @@ import com.aizuda.snailjob.server.common.enums.SystemModeEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.common.register.ServerRegister;
 import com.aizuda.snailjob.server.common.register.UpdateClientRegister;
+import com.aizuda.snailjob.server.common.rpc.server.grpc.GrpcRequestDispatcher;
 import com.aizuda.snailjob.server.web.model.base.PageResult;
 import com.aizuda.snailjob.server.web.model.enums.DateTypeEnum;
 import com.aizuda.snailjob.server.web.model.request.*;
@@ -70,6 +72,7 @@ import java.util.stream.Collectors;
 public class DashboardServiceImpl implements DashboardService {
 
     private static final String DASHBOARD_CONSUMER_BUCKET = "/dashboard/consumer/bucket";
+    private static final String DASHBOARD_RPC_METRICS = "/dashboard/rpc/metrics";
 
     private final ServerNodeMapper serverNodeMapper;
     private final RestTemplate restTemplate;
@@ -77,6 +80,7 @@ public class DashboardServiceImpl implements DashboardService {
     private final RetrySummaryMapper retrySummaryMapper;
     private final ServerProperties serverProperties;
     private final UpdateClientRegister updateClientRegister;
+    private final GrpcRequestDispatcher grpcRequestDispatcher;
 
     @Override
     public DashboardCardResponseVO taskRetryJob() {
@@ -295,6 +299,7 @@ public class DashboardServiceImpl implements DashboardService {
             // 若是本地节点则直接从缓存中取
             if (ServerRegister.CURRENT_CID.equals(serverNodeResponseVO.getHostId())) {
                 serverNodeResponseVO.setConsumerBuckets(DistributeInstance.INSTANCE.getConsumerBucket());
+                serverNodeResponseVO.setRpcMetrics(grpcRequestDispatcher.getMetrics());
                 continue;
             }
             if (StringUtils.isBlank(serverNodeResponseVO.getExtAttrs())) {
@@ -314,6 +319,16 @@ public class DashboardServiceImpl implements DashboardService {
             } catch (Exception e) {
                 SnailJobLog.LOCAL.error("Failed to retrieve consumer group for node [{}:{}].", serverNodeResponseVO.getHostIp(), serverNodeExtAttrs.getWebPort());
             }
+
+            try {
+                String url = NetUtil.getUrl(serverNodeResponseVO.getHostIp(), serverNodeExtAttrs.getWebPort(), serverProperties.getServlet().getContextPath());
+                Result<Object> result = restTemplate.getForObject(url.concat(DASHBOARD_RPC_METRICS), Result.class);
+                if (Objects.nonNull(result) && Objects.nonNull(result.getData())) {
+                    serverNodeResponseVO.setRpcMetrics(JsonUtil.parseObject(JsonUtil.toJsonString(result.getData()), RpcDispatcherMetricsDTO.class));
+                }
+            } catch (Exception e) {
+                SnailJobLog.LOCAL.error("Failed to retrieve rpc metrics for node [{}:{}].", serverNodeResponseVO.getHostIp(), serverNodeExtAttrs.getWebPort());
+            }
         }
         return new PageResult<>(serverNodePageDTO, responseVOList);
     }
@@ -4,10 +4,12 @@ import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.ReUtil;
 import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
 import com.aizuda.snailjob.common.log.SnailJobLog;
+import com.aizuda.snailjob.server.common.cache.GroupConfigChangeEvent;
 import com.aizuda.snailjob.server.common.dto.PartitionTask;
 import com.aizuda.snailjob.server.common.enums.IdGeneratorModeEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
@@ -119,6 +121,8 @@ public class GroupConfigServiceImpl implements GroupConfigService {
                 () -> new SnailJobServerException("exception occurred while adding group. groupConfigVO[{}]",
                         groupConfigRequestVO));
 
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.of(namespaceId, groupName));
+
         // 同步版本， 版本为0代表需要同步到客户端
         boolean add = configVersionSyncHandler.addSyncTask(groupName, namespaceId, 0);
         // 若添加失败则强制发起同步
@@ -130,13 +134,16 @@ public class GroupConfigServiceImpl implements GroupConfigService {
 
     @Override
     public Boolean updateGroupStatus(String groupName, Integer status) {
+        String namespaceId = UserSessionUtils.currentUserSession().getNamespaceId();
         GroupConfig groupConfig = new GroupConfig();
         groupConfig.setGroupStatus(status);
         ConfigAccess<GroupConfig> groupConfigAccess = accessTemplate.getGroupConfigAccess();
-        return groupConfigAccess.update(groupConfig,
+        boolean updated = groupConfigAccess.update(groupConfig,
                 new LambdaUpdateWrapper<GroupConfig>()
-                        .eq(GroupConfig::getNamespaceId, UserSessionUtils.currentUserSession().getNamespaceId())
+                        .eq(GroupConfig::getNamespaceId, namespaceId)
                         .eq(GroupConfig::getGroupName, groupName)) == 1;
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.of(namespaceId, groupName));
+        return updated;
     }
 
     @Override
@@ -192,6 +199,7 @@ public class GroupConfigServiceImpl implements GroupConfigService {
         ConfigAccess<GroupConfig> groupConfigAccess = accessTemplate.getGroupConfigAccess();
         Assert.isTrue(1 == groupConfigAccess.insert(groupConfig),
                 () -> new SnailJobServerException("Group addition exception groupConfigVO[{}]", groupConfigRequestVO));
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.of(namespaceId, groupConfig.getGroupName()));
 
         return Boolean.TRUE;
     }
@@ -390,6 +398,7 @@ public class GroupConfigServiceImpl implements GroupConfigService {
                                 .eq(GroupConfig::getGroupStatus, StatusEnum.NO.getStatus())
                                 .eq(GroupConfig::getGroupName, groupName)),
                 () -> new SnailJobServerException("Failed to delete group, please check if the status is closed"));
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.of(namespaceId, groupName));
 
         return Boolean.TRUE;
     }
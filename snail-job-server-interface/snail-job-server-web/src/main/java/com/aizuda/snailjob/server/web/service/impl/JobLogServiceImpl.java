@@ -1,15 +1,16 @@
 package com.aizuda.snailjob.server.web.service.impl;
 
 import com.aizuda.snailjob.common.core.context.SnailSpringContext;
-import com.aizuda.snailjob.common.core.util.JsonUtil;
-import com.aizuda.snailjob.common.log.constant.LogFieldConstants;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogRelay;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogSubscriber;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogTailHub;
+import com.aizuda.snailjob.server.web.socket.LogServer;
 import com.aizuda.snailjob.server.web.timer.JobTaskLogTimerTask;
 import com.aizuda.snailjob.server.web.timer.LogTimerWheel;
 import com.aizuda.snailjob.server.web.model.request.JobLogQueryVO;
 import com.aizuda.snailjob.server.web.model.event.WsSendEvent;
 import com.aizuda.snailjob.server.web.service.JobLogService;
 import com.aizuda.snailjob.template.datasource.access.AccessTemplate;
-import com.aizuda.snailjob.template.datasource.persistence.dataobject.common.PageResponseDO;
 import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.JobLogMessageDO;
 import com.aizuda.snailjob.template.datasource.persistence.dataobject.log.LogPageQueryDO;
 import com.aizuda.snailjob.template.datasource.persistence.mapper.JobTaskBatchMapper;
@@ -33,59 +34,54 @@ import static com.aizuda.snailjob.common.core.enums.JobTaskBatchStatusEnum.COMPL
 @RequiredArgsConstructor
 public class JobLogServiceImpl implements JobLogService {
     private static final Long DELAY_MILLS = 5000L;
+    /**
+     * 其他服务端节点保存的日志由 JobLogRelay 转发, 只在转发可能有遗漏(集群成员变化、订阅同步失败)时和结束前补偿查询一次数据库
+     * 从游标往前回看一段时间, 覆盖上报时间较早但较晚入库的日志, 重复的日志由订阅按id去重
+     */
+    private static final long CATCH_UP_OVERLAP_MILLS = 15000L;
+    private static final int PAGE_SIZE = 500;
+    private static final String END = "END";
     private final JobTaskBatchMapper jobTaskBatchMapper;
     private final AccessTemplate accessTemplate;
+    private final JobLogRelay jobLogRelay;
 
     @Override
     public void getJobLogPage(JobLogQueryVO queryVO) {
         String sid = queryVO.getSid();
-        LogPageQueryDO pageQueryDO = new LogPageQueryDO();
-        pageQueryDO.setPage(1);
-        pageQueryDO.setSize(50);
-        pageQueryDO.setTaskBatchId(queryVO.getTaskBatchId());
-        pageQueryDO.setTaskId(queryVO.getTaskId());
-        pageQueryDO.setStartRealTime(queryVO.getStartRealTime());
-        pageQueryDO.setSearchCount(true);
-        PageResponseDO<JobLogMessageDO> pageResponseDO = accessTemplate.getJobLogMessageAccess()
-                .listPage(pageQueryDO);
 
-        long total = pageResponseDO.getTotal();
+        // 先订阅再读取历史日志, 读取期间推送的新日志暂存在订阅的缓冲区中
+        JobLogSubscriber subscriber = JobLogTailHub.subscribe(sid, queryVO.getTaskBatchId(), queryVO.getTaskId(),
+                message -> sendMessage(sid, message));
+        subscriber.replay(listLogs(queryVO, Optional.ofNullable(queryVO.getStartRealTime()).orElse(0L)));
+        subscriber.start();
+        jobLogRelay.syncTopicsNow();
+
+        checkFinished(queryVO, subscriber, false);
+    }
 
-        int totalPage = (int) ((total + queryVO.getSize() - 1) / queryVO.getSize());
+    @Override
+    public void tailJobLog(JobLogQueryVO queryVO) {
+        String sid = queryVO.getSid();
+        JobLogSubscriber subscriber = JobLogTailHub.get(sid);
 
-        Long lastRealTime = 0L;
+        // 会话已关闭或已切换到其他任务的日志
+        if (Objects.isNull(subscriber) || !subscriber.matches(queryVO.getTaskBatchId(), queryVO.getTaskId())) {
+            return;
+        }
 
-        if (0 == totalPage &&
-                (null != pageQueryDO.getStartRealTime() && 0 != pageQueryDO.getStartRealTime())){
-            lastRealTime = pageQueryDO.getStartRealTime();
+        if (!LogServer.USER_SESSION.containsKey(sid)) {
+            JobLogTailHub.unsubscribe(sid);
+            return;
         }
-        for (int i = 1; i <= totalPage;) {
-            for (JobLogMessageDO jobLogMessageDO : pageResponseDO.getRows()) {
-                // 循环覆盖，最后一个肯定是最大的
-                lastRealTime = jobLogMessageDO.getRealTime();
-                // 发生日志内容到前端
-                String message = jobLogMessageDO.getMessage();
-                List<Map<String, String>> logContents = JsonUtil.parseObject(message, List.class);
-                logContents = logContents.stream()
-                        .sorted(Comparator.comparingLong(o -> Long.parseLong(o.get(LogFieldConstants.TIME_STAMP))))
-                        .toList();
-                for (Map<String, String> logContent : logContents) {
-                    // send发消息
-                    WsSendEvent sendEvent = new WsSendEvent(this);
-                    sendEvent.setSid(sid);
-                    sendEvent.setMessage(JsonUtil.toJsonString(logContent));
-                    SnailSpringContext.getContext().publishEvent(sendEvent);
-                }
-            }
 
-            // 继续查询下一页
-            pageQueryDO.setSearchCount(false);
-            pageQueryDO.setPage(++i);
-            pageResponseDO = accessTemplate.getJobLogMessageAccess()
-                    .listPage(pageQueryDO);
+        if (subscriber.takeCatchUpRequest()) {
+            catchUp(queryVO, subscriber);
         }
 
+        checkFinished(queryVO, subscriber, true);
+    }
 
+    private void checkFinished(JobLogQueryVO queryVO, JobLogSubscriber subscriber, boolean catchUp) {
         // 这里判断是否继续查询
         JobTaskBatch jobTaskBatch = jobTaskBatchMapper.selectOne(
                 new LambdaQueryWrapper<JobTaskBatch>().eq(JobTaskBatch::getId, queryVO.getTaskBatchId()));
@@ -94,23 +90,67 @@ public class JobLogServiceImpl implements JobLogService {
         if (Objects.isNull(jobTaskBatch)
                 || (COMPLETED.contains(jobTaskBatch.getTaskBatchStatus()) &&
                 jobTaskBatch.getUpdateDt().plusSeconds(15).isBefore(LocalDateTime.now()))) {
-            // 发生完成标识
-            WsSendEvent sendEvent = new WsSendEvent(this);
-            sendEvent.setMessage("END");
-            sendEvent.setSid(sid);
-            SnailSpringContext.getContext().publishEvent(sendEvent);
+            if (catchUp) {
+                catchUp(queryVO, subscriber);
+            }
+
+            // 发送完缓冲区的日志后发送完成标识
+            subscriber.end(END);
         } else {
-            // 覆盖作为下次查询的起始条件
-            queryVO.setStartRealTime(lastRealTime);
-            // 继续查询
-            scheduleNextAttempt(queryVO, sid);
+            // 继续检查
+            scheduleNextAttempt(queryVO, queryVO.getSid());
         }
+    }
 
+    private void catchUp(JobLogQueryVO queryVO, JobLogSubscriber subscriber) {
+        subscriber.offer(listLogs(queryVO, catchUpFrom(subscriber)), true);
+        subscriber.prune(catchUpFrom(subscriber));
+    }
+
+    private static long catchUpFrom(JobLogSubscriber subscriber) {
+        return Math.max(0L, subscriber.getCursor() - CATCH_UP_OVERLAP_MILLS);
+    }
+
+    /**
+     * 按(上报时间, id)游标分页读取日志
+     *
+     * @param queryVO       查询条件
+     * @param startRealTime 起始上报时间(不包含)
+     * @return 日志
+     */
+    private List<JobLogMessageDO> listLogs(JobLogQueryVO queryVO, long startRealTime) {
+        LogPageQueryDO pageQueryDO = new LogPageQueryDO();
+        pageQueryDO.setPage(1);
+        pageQueryDO.setSize(PAGE_SIZE);
+        pageQueryDO.setTaskBatchId(queryVO.getTaskBatchId());
+        pageQueryDO.setTaskId(queryVO.getTaskId());
+        pageQueryDO.setSearchCount(false);
+
+        List<JobLogMessageDO> result = new ArrayList<>();
+        pageQueryDO.setStartRealTime(startRealTime);
+        while (true) {
+            List<JobLogMessageDO> rows = accessTemplate.getJobLogMessageAccess().listPage(pageQueryDO).getRows();
+            result.addAll(rows);
+            if (rows.size() < PAGE_SIZE) {
+                return result;
+            }
+
+            // 结果按(上报时间, id)排序, 从本页最后一条之后继续, 同一毫秒跨页的日志也不会遗漏
+            JobLogMessageDO last = rows.get(rows.size() - 1);
+            pageQueryDO.setStartRealTime(last.getRealTime());
+            pageQueryDO.setStartId(last.getId());
+        }
+    }
 
+    private void sendMessage(String sid, String message) {
+        WsSendEvent sendEvent = new WsSendEvent(this);
+        sendEvent.setSid(sid);
+        sendEvent.setMessage(message);
+        SnailSpringContext.getContext().publishEvent(sendEvent);
     }
 
     /**
-     * 使用时间轮5秒再进行日志查询
+     * 使用时间轮5秒再检查任务是否结束
      *
      * @param queryVO
      * @param sid
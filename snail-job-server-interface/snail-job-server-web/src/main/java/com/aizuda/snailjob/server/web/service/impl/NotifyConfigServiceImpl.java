@@ -3,7 +3,9 @@ package com.aizuda.snailjob.server.web.service.impl;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
+import com.aizuda.snailjob.server.common.alarm.NotifyConfigChangeEvent;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.web.model.base.PageResult;
 import com.aizuda.snailjob.server.web.model.request.NotifyConfigQueryVO;
@@ -90,6 +92,7 @@ public class NotifyConfigServiceImpl implements NotifyConfigService {
         Assert.isTrue(1 == notifyConfigAccess.insert(notifyConfig),
                 () -> new SnailJobServerException("failed to insert notify. sceneConfig:[{}]",
                         JsonUtil.toJsonString(notifyConfig)));
+        publishNotifyConfigChangeEvent(Set.of(notifyConfig.getId()));
         return Boolean.TRUE;
     }
 
@@ -104,6 +107,7 @@ public class NotifyConfigServiceImpl implements NotifyConfigService {
         Assert.isTrue(1 == accessTemplate.getNotifyConfigAccess().updateById(notifyConfig),
                 () -> new SnailJobServerException("failed to update notify. sceneConfig:[{}]",
                         JsonUtil.toJsonString(notifyConfig)));
+        publishNotifyConfigChangeEvent(Set.of(requestVO.getId()));
         return Boolean.TRUE;
     }
 
@@ -136,13 +140,20 @@ public class NotifyConfigServiceImpl implements NotifyConfigService {
                         .eq(NotifyConfig::getNamespaceId, namespaceId)
                         .eq(NotifyConfig::getId, id)
                 );
+        publishNotifyConfigChangeEvent(Set.of(id));
 
         return 1 == update;
     }
 
     @Override
     public Boolean batchDeleteNotify(final Set<Long> ids) {
-        return ids.size() == accessTemplate.getNotifyConfigAccess()
+        boolean deleted = ids.size() == accessTemplate.getNotifyConfigAccess()
                 .delete(new LambdaQueryWrapper<NotifyConfig>().in(NotifyConfig::getId, ids));
+        publishNotifyConfigChangeEvent(ids);
+        return deleted;
+    }
+
+    private static void publishNotifyConfigChangeEvent(Set<Long> notifyIds) {
+        SnailSpringContext.getContext().publishEvent(new NotifyConfigChangeEvent(notifyIds));
     }
 }
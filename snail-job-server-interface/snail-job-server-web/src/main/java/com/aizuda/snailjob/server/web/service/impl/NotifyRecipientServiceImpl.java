@@ -2,8 +2,10 @@ package com.aizuda.snailjob.server.web.service.impl;
 
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
+import com.aizuda.snailjob.server.common.alarm.NotifyConfigChangeEvent;
 import com.aizuda.snailjob.server.common.dto.PartitionTask;
 import com.aizuda.snailjob.server.common.util.PartitionTaskUtils;
 import com.aizuda.snailjob.server.web.model.base.PageResult;
@@ -75,7 +77,10 @@ public class NotifyRecipientServiceImpl implements NotifyRecipientService {
         String namespaceId = UserSessionUtils.currentUserSession().getNamespaceId();
         NotifyRecipient notifyRecipient = NotifyRecipientConverter.INSTANCE.convert(requestVO);
         notifyRecipient.setNamespaceId(namespaceId);
-        return 1 == notifyRecipientMapper.updateById(notifyRecipient);
+        boolean updated = 1 == notifyRecipientMapper.updateById(notifyRecipient);
+        // 接收人被多个通知配置引用, 失效全部缓存
+        SnailSpringContext.getContext().publishEvent(NotifyConfigChangeEvent.all());
+        return updated;
     }
 
     @Override
@@ -91,7 +96,9 @@ public class NotifyRecipientServiceImpl implements NotifyRecipientService {
 
     @Override
     public Boolean batchDeleteByIds(final Set<Long> ids) {
-        return ids.size() == notifyRecipientMapper.deleteBatchIds(ids);
+        boolean deleted = ids.size() == notifyRecipientMapper.deleteBatchIds(ids);
+        SnailSpringContext.getContext().publishEvent(NotifyConfigChangeEvent.all());
+        return deleted;
     }
 
     @Override
@@ -3,9 +3,11 @@ package com.aizuda.snailjob.server.web.service.impl;
 import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.lang.Assert;
 import cn.hutool.core.util.StrUtil;
+import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.common.core.enums.StatusEnum;
 import com.aizuda.snailjob.common.core.util.JsonUtil;
 import com.aizuda.snailjob.common.core.util.StreamUtils;
+import com.aizuda.snailjob.server.common.cache.GroupConfigChangeEvent;
 import com.aizuda.snailjob.server.common.dto.PartitionTask;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
 import com.aizuda.snailjob.server.common.strategy.WaitStrategies;
@@ -136,6 +138,7 @@ public class SceneConfigServiceImpl implements SceneConfigService {
 
         // 同步配置到客户端
         SyncConfigHandler.addSyncTask(requestVO.getGroupName(), namespaceId);
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.of(namespaceId, requestVO.getGroupName()));
 
         return Boolean.TRUE;
     }
@@ -173,6 +176,7 @@ public class SceneConfigServiceImpl implements SceneConfigService {
 
         // 同步配置到客户端
         SyncConfigHandler.addSyncTask(requestVO.getGroupName(), namespaceId);
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.of(namespaceId, requestVO.getGroupName()));
         return Boolean.TRUE;
     }
 
@@ -192,16 +196,21 @@ public class SceneConfigServiceImpl implements SceneConfigService {
         RetrySceneConfig config = new RetrySceneConfig();
         config.setSceneStatus(status);
 
-        return 1 == accessTemplate.getSceneConfigAccess().update(config,
+        boolean updated = 1 == accessTemplate.getSceneConfigAccess().update(config,
                 new LambdaUpdateWrapper<RetrySceneConfig>()
                         .eq(RetrySceneConfig::getId, id)
                         .eq(RetrySceneConfig::getNamespaceId, namespaceId));
+        SnailSpringContext.getContext().publishEvent(GroupConfigChangeEvent.namespace(namespaceId));
+        return updated;
     }
 
     @Override
     @Transactional
     public void importSceneConfig(final List<SceneConfigRequestVO> requests) {
-        batchSaveSceneConfig(requests, UserSessionUtils.currentUserSession().getNamespaceId());
+        String namespaceId = UserSessionUtils.currentUserSession().getNamespaceId();
+        batchSaveSceneConfig(requests, namespaceId);
+        SnailSpringContext.getContext().publishEvent(new GroupConfigChangeEvent(namespaceId,
+                StreamUtils.toSet(requests, SceneConfigRequestVO::getGroupName)));
     }
 
     @Override
@@ -286,6 +295,7 @@ public class SceneConfigServiceImpl implements SceneConfigService {
                     , () -> new SnailJobServerException("Failed to delete summary table data"));
         }
 
+        SnailSpringContext.getContext().publishEvent(new GroupConfigChangeEvent(namespaceId, groupNames));
         return Boolean.TRUE;
     }
 
@@ -4,6 +4,7 @@ import cn.hutool.core.lang.Assert;
 import com.aizuda.snailjob.common.core.context.SnailSpringContext;
 import com.aizuda.snailjob.server.common.enums.WebSocketSceneEnum;
 import com.aizuda.snailjob.server.common.exception.SnailJobServerException;
+import com.aizuda.snailjob.server.job.task.support.log.JobLogTailHub;
 import com.aizuda.snailjob.server.web.model.event.WsSendEvent;
 import com.aizuda.snailjob.server.web.model.event.WsRequestEvent;
 import com.aizuda.snailjob.server.web.config.WebSocketConfigurator;
@@ -83,6 +84,7 @@ public class LogServer {
 
         log.info("sid:[{}] websocket closed", sid);
         USER_SESSION.remove(sid);
+        JobLogTailHub.unsubscribe(sid);
     }
 
     //错误时调用
@@ -0,0 +1,75 @@
+package com.aizuda.snailjob.server.common.allocate.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rendezvous Hashing分配bucket
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class AllocateBucketRendezvousTest {
+
+    private static final List<Integer> BUCKETS = IntStream.range(0, 128).boxed().toList();
+
+    private final AllocateBucketRendezvous allocate = new AllocateBucketRendezvous();
+
+    @Test
+    public void everyBucketHasExactlyOneOwner() {
+        Map<Integer, String> owners = owners(List.of("a", "b", "c"));
+        assertEquals(BUCKETS.size(), owners.size());
+        assertEquals(Set.of("a", "b", "c"), new HashSet<>(owners.values()));
+    }
+
+    @Test
+    public void independentOfServerOrder() {
+        assertEquals(owners(List.of("a", "b", "c")), owners(List.of("c", "a", "b")));
+    }
+
+    @Test
+    public void joinOnlyMovesBucketsToNewNode() {
+        Map<Integer, String> before = owners(List.of("a", "b", "c"));
+        Map<Integer, String> after = owners(List.of("a", "b", "c", "d"));
+
+        for (Integer bucket : BUCKETS) {
+            if (!before.get(bucket).equals(after.get(bucket))) {
+                assertEquals("d", after.get(bucket));
+            }
+        }
+        assertTrue(after.containsValue("d"));
+    }
+
+    @Test
+    public void leaveOnlyMovesBucketsOfLeavingNode() {
+        Map<Integer, String> before = owners(List.of("a", "b", "c", "d"));
+        Map<Integer, String> after = owners(List.of("a", "b", "c"));
+
+        for (Integer bucket : BUCKETS) {
+            if (!before.get(bucket).equals(after.get(bucket))) {
+                assertEquals("d", before.get(bucket));
+            }
+        }
+        assertFalse(after.containsValue("d"));
+    }
+
+    @Test
+    public void currentNodeNotInServerList() {
+        assertTrue(allocate.allocate("x", BUCKETS, List.of("a", "b")).isEmpty());
+    }
+
+    private Map<Integer, String> owners(List<String> servers) {
+        Map<Integer, String> owners = new HashMap<>();
+        for (String server : servers) {
+            for (Integer bucket : allocate.allocate(server, BUCKETS, servers)) {
+                assertNull(owners.put(bucket, server), () -> "bucket allocated twice: " + bucket);
+            }
+        }
+        return owners;
+    }
+}
@@ -0,0 +1,79 @@
+package com.aizuda.snailjob.server.common.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 租约到期时间的计算
+ *
+ * @author opensnail
+ * @date 2025-10-17
+ * @since 1.9.0
+ */
+public class ServerMembershipLeaseTest {
+
+    private static final long TIMEOUT = 1000L;
+
+    /**
+     * 对端已多个超时周期未响应
+     */
+    private static final long DEAD = 0L;
+
+    @Test
+    public void singleNode() {
+        assertEquals(Long.MAX_VALUE, ServerMembership.leaseExpireAt(List.of(), false, TIMEOUT));
+    }
+
+    @Test
+    public void onePeerAlive() {
+        assertEquals(10_000L + TIMEOUT, ServerMembership.leaseExpireAt(List.of(10_000L), false, TIMEOUT));
+    }
+
+    @Test
+    public void onePeerDeadWithoutTwoNodeLease() {
+        // 无法区分对端宕机还是网络分区, 默认不持有租约
+        assertEquals(DEAD + TIMEOUT, ServerMembership.leaseExpireAt(List.of(DEAD), false, TIMEOUT));
+    }
+
+    @Test
+    public void onePeerDeadWithTwoNodeLease() {
+        assertEquals(Long.MAX_VALUE, ServerMembership.leaseExpireAt(List.of(DEAD), true, TIMEOUT));
+    }
+
+    @Test
+    public void twoPeersOneDead() {
+        // 三个节点中两个存活即为多数派
+        assertEquals(10_000L + TIMEOUT, ServerMembership.leaseExpireAt(List.of(DEAD, 10_000L), false, TIMEOUT));
+    }
+
+    @Test
+    public void twoPeersBothDead() {
+        assertEquals(DEAD + TIMEOUT, ServerMembership.leaseExpireAt(List.of(DEAD, DEAD), false, TIMEOUT));
+    }
+
+    @Test
+    public void twoPeersIgnoreTwoNodeLease() {
+        // 三个节点的集群不受两节点开关影响
+        assertEquals(DEAD + TIMEOUT, ServerMembership.leaseExpireAt(List.of(DEAD, DEAD), true, TIMEOUT));
+    }
+
+    @Test
+    public void threePeersOneDead() {
+        // 四个节点需要除当前节点外两个节点响应, 取较早的一个
+        assertEquals(9_000L + TIMEOUT, ServerMembership.leaseExpireAt(List.of(10_000L, DEAD, 9_000L), false, TIMEOUT));
+    }
+
+    @Test
+    public void threePeersTwoDead() {
+        assertEquals(DEAD + TIMEOUT, ServerMembership.leaseExpireAt(List.of(10_000L, DEAD, DEAD), false, TIMEOUT));
+    }
+
+    @Test
+    public void threePeersOneDeadExcluded() {
+        // 已移出多数派的节点不再参与计算, 剩余三个节点中两个存活
+        assertEquals(10_000L + TIMEOUT, ServerMembership.leaseExpireAt(List.of(10_000L, DEAD), false, TIMEOUT));
+    }
+}